@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Main class of benchmarks.jar.  Passes the command line to JMH's own {@link Main}, adding the GC profiler
+ * unless it is already requested, so allocated bytes per operation are reported next to the timings.
+ * All JMH options work as usual, including -h, -l, -lp and -lprof.
+ * <p>
+ * For example:
+ * <pre>
+ * mvn -P benchmarks package
+ * java -jar jfxtras-benchmarks/target/benchmarks.jar                 (all benchmarks)
+ * java -jar jfxtras-benchmarks/target/benchmarks.jar Parse -p calendar=yahoo
+ * java -jar jfxtras-benchmarks/target/benchmarks.jar -l              (list benchmarks)
+ * </pre>
+ */
+public class BenchmarkRunner
+{
+    public static void main(String[] args) throws RunnerException, IOException
+    {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        if (! hasGCProfiler(args))
+        {
+            jmhArgs.addAll(0, Arrays.asList("-prof", "gc"));
+        }
+        Main.main(jmhArgs.toArray(new String[0]));
+    }
+    
+    private static boolean hasGCProfiler(String[] args)
+    {
+        for (int i=0; i<args.length-1; i++)
+        {
+            if (args[i].equals("-prof") && (args[i+1].equals("gc") || args[i+1].startsWith("gc:")))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
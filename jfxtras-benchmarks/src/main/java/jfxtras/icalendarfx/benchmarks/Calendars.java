@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import jfxtras.icalendarfx.VCalendar;
+
+/**
+ * iCalendar content used by the benchmarks
+ */
+final class Calendars
+{
+    /** Name of the bundled sample calendar, for {@link #content(String)} */
+    static final String YAHOO = "yahoo";
+    /** Name of the bundled calendar of yearly birthdays, for {@link #content(String)} */
+    static final String MATH_BIRTHDAYS = "mathBirthdays";
+    
+    private static final String YAHOO_RESOURCE = "/jfxtras/icalendarfx/calendar/Yahoo_Sample_Calendar.ics";
+    private static final String MATH_BIRTHDAYS_RESOURCE = "/jfxtras/icalendarfx/calendar/mathBirthdays.ics";
+    private static final String LINE_SEPARATOR = "\r\n";
+    
+    private static final String[] RULES = {
+            "FREQ=DAILY;COUNT=30",
+            "FREQ=WEEKLY;BYDAY=MO,WE,FR",
+            "FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1",
+            "FREQ=YEARLY;UNTIL=20301231T235959Z"
+            };
+
+    private Calendars() { }
+    
+    /**
+     * Returns calendar content by name
+     * 
+     * @param name  {@link #YAHOO}, {@link #MATH_BIRTHDAYS}, or the number of events of a {@link #synthetic(int) synthetic} calendar
+     * @return  iCalendar content
+     */
+    static String content(String name)
+    {
+        if (YAHOO.equals(name))
+        {
+            return yahooSample();
+        } else if (MATH_BIRTHDAYS.equals(name))
+        {
+            return resource(MATH_BIRTHDAYS_RESOURCE);
+        }
+        return synthetic(Integer.parseInt(name));
+    }
+    
+    /** Parses content with {@link VCalendar#parse(java.io.Reader)}, which accepts the sample calendar's repeated properties */
+    static VCalendar parse(String content)
+    {
+        try
+        {
+            return VCalendar.parse(new StringReader(content));
+        } catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /** Returns the sample calendar bundled with the icalendarfx tests */
+    static String yahooSample()
+    {
+        return resource(YAHOO_RESOURCE);
+    }
+    
+    /* Returns a calendar resource shared with the icalendarfx tests */
+    private static String resource(String name)
+    {
+        try (InputStream inputStream = Calendars.class.getResourceAsStream(name))
+        {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Makes a calendar of eventCount VEVENTs.  One in four events repeats, cycling through DAILY with COUNT,
+     * WEEKLY with BYDAY, MONTHLY with BYSETPOS and YEARLY with UNTIL rules.
+     * 
+     * @param eventCount  number of events
+     * @return  iCalendar content
+     */
+    static String synthetic(int eventCount)
+    {
+        StringBuilder builder = new StringBuilder(eventCount * 300);
+        builder.append("BEGIN:VCALENDAR").append(LINE_SEPARATOR)
+               .append("VERSION:2.0").append(LINE_SEPARATOR)
+               .append("PRODID:-//JFXtras//jfxtras-benchmarks//EN").append(LINE_SEPARATOR);
+        for (int i=0; i<eventCount; i++)
+        {
+            int day = 1 + (i % 28);
+            int month = 1 + ((i / 28) % 12);
+            int hour = 8 + (i % 10);
+            builder.append("BEGIN:VEVENT").append(LINE_SEPARATOR)
+                   .append("UID:").append(i).append("@benchmarks.jfxtras.org").append(LINE_SEPARATOR)
+                   .append("DTSTAMP:20160101T080000Z").append(LINE_SEPARATOR)
+                   .append(String.format("DTSTART;TZID=America/New_York:2016%02d%02dT%02d0000", month, day, hour)).append(LINE_SEPARATOR)
+                   .append("DURATION:PT1H").append(LINE_SEPARATOR)
+                   .append("SUMMARY:Event ").append(i).append(LINE_SEPARATOR)
+                   .append("DESCRIPTION:Description of event ").append(i).append(", with a comma").append(LINE_SEPARATOR)
+                   .append("CATEGORIES:group").append(i % 24).append(LINE_SEPARATOR);
+            if (i % 4 == 0)
+            {
+                builder.append("RRULE:").append(RULES[(i / 4) % RULES.length]).append(LINE_SEPARATOR);
+            }
+            builder.append("END:VEVENT").append(LINE_SEPARATOR);
+        }
+        builder.append("END:VCALENDAR").append(LINE_SEPARATOR);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jfxtras.icalendarfx.VCalendar;
+
+/**
+ * Processing iTIP messages with {@link VCalendar#processITIPMessage(String)}.  Messages change the calendar,
+ * so each invocation gets a fresh copy of the calendar, made outside the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ITIPBenchmark
+{
+    private static final String LINE_SEPARATOR = "\r\n";
+    
+    /** Number of events in the calendar */
+    @Param({ "1000", "10000" })
+    public int eventCount;
+    
+    private VCalendar original;
+    private VCalendar vCalendar;
+    private String publishMessage;
+    private String requestMessage;
+    private String cancelMessage;
+    
+    @Setup
+    public void setup()
+    {
+        original = Calendars.parse(Calendars.synthetic(eventCount));
+        String uid = (eventCount / 2) + "@benchmarks.jfxtras.org";
+        publishMessage = message("PUBLISH",
+                "UID:new@benchmarks.jfxtras.org",
+                "DTSTART;TZID=America/New_York:20160104T070000",
+                "DURATION:PT45M",
+                "SUMMARY:New event");
+        requestMessage = message("REQUEST",
+                "UID:" + uid,
+                "DTSTART;TZID=America/New_York:20160104T070000",
+                "DURATION:PT45M",
+                "SUMMARY:Revised event",
+                "SEQUENCE:1");
+        cancelMessage = message("CANCEL",
+                "UID:" + uid,
+                "STATUS:CANCELLED",
+                "SEQUENCE:1");
+    }
+    
+    @Setup(Level.Invocation)
+    public void copyCalendar()
+    {
+        vCalendar = new VCalendar(original);
+    }
+    
+    @Benchmark
+    public List<String> publish()
+    {
+        return vCalendar.processITIPMessage(publishMessage);
+    }
+    
+    @Benchmark
+    public List<String> request()
+    {
+        return vCalendar.processITIPMessage(requestMessage);
+    }
+    
+    @Benchmark
+    public List<String> cancel()
+    {
+        return vCalendar.processITIPMessage(cancelMessage);
+    }
+    
+    private static String message(String method, String... eventLines)
+    {
+        StringBuilder builder = new StringBuilder();
+        builder.append("BEGIN:VCALENDAR").append(LINE_SEPARATOR)
+               .append("METHOD:").append(method).append(LINE_SEPARATOR)
+               .append("PRODID:-//JFXtras//jfxtras-benchmarks//EN").append(LINE_SEPARATOR)
+               .append("VERSION:2.0").append(LINE_SEPARATOR)
+               .append("BEGIN:VEVENT").append(LINE_SEPARATOR)
+               .append("DTSTAMP:20160102T080000Z").append(LINE_SEPARATOR)
+               .append("ORGANIZER;CN=Papa Smurf:mailto:papa@smurf.org").append(LINE_SEPARATOR);
+        for (String line : eventLines)
+        {
+            builder.append(line).append(LINE_SEPARATOR);
+        }
+        builder.append("END:VEVENT").append(LINE_SEPARATOR)
+               .append("END:VCALENDAR");
+        return builder.toString();
+    }
+}
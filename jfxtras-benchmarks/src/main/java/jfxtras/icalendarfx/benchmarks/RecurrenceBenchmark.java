@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.benchmarks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
+
+/**
+ * Expanding recurrence rules with {@link RecurrenceRuleValue#streamRecurrences(Temporal)}, seeking
+ * ten years past DTSTART and expanding a ten year range.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceBenchmark
+{
+    @Param({
+        "FREQ=DAILY",
+        "FREQ=WEEKLY;BYDAY=MO,WE,FR",
+        "FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1",
+        "FREQ=YEARLY;BYMONTH=3;BYDAY=-1SU"
+        })
+    public String rule;
+    
+    /** Number of recurrences made by {@link #expand(Blackhole)} */
+    @Param("1000")
+    public int count;
+    
+    private RecurrenceRuleValue rrule;
+    private Temporal dateTimeStart;
+    private Temporal tenYearsLater;
+    
+    @Setup
+    public void setup()
+    {
+        rrule = RecurrenceRuleValue.parse(rule);
+        dateTimeStart = ZonedDateTime.of(LocalDateTime.of(2016, 1, 4, 10, 0), ZoneId.of("America/New_York"));
+        tenYearsLater = ((ZonedDateTime) dateTimeStart).plusYears(10);
+    }
+    
+    @Benchmark
+    public void expand(Blackhole blackhole)
+    {
+        rrule.streamRecurrences(dateTimeStart)
+                .limit(count)
+                .forEach(blackhole::consume);
+    }
+    
+    @Benchmark
+    public void seek(Blackhole blackhole)
+    {
+        rrule.streamRecurrences(dateTimeStart, tenYearsLater)
+                .limit(10)
+                .forEach(blackhole::consume);
+    }
+    
+    @Benchmark
+    public void expandRange(Blackhole blackhole)
+    {
+        rrule.streamRecurrences(dateTimeStart, dateTimeStart, tenYearsLater)
+                .forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.components.VEvent;
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
+import jfxtras.icalendarfx.utilities.BusyTimeIndex;
+import jfxtras.icalendarfx.utilities.DateTimeUtilities;
+
+/**
+ * Checking a weekly event for conflicts with {@link DateTimeUtilities#checkScheduleConflict(VEvent, List)},
+ * and with a {@link BusyTimeIndex} of the calendar that is built once.
+ * The event is before the working hours of the synthetic events, so every recurrence is checked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleConflictBenchmark
+{
+    /** Number of existing events */
+    @Param({ "100", "1000" })
+    public int eventCount;
+    
+    private List<VEvent> vEvents;
+    private VEvent vEvent;
+    private BusyTimeIndex index;
+    
+    @Setup
+    public void setup()
+    {
+        VCalendar vCalendar = Calendars.parse(Calendars.synthetic(eventCount));
+        vEvents = vCalendar.getVEvents();
+        index = BusyTimeIndex.of(vCalendar, LocalDate.of(2016, 1, 1), LocalDate.of(2018, 1, 1));
+        vEvent = new VEvent()
+                .withDateTimeStart(ZonedDateTime.of(LocalDateTime.of(2016, 1, 4, 7, 0), ZoneId.of("America/New_York")))
+                .withDuration(Duration.ofMinutes(45))
+                .withRecurrenceRule(RecurrenceRuleValue.parse("FREQ=WEEKLY;BYDAY=MO,TH"))
+                .withUniqueIdentifier("new@benchmarks.jfxtras.org");
+    }
+    
+    @Benchmark
+    public String checkScheduleConflict()
+    {
+        return DateTimeUtilities.checkScheduleConflict(vEvent, vEvents);
+    }
+    
+    @Benchmark
+    public Map<Temporal, List<BusyTimeIndex.Conflict>> busyTimeIndexConflicts()
+    {
+        return index.conflicts(vEvent);
+    }
+}
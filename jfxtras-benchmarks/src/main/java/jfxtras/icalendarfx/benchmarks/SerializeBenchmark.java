@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jfxtras.icalendarfx.VCalendar;
+
+/**
+ * Serializing a parsed calendar with {@link VCalendar#toString()}.  Components cache their content lines,
+ * so {@link #toStringCached()} measures an unchanged calendar, and {@link #toStringChanged()} a calendar
+ * whose cache was invalidated by changing every event before each invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SerializeBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class Parsed
+    {
+        /** {@link Calendars#YAHOO} or a number of synthetic events */
+        @Param({ Calendars.YAHOO, "10000", "100000" })
+        public String calendar;
+        
+        VCalendar vCalendar;
+        
+        @Setup
+        public void setup()
+        {
+            vCalendar = Calendars.parse(Calendars.content(calendar));
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Changed extends Parsed
+    {
+        private int invocation;
+        
+        @Setup(Level.Invocation)
+        public void changeEvents()
+        {
+            invocation++;
+            vCalendar.getVEvents().forEach(v -> v.setSequence(invocation));
+        }
+    }
+    
+    @Benchmark
+    public String toStringCached(Parsed state)
+    {
+        return state.vCalendar.toString();
+    }
+    
+    @Benchmark
+    public String toStringChanged(Changed state)
+    {
+        return state.vCalendar.toString();
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.benchmarks;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jfxtras.icalendarfx.content.ContentLineTokenizer;
+import jfxtras.icalendarfx.content.UnfoldingBufferedReader;
+import jfxtras.icalendarfx.utilities.ICalendarUtilities;
+
+/**
+ * Splitting the unfolded content lines of the bundled calendars into names and values with
+ * {@link ContentLineTokenizer}, compared with {@link ICalendarUtilities#parseInlineElementsToListPair(String)}.
+ * Run with the GC profiler to compare the bytes allocated per operation (gc.alloc.rate.norm).
+ * <p>
+ * tokenizer only makes value strings for the property value, as component parsing does;
+ * tokenizerAllValues makes a string for every value, like parseInlineElementsToListPair.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark
+{
+    @Param({ Calendars.YAHOO, Calendars.MATH_BIRTHDAYS })
+    public String calendar;
+    
+    private String[] lines;
+    private final ContentLineTokenizer tokenizer = new ContentLineTokenizer();
+    
+    @Setup
+    public void setup()
+    {
+        lines = new UnfoldingBufferedReader(new StringReader(Calendars.content(calendar)))
+                .lines()
+                .collect(Collectors.toList())
+                .toArray(new String[0]);
+    }
+    
+    @Benchmark
+    public void tokenizer(Blackhole blackhole)
+    {
+        for (String line : lines)
+        {
+            tokenizer.reset(line);
+            blackhole.consume(tokenizer.propertyName());
+            while (tokenizer.next())
+            {
+                if (tokenizer.isValue())
+                {
+                    blackhole.consume(tokenizer.value());
+                } else
+                {
+                    blackhole.consume(tokenizer.name());
+                    blackhole.consume(tokenizer.valueStart());
+                    blackhole.consume(tokenizer.valueEnd());
+                }
+            }
+        }
+    }
+    
+    @Benchmark
+    public void tokenizerAllValues(Blackhole blackhole)
+    {
+        for (String line : lines)
+        {
+            tokenizer.reset(line);
+            blackhole.consume(tokenizer.propertyName());
+            while (tokenizer.next())
+            {
+                blackhole.consume(tokenizer.name());
+                blackhole.consume(tokenizer.value());
+            }
+        }
+    }
+    
+    @Benchmark
+    public void parseInlineElementsToListPair(Blackhole blackhole)
+    {
+        for (String line : lines)
+        {
+            blackhole.consume(ICalendarUtilities.parseInlineElementsToListPair(line));
+        }
+    }
+}
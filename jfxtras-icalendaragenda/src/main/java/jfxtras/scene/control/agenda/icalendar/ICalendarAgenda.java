@@ -35,11 +35,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -313,7 +315,8 @@ public class ICalendarAgenda extends Agenda
     
     /*
      * This consumer's opperation is performed when a change is made to the vCalendar by agenda
-     * It can be used to notify client code of changes. 
+     * It can be used to notify client code of changes.  It's called once for each batch of iTIP messages
+     * by the vCalendar's iTIP batch consumer, which the agenda sets.
      */
     private Consumer<VCalendar> calendarConsumer = (v) ->
     {
@@ -410,8 +413,7 @@ public class ICalendarAgenda extends Agenda
                             DeleteChoiceDialog.DELETE_DIALOG_CALLBACK,
                             appointment.getStartTemporal()
                             ).delete();
-                    getVCalendar().processITIPMessage(cancelMessage);
-                    calendarConsumer.accept(getVCalendar()); // provide notification of calendar change
+                    getVCalendar().processITIPMessageBatch(cancelMessage);
                     refresh();
                 }
             }
@@ -474,6 +476,8 @@ public class ICalendarAgenda extends Agenda
     {
         super();
         this.vCalendar = vCalendar;
+        // provide one notification of calendar change for each batch of iTIP messages
+        vCalendar.setITIPBatchConsumer(uids -> calendarConsumer.accept(getVCalendar()));
 
         // Default recurrence factory
         recurrenceFactory = new DefaultRecurrenceFactory(appointmentGroups());
@@ -518,8 +522,7 @@ public class ICalendarAgenda extends Agenda
             VDisplayable<?> vComponent = appointmentVComponentMap.get(System.identityHashCode(appointment));
             Object[] params = revisorParamGenerator(vComponent, appointment);
             List<VCalendar> iTIPMessage = SimpleRevisorFactory.newReviser(vComponent, params).revise();
-            getVCalendar().processITIPMessage(iTIPMessage);
-            calendarConsumer.accept(getVCalendar()); // provide notification of calendar change
+            getVCalendar().processITIPMessageBatch(iTIPMessage);
             appointmentStartOriginalMap.put(System.identityHashCode(appointment), appointment.getStartTemporal()); // update start map
             Platform.runLater(() -> refresh());
             return null;
@@ -577,8 +580,7 @@ public class ICalendarAgenda extends Agenda
                  */
                 popupScene.getEditDisplayableTabPane().iTIPMessagesProperty().addListener((obs, oldValue, newValue) ->
                 {
-                    newValue.forEach(message -> getVCalendar().processITIPMessage(message));
-                    calendarConsumer.accept(getVCalendar()); // provide notification of calendar change
+                    getVCalendar().processITIPMessageBatch(newValue);
                     popupStage.hide();
                     refresh();
                 });
@@ -636,8 +638,7 @@ public class ICalendarAgenda extends Agenda
                                 VComponent newVComponent = getVComponentFactory().createVComponent(appointment);
                                 VCalendar message = Reviser.emptyPublishiTIPMessage();
                                 message.addChild(newVComponent);
-                                getVCalendar().processITIPMessage(message);
-                                calendarConsumer.accept(getVCalendar()); // provide notification of calendar change
+                                getVCalendar().processITIPMessageBatch(Arrays.asList(message));
 //                                System.out.println("create vcomponent");
                                 List<VChild> calendarChildren = vCalendar.childrenUnmodifiable();
                                 VDisplayable<?> v = (VDisplayable<?>) calendarChildren.get(calendarChildren.size()-1); // get last child
@@ -661,6 +662,7 @@ public class ICalendarAgenda extends Agenda
                     }
                 } else if (change.wasRemoved())
                 {
+                    Set<String> removedUniqueIdentifiers = new LinkedHashSet<>();
                     change.getRemoved().forEach(appointment ->
                     {
                     	// get appointment's vComponent and update maps
@@ -682,9 +684,14 @@ public class ICalendarAgenda extends Agenda
                                 choices -> ChangeDialogOption.ONE,
                                 appointment.getStartTemporal()
                                 ).delete();
+                        // each cancel is made from the component as changed by the previous one, so they can't be one batch
                         getVCalendar().processITIPMessage(cancelMessage);
-                        calendarConsumer.accept(getVCalendar()); // provide notification of calendar change
+                        if (vComponent.getUniqueIdentifier() != null)
+                        {
+                            removedUniqueIdentifiers.add(vComponent.getUniqueIdentifier().getValue());
+                        }
                     });
+                    getVCalendar().getITIPBatchConsumer().accept(removedUniqueIdentifiers); // provide one notification of calendar change
                 }
             }
         };
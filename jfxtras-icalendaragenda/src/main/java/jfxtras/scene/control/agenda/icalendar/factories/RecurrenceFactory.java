@@ -32,7 +32,6 @@ import java.time.LocalDateTime;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -66,7 +65,9 @@ public abstract class RecurrenceFactory<R>
     
     /**
      * Makes recurrences from a {@link VDisplayable}
-     * Recurrences are made between {@link #getStartRange()} and {@link #getEndRange()}
+     * Recurrences are made between {@link #getStartRange()} and {@link #getEndRange()}.
+     * The start date/times come from {@link VDisplayable#recurrences(Temporal, Temporal)}, so an unchanged
+     * component isn't expanded again when the range moves.
      * 
      * @param vComponent - calendar component
      * @return created appointments
@@ -92,10 +93,9 @@ public abstract class RecurrenceFactory<R>
             startRange2 = vComponent.getDateTimeStart().getValue().with(getStartRange());
             endRange2 = vComponent.getDateTimeStart().getValue().with(getEndRange());            
         }
-        // make recurrences
-//        vComponent.streamRecurrences(startRange2, endRange2) // Gradle won't compile with this line.  I don't understand why.
-        Stream<Temporal> streamRecurrences = vComponent.streamRecurrences(startRange2, endRange2);
-        streamRecurrences
+        // make recurrences - memoized by the component, so moving the range only expands the new part
+        List<Temporal> recurrences = vComponent.recurrences(startRange2, endRange2);
+        recurrences
             .forEach(startTemporal -> 
             {
                 R recurrence = makeRecurrence(vComponent, startTemporal);
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx;
+
+import java.time.ZoneId;
+
+import jfxtras.icalendarfx.parameters.FreeBusyType.FreeBusyTypeEnum;
+import jfxtras.icalendarfx.properties.component.descriptive.Status.StatusType;
+
+/**
+ * Options for {@link VCalendar#computeFreeBusy(java.time.temporal.Temporal, java.time.temporal.Temporal, FreeBusyOptions)}
+ * <p>
+ * By default, dates and local date/times are in the system default time zone, VEVENTs with
+ * {@link StatusType#TENTATIVE TENTATIVE} status are reported as {@link FreeBusyTypeEnum#BUSY_TENTATIVE BUSY-TENTATIVE},
+ * and free time isn't reported.
+ */
+public class FreeBusyOptions
+{
+    /** Time zone of dates and local date/times */
+    public ZoneId getZone() { return zone; }
+    private ZoneId zone = ZoneId.systemDefault();
+    public void setZone(ZoneId zone) { this.zone = zone; }
+    public FreeBusyOptions withZone(ZoneId zone) { setZone(zone); return this; }
+    
+    /** Free/busy type of TENTATIVE VEVENTs.  If null, TENTATIVE VEVENTs aren't busy. */
+    public FreeBusyTypeEnum getTentativeType() { return tentativeType; }
+    private FreeBusyTypeEnum tentativeType = FreeBusyTypeEnum.BUSY_TENTATIVE;
+    public void setTentativeType(FreeBusyTypeEnum tentativeType) { this.tentativeType = tentativeType; }
+    public FreeBusyOptions withTentativeType(FreeBusyTypeEnum tentativeType) { setTentativeType(tentativeType); return this; }
+    
+    /** If true, the time that isn't busy is reported with FBTYPE=FREE */
+    public boolean isFreeIncluded() { return freeIncluded; }
+    private boolean freeIncluded;
+    public void setFreeIncluded(boolean freeIncluded) { this.freeIncluded = freeIncluded; }
+    public FreeBusyOptions withFreeIncluded(boolean freeIncluded) { setFreeIncluded(freeIncluded); return this; }
+    
+    /*
+     * CONSTRUCTORS
+     */
+    /** Creates options with the defaults */
+    public FreeBusyOptions() { }
+}
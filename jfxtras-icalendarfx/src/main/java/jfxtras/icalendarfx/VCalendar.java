@@ -26,21 +26,49 @@
  */
 package jfxtras.icalendarfx;
 
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAmount;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import jfxtras.icalendarfx.VCalendar;
 import jfxtras.icalendarfx.VParentBase;
 import jfxtras.icalendarfx.components.VComponent;
+import jfxtras.icalendarfx.components.VDisplayable;
 import jfxtras.icalendarfx.components.VEvent;
 import jfxtras.icalendarfx.components.VFreeBusy;
 import jfxtras.icalendarfx.components.VJournal;
@@ -48,19 +76,31 @@ import jfxtras.icalendarfx.components.VPersonal;
 import jfxtras.icalendarfx.components.VTimeZone;
 import jfxtras.icalendarfx.components.VTodo;
 import jfxtras.icalendarfx.content.MultiLineContent;
-import jfxtras.icalendarfx.content.OrdererBase;
+import jfxtras.icalendarfx.content.IndexedOrderer;
+import jfxtras.icalendarfx.content.Orderer;
+import jfxtras.icalendarfx.content.MappedFileReader;
+import jfxtras.icalendarfx.content.UnfoldingBufferedReader;
 import jfxtras.icalendarfx.content.UnfoldingStringIterator;
 import jfxtras.icalendarfx.itip.AbstractITIPFactory;
 import jfxtras.icalendarfx.itip.DefaultITIPFactory;
+import jfxtras.icalendarfx.itip.ITIPMessageBatch;
 import jfxtras.icalendarfx.itip.Processable;
+import jfxtras.icalendarfx.parameters.FreeBusyType.FreeBusyTypeEnum;
+import jfxtras.icalendarfx.properties.VProperty;
 import jfxtras.icalendarfx.properties.calendar.CalendarScale;
 import jfxtras.icalendarfx.properties.calendar.Method;
 import jfxtras.icalendarfx.properties.calendar.ProductIdentifier;
 import jfxtras.icalendarfx.properties.calendar.Version;
 import jfxtras.icalendarfx.properties.calendar.Method.MethodType;
+import jfxtras.icalendarfx.properties.component.descriptive.Status.StatusType;
 import jfxtras.icalendarfx.properties.component.misc.NonStandardProperty;
 import jfxtras.icalendarfx.properties.component.misc.RequestStatus;
+import jfxtras.icalendarfx.properties.component.time.FreeBusyTime;
+import jfxtras.icalendarfx.properties.component.time.TimeTransparency.TimeTransparencyType;
 import jfxtras.icalendarfx.utilities.DateTimeUtilities;
+import jfxtras.icalendarfx.utilities.InterningPool;
+import jfxtras.icalendarfx.utilities.Pair;
+import jfxtras.icalendarfx.utilities.DateTimeUtilities.DateTimeType;
 
 /**
  * iCalendar Object
@@ -625,24 +665,102 @@ public class VCalendar extends VParentBase<VCalendar>
     public List<String> processITIPMessage(Collection<VCalendar> iTIPMessages)
     {
         List<String> log = new ArrayList<>();
-        iTIPMessages.forEach(message ->
+        iTIPMessages.forEach(message -> log.addAll(processOneITIPMessage(message)));
+        return log;
+    }
+    
+    private List<String> processOneITIPMessage(VCalendar message)
+    {
+        final Processable methodProcess;
+        if (message.getMethod() == null)
+        { // default to PUBLISH method if not present
+            methodProcess = getITIPFactory().getITIPMessageProcess(MethodType.PUBLISH);
+//               throw new IllegalArgumentException("VCalendar to be processed MUST have the METHOD property populated");
+        } else
         {
-            final Processable methodProcess;
-            if (message.getMethod() == null)
-            { // default to PUBLISH method if not present
-                methodProcess = getITIPFactory().getITIPMessageProcess(MethodType.PUBLISH);
- //               throw new IllegalArgumentException("VCalendar to be processed MUST have the METHOD property populated");
-            } else
+            MethodType method = message.getMethod().getValue();
+            methodProcess = getITIPFactory().getITIPMessageProcess(method);
+        }
+        return methodProcess.process(this, message);
+    }
+    
+    /**
+     * Process a batch of iTIP messages, such as the changes collected from a server, in one pass.
+     * Messages are grouped by UID and those replaced by a later message in the batch, as described in
+     * {@link ITIPMessageBatch}, are skipped before the calendar is changed.  The VTIMEZONEs of skipped
+     * messages are added if the calendar doesn't already have their TZID.
+     * 
+     * <p>When done, the {@link #getITIPBatchConsumer() batch consumer} is called once, instead of once for
+     * each message, with the UIDs of the components in the processed messages and in the skipped messages
+     * whose VTIMEZONEs were added.  It is also called if a message fails, with the UIDs of the messages
+     * processed before the failure, so the changes already made are reported.</p>
+     * 
+     * @param iTIPMessages  iTIP VCalendars to process, in order, with {@link Method} populated
+     * @return - log of process operation
+     */
+    public List<String> processITIPMessageBatch(Collection<VCalendar> iTIPMessages)
+    {
+        List<String> log = new ArrayList<>();
+        ITIPMessageBatch batch = new ITIPMessageBatch(iTIPMessages);
+        List<Pair<Integer, VTimeZone>> skippedVTimeZones = new ArrayList<>(); // message index and VTIMEZONE
+        Set<String> changedUniqueIdentifiers = new HashSet<>();
+        try
+        {
+            List<VCalendar> messages = batch.getMessages();
+            for (int i=0; i<messages.size(); i++)
             {
-                MethodType method = message.getMethod().getValue();
-                methodProcess = getITIPFactory().getITIPMessageProcess(method);
+                VCalendar message = messages.get(i);
+                if (batch.isSuperseded(i))
+                {
+                    int messageIndex = i;
+                    message.childrenUnmodifiable()
+                            .stream()
+                            .filter(c -> c instanceof VTimeZone)
+                            .forEach(c -> skippedVTimeZones.add(new Pair<>(messageIndex, (VTimeZone) c)));
+                    log.add("SKIPPED: message superseded by a later message in the batch");
+                } else
+                {
+                    log.addAll(processOneITIPMessage(message));
+                    changedUniqueIdentifiers.addAll(batch.getUniqueIdentifiers(i));
+                }
             }
-            List<String> methodLog = methodProcess.process(this, message);
-            log.addAll(methodLog);
-        });
+            for (Pair<Integer, VTimeZone> skippedVTimeZone : skippedVTimeZones)
+            {
+                VTimeZone vTimeZone = skippedVTimeZone.getValue();
+                ZoneId tzid = (vTimeZone.getTimeZoneIdentifier() == null) ? null : vTimeZone.getTimeZoneIdentifier().getValue();
+                boolean isPresent = (getVTimeZones() != null) && getVTimeZones()
+                        .stream()
+                        .anyMatch(v -> (v.getTimeZoneIdentifier() != null) && Objects.equals(tzid, v.getTimeZoneIdentifier().getValue()));
+                if (! isPresent)
+                {
+                    addChild(vTimeZone);
+                    changedUniqueIdentifiers.addAll(batch.getUniqueIdentifiers(skippedVTimeZone.getKey()));
+                }
+            }
+        } finally
+        {
+            // in the order the UIDs first appear in the batch
+            Set<String> uniqueIdentifiers = batch.getUniqueIdentifiers()
+                    .stream()
+                    .filter(changedUniqueIdentifiers::contains)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            iTIPBatchConsumer.accept(Collections.unmodifiableSet(uniqueIdentifiers));
+        }
         return log;
     }
     
+    /** Set the consumer called by {@link #processITIPMessageBatch(Collection)} with the UIDs of the changed components */
+    public void setITIPBatchConsumer(Consumer<Set<String>> iTIPBatchConsumer)
+    {
+        this.iTIPBatchConsumer = iTIPBatchConsumer;
+    }
+    /** Get the consumer called by {@link #processITIPMessageBatch(Collection)} with the UIDs of the changed components */
+    public Consumer<Set<String>> getITIPBatchConsumer()
+    {
+        return iTIPBatchConsumer;
+    }
+    private Consumer<Set<String>> iTIPBatchConsumer = (uids) -> { }; // default consumer does nothing
+    
     /**
      * Process the exchange of iCalendar object according to the iTIP methods identifies in RFC 5546.
      * Input string can contain multiple iTIP VCALENDAR messages.
@@ -653,27 +771,20 @@ public class VCalendar extends VParentBase<VCalendar>
     public List<String> processITIPMessage(String iTIPMessages)
     {
         List<String> log = new ArrayList<>();
-        List<String> iTIPMessageList = new ArrayList<>();
-        StringBuilder builder = new StringBuilder(1000);
-        for(String line : iTIPMessages.split(System.lineSeparator()))
+        Iterator<String> unfoldedLines = new UnfoldingBufferedReader(new StringReader(iTIPMessages)).lines().iterator();
+        while (unfoldedLines.hasNext())
         {
-            if (line.equals("BEGIN:VCALENDAR") && builder.length() > 0)
+            String line = unfoldedLines.next();
+            if (line.equals(FIRST_CONTENT_LINE))
             {
-                iTIPMessageList.add(builder.toString());
-                builder = new StringBuilder(1000);
+                // parse one VCalendar message, consuming lines through its END:VCALENDAR
+                VCalendar message = new VCalendar();
+                List<Message> messages = message.parseContent(unfoldedLines);
+                throwMessageExceptions(messages, message);
+                List<String> methodLog = processITIPMessage(message);
+                log.addAll(methodLog);
             }
-            builder.append(line + System.lineSeparator());
-        }
-        // handle last VCalendar message
-        if (builder.length() > 0)
-        {
-            iTIPMessageList.add(builder.toString());
         }
-        iTIPMessageList.forEach(message -> 
-        {
-            List<String> methodLog = processITIPMessage(VCalendar.parse(message));
-            log.addAll(methodLog);
-        });
         return log;
     }
     
@@ -777,7 +888,6 @@ public class VCalendar extends VParentBase<VCalendar>
     {
         setMethodProcessFactory(new DefaultITIPFactory());
 //    	List<java.lang.reflect.Method> getters = ICalendarUtilities.collectGetters(getClass());
-        orderer = new OrdererBase(this, getGetters());
         contentLineGenerator = new MultiLineContent(
                 orderer,
                 FIRST_CONTENT_LINE,
@@ -792,9 +902,494 @@ public class VCalendar extends VParentBase<VCalendar>
         source.copyChildrenInto(this);  
     }
 
+    /* A calendar can hold many components, so children are removed and replaced by identity in constant time */
+    @Override
+    protected Orderer newOrderer()
+    {
+        return new IndexedOrderer(this);
+    }
+
     /*
      * OTHER METHODS
      */
+    
+    /*
+     * REVISION
+     * 
+     * Every change below the calendar invalidates its content, so that is where the revision is counted.
+     */
+    private volatile long revision; // a lost concurrent increment still changes the value
+    
+    /**
+     * Returns a number that changes whenever a component is added, removed or ordered through this calendar, or
+     * one of its components' properties changes.  It can be used to detect when values derived from
+     * the calendar's components, such as recurrence children, must be recalculated.
+     * 
+     * @return  current revision
+     */
+    public long getRevision()
+    {
+        return revision;
+    }
+    
+    @Override
+    public void invalidateContent()
+    {
+        revision++;
+        super.invalidateContent();
+    }
+    
+    /*
+     * UNIQUE IDENTIFIER INDEX
+     * 
+     * VEVENT, VTODO and VJOURNAL components are indexed by UID, so a recurrence parent and its RECURRENCE-ID
+     * children are found without scanning the calendar.  The index is made when it's first used, then kept
+     * up to date as components are added, removed or replaced through the calendar, get a new UID property
+     * or their UID value is changed.
+     * Like the content order, the index doesn't follow edits made directly to the component lists.  It's only
+     * made again when such an edit replaces a list or changes its size, first or last component.  Other direct
+     * edits, such as List.set in the middle of a list, aren't noticed.
+     */
+    private Map<String, List<VDisplayable<?>>> uniqueIdentifierIndex; // null until first used
+    private int indexedComponentCount;
+    // for the VEVENT, VTODO and VJOURNAL lists: the list, its size, first and last component when last indexed
+    private final Object[] indexedLists = new Object[12];
+    private long uniqueIdentifierIndexVersion; // changes with every change to the index
+    
+    /**
+     * Returns the VEVENT, VTODO and VJOURNAL components with a UID.  For a recurring component, these are
+     * the recurrence parent and its RECURRENCE-ID children.  Components of one type are in the order
+     * they were added.  Only components added, removed or replaced through the calendar, such as by
+     * {@link #addChild(VChild)}, {@link #removeChild(VChild)} and {@link #replaceChild(int, VChild)}, are
+     * sure to be found correctly.
+     * 
+     * @param uniqueIdentifier  UID value
+     * @return  unmodifiable list of components with uniqueIdentifier, empty if there are none
+     */
+    public synchronized List<VDisplayable<?>> getVDisplayables(String uniqueIdentifier)
+    {
+        validateUniqueIdentifierIndex();
+        List<VDisplayable<?>> components = uniqueIdentifierIndex.get(uniqueIdentifier);
+        return (components == null) ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(components));
+    }
+    
+    /**
+     * Returns a number that changes whenever components are added to or removed from the UID index, or
+     * move to another UID.  Results derived from {@link #getVDisplayables(String)} are current while it's unchanged.
+     * 
+     * @return  version of the UID index
+     */
+    public synchronized long getUniqueIdentifierIndexVersion()
+    {
+        validateUniqueIdentifierIndex();
+        return uniqueIdentifierIndexVersion;
+    }
+    
+    /* Makes the index if it isn't made yet, or if a component list was replaced or resized without the calendar */
+    private void validateUniqueIdentifierIndex()
+    {
+        if ((uniqueIdentifierIndex == null) || (indexedComponentCount != displayableCount()) || ! isIndexedLists())
+        {
+            uniqueIdentifierIndex = new HashMap<>();
+            indexedComponentCount = 0;
+            Arrays.asList(getVEvents(), getVTodos(), getVJournals())
+                    .stream()
+                    .filter(l -> l != null)
+                    .flatMap(l -> l.stream())
+                    .forEach(c -> indexComponent(c));
+            recordIndexedLists();
+            uniqueIdentifierIndexVersion++;
+        }
+    }
+    
+    /**
+     * Moves a component in the UID index after its UID is replaced.  Called by the component.
+     * 
+     * @param vDisplayable  component in this calendar with a new UID
+     * @param oldUniqueIdentifier  UID value before it was replaced, can be null
+     */
+    public synchronized void uniqueIdentifierChanged(VDisplayable<?> vDisplayable, String oldUniqueIdentifier)
+    {
+        if (uniqueIdentifierIndex != null)
+        {
+            if (unindexComponent(vDisplayable, oldUniqueIdentifier))
+            {
+                indexComponent(vDisplayable);
+                uniqueIdentifierIndexVersion++;
+            }
+        }
+    }
+    
+    @Override
+    public void orderChild(VChild addedChild)
+    {
+        super.orderChild(addedChild);
+        updateIndex(null, addedChild);
+    }
+    
+    @Override
+    public void orderChild(VChild oldChild, VChild newChild)
+    {
+        super.orderChild(oldChild, newChild);
+        updateIndex(oldChild, newChild);
+    }
+    
+    @Override
+    public void orderChild(int index, VChild addedChild)
+    {
+        super.orderChild(index, addedChild);
+        updateIndex(null, addedChild);
+    }
+    
+    private synchronized void updateIndex(VChild oldChild, VChild newChild)
+    {
+        if (uniqueIdentifierIndex != null)
+        {
+            if (oldChild instanceof VDisplayable)
+            {
+                VDisplayable<?> oldComponent = (VDisplayable<?>) oldChild;
+                String uniqueIdentifier = (oldComponent.getUniqueIdentifier() == null) ? null : oldComponent.getUniqueIdentifier().getValue();
+                unindexComponent(oldComponent, uniqueIdentifier);
+            }
+            if (newChild instanceof VDisplayable)
+            {
+                indexComponent((VDisplayable<?>) newChild);
+            }
+            if ((oldChild instanceof VDisplayable) || (newChild instanceof VDisplayable))
+            {
+                recordIndexedLists();
+                uniqueIdentifierIndexVersion++;
+            }
+        }
+    }
+    
+    /* Adds component to its UID's list, unless it's there already */
+    private void indexComponent(VComponent vComponent)
+    {
+        VDisplayable<?> vDisplayable = (VDisplayable<?>) vComponent;
+        String uniqueIdentifier = (vDisplayable.getUniqueIdentifier() == null) ? null : vDisplayable.getUniqueIdentifier().getValue();
+        List<VDisplayable<?>> components = uniqueIdentifierIndex.computeIfAbsent(uniqueIdentifier, k -> new ArrayList<>(2));
+        if (components.stream().noneMatch(c -> c == vDisplayable))
+        {
+            components.add(vDisplayable);
+            indexedComponentCount++;
+        }
+    }
+    
+    /* Removes component from the list of uniqueIdentifier, returns true if it was indexed */
+    private boolean unindexComponent(VDisplayable<?> vDisplayable, String uniqueIdentifier)
+    {
+        List<VDisplayable<?>> components = uniqueIdentifierIndex.get(uniqueIdentifier);
+        if ((components != null) && components.removeIf(c -> c == vDisplayable))
+        {
+            if (components.isEmpty())
+            {
+                uniqueIdentifierIndex.remove(uniqueIdentifier);
+            }
+            indexedComponentCount--;
+            return true;
+        }
+        return false;
+    }
+    
+    /* Remembers the state of the component lists the index matches */
+    private void recordIndexedLists()
+    {
+        recordIndexedList(0, getVEvents());
+        recordIndexedList(4, getVTodos());
+        recordIndexedList(8, getVJournals());
+    }
+    
+    private void recordIndexedList(int offset, List<? extends VComponent> list)
+    {
+        boolean isEmpty = (list == null) || list.isEmpty();
+        indexedLists[offset] = list;
+        indexedLists[offset+1] = (list == null) ? 0 : list.size();
+        indexedLists[offset+2] = isEmpty ? null : list.get(0);
+        indexedLists[offset+3] = isEmpty ? null : list.get(list.size()-1);
+    }
+    
+    /* Tests if the component lists look the same as when the index was last updated */
+    private boolean isIndexedLists()
+    {
+        return isIndexedList(0, getVEvents()) && isIndexedList(4, getVTodos()) && isIndexedList(8, getVJournals());
+    }
+    
+    private boolean isIndexedList(int offset, List<? extends VComponent> list)
+    {
+        boolean isEmpty = (list == null) || list.isEmpty();
+        return (indexedLists[offset] == list)
+                && indexedLists[offset+1].equals((list == null) ? 0 : list.size())
+                && (indexedLists[offset+2] == (isEmpty ? null : list.get(0)))
+                && (indexedLists[offset+3] == (isEmpty ? null : list.get(list.size()-1)));
+    }
+    
+    private int displayableCount()
+    {
+        return ((getVEvents() == null) ? 0 : getVEvents().size()) +
+                ((getVTodos() == null) ? 0 : getVTodos().size()) +
+                ((getVJournals() == null) ? 0 : getVJournals().size());
+    }
+    
+    /*
+     * EXPANSION
+     */
+    
+    /**
+     * Expands the recurrences of all VEVENT, VTODO and VJOURNAL components from start (inclusive) to end (exclusive),
+     * in parallel in the common {@link ForkJoinPool}.  See {@link #expand(Temporal, Temporal, ForkJoinPool)}
+     * 
+     * @param start  earliest recurrence start to include
+     * @param end  recurrence starts must be before end
+     * @return  pairs of recurrence start and component, sorted by start
+     */
+    public List<Pair<Temporal, VDisplayable<?>>> expand(Temporal start, Temporal end)
+    {
+        return expand(start, end, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Expands the recurrences of all VEVENT, VTODO and VJOURNAL components from start (inclusive) to end (exclusive).
+     * Components are expanded in parallel as tasks in pool, then the results are merged by start.  Recurrences
+     * with equal starts keep the order of their components in the calendar.
+     * <p>
+     * Start and end are converted to the type of each component's DTSTART.  A date or local date/time
+     * is taken to be in the time zone of a DTSTART with a time zone.  Components without DTSTART are skipped.
+     * 
+     * @param start  earliest recurrence start to include
+     * @param end  recurrence starts must be before end
+     * @param pool  pool used to expand components
+     * @return  pairs of recurrence start and component, sorted by start
+     */
+    public List<Pair<Temporal, VDisplayable<?>>> expand(Temporal start, Temporal end, ForkJoinPool pool)
+    {
+        List<VDisplayable<?>> components = new ArrayList<>();
+        Arrays.asList(getVEvents(), getVTodos(), getVJournals())
+                .stream()
+                .filter(l -> l != null)
+                .forEach(l -> components.addAll(l));
+        List<Pair<Temporal, VDisplayable<?>>> recurrences = pool.submit(() -> components
+                .parallelStream()
+                .filter(c -> c.getDateTimeStart() != null)
+                .flatMap(c -> 
+                {
+                    Temporal dateTimeStart = c.getDateTimeStart().getValue();
+                    ZoneId zone = (dateTimeStart instanceof ZonedDateTime) ? ((ZonedDateTime) dateTimeStart).getZone() : ZoneId.systemDefault();
+                    DateTimeType dateTimeType = DateTimeType.of(dateTimeStart);
+                    return c.streamRecurrences(dateTimeType.from(start, zone), dateTimeType.from(end, zone))
+                            .map(t -> new Pair<Temporal, VDisplayable<?>>(t, c));
+                })
+                .collect(Collectors.toList()))
+                .join();
+        // the list is made of sorted runs, one for each component, which the merge sort of List.sort merges
+        recurrences.sort((p1, p2) -> DateTimeUtilities.TEMPORAL_COMPARATOR2.compare(p1.getKey(), p2.getKey()));
+        return recurrences;
+    }
+    
+    /*
+     * FREE/BUSY
+     */
+    
+    /**
+     * Computes the free/busy time of the VEVENTs in this calendar from start (inclusive) to end (exclusive)
+     * with the default {@link FreeBusyOptions}.  See {@link #computeFreeBusy(Temporal, Temporal, FreeBusyOptions)}
+     * 
+     * @param start  start of free/busy time
+     * @param end  end of free/busy time
+     * @return  new VFREEBUSY, not added to this calendar
+     */
+    public VFreeBusy computeFreeBusy(Temporal start, Temporal end)
+    {
+        return computeFreeBusy(start, end, new FreeBusyOptions());
+    }
+    
+    /**
+     * Computes the free/busy time of the VEVENTs in this calendar from start (inclusive) to end (exclusive).
+     * <p>
+     * Every recurrence of an OPAQUE VEVENT is busy, except those of CANCELLED VEVENTs.  Recurrences
+     * removed by EXDATE or replaced by a RECURRENCE-ID VEVENT are skipped; the replacing VEVENT has its own
+     * TRANSP and STATUS.  TENTATIVE VEVENTs are busy with the free/busy type from options.
+     * <p>
+     * The busy time of each free/busy type is coalesced: overlapping and adjacent recurrences are merged
+     * into one period.  The result has a FREEBUSY property for each free/busy type with busy time, and
+     * DTSTART and DTEND of the time range, all in UTC.
+     * 
+     * @param start  start of free/busy time
+     * @param end  end of free/busy time
+     * @param options  time zone and free/busy types
+     * @return  new VFREEBUSY, not added to this calendar
+     */
+    public VFreeBusy computeFreeBusy(Temporal start, Temporal end, FreeBusyOptions options)
+    {
+        ZoneId zone = options.getZone();
+        long windowStart = DateTimeUtilities.toEpochSecond(start, zone);
+        long windowEnd = DateTimeUtilities.toEpochSecond(end, zone);
+        Map<FreeBusyTypeEnum, BusyIntervals> busyTimes = new EnumMap<>(FreeBusyTypeEnum.class);
+        BusyIntervals allBusyTime = options.isFreeIncluded() ? new BusyIntervals() : null;
+        List<VEvent> vEvents = (getVEvents() == null) ? Collections.emptyList() : getVEvents();
+        for (VEvent vEvent : vEvents)
+        {
+            FreeBusyTypeEnum type = freeBusyType(vEvent, options);
+            if ((type == null) || (vEvent.getDateTimeStart() == null))
+            {
+                continue;
+            }
+            Temporal dateTimeStart = vEvent.getDateTimeStart().getValue();
+            ZoneId myZone = (dateTimeStart instanceof ZonedDateTime) ? ((ZonedDateTime) dateTimeStart).getZone() : zone;
+            DateTimeType dateTimeType = DateTimeType.of(dateTimeStart);
+            TemporalAmount duration = vEvent.getActualDuration();
+            // an exact duration is added to the instant, so the end doesn't need date-time arithmetic
+            long seconds = (duration instanceof Duration) ? ((Duration) duration).getSeconds() : -1;
+            BusyIntervals busyTime = busyTimes.computeIfAbsent(type, t -> new BusyIntervals());
+            for (Temporal recurrence : vEvent.recurrences(dateTimeType.from(start, myZone), dateTimeType.from(end, myZone)))
+            {
+                long epochSecond = DateTimeUtilities.toEpochSecond(recurrence, zone);
+                long recurrenceEnd = (seconds >= 0) ? epochSecond + seconds : DateTimeUtilities.toEpochSecond(recurrence.plus(duration), zone);
+                long recurrenceStart = Math.max(epochSecond, windowStart);
+                recurrenceEnd = Math.min(recurrenceEnd, windowEnd);
+                if (recurrenceStart < recurrenceEnd)
+                {
+                    busyTime.add(recurrenceStart, recurrenceEnd);
+                    if (allBusyTime != null)
+                    {
+                        allBusyTime.add(recurrenceStart, recurrenceEnd);
+                    }
+                }
+            }
+        }
+        
+        List<FreeBusyTime> freeBusyTimes = new ArrayList<>();
+        if (options.isFreeIncluded())
+        {
+            List<Pair<ZonedDateTime, TemporalAmount>> freeTime = allBusyTime.complement(windowStart, windowEnd);
+            if (! freeTime.isEmpty())
+            {
+                freeBusyTimes.add(new FreeBusyTime(freeTime).withFreeBusyType(FreeBusyTypeEnum.FREE));
+            }
+        }
+        busyTimes.forEach((type, busyTime) ->
+        {
+            List<Pair<ZonedDateTime, TemporalAmount>> periods = busyTime.coalesce();
+            if (! periods.isEmpty())
+            {
+                freeBusyTimes.add(new FreeBusyTime(periods).withFreeBusyType(type));
+            }
+        });
+        VFreeBusy vFreeBusy = new VFreeBusy()
+                .withDateTimeStamp(ZonedDateTime.now(ZoneId.of("Z")))
+                .withUniqueIdentifier()
+                .withDateTimeStart(BusyIntervals.toUTC(windowStart))
+                .withDateTimeEnd(BusyIntervals.toUTC(windowEnd));
+        if (! freeBusyTimes.isEmpty())
+        {
+            vFreeBusy.setFreeBusyTimes(freeBusyTimes);
+        }
+        return vFreeBusy;
+    }
+    
+    /* Free/busy type of VEVENT, null if it isn't busy */
+    private static FreeBusyTypeEnum freeBusyType(VEvent vEvent, FreeBusyOptions options)
+    {
+        if ((vEvent.getTimeTransparency() != null) && (vEvent.getTimeTransparency().getValue() == TimeTransparencyType.TRANSPARENT))
+        {
+            return null;
+        }
+        StatusType status = (vEvent.getStatus() == null) ? null : vEvent.getStatus().getValue();
+        if (status == StatusType.CANCELLED)
+        {
+            return null;
+        } else if (status == StatusType.TENTATIVE)
+        {
+            return options.getTentativeType();
+        }
+        return FreeBusyTypeEnum.BUSY;
+    }
+    
+    /*
+     * Busy intervals in epoch seconds.  Their union doesn't depend on which start goes with which end,
+     * so starts and ends are sorted separately and swept once, counting the intervals in progress.
+     */
+    private static class BusyIntervals
+    {
+        private long[] starts = new long[64];
+        private long[] ends = new long[64];
+        private int size;
+        
+        void add(long start, long end)
+        {
+            if (size == starts.length)
+            {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+        
+        /* Periods covered by at least one interval, sorted by start */
+        List<Pair<ZonedDateTime, TemporalAmount>> coalesce()
+        {
+            List<Pair<ZonedDateTime, TemporalAmount>> periods = new ArrayList<>();
+            sweep((start, end) -> periods.add(new Pair<>(toUTC(start), Duration.ofSeconds(end - start))));
+            return periods;
+        }
+        
+        /* Periods between windowStart and windowEnd not covered by any interval */
+        List<Pair<ZonedDateTime, TemporalAmount>> complement(long windowStart, long windowEnd)
+        {
+            List<Pair<ZonedDateTime, TemporalAmount>> periods = new ArrayList<>();
+            long[] freeStart = { windowStart };
+            sweep((start, end) ->
+            {
+                if (freeStart[0] < start)
+                {
+                    periods.add(new Pair<>(toUTC(freeStart[0]), Duration.ofSeconds(start - freeStart[0])));
+                }
+                freeStart[0] = end;
+            });
+            if (freeStart[0] < windowEnd)
+            {
+                periods.add(new Pair<>(toUTC(freeStart[0]), Duration.ofSeconds(windowEnd - freeStart[0])));
+            }
+            return periods;
+        }
+        
+        /* Passes each coalesced period to action, in order.  Adjacent intervals are merged. */
+        private void sweep(BiConsumer<Long, Long> action)
+        {
+            Arrays.sort(starts, 0, size);
+            Arrays.sort(ends, 0, size);
+            int inProgress = 0;
+            long periodStart = 0;
+            int endIndex = 0;
+            for (int startIndex=0; startIndex<size; startIndex++)
+            {
+                // close intervals ending before the next start
+                while (ends[endIndex] < starts[startIndex])
+                {
+                    if (--inProgress == 0)
+                    {
+                        action.accept(periodStart, ends[endIndex]);
+                    }
+                    endIndex++;
+                }
+                if (inProgress++ == 0)
+                {
+                    periodStart = starts[startIndex];
+                }
+            }
+            if (size > 0)
+            {
+                action.accept(periodStart, ends[size-1]);
+            }
+        }
+        
+        static ZonedDateTime toUTC(long epochSecond)
+        {
+            return Instant.ofEpochSecond(epochSecond).atZone(ZoneId.of("Z"));
+        }
+    }
         
 //    @Override
 //    public List<String> parseContent(String content)
@@ -898,92 +1493,212 @@ public class VCalendar extends VParentBase<VCalendar>
 //        return messages;
 //    }
 
-//    // multi threaded
-//    /** Parse content lines into calendar object */
-//    // TODO - TEST THIS - MAY NOT MAINTAIN ORDER
-//    // TODO - FIX THIS - DOESN'T WORK, DOESN'T GET CALENDARY PROPERTIES
-//    public void parseContentMulti(Iterator<String> lineIterator)
-//    {
-//        // Callables to generate components
-//        ExecutorService service = Executors.newWorkStealingPool();
-////        Map<Integer, Callable<Object>> taskMap = new LinkedHashMap<>();
-//        Integer order = 0;
-//        List<Callable<Object>> tasks = new ArrayList<>();
-//        
-//        String firstLine = lineIterator.next();
-//        if (! firstLine.equals("BEGIN:VCALENDAR"))
-//        {
-//            throw new IllegalArgumentException("Content lines must begin with BEGIN:VCALENDAR");
-//        }
-//        while (lineIterator.hasNext())
-//        {
-//            String line = lineIterator.next();
-//            int nameEndIndex = ICalendarUtilities.getPropertyNameIndex(line);
-//            String propertyName = line.substring(0, nameEndIndex);
-//            
-//            // Parse component
-//            if (propertyName.equals("BEGIN"))
-//            {
-//                String componentName = line.substring(nameEndIndex+1);
-//                List<String> myLines = new ArrayList<>(20);
-//                myLines.add(line);
-//                final String endLine = "END:" + componentName;
-//                while (lineIterator.hasNext())
-//                {
-//                    String myLine = lineIterator.next();
-//                    myLines.add(myLine);
-//                    if (myLine.equals(endLine))
-//                    {
-//                        Integer myOrder = order;
-//                        order += 100;
-//                        Runnable vComponentRunnable = () -> 
-//                        {
-//                            CalendarComponent elementType = CalendarComponent.valueOf(componentName);
-//                            VElement component = elementType.parse(this, myLines);
-////                            orderer().elementSortOrderMap().put((VChild) component, myOrder);
-//                        };
-////                        taskMap.put(order, Executors.callable(vComponentRunnable));
-//                        tasks.add(Executors.callable(vComponentRunnable));
-//                        break;
-//                    }
-//                }
-//                
-//            // parse calendar properties (ignores unknown properties)
-//            } else
-//            {
-//                CalendarComponent elementType = CalendarComponent.enumFromName(propertyName);
-//                if (elementType != null)
-//                {
-//                    VElement property = elementType.parse(this, Arrays.asList(line));
-////                    orderer().elementSortOrderMap().put((VChild) property, order);
-////                    order += 100;
-//                }
-//            }
-//        }
-//        
-//        try
-//        {
-////            List<Callable<Object>> tasks = taskMap.entrySet().stream().map(e -> e.getValue()).collect(Collectors.toList());
-//            service.invokeAll(tasks);
-//        } catch (InterruptedException e)
-//        {
-//            e.printStackTrace();
-//        }
-//    }
+    /**
+     * Parse content lines into calendar object with top-level components parsed in parallel.
+     * <p>
+     * The unfolded lines are split at top-level BEGIN/END component boundaries.  Each component is
+     * parsed as a separate task in the pool while calendar properties are parsed on the calling thread.
+     * The children are then added in their original order, so the result is identical to the sequential
+     * {@link #parseContent(Iterator)}.
+     * 
+     * @param unfoldedLineIterator  unfolded content lines
+     * @param pool  pool used to parse components
+     * @return  parse messages
+     */
+    protected List<Message> parseContent(Iterator<String> unfoldedLineIterator, ForkJoinPool pool)
+    {
+        // results in original content order
+        List<Supplier<ParsedChild>> parsedChildren = new ArrayList<>();
+        List<Message> messages = new ArrayList<>();
+        InterningPool interningPool = InterningPool.current();
+        while (unfoldedLineIterator.hasNext())
+        {
+            String unfoldedLine = unfoldedLineIterator.next();
+            if (unfoldedLine.startsWith(END)) break; // exit when end found;
+            String elementName = elementName(unfoldedLine);
+            String childName = ((elementName != null) && elementName.startsWith("X-")) ? "X-" : elementName;
+            boolean isMultiLineElement = unfoldedLine.startsWith(BEGIN);
+            if (isMultiLineElement)
+            {
+                if (! name().equals(childName))
+                {
+                    List<String> componentLines = collectComponentLines(unfoldedLineIterator);
+                    ForkJoinTask<ParsedChild> task = pool.submit(() ->
+                    {
+                        // share the caller's interning pool with the worker thread
+                        InterningPool.Scope scope = InterningPool.activate(interningPool);
+                        try
+                        {
+                            VParentBase<?> child = (VParentBase<?>) VElementBase.newEmptyVElement(VComponent.class, childName);
+                            List<Message> myMessages = child.parseContent(componentLines.iterator());
+                            return new ParsedChild(unfoldedLine, childName, (VChild) child, myMessages, true);
+                        } finally
+                        {
+                            scope.close();
+                        }
+                    });
+                    parsedChildren.add(task::join);
+                }
+            } else
+            { // calendar property
+                VElementBase child = (VElementBase) VElementBase.newEmptyVElement(VProperty.class, childName);
+                if (child != null)
+                {
+                    List<Message> myMessages = child.parseContent(unfoldedLine);
+                    ParsedChild parsedChild = new ParsedChild(unfoldedLine, childName, (VChild) child, myMessages, false);
+                    parsedChildren.add(() -> parsedChild);
+                } else
+                {
+                    messages.add(new Message(this,
+                            "Unknown element:" + unfoldedLine,
+                            MessageEffect.MESSAGE_ONLY));
+                }
+            }
+        }
+        
+        // add children in original order
+        for (Supplier<ParsedChild> parsedChildSupplier : parsedChildren)
+        {
+            ParsedChild parsedChild = parsedChildSupplier.get();
+            messages.addAll(parsedChild.messages);
+            // don't add single-line children with info or error messages - they have problems and should be ignored
+            if (parsedChild.isMultiLineElement || parsedChild.messages.isEmpty())
+            {
+                addChildInternal(messages, parsedChild.content, parsedChild.childName, parsedChild.child);
+            }
+        }
+        return messages;
+    }
     
+    /* Result of parsing one child of the calendar */
+    private static class ParsedChild
+    {
+        final String content;
+        final String childName;
+        final VChild child;
+        final List<Message> messages;
+        final boolean isMultiLineElement;
+        
+        ParsedChild(String content, String childName, VChild child, List<Message> messages, boolean isMultiLineElement)
+        {
+            this.content = content;
+            this.childName = childName;
+            this.child = child;
+            this.messages = messages;
+            this.isMultiLineElement = isMultiLineElement;
+        }
+    }
+    
+    /*
+     * Collect lines of a component through its matching END line.  The BEGIN line
+     * must already be consumed.
+     */
+    private static List<String> collectComponentLines(Iterator<String> unfoldedLineIterator)
+    {
+        List<String> componentLines = new ArrayList<>(30);
+        int depth = 1;
+        while (unfoldedLineIterator.hasNext() && (depth > 0))
+        {
+            String line = unfoldedLineIterator.next();
+            if (line.startsWith(BEGIN))
+            {
+                depth++;
+            } else if (line.startsWith(END))
+            {
+                depth--;
+            }
+            componentLines.add(line);
+        }
+        return componentLines;
+    }
+    
+    /**
+     * Creates a new VCalendar by reading iCalendar content lines from a {@link Reader}.
+     * Content lines are unfolded and parsed incrementally, so the entire content is never
+     * held in memory as a String.  CRLF, LF and CR line terminators are all accepted.
+     * The reader is not closed.
+     * 
+     * @param reader  source of iCalendar content
+     * @return  Created VCalendar
+     * @throws IOException
+     */
     public static VCalendar parse(Reader reader) throws IOException
     {
-        BufferedReader br = new BufferedReader(reader);
-        Iterator<String> unfoldedLineIterator = new UnfoldingStringIterator(br.lines().iterator());
-//        Iterator<String> unfoldedLineIterator = br.lines().iterator();
-//        UnfoldingBufferedReader unfoldingReader = new UnfoldingBufferedReader(reader);
-//        Iterator<String> unfoldedLineIterator = unfoldingReader.lines().iterator();
+        UnfoldingBufferedReader unfoldingReader = new UnfoldingBufferedReader(reader);
+        Iterator<String> unfoldedLineIterator = unfoldingReader.lines().iterator();
         VCalendar vCalendar = new VCalendar();
-        vCalendar.parseContent(unfoldedLineIterator);
-//        unfoldingReader.close();
+        try
+        {
+            vCalendar.parseContent(unfoldedLineIterator);
+        } catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
         return vCalendar;
     }
     
+    /**
+     * Creates a new VCalendar by reading iCalendar content lines from a {@link Reader}, parsing
+     * the calendar components (e.g. VEVENT, VTODO, VTIMEZONE) in parallel in the pool.
+     * The order of the children is the same as produced by {@link #parse(Reader)}.
+     * The reader is not closed.
+     * 
+     * @param reader  source of iCalendar content
+     * @param pool  pool used to parse calendar components, such as {@link ForkJoinPool#commonPool()}
+     * @return  Created VCalendar
+     * @throws IOException
+     */
+    public static VCalendar parse(Reader reader, ForkJoinPool pool) throws IOException
+    {
+        UnfoldingBufferedReader unfoldingReader = new UnfoldingBufferedReader(reader);
+        Iterator<String> unfoldedLineIterator = unfoldingReader.lines().iterator();
+        VCalendar vCalendar = new VCalendar();
+        try
+        {
+            vCalendar.parseContent(unfoldedLineIterator, pool);
+        } catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        return vCalendar;
+    }
+    
+    /**
+     * Creates a new VCalendar by reading iCalendar content from a {@link Reader}, sharing repeated
+     * property and parameter values through interningPool.  A pool can be reused across several parses
+     * to share values between calendars too.
+     * 
+     * @param reader  source of iCalendar content
+     * @param interningPool  pool of shared values
+     * @return  Created VCalendar
+     * @throws IOException
+     * @see InterningPool
+     */
+    public static VCalendar parse(Reader reader, InterningPool interningPool) throws IOException
+    {
+        InterningPool.Scope scope = interningPool.activate();
+        try
+        {
+            return parse(reader);
+        } finally
+        {
+            scope.close();
+        }
+    }
+    
+    /**
+     * Creates a new VCalendar by reading UTF-8 encoded iCalendar content from an {@link InputStream}.
+     * The stream is not closed.
+     * 
+     * @param inputStream  source of iCalendar content
+     * @return  Created VCalendar
+     * @throws IOException
+     */
+    public static VCalendar parse(InputStream inputStream) throws IOException
+    {
+        return parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+    
     /**
      * Creates a new VCalendar from an ics file
      * 
@@ -993,9 +1708,82 @@ public class VCalendar extends VParentBase<VCalendar>
      */
     public static VCalendar parse(Path icsFilePath) throws IOException
     {
-        return parse(Files.newBufferedReader(icsFilePath));
+        try (Reader reader = Files.newBufferedReader(icsFilePath))
+        {
+            return parse(reader);
+        }
+    }
+    
+    /**
+     * Creates a new VCalendar from a UTF-8 encoded ics file.  If useMemoryMap is true the file is memory-mapped
+     * with {@link java.nio.channels.FileChannel#map} and decoded incrementally, which avoids copying the file
+     * through heap buffers.  Intended for very large local files.
+     * 
+     * @param icsFilePath  path of ics file to parse
+     * @param useMemoryMap  true to memory-map the file, false to read it through a buffered reader
+     * @return  Created VCalendar
+     * @throws IOException
+     */
+    public static VCalendar parse(Path icsFilePath, boolean useMemoryMap) throws IOException
+    {
+        if (! useMemoryMap)
+        {
+            return parse(icsFilePath);
+        }
+        try (Reader reader = new MappedFileReader(icsFilePath))
+        {
+            return parse(reader);
+        }
     }
     
+    /**
+     * Creates a new VCalendar from an ics file, parsing the calendar components in parallel
+     * 
+     * @param icsFilePath  path of ics file to parse
+     * @param pool  pool used to parse calendar components
+     * @return  Created VCalendar
+     * @throws IOException
+     */
+    public static VCalendar parse(Path icsFilePath, ForkJoinPool pool) throws IOException
+    {
+        try (Reader reader = Files.newBufferedReader(icsFilePath))
+        {
+            return parse(reader, pool);
+        }
+    }
+    
+    /**
+     * Writes the calendar as UTF-8 encoded iCalendar content to an {@link OutputStream}.  Every content line,
+     * including the last, ends with CRLF and is folded at 75 octets as required by RFC 5545.  The content is streamed to
+     * the output without building the whole calendar as a String.  The stream is flushed, but not closed.
+     * 
+     * @param outputStream  destination of iCalendar content
+     * @throws IOException
+     */
+    public void writeTo(OutputStream outputStream) throws IOException
+    {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writeTo(writer, CRLF);
+        writer.write(CRLF);
+        writer.flush();
+    }
+    
+    /**
+     * Writes the calendar to an ics file.  Every content line ends with CRLF and is folded at 75 octets.
+     * 
+     * @param icsFilePath  path of ics file to write
+     * @throws IOException
+     */
+    public void writeTo(Path icsFilePath) throws IOException
+    {
+        try (Writer writer = Files.newBufferedWriter(icsFilePath, StandardCharsets.UTF_8))
+        {
+            writeTo(writer, CRLF);
+            writer.write(CRLF);
+        }
+    }
+    private static final String CRLF = "\r\n";
+    
     /**
      * Creates a new VCalendar from an ics file
      * 
@@ -1006,13 +1794,7 @@ public class VCalendar extends VParentBase<VCalendar>
     // TODO - REMOVE useResourceStatus
     public static VCalendar parseICalendarFile(Path icsFilePath, boolean useResourceStatus) throws IOException
     {
-        BufferedReader br = Files.newBufferedReader(icsFilePath);
-        List<String> lines = br.lines().collect(Collectors.toList());
-//        Iterator<String> unfoldedLines = ICalendarUtilities.unfoldLines(lines).iterator();
-        VCalendar vCalendar = new VCalendar();
-//        vCalendar.parseContent(lines.iterator(), useResourceStatus);
-        vCalendar.parseContent(lines.iterator());
-        return vCalendar;
+        return parse(icsFilePath);
     }
     
     /**
@@ -1022,15 +1804,9 @@ public class VCalendar extends VParentBase<VCalendar>
      * @return  Created VCalendar
      * @throws IOException
      */
-    // TODO - REMOVE useResourceStatus
     public static VCalendar parseICalendarFile(Path icsFilePath) throws IOException
     {
-        BufferedReader br = Files.newBufferedReader(icsFilePath);
-        List<String> lines = br.lines().collect(Collectors.toList());
-//        Iterator<String> unfoldedLines = ICalendarUtilities.unfoldLines(lines).iterator();
-        VCalendar vCalendar = new VCalendar();
-        vCalendar.parseContent(lines.iterator());
-        return vCalendar;
+        return parse(icsFilePath);
     }
     
 	@Override
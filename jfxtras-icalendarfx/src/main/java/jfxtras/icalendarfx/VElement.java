@@ -26,6 +26,7 @@
  */
 package jfxtras.icalendarfx;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -74,4 +75,29 @@ public interface VElement
      * @return - list of error messages
      */
     List<String> errors();
+    
+    /**
+     * Writes the iCalendar content lines of the element to out, using {@link System#lineSeparator()}
+     * between content lines.  Produces the same content as {@link #toString()}.
+     * 
+     * @param out  destination of content lines, such as a {@link java.io.Writer}
+     * @throws IOException  if out throws IOException
+     */
+    default void writeTo(Appendable out) throws IOException
+    {
+        writeTo(out, System.lineSeparator());
+    }
+    
+    /**
+     * Writes the iCalendar content lines of the element to out, using lineSeparator between content lines.
+     * Parents stream their children directly to out without building the whole calendar as a String first.
+     * 
+     * @param out  destination of content lines, such as a {@link java.io.Writer}
+     * @param lineSeparator  separator between content lines, such as "\r\n" required by RFC 5545
+     * @throws IOException  if out throws IOException
+     */
+    default void writeTo(Appendable out, String lineSeparator) throws IOException
+    {
+        out.append(toString());
+    }
 }
@@ -26,13 +26,20 @@
  */
 package jfxtras.icalendarfx;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import jfxtras.icalendarfx.VChild;
@@ -40,13 +47,13 @@ import jfxtras.icalendarfx.VElement;
 import jfxtras.icalendarfx.VElementBase;
 import jfxtras.icalendarfx.components.VComponent;
 import jfxtras.icalendarfx.components.VComponentElement;
+import jfxtras.icalendarfx.content.ContentLineTokenizer;
 import jfxtras.icalendarfx.parameters.VParameter;
 import jfxtras.icalendarfx.parameters.VParameterElement;
 import jfxtras.icalendarfx.properties.VProperty;
 import jfxtras.icalendarfx.properties.VPropertyElement;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RRuleElement;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RRulePart;
-import jfxtras.icalendarfx.utilities.Pair;
 
 /**
  * Base class for all VCalendar elements. 
@@ -86,89 +93,76 @@ public abstract class VElementBase implements VElement
         }
 	}
 	
-	// All no-arg constructors made from calendar element enums
-	private static final  Map<Pair<Class<? extends VElement>, String>, Constructor<? extends VElement>> NO_ARG_CONSTRUCTORS = makeNoArgConstructorMap();
-    private static Map<Pair<Class<? extends VElement>, String>, Constructor<? extends VElement>> makeNoArgConstructorMap()
+	/* All no-arg constructors made from calendar element enums
+	 * The first key is the element's superclass (e.g. VComponent, VProperty, VParameter, RRulePart)
+	 * The second key is the element name (e.g. VEVENT, SUMMARY)
+	 * The maps are built once and never modified, so they are safe to read from any thread
+	 */
+	private static final  Map<Class<? extends VElement>, Map<String, Supplier<VElement>>> NO_ARG_CONSTRUCTORS = makeNoArgConstructorMap();
+    private static Map<Class<? extends VElement>, Map<String, Supplier<VElement>>> makeNoArgConstructorMap()
     {
-    	Map<Pair<Class<? extends VElement>, String>, Constructor<? extends VElement>> map = new HashMap<>();
-
-    	// Add VComponent elements
-    	VComponentElement[] values0 = VComponentElement.values();
-    	Arrays.stream(values0)
-    		.forEach(v ->
-	    	{
-	    		Pair<Class<? extends VElement>, String> key = new Pair<>(VComponent.class, v.toString());
-				try {
-					Constructor<? extends VElement> constructor = v.elementClass().getConstructor();
-					map.put(key, constructor);
-				} catch (NoSuchMethodException | SecurityException e) {
-					e.printStackTrace();
-				}
-	    	});
-    	
-    	// Add VProperty elements
-    	VPropertyElement[] values1 = VPropertyElement.values();
-    	Arrays.stream(values1)
-    		.forEach(v ->
-	    	{
-	    		Pair<Class<? extends VElement>, String> key = new Pair<>(VProperty.class, v.toString());
-				try {
-					Constructor<? extends VElement> constructor = v.elementClass().getConstructor();
-					map.put(key, constructor);
-				} catch (NoSuchMethodException | SecurityException e) {
-					e.printStackTrace();
-				}
-	    	});
-    	
-    	// Add VParameter elements
-    	VParameterElement[] values2 = VParameterElement.values();
-    	Arrays.stream(values2)
-    		.forEach(v ->
-	    	{
-	    		Pair<Class<? extends VElement>, String> key = new Pair<>(VParameter.class, v.toString());
-				try {
-					Constructor<? extends VElement> constructor = v.elementClass().getConstructor();
-					map.put(key, constructor);
-				} catch (NoSuchMethodException | SecurityException e) {
-					e.printStackTrace();
-				}
-	    	});
-    	
-    	// Add RRULE parts
-    	RRuleElement[] values3 = RRuleElement.values();
-    	Arrays.stream(values3)
-    		.forEach(v ->
-	    	{
-	    		Pair<Class<? extends VElement>, String> key = new Pair<>(RRulePart.class, v.toString());
+    	Map<Class<? extends VElement>, Map<String, Supplier<VElement>>> map = new HashMap<>();
+    	map.put(VComponent.class, makeConstructorMap(VComponentElement.values(), v -> v.elementClass()));
+    	map.put(VProperty.class, makeConstructorMap(VPropertyElement.values(), v -> v.elementClass()));
+    	map.put(VParameter.class, makeConstructorMap(VParameterElement.values(), v -> v.elementClass()));
+    	map.put(RRulePart.class, makeConstructorMap(RRuleElement.values(), v -> v.elementClass()));
+        return Collections.unmodifiableMap(map);
+    }
+    
+    private static <E extends Enum<E>> Map<String, Supplier<VElement>> makeConstructorMap(E[] values, Function<E, Class<? extends VElement>> elementClass)
+    {
+    	Map<String, Supplier<VElement>> map = new HashMap<>();
+    	Arrays.stream(values)
+			.forEach(v -> map.put(v.toString(), makeConstructor(elementClass.apply(v))));
+    	return Collections.unmodifiableMap(map);
+    }
+    
+    /* Make Supplier from no-arg constructor.  Uses LambdaMetafactory when possible to avoid reflection. */
+    @SuppressWarnings("unchecked")
+    private static Supplier<VElement> makeConstructor(Class<? extends VElement> elementClass)
+    {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle handle = lookup.findConstructor(elementClass, MethodType.methodType(void.class));
+			CallSite site = LambdaMetafactory.metafactory(
+					lookup,
+					"get",
+					MethodType.methodType(Supplier.class),
+					MethodType.methodType(Object.class),
+					handle,
+					handle.type());
+			return (Supplier<VElement>) site.getTarget().invokeExact();
+		} catch (Throwable e) {
+			Constructor<? extends VElement> constructor;
+			try {
+				constructor = elementClass.getConstructor();
+			} catch (NoSuchMethodException | SecurityException e2) {
+				e2.printStackTrace();
+				return null;
+			}
+			return () ->
+			{
 				try {
-					Constructor<? extends VElement> constructor = v.elementClass().getConstructor();
-					map.put(key, constructor);
-				} catch (NoSuchMethodException | SecurityException e) {
-					e.printStackTrace();
+					return constructor.newInstance();
+				} catch (InstantiationException | IllegalAccessException | IllegalArgumentException
+						| InvocationTargetException e2) {
+					e2.printStackTrace();
 				}
-	    	});
-
-        return map;
+				return null;
+			};
+		}
     }
-    private static final Set<String> NAMES = NO_ARG_CONSTRUCTORS
-    		.entrySet()
-    		.stream()
-    		.map(e -> e.getKey().getValue())
-    		.collect(Collectors.toSet());
+    
 
 	public static VChild newEmptyVElement(Class<? extends VElement> superclass, String name)
 	{
-		try {
-			if (name == null) return null;
-			String name2 = (name.startsWith("X-")) ? "X-" : name;
-			Constructor<? extends VElement> constructor = NO_ARG_CONSTRUCTORS.get(new Pair<>(superclass, name2));
-			if (constructor == null) return null;
-			return (VChild) constructor.newInstance();
-		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException
-				| InvocationTargetException e) {
-			e.printStackTrace();
-		}
-		return null;
+		if (name == null) return null;
+		String name2 = (name.startsWith("X-")) ? "X-" : name;
+		Map<String, Supplier<VElement>> constructors = NO_ARG_CONSTRUCTORS.get(superclass);
+		if (constructors == null) return null;
+		Supplier<VElement> constructor = constructors.get(name2);
+		if (constructor == null) return null;
+		return (VChild) constructor.get();
 	}
 	
     /**
@@ -217,28 +211,40 @@ public abstract class VElementBase implements VElement
 		boolean isMultiline = indexOfBegin != -1;
 		if (isMultiline)
 		{
-			int indexOfLineSeparator = content.indexOf(System.lineSeparator());
-			if (indexOfLineSeparator == -1) return content.substring(indexOfBegin + BEGIN.length()); // if no line separator assume content is just one line and return all text after begin to end
-			return content.substring(indexOfBegin + BEGIN.length(), indexOfLineSeparator);
+			int nameStart = indexOfBegin + BEGIN.length();
+			int indexOfLineSeparator = indexOfLineTerminator(content, indexOfBegin);
+			int nameEnd = (indexOfLineSeparator == -1) ? content.length() : indexOfLineSeparator; // if no line separator assume content is just one line and return all text after begin to end
+			String name = ContentLineTokenizer.internName(content, nameStart, nameEnd);
+			return (name != null) ? name : content.substring(nameStart, nameEnd);
 		} else
 		{
-	        int i1 = content.indexOf(':');
-	        i1 = (i1 == -1) ? Integer.MAX_VALUE : i1;
-	        int i2 = content.indexOf(';');
-	        i2 = (i2 == -1) ? Integer.MAX_VALUE : i2;
-	        int i = Math.min(i1,i2);
-	        if (i == Integer.MAX_VALUE)
+			int i = 0;
+			while ((i < content.length()) && (content.charAt(i) != ':') && (content.charAt(i) != ';'))
+			{
+				i++;
+			}
+	        if (i == content.length())
 	        {
 	        	return null;
 	        }
-	        String possibleName = content.substring(0, i).toUpperCase();
-	        boolean isNonStandard = (possibleName.startsWith("X-"));
-	        if (isNonStandard) return possibleName;
-	        boolean isStandard = NAMES.contains(possibleName);
-	        if (isStandard) return possibleName;
+	        String standardName = ContentLineTokenizer.internName(content, 0, i);
+	        if (standardName != null) return standardName;
+	        boolean isNonStandard = content.regionMatches(true, 0, "X-", 0, 2);
+	        if (isNonStandard) return content.substring(0, i).toUpperCase();
 	        return null;
 		}
 	}
+
+	/* Index of the first CR or LF at or after fromIndex, or -1 if there is none */
+	private static int indexOfLineTerminator(CharSequence content, int fromIndex)
+	{
+		for (int i=fromIndex; i<content.length(); i++)
+		{
+			char c = content.charAt(i);
+			if ((c == '\r') || (c == '\n')) return i;
+		}
+		return -1;
+	}
 	
 	protected static class Message
 	{
@@ -26,6 +26,9 @@
  */
 package jfxtras.icalendarfx;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
@@ -40,6 +43,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -50,10 +54,12 @@ import jfxtras.icalendarfx.VElementBase;
 import jfxtras.icalendarfx.VParent;
 import jfxtras.icalendarfx.VParentBase;
 import jfxtras.icalendarfx.components.VComponent;
+import jfxtras.icalendarfx.content.ChildAccessor;
 import jfxtras.icalendarfx.content.ContentLineStrategy;
+import jfxtras.icalendarfx.content.IndexedOrderer;
 import jfxtras.icalendarfx.content.Orderer;
 import jfxtras.icalendarfx.content.OrdererBase;
-import jfxtras.icalendarfx.content.UnfoldingStringIterator;
+import jfxtras.icalendarfx.content.UnfoldingBufferedReader;
 import jfxtras.icalendarfx.parameters.VParameter;
 import jfxtras.icalendarfx.properties.VProperty;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RRulePart;
@@ -72,12 +78,18 @@ import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleV
  */
 public abstract class VParentBase<T> extends VElementBase implements VParent
 {
-	/* Setter, getter maps
-	 * The first key is the VParent class
-	 * The second key is the VChild of that VParent
+	/* Child accessor maps, computed once for each VParent class
+	 * The key is the VChild of that VParent
+	 * ClassValue allows contention-free access from several threads
 	 */
-	private static final  Map<Class<? extends VParent>, Map<Class<? extends VChild>, Method>> SETTERS = new HashMap<>();
-	private static final  Map<Class<? extends VParent>, Map<Class<? extends VChild>, Method>> GETTERS = new HashMap<>();
+	private static final ClassValue<Map<Class<? extends VChild>, ChildAccessor>> ACCESSORS = new ClassValue<Map<Class<? extends VChild>, ChildAccessor>>()
+	{
+		@Override
+		protected Map<Class<? extends VChild>, ChildAccessor> computeValue(Class<?> type)
+		{
+			return ChildAccessor.collectAccessorMap(type);
+		}
+	};
 
     /*
      * HANDLE SORT ORDER FOR CHILD ELEMENTS
@@ -106,30 +118,23 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 	@Override
     public void addChild(VChild child)
     {
-		Method setter = getSetter(child);
-		boolean isList = Collection.class.isAssignableFrom(setter.getParameters()[0].getType());
-		try {
-			if (isList)
+		ChildAccessor accessor = getAccessor(child);
+		if (accessor.isCollection())
+		{
+			Collection<VChild> list = (Collection<VChild>) accessor.get(this);
+			if (list == null)
 			{
-				Method getter = getGetter(child);
-				Collection<VChild> list = (Collection<VChild>) getter.invoke(this);
-				if (list == null)
-				{
-					list = (getter.getReturnType() == List.class) ? new ArrayList<>() :
-						   (getter.getReturnType() == Set.class) ? new LinkedHashSet<>() : new ArrayList<>();
-					list.add(child);
-					setter.invoke(this, list);
-				} else
-				{
-					list.add(child);
-					orderChild(child);
-				}
+				list = accessor.newCollection();
+				list.add(child);
+				accessor.set(this, list);
 			} else
 			{
-				setter.invoke(this, child);
+				list.add(child);
+				orderChild(child);
 			}
-		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-			e.printStackTrace();
+		} else
+		{
+			accessor.set(this, child);
 		}
     }
 	@Override
@@ -146,37 +151,76 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 	@Override
 	public boolean removeChild(VChild child)
 	{
-		Method setter = getSetter(child);
-		boolean isList = List.class.isAssignableFrom(setter.getParameters()[0].getType());
-		try {
-			if (isList)
+		ChildAccessor accessor = getAccessor(child);
+		if (accessor.isCollection())
+		{
+			Collection<VChild> list = (Collection<VChild>) accessor.get(this);
+			if (list == null)
 			{
-				Method getter = getGetter(child);
-				List<VChild> list = (List<VChild>) getter.invoke(this);
-				if (list == null)
+				return false;
+			} else
+			{
+				VChild removed = removeSame(list, child);
+				orderChild((removed == null) ? child : removed, null);
+				// Should I leave empty lists? - below code removes empty lists
+//				if (list.isEmpty())
+//				{
+//					accessor.set(this, null);
+//				}
+				return removed != null;
+			}
+		} else
+		{
+			accessor.set(this, null);
+			orderChild(child, null);
+			return true;
+		}
+	}
+	/*
+	 * Removes the element that is the same instance as child.  Equal children are common, such as
+	 * copied components, so removing by equals could remove the wrong one, and comparing whole components
+	 * makes bulk deletes quadratic.  A list is scanned from both ends, so removing children in either
+	 * the order they were added or the reverse order is fast.  Falls back to equals if child isn't in the collection.
+	 * Returns the element removed, so the orderer can remove that same instance, or null if nothing was removed.
+	 */
+	private static VChild removeSame(Collection<VChild> collection, VChild child)
+	{
+		if (collection instanceof List && collection instanceof RandomAccess)
+		{
+			List<VChild> list = (List<VChild>) collection;
+			for (int low=0, high=list.size()-1; low<=high; low++, high--)
+			{
+				if (list.get(high) == child)
 				{
-					return false;
-				} else
+					return list.remove(high);
+				} else if (list.get(low) == child)
 				{
-					boolean result = list.remove(child);
-					orderChild(child, null);
-					// Should I leave empty lists? - below code removes empty lists
-//					if (list.isEmpty())
-//					{
-//						setter.invoke(this, (Object) null);
-//					}
-					return result;
+					return list.remove(low);
 				}
-			} else
+			}
+		} else
+		{
+			Iterator<VChild> iterator = collection.iterator();
+			while (iterator.hasNext())
 			{
-				setter.invoke(this, (Object) null);
-				orderChild(child, null);
-				return true;
+				if (iterator.next() == child)
+				{
+					iterator.remove();
+					return child;
+				}
 			}
-		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-			e.printStackTrace();
 		}
-		return false;
+		Iterator<VChild> iterator = collection.iterator();
+		while (iterator.hasNext())
+		{
+			VChild element = iterator.next();
+			if (child.equals(element))
+			{
+				iterator.remove();
+				return element;
+			}
+		}
+		return null;
 	}
 	@Override
 	public boolean removeChild(int index)
@@ -201,41 +245,23 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 		return (T) this;
 	}
 	
-    protected Map<Class<? extends VChild>, Method> getSetters()
+    /** Return the accessors for all children allowed in this parent, keyed by child class */
+    protected Map<Class<? extends VChild>, ChildAccessor> getAccessors()
     {
-    	if (SETTERS.get(getClass()) == null)
-    	{
-    		Map<Class<? extends VChild>, Method> setterMap = collectSetterMap(getClass());
-			SETTERS.put(getClass(), setterMap);
-			return setterMap;
-    	}
-    	return SETTERS.get(getClass());
+    	return ACCESSORS.get(getClass());
     }
     
-    protected Map<Class<? extends VChild>, Method> getGetters()
-    {
-    	if (GETTERS.get(getClass()) == null)
-    	{
-    		Map<Class<? extends VChild>, Method> getterMap = collectGetterMap(getClass());
-			GETTERS.put(getClass(), getterMap);
-			return getterMap;
-    	}
-    	return GETTERS.get(getClass());
-    }
-	protected Method getSetter(VChild child)
-	{
-		return getSetters().get(child.getClass());
-	}
-	protected Method getGetter(VChild child)
+    /** Return the accessor for the child, or null if the child isn't allowed in this parent */
+	protected ChildAccessor getAccessor(VChild child)
 	{
-		return getGetters().get(child.getClass());
+		return getAccessors().get(child.getClass());
 	}
 	
     @Override
 	protected List<Message> parseContent(String content)
     {
-        Iterator<String> i = Arrays.asList(content.split(System.lineSeparator())).iterator();
-        return parseContent(new UnfoldingStringIterator(i));
+        Iterator<String> unfoldedLineIterator = new UnfoldingBufferedReader(new StringReader(content)).lines().iterator();
+        return parseContent(unfoldedLineIterator);
     }
 
     /*
@@ -348,8 +374,8 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 					MessageEffect.MESSAGE_ONLY);
 			messages.add(message);
 		}
-		Method getter = getGetter(newChild);
-		boolean isChildAllowed = getter != null;
+		ChildAccessor accessor = getAccessor(newChild);
+		boolean isChildAllowed = (accessor != null) && accessor.hasGetter();
 		if (! isChildAllowed)
 		{
 			Message message = new Message(this,
@@ -360,12 +386,7 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
     		else // Moved to an else block, because getter could be null here
     		{		
 			final boolean isChildAlreadyPresent;
-			Object currentParameter = null;
-			try {
-				currentParameter = getter.invoke(this);
-			} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-				e.printStackTrace();
-			}
+			Object currentParameter = accessor.get(this);
 			if (currentParameter instanceof Collection)
 			{
 				isChildAlreadyPresent = ((Collection<?>) currentParameter).contains(newChild); // TODO contains is expensive - try to find a way to avoid
@@ -423,7 +444,14 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
      */
     public VParentBase()
     {
-    	orderer = new OrdererBase(this, getGetters());
+    	orderer = newOrderer();
+    }
+    
+    /** Return a new {@link Orderer} for this parent.  Parents that can hold many children override this
+     * to return an {@link IndexedOrderer}, which removes and replaces children in constant time. */
+    protected Orderer newOrderer()
+    {
+    	return new OrdererBase(this, getAccessors());
     }
     
     // copy constructor
@@ -449,7 +477,155 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
         {
             throw new RuntimeException("Can't produce content lines because contentLineGenerator isn't set");  // contentLineGenerator MUST be set by subclasses
         }
-        return contentLineGenerator.execute();
+        return content(System.lineSeparator());
+    }
+    
+    @Override
+    public void writeTo(Appendable out, String lineSeparator) throws IOException
+    {
+        if (contentLineGenerator == null)
+        {
+            out.append(toString());
+        } else if (isContentCacheable())
+        {
+            out.append(content(lineSeparator));
+        } else
+        {
+            contentLineGenerator.execute(out, lineSeparator);
+        }
+    }
+    
+    /*
+     * CACHED CONTENT
+     * 
+     * Only the elements that return true from isContentCacheable, the top-level calendar components, keep their
+     * content lines, so each line of the document is held at most once.  A change below a cached element
+     * discards its cache through invalidateContent, which is pushed up the parents when the change is made.
+     * Values that can be changed in place without notice, such as an EXDATE's set of dates, are recorded
+     * with their hash when the cache is made and only those are checked when it's read.
+     */
+    private volatile ContentCache contentCache;
+    
+    /** Returns the content lines separated by lineSeparator, from the cache if nothing changed since they were made */
+    protected String content(String lineSeparator)
+    {
+        ContentCache cache = contentCache;
+        if ((cache != null) && cache.isCurrent(lineSeparator))
+        {
+            return cache.content;
+        }
+        if (! isContentCacheable())
+        {
+            return buildContent(lineSeparator);
+        }
+        List<VParentBase<?>> mutableElements = new ArrayList<>();
+        collectMutableContent(mutableElements);
+        int[] hashes = new int[mutableElements.size()];
+        for (int i=0; i<hashes.length; i++)
+        {
+            hashes[i] = mutableElements.get(i).contentStateHash();
+        }
+        String content = buildContent(lineSeparator);
+        contentCache = new ContentCache(content, lineSeparator, mutableElements.toArray(new VParentBase<?>[0]), hashes);
+        return content;
+    }
+    
+    /** Produces the content lines, separated by lineSeparator, without using the cache */
+    protected String buildContent(String lineSeparator)
+    {
+        StringBuilder builder = new StringBuilder(100);
+        try
+        {
+            contentLineGenerator.execute(builder, lineSeparator);
+        } catch (IOException e)
+        {
+            throw new UncheckedIOException(e); // StringBuilder doesn't throw IOException
+        }
+        return builder.toString();
+    }
+    
+    /* Collect this element and descendants with content that can change in place */
+    private void collectMutableContent(List<VParentBase<?>> mutableElements)
+    {
+        if (isContentMutable())
+        {
+            mutableElements.add(this);
+        }
+        for (VChild child : childrenUnmodifiable())
+        {
+            if (child instanceof VParentBase)
+            {
+                ((VParentBase<?>) child).collectMutableContent(mutableElements);
+            }
+        }
+    }
+    
+    /**
+     * Discards the cached content lines of this element and its ancestors.  Invoked automatically when
+     * a child is ordered or replaced and when a property value is set.  In-place changes to collection values,
+     * such as adding a date to an exception date's set, are detected without calling this method.
+     */
+    public void invalidateContent()
+    {
+        contentCache = null;
+        if (this instanceof VChild)
+        {
+            VParent parent = ((VChild) this).getParent();
+            if (parent instanceof VParentBase)
+            {
+                ((VParentBase<?>) parent).invalidateContent();
+            }
+        }
+    }
+    
+    /** Returns true if the content lines should be cached.  False by default; overridden by top-level calendar components. */
+    protected boolean isContentCacheable()
+    {
+        return false;
+    }
+    
+    /** Returns true if {@link #contentStateHash()} must be checked to detect changes.  False by default. */
+    protected boolean isContentMutable()
+    {
+        return false;
+    }
+    
+    /** Hash of state that can change without notice, such as a collection value changed in place.  Zero by default. */
+    protected int contentStateHash()
+    {
+        return 0;
+    }
+    
+    private static class ContentCache
+    {
+        final private String content;
+        final private String lineSeparator;
+        final private VParentBase<?>[] mutableElements;
+        final private int[] hashes;
+        
+        private ContentCache(String content, String lineSeparator, VParentBase<?>[] mutableElements, int[] hashes)
+        {
+            this.content = content;
+            this.lineSeparator = lineSeparator;
+            this.mutableElements = mutableElements;
+            this.hashes = hashes;
+        }
+        
+        private boolean isCurrent(String lineSeparator)
+        {
+            if (! this.lineSeparator.equals(lineSeparator))
+            {
+                return false;
+            }
+            for (int i=0; i<hashes.length; i++)
+            {
+                if (mutableElements[i].contentStateHash() != hashes[i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
     
     // Note: can't check equals or hashCode of parents - causes stack overflow
@@ -463,21 +639,10 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
         VParent testObj = (VParent) obj;
         
         // getter version is slower, but will be correct.
-        Map<Class<? extends VChild>, Method> getters = getGetters();
-        return getters.entrySet()
+        return getAccessors().values()
         	.stream()
-        	.map(e -> e.getValue())
-        	.allMatch(m ->
-        	{
-				try {
-					Object v1 = m.invoke(this);
-	        		Object v2 = m.invoke(testObj);
-	        		return Objects.equals(v1, v2);
-				} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e1) {
-					e1.printStackTrace();
-				}
-				return false;
-        	});
+        	.filter(a -> a.hasGetter())
+        	.allMatch(a -> Objects.equals(a.get(this), a.get(testObj)));
     }
     
     @Override
@@ -501,6 +666,7 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 		Iterator<Method> methodIterator = Arrays.stream(class1.getMethods())
 				.filter(m -> m.getParameters().length == 0)
 				.filter(m -> m.getName().startsWith("get"))
+				.filter(m -> ! m.isAnnotationPresent(Deprecated.class)) // old single-valued accessors delegate to list ones
 				.iterator();
 		while (methodIterator.hasNext())
 		{
@@ -531,6 +697,7 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 		Iterator<Method> methodIterator = Arrays.stream(class1.getMethods())
 				.filter(m -> m.getParameters().length == 1)
 				.filter(m -> m.getName().startsWith("set"))
+				.filter(m -> ! m.isAnnotationPresent(Deprecated.class)) // old single-valued accessors delegate to list ones
 				.iterator();
 		while (methodIterator.hasNext())
 		{
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import jfxtras.icalendarfx.components.DaylightSavingTime;
@@ -38,7 +39,8 @@ import jfxtras.icalendarfx.components.StandardOrDaylight;
 import jfxtras.icalendarfx.components.StandardTime;
 import jfxtras.icalendarfx.components.VComponent;
 import jfxtras.icalendarfx.components.VRepeatableBase;
-import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceRuleCache;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceCache;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceCaches;
 import jfxtras.icalendarfx.properties.component.timezone.TimeZoneName;
 import jfxtras.icalendarfx.properties.component.timezone.TimeZoneOffsetFrom;
 import jfxtras.icalendarfx.properties.component.timezone.TimeZoneOffsetTo;
@@ -267,7 +269,9 @@ public abstract class StandardOrDaylight<T extends StandardOrDaylight<T>> extend
     }
     
     // Recurrence streamer - produces recurrence set
-    private RecurrenceRuleCache streamer = new RecurrenceRuleCache(this);
+    private RecurrenceCache recurrenceCache = RecurrenceCaches.newCache(this);
     @Override
-    public RecurrenceRuleCache recurrenceCache() { return streamer; }
+    public RecurrenceCache recurrenceCache() { return recurrenceCache; }
+    @Override
+    public void setRecurrenceCache(RecurrenceCache recurrenceCache) { this.recurrenceCache = Objects.requireNonNull(recurrenceCache); }
 }
@@ -26,6 +26,7 @@
  */
 package jfxtras.icalendarfx.components;
 
+import jfxtras.icalendarfx.VCalendar;
 import jfxtras.icalendarfx.VParent;
 import jfxtras.icalendarfx.VParentBase;
 import jfxtras.icalendarfx.components.VComponent;
@@ -44,6 +45,13 @@ public abstract class VComponentBase<T> extends VParentBase<T> implements VCompo
     @Override public void setParent(VParent parent) { this.parent = parent; }
     @Override public VParent getParent() { return parent; }
     
+    /* Only components directly in a calendar keep their content lines, nested components such as VALARM don't */
+    @Override
+    protected boolean isContentCacheable()
+    {
+        return parent instanceof VCalendar;
+    }
+    
     final private VComponentElement componentType;
     @Override
     public String name() { return componentType.toString(); }
@@ -34,10 +34,11 @@ import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -63,7 +64,8 @@ import jfxtras.icalendarfx.properties.component.descriptive.Status.StatusType;
 import jfxtras.icalendarfx.properties.component.recurrence.ExceptionDates;
 import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceDates;
 import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceRule;
-import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceRuleCache;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceCache;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceCaches;
 import jfxtras.icalendarfx.properties.component.relationship.Contact;
 import jfxtras.icalendarfx.properties.component.relationship.RecurrenceId;
 import jfxtras.icalendarfx.properties.component.relationship.RelatedTo;
@@ -680,40 +682,8 @@ public abstract class VDisplayable<T> extends VPersonal<T> implements VRepeatabl
         // get stream with recurrence rule (RRULE) and recurrence date (RDATE)
         Stream<Temporal> inStream = VRepeatable.super.streamRecurrences(start);
 
-        // assign temporal comparator to match start type
-        final Comparator<Temporal> temporalComparator = DateTimeUtilities.getTemporalComparator(start);
-        
-        // Handle Recurrence IDs
-        final Stream<Temporal> stream2;
-        List<VDisplayable<?>> children = recurrenceChildren();
-        if (children != null)
-        {
-            // If present, remove recurrence ID original values
-            List<Temporal> recurrenceIDTemporals = recurrenceChildren()
-                    .stream()
-                    .map(c -> c.getRecurrenceId().getValue())
-                    .collect(Collectors.toList());
-            stream2 = inStream.filter(t -> ! recurrenceIDTemporals.contains(t));
-        } else
-        {
-            stream2 = inStream;
-        }
-        
-        // If present, remove exceptions
-        final Stream<Temporal> stream3;
-        if (getExceptionDates() != null)
-        {
-            List<Temporal> exceptions = getExceptionDates()
-                    .stream()
-                    .flatMap(r -> r.getValue().stream())
-                    .map(v -> v)
-                    .sorted(temporalComparator)
-                    .collect(Collectors.toList());
-            stream3 = stream2.filter(d -> ! exceptions.contains(d));
-        } else
-        {
-            stream3 = stream2;
-        }
+        // Remove recurrence ID original values and exceptions, if present
+        final Stream<Temporal> stream3 = excludeRecurrences(inStream);
         
         if (getRecurrenceRule() == null)
         {
@@ -728,13 +698,203 @@ public abstract class VDisplayable<T> extends VPersonal<T> implements VRepeatabl
     	}
     }
 
+    @Override
+    public Stream<Temporal> streamRecurrences(Temporal start, Temporal end)
+    {
+        Stream<Temporal> inStream = VRepeatable.super.streamRecurrences(start, end);
+        // a stream that isn't split is made by streamRecurrences(start), which has already removed exclusions
+        return isRecurrenceSetSplittable() ? excludeRecurrences(inStream) : inStream;
+    }
+    
+    /* Removes recurrence ID original values and exceptions.  Hashing keeps the filter stateless, so it works for parallel streams too. */
+    private Stream<Temporal> excludeRecurrences(Stream<Temporal> inStream)
+    {
+        Set<Temporal> excludedTemporals = new HashSet<>();
+        recurrenceChildren().forEach(c -> excludedTemporals.add(c.getRecurrenceId().getValue()));
+        if (getExceptionDates() != null)
+        {
+            getExceptionDates().forEach(e -> excludedTemporals.addAll(e.getValue()));
+        }
+        return excludedTemporals.isEmpty() ? inStream : inStream.filter(t -> ! excludedTemporals.contains(t));
+    }
+
     /*
      *  RECURRENCE STREAMER
      *  produces recurrence set
      */
-    private RecurrenceRuleCache recurrenceCache = new RecurrenceRuleCache(this);
+    private RecurrenceCache recurrenceCache = RecurrenceCaches.newCache(this);
+    @Override
+    public RecurrenceCache recurrenceCache() { return recurrenceCache; }
+    @Override
+    public void setRecurrenceCache(RecurrenceCache recurrenceCache) { this.recurrenceCache = Objects.requireNonNull(recurrenceCache); }
+
+    /*
+     * MEMOIZED RECURRENCES
+     * 
+     * The recurrences of the last requested window are kept until the component changes.  A window that
+     * overlaps, or touches, the kept one only expands the difference, so sliding a displayed range is cheap.
+     */
+    private static final int MAX_MEMOIZED_RECURRENCES = 10_000;
+    private volatile long revision; // a lost concurrent increment still changes the value
+    private volatile RecurrenceWindow recurrenceWindow;
+    
+    /**
+     * Returns a number that changes whenever this component, or one of its properties, changes.
+     * 
+     * @return  current revision
+     */
+    public long getRevision()
+    {
+        return revision;
+    }
+    
     @Override
-    public RecurrenceRuleCache recurrenceCache() { return recurrenceCache; }
+    public void invalidateContent()
+    {
+        revision++;
+        super.invalidateContent();
+    }
+    
+    /**
+     * Returns the recurrences between start and end, like {@link #streamRecurrences(Temporal, Temporal)}.
+     * The result is memoized until this component, its exceptions or its recurrence children change.
+     * Later calls for a window overlapping, or next to, the previous one only expand the part that
+     * wasn't expanded before.
+     * 
+     * @param start - include recurrences that END before this value (inclusive)
+     * @param end - include recurrences that START before this value (exclusive)
+     * @return  unmodifiable list of recurrences
+     */
+    public List<Temporal> recurrences(Temporal start, Temporal end)
+    {
+        long revision = this.revision;
+        int stateHash = recurrenceStateHash();
+        Temporal earliest = earliestRecurrence(start);
+        RecurrenceWindow window = recurrenceWindow;
+        if ((window != null) && (window.revision == revision) && (window.stateHash == stateHash))
+        {
+            if (window.contains(earliest, end))
+            {
+                return window.recurrences(earliest, end);
+            }
+            if (window.touches(earliest, end))
+            {
+                List<Temporal> recurrences = new ArrayList<>(window.recurrences.size());
+                Temporal windowStart = window.start;
+                Temporal windowEnd = window.end;
+                if (DateTimeUtilities.isBefore(earliest, windowStart))
+                {
+                    streamRecurrences(start, windowStart).forEachOrdered(recurrences::add);
+                    windowStart = earliest;
+                }
+                recurrences.addAll(window.recurrences);
+                if (DateTimeUtilities.isBefore(windowEnd, end))
+                {
+                    // recurrences in progress at windowEnd were kept already
+                    final Temporal previousEnd = windowEnd;
+                    streamRecurrences(windowEnd, end)
+                            .filter(t -> ! DateTimeUtilities.isBefore(t, previousEnd))
+                            .forEachOrdered(recurrences::add);
+                    windowEnd = end;
+                }
+                if (recurrences.size() <= MAX_MEMOIZED_RECURRENCES)
+                {
+                    window = new RecurrenceWindow(revision, stateHash, windowStart, windowEnd, recurrences);
+                    recurrenceWindow = window;
+                    return window.recurrences(earliest, end);
+                }
+            }
+        }
+        List<Temporal> recurrences = streamRecurrences(start, end).collect(Collectors.toList());
+        window = new RecurrenceWindow(revision, stateHash, earliest, end, recurrences);
+        recurrenceWindow = window;
+        return window.recurrences;
+    }
+    
+    /** Returns the earliest recurrence start included by {@link #streamRecurrences(Temporal)} */
+    Temporal earliestRecurrence(Temporal start)
+    {
+        return start;
+    }
+    
+    /* Hash of the recurrence state that can change without changing this component's revision: the recurrence
+     * rule and collection values changed in place, and recurrence children elsewhere in the calendar */
+    private int recurrenceStateHash()
+    {
+        int hash = (getRecurrenceRule() == null) ? 0 : getRecurrenceRule().getValue().hashCode();
+        if (getExceptionDates() != null)
+        {
+            for (ExceptionDates exceptionDates : getExceptionDates())
+            {
+                hash = (31 * hash) + exceptionDates.getValue().hashCode();
+            }
+        }
+        if (getRecurrenceDates() != null)
+        {
+            for (RecurrenceDates recurrenceDates : getRecurrenceDates())
+            {
+                hash = (31 * hash) + recurrenceDates.getValue().hashCode();
+            }
+        }
+        for (VDisplayable<?> child : recurrenceChildren())
+        {
+            hash = (31 * hash) + child.getRecurrenceId().getValue().hashCode();
+        }
+        return hash;
+    }
+    
+    /* Sorted recurrences starting from start (inclusive) to end (exclusive), expanded for a component state */
+    private static class RecurrenceWindow
+    {
+        final private long revision;
+        final private int stateHash;
+        final private Temporal start;
+        final private Temporal end;
+        final private List<Temporal> recurrences;
+        
+        private RecurrenceWindow(long revision, int stateHash, Temporal start, Temporal end, List<Temporal> recurrences)
+        {
+            this.revision = revision;
+            this.stateHash = stateHash;
+            this.start = start;
+            this.end = end;
+            this.recurrences = Collections.unmodifiableList(recurrences);
+        }
+        
+        private boolean contains(Temporal start, Temporal end)
+        {
+            return ! DateTimeUtilities.isBefore(start, this.start) && ! DateTimeUtilities.isAfter(end, this.end);
+        }
+        
+        private boolean touches(Temporal start, Temporal end)
+        {
+            return ! DateTimeUtilities.isAfter(start, this.end) && ! DateTimeUtilities.isBefore(end, this.start);
+        }
+        
+        /* Returns the part of the recurrences in a range inside the window */
+        private List<Temporal> recurrences(Temporal start, Temporal end)
+        {
+            return recurrences.subList(firstIndexNotBefore(start), firstIndexNotBefore(end));
+        }
+        
+        private int firstIndexNotBefore(Temporal temporal)
+        {
+            int low = 0;
+            int high = recurrences.size();
+            while (low < high)
+            {
+                int middle = (low + high) >>> 1;
+                if (DateTimeUtilities.isBefore(recurrences.get(middle), temporal))
+                {
+                    low = middle + 1;
+                } else
+                {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
 
     /*
      * RECURRENCE CHILDREN - (RECURRENCE-IDs AND MATCHING UID)
@@ -743,19 +903,73 @@ public abstract class VDisplayable<T> extends VPersonal<T> implements VRepeatabl
     {
     	if ((getParent() != null) && (getRecurrenceId() == null))
     	{
-    		UniqueIdentifier myUid = getUniqueIdentifier();
-    		return calendarList()
-    			.stream()
-    			.map(c -> (VDisplayable<?>) c)
-    			.filter(c -> ! (c == this))
-    			.filter(c -> c.getUniqueIdentifier().equals(myUid))
-				.filter(c -> c.getRecurrenceId() != null)
-				.collect(Collectors.toList());
+    		VCalendar vCalendar = (VCalendar) getParent();
+    		long indexVersion = vCalendar.getUniqueIdentifierIndexVersion();
+    		long revision = vCalendar.getRevision();
+    		RecurrenceChildren memo = recurrenceChildren;
+    		if ((memo == null) || ! memo.isValidFor(indexVersion, revision))
+    		{
+	    		List<VDisplayable<?>> children = sameUniqueIdentifier()
+	    			.stream()
+					.filter(c -> c.getRecurrenceId() != null)
+					.collect(Collectors.toList());
+	    		memo = new RecurrenceChildren(indexVersion, revision, Collections.unmodifiableList(children));
+	    		recurrenceChildren = memo;
+    		}
+    		return memo.children;
     	} else
     	{
     		return Collections.emptyList();
     	}
     }
+    private volatile RecurrenceChildren recurrenceChildren;
+    
+    /* Recurrence children found for a calendar revision.  Components added to, or removed from, the calendar list
+     * directly, without ordering them, don't change the revision, so the version of the UID index is checked too. */
+    private static class RecurrenceChildren
+    {
+        final private long indexVersion;
+        final private long revision;
+        final private List<VDisplayable<?>> children;
+        
+        private RecurrenceChildren(long indexVersion, long revision, List<VDisplayable<?>> children)
+        {
+            this.indexVersion = indexVersion;
+            this.revision = revision;
+            this.children = children;
+        }
+        
+        private boolean isValidFor(long indexVersion, long revision)
+        {
+            return (this.indexVersion == indexVersion) && (this.revision == revision);
+        }
+    }
+    
+    /* Other components of this type in the calendar with the same UID, from the calendar's UID index */
+    private List<VDisplayable<?>> sameUniqueIdentifier()
+    {
+    	if (getUniqueIdentifier() == null)
+    	{
+    		return Collections.emptyList();
+    	}
+    	return ((VCalendar) getParent()).getVDisplayables(getUniqueIdentifier().getValue())
+    			.stream()
+    			.filter(c -> c != this)
+    			.filter(c -> c.getClass() == getClass())
+    			.collect(Collectors.toList());
+    }
+    
+    /* Keep the calendar's UID index up to date */
+    @Override
+    public void setUniqueIdentifier(UniqueIdentifier uniqueIdentifier)
+    {
+    	UniqueIdentifier oldUniqueIdentifier = getUniqueIdentifier();
+    	super.setUniqueIdentifier(uniqueIdentifier);
+    	if (getParent() instanceof VCalendar)
+    	{
+    		((VCalendar) getParent()).uniqueIdentifierChanged(this, (oldUniqueIdentifier == null) ? null : oldUniqueIdentifier.getValue());
+    	}
+    }
     
     /*
      * RECURRENCE PARENT - (the VComponent with matching UID and no RECURRENCEID)
@@ -764,13 +978,8 @@ public abstract class VDisplayable<T> extends VPersonal<T> implements VRepeatabl
     {
     	if (getParent() != null && (getRecurrenceId() != null))
     	{
-    		UniqueIdentifier myUid = getUniqueIdentifier();
-    		@SuppressWarnings("rawtypes")
-			Optional<VDisplayable> recurrenceParent = calendarList()
+			Optional<VDisplayable<?>> recurrenceParent = sameUniqueIdentifier()
     			.stream()
-    			.map(c -> (VDisplayable) c)
-    			.filter(c -> ! (c == this))
-    			.filter(c -> c.getUniqueIdentifier().equals(myUid))
 				.filter(c -> c.getRecurrenceId() == null)
 				.findAny();
     		return (recurrenceParent.isPresent()) ? recurrenceParent.get() : null;
@@ -790,18 +999,15 @@ public abstract class VDisplayable<T> extends VPersonal<T> implements VRepeatabl
             VCalendar vCalendar = (VCalendar) getParent();
             if (vCalendar != null)
             {
-                final UniqueIdentifier uid = getUniqueIdentifier();
-                return calendarList()
+                return sameUniqueIdentifier()
                         .stream()
-                        .map(v -> (VDisplayable<?>) v)
-                        .filter(v -> v.getUniqueIdentifier().equals(uid))
                         .filter(v -> v.getRecurrenceId() != null)
                         .filter(v -> 
                         {
                             Temporal myRecurrenceID = v.getRecurrenceId().getValue();
                             Temporal cacheStart = recurrenceCache().getClosestStart(myRecurrenceID);
                             Temporal nextRecurrenceDateTime = getRecurrenceRule().getValue()
-                                    .streamRecurrences(cacheStart)
+                                    .streamRecurrences(cacheStart, myRecurrenceID)
                                     .filter(t -> ! DateTimeUtilities.isBefore(t, myRecurrenceID))
                                     .findFirst()
                                     .orElseGet(() -> null);
@@ -28,8 +28,11 @@ package jfxtras.icalendarfx.components;
 
 import java.time.ZonedDateTime;
 import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import jfxtras.icalendarfx.VCalendar;
 import jfxtras.icalendarfx.components.VDateTimeEnd;
@@ -188,6 +191,8 @@ public class VFreeBusy extends VPersonal<VFreeBusy> implements VDateTimeEnd<VFre
      * start DATE-TIME and DURATION.  Any values entered as start and end as both
      * DATE-TIME are converted to the start DATE-TIME and DURATION.
      * 
+     * The property can occur more than once, typically once for each FBTYPE.
+     * 
      * Examples:
      * FREEBUSY;FBTYPE=BUSY-UNAVAILABLE:19970308T160000Z/PT8H30M
      * FREEBUSY;FBTYPE=FREE:19970308T160000Z/PT3H,19970308T200000Z/PT1H
@@ -197,28 +202,82 @@ public class VFreeBusy extends VPersonal<VFreeBusy> implements VDateTimeEnd<VFre
      * FREEBUSY;FBTYPE=FREE:19970308T160000Z/PT3H,19970308T200000Z/PT1H
      *  ,19970308T230000Z/PT1H
      */
-    private FreeBusyTime freeBusyTime;
-    public FreeBusyTime getFreeBusyTime() { return freeBusyTime; }
+    private List<FreeBusyTime> freeBusyTimes;
+    public List<FreeBusyTime> getFreeBusyTimes() { return freeBusyTimes; }
+    public void setFreeBusyTimes(List<FreeBusyTime> freeBusyTimes)
+    {
+    	if (this.freeBusyTimes != null)
+    	{
+    		this.freeBusyTimes.forEach(e -> orderChild(e, null)); // remove old elements
+    	}
+    	this.freeBusyTimes = freeBusyTimes;
+    	if (freeBusyTimes != null)
+    	{
+    		freeBusyTimes.forEach(c -> orderChild(c)); // order new elements
+    	}
+	}
+    public VFreeBusy withFreeBusyTimes(List<FreeBusyTime> freeBusyTimes)
+    {
+    	if (getFreeBusyTimes() == null)
+    	{
+    		setFreeBusyTimes(new ArrayList<>());
+    	}
+    	if (freeBusyTimes != null)
+    	{
+    		getFreeBusyTimes().addAll(freeBusyTimes);
+    		freeBusyTimes.forEach(c -> orderChild(c));
+    	}
+    	return this;
+	}
+    public VFreeBusy withFreeBusyTimes(String...freeBusyTimes)
+    {
+        List<FreeBusyTime> list = Arrays.stream(freeBusyTimes)
+                .map(c -> FreeBusyTime.parse(c))
+                .collect(Collectors.toList());
+        return withFreeBusyTimes(list);
+    }
+    public VFreeBusy withFreeBusyTimes(FreeBusyTime...freeBusyTimes)
+    {
+    	return withFreeBusyTimes(Arrays.asList(freeBusyTimes));
+    }
+    
+    /** @deprecated FREEBUSY can occur more than once, use {@link #getFreeBusyTimes()} */
+    @Deprecated
+    public FreeBusyTime getFreeBusyTime()
+    {
+    	return ((freeBusyTimes == null) || freeBusyTimes.isEmpty()) ? null : freeBusyTimes.get(0);
+    }
+    /** @deprecated FREEBUSY can occur more than once, use {@link #setFreeBusyTimes(List)} */
+    @Deprecated
     public void setFreeBusyTime(String freeBusyTime) { setFreeBusyTime(FreeBusyTime.parse(freeBusyTime)); }
+    /** @deprecated FREEBUSY can occur more than once, use {@link #setFreeBusyTimes(List)} */
+    @Deprecated
     public void setFreeBusyTime(List<Pair<ZonedDateTime, TemporalAmount>> freeBusyTime) { setFreeBusyTime(new FreeBusyTime(freeBusyTime)); }
+    /** @deprecated FREEBUSY can occur more than once, use {@link #setFreeBusyTimes(List)} */
+    @Deprecated
     public void setFreeBusyTime(FreeBusyTime freeBusyTime)
     {
-    	orderChild(this.freeBusyTime, freeBusyTime);
-    	this.freeBusyTime = freeBusyTime;
-	}
+    	setFreeBusyTimes((freeBusyTime == null) ? null : new ArrayList<>(Arrays.asList(freeBusyTime)));
+    }
+    /** @deprecated FREEBUSY can occur more than once, use {@link #withFreeBusyTimes(FreeBusyTime...)} */
+    @Deprecated
     public VFreeBusy withFreeBusyTime(FreeBusyTime freeBusyTime)
     {
     	setFreeBusyTime(freeBusyTime);
     	return this;
 	}
+    /** @deprecated FREEBUSY can occur more than once, use {@link #withFreeBusyTimes(FreeBusyTime...)} */
+    @Deprecated
     public VFreeBusy withFreeBusyTime(List<Pair<ZonedDateTime, TemporalAmount>> freeBusyTime)
     {
     	setFreeBusyTime(freeBusyTime);
     	return this;
 	}
+    /** @deprecated FREEBUSY can occur more than once, use {@link #withFreeBusyTimes(String...)} */
+    @Deprecated
     public VFreeBusy withFreeBusyTime(String freeBusyTime)
     {
-    	setFreeBusyTime(FreeBusyTime.parse(freeBusyTime));
+    	setFreeBusyTime(freeBusyTime);
     	return this;
 	}
     
@@ -27,7 +27,9 @@
 package jfxtras.icalendarfx.components;
 
 import java.time.DateTimeException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAmount;
 import java.util.ArrayList;
@@ -379,8 +381,36 @@ public abstract class VLocatable<T> extends VDisplayable<T> implements VDescriba
     @Override
     public Stream<Temporal> streamRecurrences(Temporal start)
     {
-        final TemporalAmount adjustment = getActualDuration();
-        return super.streamRecurrences(start.minus(adjustment));
+        return super.streamRecurrences(minusActualDuration(start));
+    }
+    
+    @Override
+    Temporal earliestRecurrence(Temporal start)
+    {
+        return minusActualDuration(start);
+    }
+    
+    /** Bounded stream with the same adjustment, if it is split by period (otherwise {@link #streamRecurrences(Temporal)} already adjusts) */
+    @Override
+    public Stream<Temporal> streamRecurrences(Temporal start, Temporal end)
+    {
+        if (isRecurrenceSetSplittable())
+        {
+            return super.streamRecurrences(minusActualDuration(start), end);
+        }
+        return super.streamRecurrences(start, end);
+    }
+    
+    /* Start moved back by the duration.  For a DATE start, an exact duration, like PT12H, is rounded up to whole days. */
+    private Temporal minusActualDuration(Temporal start)
+    {
+        TemporalAmount duration = getActualDuration();
+        if ((duration instanceof Duration) && ! start.isSupported(ChronoUnit.SECONDS))
+        {
+            long seconds = ((Duration) duration).getSeconds() + ((((Duration) duration).getNano() > 0) ? 1 : 0);
+            return start.minus(-Math.floorDiv(-seconds, 86400), ChronoUnit.DAYS);
+        }
+        return start.minus(duration);
     }
     
     @Override
@@ -48,7 +48,7 @@ import jfxtras.icalendarfx.components.VTodo;
 import jfxtras.icalendarfx.properties.component.recurrence.PropertyBaseRecurrence;
 import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceDates;
 import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceRule;
-import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceRuleCache;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceCache;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
 import jfxtras.icalendarfx.properties.component.time.DateTimeStart;
 import jfxtras.icalendarfx.utilities.DateTimeUtilities;
@@ -245,10 +245,21 @@ public interface VRepeatable<T> extends VComponent
     /**
      * Handles caching of recurrence start Temporal values.
      */
-    RecurrenceRuleCache recurrenceCache();
+    RecurrenceCache recurrenceCache();
+    
+    /**
+     * Replaces the strategy for caching recurrence start Temporal values.  By default, the cache
+     * is made by {@link jfxtras.icalendarfx.properties.component.recurrence.RecurrenceCaches#newCache(VRepeatable)}.
+     * 
+     * @param recurrenceCache - cache for this component
+     */
+    void setRecurrenceCache(RecurrenceCache recurrenceCache);
 
     /**
      * Produces a stream of dates or date-times bounded by the start and end parameters.  See {@link #streamRecurrences(Temporal)}
+     * <p>
+     * If {@link #isRecurrenceSetSplittable()} the stream splits by frequency period of the recurrence rule,
+     * so a long series can be processed in parallel.
      * 
      * @param start - include recurrences that END before this value (inclusive)
      * @param end - include recurrences that START before this value (exclusive)
@@ -256,8 +267,31 @@ public interface VRepeatable<T> extends VComponent
      */
     default Stream<Temporal> streamRecurrences(Temporal start, Temporal end)
     {
+        if (isRecurrenceSetSplittable())
+        {
+            DateTimeType startType = DateTimeUtilities.DateTimeType.of(start);
+            DateTimeType dateTimeStartType = DateTimeUtilities.DateTimeType.of(getDateTimeStart().getValue());
+            if (startType != dateTimeStartType)
+            {
+                throw new DateTimeException("Start type " + startType + " must match DTSTART type of " + dateTimeStartType);
+            }
+            return getRecurrenceRule().getValue().streamRecurrences(getDateTimeStart().getValue(), start, end);
+        }
         return ICalendarUtilities.takeWhile(streamRecurrences(start), a -> DateTimeUtilities.isBefore(a, end)); // exclusive
     }
+    
+    /**
+     * Tests if {@link #streamRecurrences(Temporal, Temporal)} splits by frequency period.  That requires
+     * a recurrence rule that {@link RecurrenceRuleValue#isSplittable(Temporal) is splittable} and no RDATE.
+     * 
+     * @return true if bounded recurrence streams can be split for parallel processing
+     */
+    default boolean isRecurrenceSetSplittable()
+    {
+        return (getRecurrenceRule() != null) &&
+                (getRecurrenceDates() == null) &&
+                getRecurrenceRule().getValue().isSplittable(getDateTimeStart().getValue());
+    }
 
     
     /** 
@@ -290,10 +324,10 @@ public interface VRepeatable<T> extends VComponent
         	if (getRecurrenceRule().getValue().getCount() == null)
         	{
 	            Temporal cacheStart = recurrenceCache().getClosestStart(start);
-	            stream1 = getRecurrenceRule().getValue().streamRecurrences(cacheStart);
+	            stream1 = getRecurrenceRule().getValue().streamRecurrences(cacheStart, start);
         	} else
-        	{ // if RRULE has COUNT must start at DTSTART
-        		stream1 = getRecurrenceRule().getValue().streamRecurrences(getDateTimeStart().getValue());
+        	{ // if RRULE has COUNT must start at DTSTART, skipping ahead is done by counting whole periods
+        		stream1 = getRecurrenceRule().getValue().streamRecurrences(getDateTimeStart().getValue(), start);
         	}
         }
         
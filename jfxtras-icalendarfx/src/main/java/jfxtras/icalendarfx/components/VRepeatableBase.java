@@ -31,6 +31,7 @@ import java.time.ZonedDateTime;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -42,7 +43,8 @@ import jfxtras.icalendarfx.components.VRepeatableBase;
 import jfxtras.icalendarfx.properties.component.recurrence.PropertyBaseRecurrence;
 import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceDates;
 import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceRule;
-import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceRuleCache;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceCache;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceCaches;
 import jfxtras.icalendarfx.properties.component.time.DateTimeStart;
 import jfxtras.icalendarfx.utilities.DateTimeUtilities;
 import jfxtras.icalendarfx.utilities.DateTimeUtilities.DateTimeType;
@@ -240,8 +242,10 @@ public abstract class VRepeatableBase<T> extends VPrimary<T> implements VRepeata
      *  RECURRENCE STREAMER
      *  produces recurrence set
      */
-    private RecurrenceRuleCache streamer = new RecurrenceRuleCache(this);
+    private RecurrenceCache recurrenceCache = RecurrenceCaches.newCache(this);
     @Override
-    public RecurrenceRuleCache recurrenceCache() { return streamer; }
+    public RecurrenceCache recurrenceCache() { return recurrenceCache; }
+    @Override
+    public void setRecurrenceCache(RecurrenceCache recurrenceCache) { this.recurrenceCache = Objects.requireNonNull(recurrenceCache); }
     
 }
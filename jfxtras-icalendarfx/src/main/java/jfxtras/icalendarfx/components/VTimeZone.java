@@ -26,7 +26,6 @@
  */
 package jfxtras.icalendarfx.components;
 
-import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -34,6 +33,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import jfxtras.icalendarfx.content.ChildAccessor;
 import jfxtras.icalendarfx.VCalendar;
 import jfxtras.icalendarfx.VChild;
 import jfxtras.icalendarfx.components.DaylightSavingTime;
@@ -470,24 +470,14 @@ public class VTimeZone extends VCommon<VTimeZone> implements VLastModified<VTime
     }
     
 	@Override
-	protected Method getSetter(VChild child)
+	protected ChildAccessor getAccessor(VChild child)
 	{
-		Method setter = getSetters().get(child.getClass());
-		if ((setter == null) && (StandardOrDaylight.class.isAssignableFrom(child.getClass())))
+		ChildAccessor accessor = getAccessors().get(child.getClass());
+		if ((accessor == null) && (StandardOrDaylight.class.isAssignableFrom(child.getClass())))
 		{
-			setter = getSetters().get(StandardOrDaylight.class);
+			accessor = getAccessors().get(StandardOrDaylight.class);
 		}
-		return setter;
-	}
-	@Override
-	protected Method getGetter(VChild child)
-	{
-		Method getter = getGetters().get(child.getClass());
-		if ((getter == null) && (StandardOrDaylight.class.isAssignableFrom(child.getClass())))
-		{
-			getter = getGetters().get(StandardOrDaylight.class);
-		}
-		return getter;
+		return accessor;
 	}
     
     @Override
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.content;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import jfxtras.icalendarfx.VChild;
+import jfxtras.icalendarfx.VParent;
+import jfxtras.icalendarfx.VParentBase;
+
+/**
+ * Typed access to the getter and setter of one kind of {@link VChild} in a {@link VParent}.
+ * <p>
+ * Accessors are made once per parent class by {@link #collectAccessorMap(Class)} from the getters and setters found by
+ * {@link VParentBase#collectGetterMap(Class)} and {@link VParentBase#collectSetterMap(Class)}.  The methods are
+ * bound to functional interfaces with {@link LambdaMetafactory}, so calling them costs the same as a direct call
+ * instead of a reflective {@link Method#invoke(Object, Object...)}.
+ */
+public final class ChildAccessor
+{
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    
+    private final Function<Object, Object> getter;
+    private final BiConsumer<Object, Object> setter;
+    private final boolean isCollection;
+    private final boolean isSet;
+
+    private ChildAccessor(Method getterMethod, Method setterMethod)
+    {
+        getter = (getterMethod == null) ? null : makeGetter(getterMethod);
+        setter = (setterMethod == null) ? null : makeSetter(setterMethod);
+        isCollection = (setterMethod != null) && Collection.class.isAssignableFrom(setterMethod.getParameterTypes()[0]);
+        isSet = (getterMethod != null) && (getterMethod.getReturnType() == Set.class);
+    }
+    
+    /** Return true if the parent has a getter for the child */
+    public boolean hasGetter() { return getter != null; }
+    
+    /** Return true if the parent has a setter for the child */
+    public boolean hasSetter() { return setter != null; }
+    
+    /** Return true if the parent holds a collection of the child instead of a single child */
+    public boolean isCollection() { return isCollection; }
+    
+    /** Return the value of the getter, either a {@link VChild}, a collection or null */
+    public Object get(VParent parent)
+    {
+        return getter.apply(parent);
+    }
+    
+    /** Call the setter with either a {@link VChild}, a collection or null */
+    public void set(VParent parent, Object value)
+    {
+        setter.accept(parent, value);
+    }
+    
+    /** Return an empty collection matching the getter's return type */
+    public Collection<VChild> newCollection()
+    {
+        return (isSet) ? new LinkedHashSet<>() : new ArrayList<>();
+    }
+    
+    /**
+     * Make the accessors for all the children of a parent class.  The key is the child class, the same as
+     * the keys of {@link VParentBase#collectGetterMap(Class)} and {@link VParentBase#collectSetterMap(Class)}.
+     * 
+     * @param parentClass  class of the {@link VParent}
+     * @return  unmodifiable map of child class to its accessor
+     */
+    public static Map<Class<? extends VChild>, ChildAccessor> collectAccessorMap(Class<?> parentClass)
+    {
+        Map<Class<? extends VChild>, Method> getters = VParentBase.collectGetterMap(parentClass);
+        Map<Class<? extends VChild>, Method> setters = VParentBase.collectSetterMap(parentClass);
+        Map<Class<? extends VChild>, ChildAccessor> accessors = new HashMap<>();
+        getters.forEach((c, m) -> accessors.put(c, new ChildAccessor(m, setters.get(c))));
+        setters.forEach((c, m) -> accessors.computeIfAbsent(c, k -> new ChildAccessor(null, m)));
+        return Collections.unmodifiableMap(accessors);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> makeGetter(Method method)
+    {
+        try
+        {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(
+                    LOOKUP,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    handle.type());
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e)
+        {
+            // fall back to a method handle if a lambda can't be made (e.g. method isn't accessible)
+            MethodHandle handle = unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+            return p ->
+            {
+                try
+                {
+                    return handle.invokeExact(p);
+                } catch (Throwable e2)
+                {
+                    throw new RuntimeException(e2);
+                }
+            };
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> makeSetter(Method method)
+    {
+        try
+        {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(
+                    LOOKUP,
+                    "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    handle.type().changeReturnType(void.class));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e)
+        {
+            // fall back to a method handle if a lambda can't be made (e.g. method isn't accessible)
+            MethodHandle handle = unreflect(method).asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (p, v) ->
+            {
+                try
+                {
+                    handle.invokeExact(p, v);
+                } catch (Throwable e2)
+                {
+                    throw new RuntimeException(e2);
+                }
+            };
+        }
+    }
+    
+    private static MethodHandle unreflect(Method method)
+    {
+        try
+        {
+            method.setAccessible(true);
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+}
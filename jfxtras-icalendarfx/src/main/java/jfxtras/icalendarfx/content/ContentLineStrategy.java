@@ -26,6 +26,8 @@
  */
 package jfxtras.icalendarfx.content;
 
+import java.io.IOException;
+
 import jfxtras.icalendarfx.VElement;
 
 /** Interface for delegated content line generators */
@@ -33,4 +35,17 @@ public interface ContentLineStrategy
 {
     /** Produce output for {@link VElement#toString()} */
     String execute();
+    
+    /**
+     * Write output for {@link VElement#writeTo(Appendable, String)} directly to out.
+     * The default implementation appends the result of {@link #execute()}.
+     * 
+     * @param out  destination of content lines
+     * @param lineSeparator  separator placed between content lines
+     * @throws IOException  if out throws IOException
+     */
+    default void execute(Appendable out, String lineSeparator) throws IOException
+    {
+        out.append(execute());
+    }
 }
@@ -0,0 +1,325 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.content;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import jfxtras.icalendarfx.components.VComponentElement;
+import jfxtras.icalendarfx.parameters.VParameterElement;
+import jfxtras.icalendarfx.properties.VPropertyElement;
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.RRuleElement;
+import jfxtras.icalendarfx.utilities.ICalendarUtilities;
+
+/**
+ * Tokenizes one unfolded content line into its property name, parameters and value.
+ * <p>
+ * The tokenizer is a cursor over the line: {@link #next()} moves to the next parameter or to the value,
+ * and the current token is exposed as offsets into the line.  Names are matched case-insensitively against
+ * the element names of the calendar element enums and the interned constant is returned, so standard names
+ * cost no allocation.  Value strings are only made when {@link #value()} is called.
+ * <p>
+ * Lines are handled the same way as {@link ICalendarUtilities#parseInlineElementsToListPair(String)}:
+ * <ul>
+ * <li>"SUMMARY;LANGUAGE=en:Party" has a property name, parameters and a value
+ * <li>";LANGUAGE=en:Party" and "LANGUAGE=en:Party" have no property name
+ * <li>"Party" has only a value
+ * </ul>
+ * A tokenizer can be reused for many lines by calling {@link #reset(CharSequence)}.
+ */
+public class ContentLineTokenizer
+{
+    /* Open-addressing hash table of upper-case element names, size is a power of two */
+    private static final String[] NAME_TABLE = makeNameTable();
+    private static String[] makeNameTable()
+    {
+        String[] names = Stream.of(
+                Arrays.stream(VComponentElement.values()),
+                Arrays.stream(VPropertyElement.values()),
+                Arrays.stream(VParameterElement.values()),
+                Arrays.stream(RRuleElement.values()))
+            .flatMap(s -> s)
+            .map(e -> e.toString().intern())
+            .distinct()
+            .toArray(String[]::new);
+        int size = Integer.highestOneBit(names.length * 4);
+        String[] table = new String[size];
+        for (String name : names)
+        {
+            int index = hash(name, 0, name.length()) & (size-1);
+            while (table[index] != null)
+            {
+                index = (index+1) & (size-1);
+            }
+            table[index] = name;
+        }
+        return table;
+    }
+    
+    /* case-insensitive hash for ASCII names */
+    private static int hash(CharSequence chars, int start, int end)
+    {
+        int h = 0;
+        for (int i=start; i<end; i++)
+        {
+            char c = chars.charAt(i);
+            if ((c >= 'a') && (c <= 'z')) c -= ('a' - 'A');
+            h = 31*h + c;
+        }
+        return h ^ (h >>> 16);
+    }
+    
+    /**
+     * Return the interned upper-case element name matching the characters from start to end, ignoring case.
+     * 
+     * @return  matching name, or null if the characters don't match a standard element name
+     */
+    public static String internName(CharSequence chars, int start, int end)
+    {
+        int length = end - start;
+        int index = hash(chars, start, end) & (NAME_TABLE.length-1);
+        String candidate;
+        while ((candidate = NAME_TABLE[index]) != null)
+        {
+            if ((candidate.length() == length) && regionMatchesIgnoreCase(chars, start, candidate))
+            {
+                return candidate;
+            }
+            index = (index+1) & (NAME_TABLE.length-1);
+        }
+        return null;
+    }
+
+    private static boolean regionMatchesIgnoreCase(CharSequence chars, int start, String name)
+    {
+        for (int i=0; i<name.length(); i++)
+        {
+            char c = chars.charAt(start+i);
+            if ((c >= 'a') && (c <= 'z')) c -= ('a' - 'A');
+            if (c != name.charAt(i)) return false;
+        }
+        return true;
+    }
+    
+    /* Interned name, or upper-case copy for non-standard names */
+    private static String name(CharSequence chars, int start, int end)
+    {
+        String name = internName(chars, start, end);
+        return (name != null) ? name : chars.subSequence(start, end).toString().toUpperCase();
+    }
+
+    private CharSequence line;
+    private int nameEnd; // end of property name, -1 if there is none
+    private int position; // position of delimiter before next token
+    private boolean isValueOnly;
+    private boolean isValue;
+    private int tokenNameStart;
+    private int tokenNameEnd;
+    private int valueStart;
+    private int valueEnd;
+
+    /** Create a tokenizer, call {@link #reset(CharSequence)} before use */
+    public ContentLineTokenizer() { }
+    
+    /** Create a tokenizer for the line */
+    public ContentLineTokenizer(CharSequence line)
+    {
+        reset(line);
+    }
+
+    /**
+     * Start tokenizing a new unfolded content line
+     * 
+     * @param line  unfolded content line
+     * @return  this tokenizer
+     */
+    public ContentLineTokenizer reset(CharSequence line)
+    {
+        this.line = line;
+        isValue = false;
+        isValueOnly = false;
+        int i;
+        for (i=0; i<line.length(); i++)
+        {
+            char c = line.charAt(i);
+            if ((c == ';') || (c == ':') || (c == '=')) break;
+        }
+        if (i == line.length())
+        { // contains no property name, only value
+            nameEnd = -1;
+            isValueOnly = true;
+            position = -1;
+        } else if (line.charAt(i) == '=')
+        { // doesn't contain the property name, but has parameters
+            nameEnd = -1;
+            position = -1;
+        } else
+        { // has a property name (possibly empty) followed by parameters and/or value
+            nameEnd = i;
+            position = i;
+        }
+        return this;
+    }
+    
+    /**
+     * Start tokenizing text that contains only a value
+     * 
+     * @param value  value text
+     * @return  this tokenizer
+     */
+    public ContentLineTokenizer resetValue(CharSequence value)
+    {
+        reset(value);
+        nameEnd = -1;
+        isValueOnly = true;
+        position = -1;
+        return this;
+    }
+
+    /** Return the line being tokenized */
+    public CharSequence line() { return line; }
+    
+    /** Return true if the line starts with a property name */
+    public boolean hasPropertyName() { return nameEnd > 0; }
+    
+    /** Return upper-case property name, interned if it's a standard name, or null if the line has no property name */
+    public String propertyName()
+    {
+        return (hasPropertyName()) ? name(line, 0, nameEnd) : null;
+    }
+    
+    /** Return true if the property name equals name, ignoring case */
+    public boolean propertyNameEquals(String name)
+    {
+        return (nameEnd == name.length()) && regionMatchesIgnoreCase(line, 0, name.toUpperCase());
+    }
+    
+    /**
+     * Move to the next token, either a parameter or the value
+     * 
+     * @return  true if a token was found, false at the end of the line
+     */
+    public boolean next()
+    {
+        if (isValueOnly)
+        {
+            isValueOnly = false;
+            isValue = true;
+            valueStart = (line.length() == 0) ? -1 : 0;
+            valueEnd = line.length();
+            position = line.length();
+            return true;
+        }
+        if (isValue || (position >= line.length()))
+        {
+            return false;
+        }
+        
+        final char delimiter = (position < 0) ? ';' : line.charAt(position);
+        int start = position + 1;
+        if (delimiter == ':')
+        { // value continues to end of the line
+            isValue = true;
+            boolean isEmpty = start == line.length();
+            valueStart = isEmpty ? -1 : start;
+            valueEnd = line.length();
+            position = line.length();
+            return true;
+        }
+        if ((position == nameEnd) && (position == line.length()-1))
+        { // contains only property name, has no value
+            isValue = true;
+            valueStart = -1;
+            position = line.length();
+            return true;
+        }
+        
+        // parameter
+        tokenNameStart = start;
+        int i = start;
+        while ((i < line.length()) && (line.charAt(i) != '=') && (line.charAt(i) != ';') && (line.charAt(i) != ':'))
+        {
+            i++;
+        }
+        tokenNameEnd = i;
+        if ((i < line.length()) && (line.charAt(i) == '='))
+        {
+            valueStart = i+1;
+            boolean quoteOn = false;
+            for (i = valueStart; i < line.length(); i++)
+            {
+                char c = line.charAt(i);
+                if (c == '\"')
+                {
+                    quoteOn = ! quoteOn;
+                } else if ((! quoteOn) && ((c == ';') || (c == ':')))
+                {
+                    break;
+                }
+            }
+            valueEnd = i;
+        } else
+        { // parameter has no value
+            valueStart = -1;
+        }
+        position = i;
+        return true;
+    }
+    
+    /** Return true if the current token is the property value */
+    public boolean isValue() { return isValue; }
+    
+    /**
+     * Return the name of the current token.  For parameters it's the upper-case parameter name,
+     * interned if it's a standard name.  For the value it's {@link ICalendarUtilities#PROPERTY_VALUE_KEY}.
+     */
+    public String name()
+    {
+        return (isValue) ? ICalendarUtilities.PROPERTY_VALUE_KEY : name(line, tokenNameStart, tokenNameEnd);
+    }
+    
+    /** Return true if the current token is a parameter whose name equals name, ignoring case */
+    public boolean nameEquals(String name)
+    {
+        return (! isValue) && (tokenNameEnd - tokenNameStart == name.length()) && regionMatchesIgnoreCase(line, tokenNameStart, name.toUpperCase());
+    }
+    
+    /** Return true if the current token has a value */
+    public boolean hasValue() { return valueStart >= 0; }
+    
+    /** Start offset of the current token's value in the line, -1 if it has no value */
+    public int valueStart() { return valueStart; }
+    
+    /** End offset (exclusive) of the current token's value in the line */
+    public int valueEnd() { return valueEnd; }
+    
+    /** Return the current token's value as a new String, or null if it has no value */
+    public String value()
+    {
+        return (hasValue()) ? line.subSequence(valueStart, valueEnd).toString() : null;
+    }
+}
@@ -0,0 +1,323 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.content;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.VChild;
+import jfxtras.icalendarfx.VParent;
+import jfxtras.icalendarfx.VParentBase;
+
+/**
+ *  Maintains a sort order of {@link VChild} elements of a {@link VParent} that can hold many children,
+ *  such as a {@link VCalendar} with thousands of components.
+ *  
+ *  <p>Children are found by identity through an index of their positions, so removing or replacing a child
+ *  is constant time instead of the linear search done by {@link OrdererBase}.  Removed children leave an empty
+ *  slot, and the slots are compacted by a later change once at least half of them are empty, which keeps bulk
+ *  removals linear overall.  Reading the children never changes the orderer, so it is safe from several threads
+ *  while the children aren't changed.  Getting a child by its index, as {@link VParentBase#removeChild(int)} does,
+ *  takes logarithmic time while there are empty slots and constant time otherwise.  Inserting at an index,
+ *  through {@link #orderChild(int, VChild)}, is still linear.</p>
+ * 
+ * @see OrdererBase
+ * @see VParentBase#newOrderer()
+ */ 
+public class IndexedOrderer implements Orderer
+{
+	final private VParent parent;
+    
+    /* Children in order - removed children leave a null slot until compacted */
+    final private List<VChild> slots = new ArrayList<>();
+    /* Position in slots of each child, by identity */
+    final private Map<VChild, Integer> positions = new IdentityHashMap<>();
+    private int removedCount;
+    /* Fenwick tree counting the children in slots, to find a child by its index while there are empty slots - index 0 is unused */
+    private int[] liveCounts = new int[1];
+    
+    final private List<VChild> orderedChildren = new OrderedChildren();
+
+    /*
+     * CONSTRUCTOR
+     */
+    /** Create an {@link IndexedOrderer} for the {@link VParent} parameter */
+    public IndexedOrderer(VParent aParent)
+    {
+        this.parent = aParent;
+    }
+
+	@Override
+	public List<VChild> childrenUnmodifiable()
+	{
+		return orderedChildren;
+	}
+
+	@Override
+	public void orderChild(VChild newChild)
+	{
+		if (newChild == parent) throw new RuntimeException("Can't add you to yourself!");
+		removeSlot(newChild); // an already ordered child moves to the end
+		positions.put(newChild, slots.size());
+		slots.add(newChild);
+		countSlot(slots.size()-1, 1);
+		newChild.setParent(parent);
+		invalidateParentContent();
+	}
+
+	@Override
+	public void orderChild(int index, VChild newChild)
+	{
+		if (newChild != null)
+		{
+			removeSlot(newChild);
+			compact();
+			slots.add(index, newChild);
+			for (int i=index; i<slots.size(); i++)
+			{
+				positions.put(slots.get(i), i);
+			}
+			rebuildCounts();
+			newChild.setParent(parent);
+			invalidateParentContent();
+		}
+	}
+	
+	@Override
+	public boolean replaceChild(VChild oldChild, VChild newChild)
+	{
+		if (newChild == null)
+		{
+			if (oldChild != null)
+			{
+				invalidateParentContent();
+				return removeSlot(oldChild);
+			}
+		} else if (oldChild == null)
+		{
+			orderChild(newChild);
+		} else if (oldChild == newChild)
+		{
+			return positions.containsKey(oldChild);
+		} else
+		{
+			removeSlot(newChild); // first, because removing can compact the slots
+			Integer index = positions.remove(oldChild);
+			if (index == null)
+			{
+				orderChild(newChild);
+				return false;
+			}
+			slots.set(index, newChild);
+			positions.put(newChild, index);
+			newChild.setParent(parent);
+			invalidateParentContent();
+			return true;
+		}
+		return false;
+	}
+	
+	/* Empty the slot holding child, if any.  Returns true if child was ordered. */
+	private boolean removeSlot(VChild child)
+	{
+		Integer index = positions.remove(child);
+		if (index == null)
+		{
+			return false;
+		}
+		slots.set(index, null);
+		countSlot(index, -1);
+		removedCount++;
+		while (! slots.isEmpty() && (slots.get(slots.size()-1) == null))
+		{ // drop empty slots at the end
+			slots.remove(slots.size()-1);
+			removedCount--;
+		}
+		if (removedCount > slots.size() / 2)
+		{
+			compact();
+		}
+		return true;
+	}
+	
+	/* Remove empty slots left by removed children */
+	private void compact()
+	{
+		if (removedCount == 0)
+		{
+			return;
+		}
+		int j = 0;
+		for (int i=0; i<slots.size(); i++)
+		{
+			VChild child = slots.get(i);
+			if (child != null)
+			{
+				if (i != j)
+				{
+					slots.set(j, child);
+					positions.put(child, j);
+				}
+				j++;
+			}
+		}
+		slots.subList(j, slots.size()).clear();
+		removedCount = 0;
+		rebuildCounts();
+	}
+	
+	/* Add delta to the count of children in slot, growing the tree if slot is past its end */
+	private void countSlot(int slot, int delta)
+	{
+		if (slot >= liveCounts.length-1)
+		{
+			rebuildCounts(Math.max(2 * (liveCounts.length-1), slot+1));
+			return;
+		}
+		for (int i=slot+1; i<liveCounts.length; i += i & -i)
+		{
+			liveCounts[i] += delta;
+		}
+	}
+	
+	/* Count the children in all slots again, after the slots were shifted */
+	private void rebuildCounts()
+	{
+		rebuildCounts(Math.max(liveCounts.length-1, slots.size()));
+	}
+	
+	private void rebuildCounts(int capacity)
+	{
+		liveCounts = new int[capacity+1];
+		for (int i=1; i<=capacity; i++)
+		{
+			if ((i <= slots.size()) && (slots.get(i-1) != null))
+			{
+				liveCounts[i]++;
+			}
+			int parentIndex = i + (i & -i);
+			if (parentIndex <= capacity)
+			{
+				liveCounts[parentIndex] += liveCounts[i];
+			}
+		}
+	}
+	
+	/* Ordering changes the parent's content lines */
+	private void invalidateParentContent()
+	{
+		if (parent instanceof VParentBase)
+		{
+			((VParentBase<?>) parent).invalidateContent();
+		}
+	}
+	
+	/* Unmodifiable view of the children that skips empty slots */
+	private class OrderedChildren extends AbstractList<VChild>
+	{
+		@Override
+		public VChild get(int index)
+		{
+			if (removedCount == 0)
+			{
+				return slots.get(index);
+			}
+			if ((index < 0) || (index >= size()))
+			{
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			}
+			// find the slot of the (index+1)th child by descending the Fenwick tree
+			int slot = 0;
+			int remaining = index + 1;
+			for (int step = Integer.highestOneBit(liveCounts.length-1); step > 0; step >>= 1)
+			{
+				int next = slot + step;
+				if ((next < liveCounts.length) && (liveCounts[next] < remaining))
+				{
+					slot = next;
+					remaining -= liveCounts[next];
+				}
+			}
+			return slots.get(slot);
+		}
+
+		@Override
+		public int size()
+		{
+			return slots.size() - removedCount;
+		}
+		
+		@Override
+		public Iterator<VChild> iterator()
+		{
+			return new Iterator<VChild>()
+			{
+				private int index = nextIndex(0);
+				
+				@Override
+				public boolean hasNext()
+				{
+					return index < slots.size();
+				}
+				
+				@Override
+				public VChild next()
+				{
+					if (! hasNext())
+					{
+						throw new NoSuchElementException();
+					}
+					VChild child = slots.get(index);
+					index = nextIndex(index + 1);
+					return child;
+				}
+				
+				private int nextIndex(int from)
+				{
+					int i = from;
+					while ((i < slots.size()) && (slots.get(i) == null))
+					{
+						i++;
+					}
+					return i;
+				}
+			};
+		}
+	}
+
+    @Override
+	public String toString()
+    {
+		return "IndexedOrderer [parent=" + parent + ", orderedChildren=" + orderedChildren + "]";
+	}
+}
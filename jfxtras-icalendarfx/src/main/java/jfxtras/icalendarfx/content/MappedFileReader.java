@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.content;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader that memory-maps a UTF-8 encoded file with {@link FileChannel#map} and decodes it incrementally.
+ * Characters are decoded straight from the mapped bytes into the caller's buffer, so there is no
+ * intermediate byte buffer on the heap.  Large files are mapped in windows of {@link #DEFAULT_WINDOW_SIZE}
+ * bytes, remapping when a window is used up.  Multi-byte characters that straddle two windows are decoded
+ * from the next window.
+ * <p>
+ * Intended to be wrapped by {@link UnfoldingBufferedReader} to parse very large iCalendar files.
+ */
+public class MappedFileReader extends Reader
+{
+    /** Size of each mapped window of the file, in bytes */
+    public static final int DEFAULT_WINDOW_SIZE = 64*1024*1024;
+    
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private ByteBuffer window;
+    private long windowStart;
+    private boolean isEndOfInput;
+    private int pendingChar = -1; // low surrogate left over when only one char was requested
+    
+    public MappedFileReader(Path path) throws IOException
+    {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+    
+    public MappedFileReader(Path path, int windowSize) throws IOException
+    {
+        if (windowSize < 4)
+        {
+            throw new IllegalArgumentException("windowSize must be at least 4 bytes to hold any UTF-8 character");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException
+    {
+        if (! channel.isOpen())
+        {
+            throw new IOException("Reader is closed");
+        }
+        if (len == 0) return 0;
+        if (pendingChar >= 0)
+        {
+            cbuf[off] = (char) pendingChar;
+            pendingChar = -1;
+            return 1;
+        }
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        while (out.position() == off)
+        {
+            if (isEndOfInput)
+            {
+                return -1;
+            }
+            if (window == null || ! window.hasRemaining())
+            {
+                if (! mapNextWindow())
+                {
+                    // whole file decoded
+                    CoderResult result = decoder.decode(window, out, true);
+                    if (result.isError()) result.throwException();
+                    decoder.flush(out);
+                    isEndOfInput = true;
+                    continue;
+                }
+            }
+            boolean isLastWindow = windowStart + window.limit() >= size;
+            CoderResult result = decoder.decode(window, out, isLastWindow);
+            if (result.isError()) result.throwException();
+            if (out.position() == off)
+            {
+                if (result.isOverflow())
+                {
+                    // only one char requested, but next character is a surrogate pair
+                    CharBuffer pair = CharBuffer.allocate(2);
+                    result = decoder.decode(window, pair, isLastWindow);
+                    if (result.isError()) result.throwException();
+                    pair.flip();
+                    out.put(pair.get());
+                    if (pair.hasRemaining()) pendingChar = pair.get();
+                } else if (isLastWindow)
+                {
+                    decoder.flush(out);
+                    isEndOfInput = true;
+                } else
+                {
+                    // incomplete multi-byte character at end of window
+                    mapNextWindow();
+                }
+            }
+        }
+        return out.position() - off;
+    }
+    
+    /*
+     * Maps the next window starting at the first byte not yet decoded.
+     * Returns false if there are no more bytes to map.
+     */
+    private boolean mapNextWindow() throws IOException
+    {
+        long start = (window == null) ? 0 : windowStart + window.position();
+        if (window != null && start >= size)
+        {
+            return false;
+        }
+        long length = Math.min(windowSize, size - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        windowStart = start;
+        return length > 0;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        window = null;
+        channel.close();
+    }
+}
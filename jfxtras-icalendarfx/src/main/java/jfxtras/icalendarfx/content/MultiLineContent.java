@@ -26,7 +26,10 @@
  */
 package jfxtras.icalendarfx.content;
 
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import jfxtras.icalendarfx.VChild;
 
 public class MultiLineContent extends ContentLineBase
 {
@@ -50,15 +53,25 @@ public class MultiLineContent extends ContentLineBase
     public String execute()
     {
         StringBuilder builder = new StringBuilder(builderSize);
-        builder.append(firstContentLine + System.lineSeparator());
-        String content = orderer.childrenUnmodifiable().stream()
-                .map(c -> c.toString())
-                .collect(Collectors.joining(System.lineSeparator()));
-        if (! content.isEmpty())
+        try
+        {
+            execute(builder, System.lineSeparator());
+        } catch (IOException e)
         {
-            builder.append(content + System.lineSeparator());
+            throw new UncheckedIOException(e); // StringBuilder doesn't throw IOException
         }
-        builder.append(lastContentLine);
         return builder.toString();
     }
+    
+    @Override
+    public void execute(Appendable out, String lineSeparator) throws IOException
+    {
+        out.append(firstContentLine).append(lineSeparator);
+        for (VChild child : orderer.childrenUnmodifiable())
+        {
+            child.writeTo(out, lineSeparator);
+            out.append(lineSeparator);
+        }
+        out.append(lastContentLine);
+    }
 }
@@ -26,8 +26,6 @@
  */
 package jfxtras.icalendarfx.content;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -39,6 +37,7 @@ import java.util.stream.Collectors;
 import jfxtras.icalendarfx.VCalendar;
 import jfxtras.icalendarfx.VChild;
 import jfxtras.icalendarfx.VParent;
+import jfxtras.icalendarfx.VParentBase;
 import jfxtras.icalendarfx.components.VComponentBase;
 import jfxtras.icalendarfx.properties.VPropertyBase;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
@@ -59,7 +58,7 @@ import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleV
 public class OrdererBase implements Orderer
 {
 	final private VParent parent;
-    final private Map<Class<? extends VChild>, Method> childGetters;
+    final private Map<Class<? extends VChild>, ChildAccessor> childAccessors;
     
     private List<VChild> orderedChildren = new ArrayList<>();
 
@@ -67,10 +66,10 @@ public class OrdererBase implements Orderer
      * CONSTRUCTOR
      */
     /** Create an {@link OrdererBase} for the {@link VParent} parameter */
-    public OrdererBase(VParent aParent, Map<Class<? extends VChild>, Method> map)
+    public OrdererBase(VParent aParent, Map<Class<? extends VChild>, ChildAccessor> map)
     {
         this.parent = aParent;
-        this.childGetters = map;
+        this.childAccessors = map;
     }
 
 	@Override
@@ -79,20 +78,13 @@ public class OrdererBase implements Orderer
 		return orderedChildren;
 	}
 	
-    private List<VChild> allUnorderedChildren(VParent parent, Map<Class<? extends VChild>, Method> childGetters2)
+    private List<VChild> allUnorderedChildren(VParent parent, Map<Class<? extends VChild>, ChildAccessor> childAccessors2)
     {
-    	return Collections.unmodifiableList(childGetters2
-			.entrySet()
+    	return Collections.unmodifiableList(childAccessors2
+			.values()
     		.stream()
-    		.map(e -> e.getValue())
-    		.map(m -> {
-				try {
-					return m.invoke(parent);
-				} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-					e.printStackTrace();
-				}
-				return null;
-			})
+    		.filter(a -> a.hasGetter())
+    		.map(a -> a.get(parent))
     		.filter(p -> p != null)
     		.flatMap(p -> 
     		{
@@ -114,6 +106,7 @@ public class OrdererBase implements Orderer
 		if (newChild == parent) throw new RuntimeException("Can't add you to yourself!");
 		orderedChildren.add(newChild);
 		newChild.setParent(parent);
+		invalidateParentContent();
 	}
 	
 	/* Remove orphans matching newChild's class type
@@ -122,7 +115,7 @@ public class OrdererBase implements Orderer
 	 *  */
 	private void removeOrphans(VChild newChild)
 	{
-		List<VChild> allUnorderedChildren = allUnorderedChildren(parent, childGetters);
+		List<VChild> allUnorderedChildren = allUnorderedChildren(parent, childAccessors);
 		List<VChild> orphans = orderedChildren
 				.stream()
 				.filter(c -> c.getClass().equals(newChild.getClass()))
@@ -139,6 +132,7 @@ public class OrdererBase implements Orderer
 			orderedChildren.remove(newChild);
 			orderedChildren.add(index, newChild);
 			newChild.setParent(parent);
+			invalidateParentContent();
 		}
 	}
 	
@@ -149,6 +143,7 @@ public class OrdererBase implements Orderer
 		{
 			if (oldChild != null)
 			{
+				invalidateParentContent();
 				return orderedChildren.remove(oldChild);
 			}
 		} else if (oldChild == null)
@@ -158,10 +153,21 @@ public class OrdererBase implements Orderer
 		{
 			int index = orderedChildren.indexOf(oldChild);
 			VChild result = orderedChildren.set(index, newChild);
+			newChild.setParent(parent);
+			invalidateParentContent();
 			return result.equals(oldChild);
 		}
 		return false;
 	}
+	
+	/* Ordering changes the parent's content lines */
+	private void invalidateParentContent()
+	{
+		if (parent instanceof VParentBase)
+		{
+			((VParentBase<?>) parent).invalidateContent();
+		}
+	}
 
     @Override
 	public String toString()
@@ -26,8 +26,10 @@
  */
 package jfxtras.icalendarfx.content;
 
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
+import jfxtras.icalendarfx.VChild;
 import jfxtras.icalendarfx.utilities.Callback;
 
 public class SingleLineContent extends ContentLineBase
@@ -49,14 +51,24 @@ public class SingleLineContent extends ContentLineBase
     public String execute()
     {
         StringBuilder builder = new StringBuilder(builderSize);
-        builder.append(nameCallback.call(null));
-        String elements = orderer.childrenUnmodifiable().stream()
-                .map(c -> c.toString())
-                .collect(Collectors.joining(";"));
-        if (! elements.isEmpty())
+        try
         {
-            builder.append(";" + elements);
+            execute(builder, System.lineSeparator());
+        } catch (IOException e)
+        {
+            throw new UncheckedIOException(e); // StringBuilder doesn't throw IOException
         }
         return builder.toString();
     }
+    
+    @Override
+    public void execute(Appendable out, String lineSeparator) throws IOException
+    {
+        out.append(nameCallback.call(null));
+        for (VChild child : orderer.childrenUnmodifiable())
+        {
+            out.append(';');
+            child.writeTo(out, lineSeparator);
+        }
+    }
 }
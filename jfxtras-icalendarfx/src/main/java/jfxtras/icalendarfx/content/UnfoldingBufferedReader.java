@@ -30,13 +30,16 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 
-/** BufferedReader that unfolds lines via the {@link #readLine()} method.
- * 
- * Works fine, but not being used now.
- * */
+/**
+ * BufferedReader that unfolds lines according to the RFC 5545 iCalendar standard via the {@link #readLine()} method.
+ * Lines are read incrementally from the underlying {@link Reader}, so the content is never held in memory
+ * as a whole.  CRLF, LF and CR line terminators are all accepted.  Empty lines are skipped.
+ * <p>
+ * Since {@link #lines()} uses {@link #readLine()} the returned stream contains unfolded lines too.
+ */
 public class UnfoldingBufferedReader extends BufferedReader
 {
-    String lastLine;
+    private String lastLine;
     
     public UnfoldingBufferedReader(Reader in)
     {
@@ -48,39 +51,47 @@ public class UnfoldingBufferedReader extends BufferedReader
         super(in, sz);
     }
 
-    /** Unfolds lines based on RFC 5545 iCalendar specification */
+    /**
+     * Unfolds lines based on RFC 5545 iCalendar specification
+     * 
+     * @return  the unfolded content line, or null if the end of the stream has been reached
+     */
     @Override
     public String readLine() throws IOException
     {
-        StringBuilder builder = new StringBuilder(200);
-        if (lastLine != null)
+        String firstLine = (lastLine != null) ? lastLine : nextNonEmptyLine();
+        lastLine = null;
+        if (firstLine == null) return null;
+        String currentLine = nextNonEmptyLine();
+        if (! isContinuationLine(currentLine))
         {
-            builder.append(lastLine);
-            lastLine = null;
-        } else
-        {
-            builder.append(super.readLine());
+            // most lines aren't folded - avoid the StringBuilder copy
+            lastLine = currentLine;
+            return firstLine;
         }
-        boolean isContinuationLine = false;
-        String currentLine = super.readLine();
-        while (currentLine != null)
+        StringBuilder builder = new StringBuilder(firstLine.length() + 2*currentLine.length());
+        builder.append(firstLine);
+        while (isContinuationLine(currentLine))
         {
-            isContinuationLine = (currentLine.charAt(0) == ' ') || (currentLine.charAt(0) == '\t');
-            if (isContinuationLine)
-            {
-                builder.append(currentLine.substring(1, currentLine.length()));
-                currentLine = super.readLine();
-            } else
-            {
-                break;
-            }
+            builder.append(currentLine, 1, currentLine.length());
+            currentLine = nextNonEmptyLine();
         }
-        pushBackLine(currentLine);
+        lastLine = currentLine;
         return builder.toString();
     }
     
-    private void pushBackLine(String s)
+    private static boolean isContinuationLine(String line)
+    {
+        return (line != null) && ((line.charAt(0) == ' ') || (line.charAt(0) == '\t'));
+    }
+    
+    private String nextNonEmptyLine() throws IOException
     {
-        lastLine = s;
+        String line = super.readLine();
+        while ((line != null) && line.isEmpty())
+        {
+            line = super.readLine();
+        }
+        return line;
     }
 }
@@ -87,7 +87,7 @@ public class UnfoldingStringIterator implements Iterator<String>
                     break;
                 }
             }
-            currentLine = iterator.next();
+            currentLine = (iterator.hasNext()) ? iterator.next() : null;
         }
         pushBackLine(currentLine);
         return builder.toString();
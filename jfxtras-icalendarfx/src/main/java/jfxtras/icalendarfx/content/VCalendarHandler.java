@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.content;
+
+/**
+ * Receives the events produced by {@link VCalendarReader} while it reads iCalendar content.
+ * <p>
+ * All methods have an empty default implementation, so a handler only needs to override the
+ * callbacks it's interested in.  Component, property and parameter names are upper-case.
+ * Parameter callbacks for a property are made before the property callback itself.
+ */
+public interface VCalendarHandler
+{
+    /**
+     * Called for a BEGIN content line
+     * 
+     * @param componentName  name of the component (e.g. VCALENDAR, VEVENT, VALARM)
+     */
+    default void beginComponent(String componentName) { }
+    
+    /**
+     * Called for each parameter of a property that passes the reader's property filter
+     * 
+     * @param propertyName  name of the property containing the parameter (e.g. DTSTART)
+     * @param parameterName  name of the parameter (e.g. TZID)
+     * @param value  unparsed parameter value, including any surrounding quotes; null if the parameter has no value
+     */
+    default void parameter(String propertyName, String parameterName, String value) { }
+    
+    /**
+     * Called for each property that passes the reader's property filter
+     * 
+     * @param propertyName  name of the property (e.g. SUMMARY)
+     * @param value  unparsed property value; null if the content line has no value
+     */
+    default void property(String propertyName, String value) { }
+    
+    /**
+     * Called for an END content line
+     * 
+     * @param componentName  name of the component (e.g. VCALENDAR, VEVENT, VALARM)
+     */
+    default void endComponent(String componentName) { }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.content;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Event-driven iCalendar reader.  Content lines are read incrementally and unfolded by a
+ * {@link UnfoldingBufferedReader}, then tokenized and reported to a {@link VCalendarHandler}
+ * as begin-component, parameter, property and end-component events.  No {@link jfxtras.icalendarfx.VElement}
+ * objects are created, which makes it suitable for indexing or validating very large files.
+ * <p>
+ * Properties can be filtered by name with {@link #withPropertyNames(String...)}.  Lines of filtered-out
+ * properties are not tokenized past their name.
+ * <p>
+ * Example:
+ * <pre>
+ * new VCalendarReader(reader)
+ *         .withPropertyNames("UID", "DTSTART")
+ *         .parse(new VCalendarHandler()
+ *         {
+ *             public void property(String propertyName, String value)
+ *             {
+ *                 System.out.println(propertyName + "=" + value);
+ *             }
+ *         });
+ * </pre>
+ */
+public class VCalendarReader
+{
+    private static final String BEGIN = "BEGIN";
+    private static final String END = "END";
+    
+    private final UnfoldingBufferedReader reader;
+    
+    /** Upper-case names of the properties reported to the handler, null reports all properties */
+    public Set<String> getPropertyNames() { return propertyNames; }
+    private Set<String> propertyNames;
+    /** Set the names of the properties reported to the handler.  Null reports all properties. */
+    public void setPropertyNames(Set<String> propertyNames)
+    {
+        this.propertyNames = (propertyNames == null) ? null : propertyNames
+                .stream()
+                .map(n -> n.toUpperCase())
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+    /** Set the names of the properties reported to the handler and return this reader */
+    public VCalendarReader withPropertyNames(String... propertyNames)
+    {
+        setPropertyNames(new HashSet<>(Arrays.asList(propertyNames)));
+        return this;
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param reader  source of iCalendar content.  It isn't closed by the VCalendarReader.
+     */
+    public VCalendarReader(Reader reader)
+    {
+        this.reader = (reader instanceof UnfoldingBufferedReader) ? (UnfoldingBufferedReader) reader : new UnfoldingBufferedReader(reader);
+    }
+    
+    /**
+     * Read all content lines, reporting them to the handler
+     * 
+     * @param handler  receives the parsing events
+     * @throws IOException
+     */
+    public void parse(VCalendarHandler handler) throws IOException
+    {
+        String line;
+        while ((line = reader.readLine()) != null)
+        {
+            processLine(line, handler);
+        }
+    }
+    
+    /* Tokenizes one unfolded content line.  Lines without a name delimiter are ignored. */
+    void processLine(String line, VCalendarHandler handler)
+    {
+        int nameEnd = indexOfNameEnd(line);
+        if (nameEnd == -1) return;
+        boolean hasValue = line.charAt(nameEnd) == ':';
+        if (hasValue && isName(line, nameEnd, BEGIN))
+        {
+            handler.beginComponent(name(line, nameEnd+1, line.length()));
+            return;
+        } else if (hasValue && isName(line, nameEnd, END))
+        {
+            handler.endComponent(name(line, nameEnd+1, line.length()));
+            return;
+        }
+        
+        final String propertyName;
+        if (propertyNames == null)
+        {
+            propertyName = name(line, 0, nameEnd);
+        } else
+        { // filtered out properties don't allocate a name
+            propertyName = filteredName(line, nameEnd);
+            if (propertyName == null) return;
+        }
+        
+        int position = nameEnd;
+        while ((position < line.length()) && (line.charAt(position) == ';'))
+        { // parameters
+            int parameterStart = position + 1;
+            int equalsPosition = -1;
+            boolean quoteOn = false;
+            for (position = parameterStart; position < line.length(); position++)
+            {
+                char c = line.charAt(position);
+                if (c == '"')
+                {
+                    quoteOn = ! quoteOn;
+                } else if (! quoteOn)
+                {
+                    if ((c == ';') || (c == ':')) break;
+                    if ((c == '=') && (equalsPosition == -1)) equalsPosition = position;
+                }
+            }
+            final String parameterName;
+            final String parameterValue;
+            if (equalsPosition == -1)
+            {
+                parameterName = name(line, parameterStart, position);
+                parameterValue = null;
+            } else
+            {
+                parameterName = name(line, parameterStart, equalsPosition);
+                parameterValue = line.substring(equalsPosition+1, position);
+            }
+            handler.parameter(propertyName, parameterName, parameterValue);
+        }
+        String value = (position < line.length()) ? line.substring(position+1) : null;
+        handler.property(propertyName, value);
+    }
+    
+    /* Index of the first ';' or ':', or -1 if there's none */
+    private static int indexOfNameEnd(String line)
+    {
+        for (int i=0; i<line.length(); i++)
+        {
+            char c = line.charAt(i);
+            if ((c == ';') || (c == ':')) return i;
+        }
+        return -1;
+    }
+    
+    /* Interned upper-case name of the characters from start to end.  Only non-standard names are copied. */
+    private static String name(String line, int start, int end)
+    {
+        String name = ContentLineTokenizer.internName(line, start, end);
+        return (name != null) ? name : line.substring(start, end).toUpperCase();
+    }
+    
+    /* Matching name from propertyNames, or null if the property isn't reported */
+    private String filteredName(String line, int nameEnd)
+    {
+        String name = ContentLineTokenizer.internName(line, 0, nameEnd);
+        if (name != null)
+        {
+            return propertyNames.contains(name) ? name : null;
+        }
+        for (String propertyName : propertyNames)
+        {
+            if ((propertyName.length() == nameEnd) && line.regionMatches(true, 0, propertyName, 0, nameEnd))
+            {
+                return propertyName;
+            }
+        }
+        return null;
+    }
+    
+    private static boolean isName(String line, int nameEnd, String name)
+    {
+        return (nameEnd == name.length()) && line.regionMatches(true, 0, name, 0, nameEnd);
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.itip;
+
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.VChild;
+import jfxtras.icalendarfx.components.VComponent;
+import jfxtras.icalendarfx.components.VDisplayable;
+import jfxtras.icalendarfx.components.VTimeZone;
+import jfxtras.icalendarfx.properties.calendar.Method.MethodType;
+import jfxtras.icalendarfx.utilities.Pair;
+
+/**
+ * A batch of iTIP messages, in the order they are to be processed, grouped by the UID of their components.
+ * Used by {@link VCalendar#processITIPMessageBatch(Collection)} to skip messages that a later message
+ * in the same batch replaces, before any of them changes the calendar.
+ * 
+ * <p>A {@link MethodType#PUBLISH PUBLISH} or {@link MethodType#REQUEST REQUEST} message is superseded when,
+ * for each UID it contains, the next message in the batch with that UID either:
+ * <ul>
+ * <li>is a {@link MethodType#CANCEL CANCEL} of the whole component (no RECURRENCE-ID), or
+ * <li>is a PUBLISH, or a REQUEST following a REQUEST, with a component for each of its RECURRENCE-IDs
+ * that has a higher SEQUENCE (or both SEQUENCEs are zero)
+ * </ul>
+ * Processing the later message alone gives the same calendar as processing both.  Messages with other methods,
+ * or with components other than {@link VDisplayable} and {@link VTimeZone}, are never superseded.</p>
+ * 
+ * @see VCalendar#processITIPMessageBatch(Collection)
+ */
+public class ITIPMessageBatch
+{
+    final private List<VCalendar> messages;
+    final private boolean[] superseded;
+    final private Set<String> uniqueIdentifiers = new LinkedHashSet<>();
+    final private List<Set<String>> messageUniqueIdentifiers = new ArrayList<>();
+
+    /** Group the messages by UID and find the superseded ones */
+    public ITIPMessageBatch(Collection<VCalendar> iTIPMessages)
+    {
+        messages = new ArrayList<>(iTIPMessages);
+        superseded = new boolean[messages.size()];
+        
+        // For each message, the SEQUENCE of each RECURRENCE-ID (null for the whole component) by component type and UID
+        List<Map<Pair<Class<?>, String>, Map<Temporal, Integer>>> messageRevisions = new ArrayList<>();
+        // For each message, the index of the next message with the same component type and UID
+        List<Map<Pair<Class<?>, String>, Integer>> nextMessages = new ArrayList<>();
+        Map<Pair<Class<?>, String>, Integer> lastMessages = new HashMap<>();
+        for (int i=0; i<messages.size(); i++)
+        {
+            Map<Pair<Class<?>, String>, Map<Temporal, Integer>> revisions = new HashMap<>();
+            Set<String> messageUIDs = new LinkedHashSet<>();
+            for (VChild child : messages.get(i).childrenUnmodifiable())
+            {
+                if (child instanceof VDisplayable)
+                {
+                    VDisplayable<?> vDisplayable = (VDisplayable<?>) child;
+                    if (vDisplayable.getUniqueIdentifier() == null) continue;
+                    String uid = vDisplayable.getUniqueIdentifier().getValue();
+                    uniqueIdentifiers.add(uid);
+                    messageUIDs.add(uid);
+                    Pair<Class<?>, String> key = new Pair<>(vDisplayable.getClass(), uid);
+                    Temporal recurrenceID = (vDisplayable.getRecurrenceId() == null) ? null : vDisplayable.getRecurrenceId().getValue();
+                    int sequence = (vDisplayable.getSequence() == null) ? 0 : vDisplayable.getSequence().getValue();
+                    revisions.computeIfAbsent(key, k -> new HashMap<>()).put(recurrenceID, sequence);
+                }
+            }
+            messageRevisions.add(revisions);
+            messageUniqueIdentifiers.add(messageUIDs);
+            nextMessages.add(new HashMap<>());
+            for (Pair<Class<?>, String> key : revisions.keySet())
+            {
+                Integer last = lastMessages.put(key, i);
+                if (last != null)
+                {
+                    nextMessages.get(last).put(key, i);
+                }
+            }
+        }
+        
+        for (int i=0; i<messages.size(); i++)
+        {
+            MethodType method = method(messages.get(i));
+            if (((method != MethodType.PUBLISH) && (method != MethodType.REQUEST)) || ! isReplaceable(messages.get(i)))
+            {
+                continue;
+            }
+            boolean isSuperseded = true;
+            for (Map.Entry<Pair<Class<?>, String>, Map<Temporal, Integer>> entry : messageRevisions.get(i).entrySet())
+            {
+                Integer next = nextMessages.get(i).get(entry.getKey());
+                if (next == null)
+                {
+                    isSuperseded = false;
+                    break;
+                }
+                Map<Temporal, Integer> nextRevisions = messageRevisions.get(next).get(entry.getKey());
+                if (! supersedes(method, entry.getValue(), method(messages.get(next)), nextRevisions))
+                {
+                    isSuperseded = false;
+                    break;
+                }
+            }
+            superseded[i] = isSuperseded;
+        }
+    }
+
+    /* True if the message has at least one VDisplayable with a UID and, besides that, only VTimeZones */
+    private static boolean isReplaceable(VCalendar message)
+    {
+        boolean hasVDisplayable = false;
+        for (VChild child : message.childrenUnmodifiable())
+        {
+            if (child instanceof VDisplayable)
+            {
+                if (((VDisplayable<?>) child).getUniqueIdentifier() == null) return false;
+                hasVDisplayable = true;
+            } else if ((child instanceof VComponent) && ! (child instanceof VTimeZone))
+            {
+                return false;
+            }
+        }
+        return hasVDisplayable;
+    }
+    
+    /* Same sequence rule as ProcessPublish, which replaces a component only with a higher SEQUENCE */
+    private static boolean supersedes(MethodType method, Map<Temporal, Integer> revisions, MethodType nextMethod, Map<Temporal, Integer> nextRevisions)
+    {
+        if (nextMethod == MethodType.CANCEL)
+        {
+            return nextRevisions.containsKey(null);
+        } else if ((nextMethod == MethodType.PUBLISH) || ((nextMethod == MethodType.REQUEST) && (method == MethodType.REQUEST)))
+        {
+            return revisions.entrySet()
+                    .stream()
+                    .allMatch(e ->
+                    {
+                        Integer nextSequence = nextRevisions.get(e.getKey());
+                        return (nextSequence != null) &&
+                                ((nextSequence > e.getValue()) || ((nextSequence == 0) && (e.getValue() == 0)));
+                    });
+        }
+        return false;
+    }
+    
+    /* Messages without METHOD are processed as PUBLISH */
+    private static MethodType method(VCalendar message)
+    {
+        return (message.getMethod() == null) ? MethodType.PUBLISH : message.getMethod().getValue();
+    }
+
+    /** The messages of the batch, in processing order */
+    public List<VCalendar> getMessages()
+    {
+        return Collections.unmodifiableList(messages);
+    }
+
+    /** Returns true if the message at index is replaced by a later message in the batch and can be skipped */
+    public boolean isSuperseded(int index)
+    {
+        return superseded[index];
+    }
+    
+    /** The messages that are not superseded, in processing order */
+    public List<VCalendar> remainingMessages()
+    {
+        List<VCalendar> remaining = new ArrayList<>();
+        for (int i=0; i<messages.size(); i++)
+        {
+            if (! superseded[i]) remaining.add(messages.get(i));
+        }
+        return remaining;
+    }
+
+    /** UIDs of all the components in the batch, in the order they first appear */
+    public Set<String> getUniqueIdentifiers()
+    {
+        return Collections.unmodifiableSet(uniqueIdentifiers);
+    }
+    
+    /** UIDs of the components in the message at index, in the order they appear */
+    public Set<String> getUniqueIdentifiers(int index)
+    {
+        return Collections.unmodifiableSet(messageUniqueIdentifiers.get(index));
+    }
+}
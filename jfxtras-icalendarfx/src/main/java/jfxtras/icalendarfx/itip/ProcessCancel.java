@@ -172,10 +172,9 @@ public class ProcessCancel implements Processable
                 VDisplayable<?> vDisplayable = ((VDisplayable<?>) c);
                 int newSequence = (vDisplayable.getSequence() == null) ? 0 : vDisplayable.getSequence().getValue();
                 UniqueIdentifier uid = vDisplayable.getUniqueIdentifier();
-                List<VDisplayable<?>> relatedVComponents = mainVCalendar.getVComponents(vDisplayable)
+                List<VDisplayable<?>> relatedVComponents = mainVCalendar.getVDisplayables(uid.getValue())
                 		.stream()
-                		.map(v -> (VDisplayable<?>) v)
-                		.filter(v -> v.getUniqueIdentifier().equals(uid))
+                		.filter(v -> v.getClass() == vDisplayable.getClass())
                 		.collect(Collectors.toList());
                 RecurrenceId recurrenceID = vDisplayable.getRecurrenceId();
 
@@ -204,8 +203,7 @@ public class ProcessCancel implements Processable
                             int oldSequence = (matchingVComponent.getSequence() == null) ? 0 : matchingVComponent.getSequence().getValue();
                             if (newSequence >= oldSequence)
                             {
-                                List<? extends VComponent> myVComponents = vDisplayable.calendarList();
-                                myVComponents.remove(matchingVComponent);
+                                mainVCalendar.removeChild(matchingVComponent);
                                 log.add("SUCCESS: canceled " + c.getClass().getSimpleName() + " with UID:" + vDisplayable.getUniqueIdentifier().getValue());
                             } else
                             {
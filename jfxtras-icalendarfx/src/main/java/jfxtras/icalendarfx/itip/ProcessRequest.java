@@ -32,6 +32,7 @@ import java.util.List;
 
 import jfxtras.icalendarfx.VCalendar;
 import jfxtras.icalendarfx.components.VComponent;
+import jfxtras.icalendarfx.components.VDisplayable;
 import jfxtras.icalendarfx.components.VPersonal;
 import jfxtras.icalendarfx.properties.component.relationship.UniqueIdentifier;
 
@@ -187,10 +188,19 @@ public class ProcessRequest extends ProcessPublish
             {
                 throw new IllegalArgumentException("Can't process REQUEST, VComponent has null UID");
             }
-            boolean isUIDPresent = mainVCalendar.getVComponents(myComponent)
-	    		.stream()
-	    		.map(v -> (VPersonal<?>) v)
-	    		.anyMatch(v -> v.getUniqueIdentifier().equals(uid));
+            final boolean isUIDPresent;
+            if (myComponent instanceof VDisplayable)
+            {
+                isUIDPresent = mainVCalendar.getVDisplayables(uid.getValue())
+                        .stream()
+                        .anyMatch(v -> v.getClass() == myComponent.getClass());
+            } else
+            {
+                isUIDPresent = mainVCalendar.getVComponents(myComponent)
+                        .stream()
+                        .map(v -> (VPersonal<?>) v)
+                        .anyMatch(v -> uid.equals(v.getUniqueIdentifier()));
+            }
             if (! isUIDPresent)
             {
                 throw new IllegalArgumentException("Can't process REQUEST, VComponent UID is not present in main VCalendar");
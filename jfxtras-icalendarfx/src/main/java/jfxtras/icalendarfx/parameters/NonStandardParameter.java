@@ -31,6 +31,7 @@ import java.util.List;
 
 import jfxtras.icalendarfx.parameters.NonStandardParameter;
 import jfxtras.icalendarfx.parameters.VParameterBase;
+import jfxtras.icalendarfx.utilities.InterningPool;
 import jfxtras.icalendarfx.utilities.StringConverter;
 import jfxtras.icalendarfx.utilities.StringConverters;
 
@@ -61,6 +62,12 @@ public class NonStandardParameter extends VParameterBase<NonStandardParameter, S
 		int equalsIndex = content.indexOf('=');
         name = (equalsIndex >= 0) ? content.substring(0, equalsIndex) : content;
         String value = (equalsIndex >= 0) ? content.substring(equalsIndex+1) : null;
+        InterningPool interningPool = InterningPool.current();
+        if (interningPool != null)
+        {
+        	name = interningPool.intern(name);
+        	value = interningPool.intern(value);
+        }
         setValue(value);
 	}
 
@@ -30,6 +30,7 @@ import java.time.ZoneId;
 
 import jfxtras.icalendarfx.parameters.TimeZoneIdentifierParameter;
 import jfxtras.icalendarfx.parameters.VParameterBase;
+import jfxtras.icalendarfx.utilities.InterningPool;
 import jfxtras.icalendarfx.utilities.StringConverter;
 
 /**
@@ -59,7 +60,8 @@ public class TimeZoneIdentifierParameter extends VParameterBase<TimeZoneIdentifi
         @Override
         public ZoneId fromString(String string)
         {
-            return ZoneId.of(string);
+            InterningPool interningPool = InterningPool.current();
+            return ((interningPool == null) ? ZoneId.of(string) : interningPool.zoneId(string));
         }
     };
     
@@ -32,9 +32,11 @@ import java.util.List;
 
 import jfxtras.icalendarfx.VElementBase;
 import jfxtras.icalendarfx.VParent;
+import jfxtras.icalendarfx.VParentBase;
 import jfxtras.icalendarfx.parameters.VParameter;
 import jfxtras.icalendarfx.parameters.VParameterBase;
 import jfxtras.icalendarfx.parameters.VParameterElement;
+import jfxtras.icalendarfx.utilities.InterningPool;
 import jfxtras.icalendarfx.utilities.StringConverter;
 
 /**
@@ -67,6 +69,10 @@ abstract public class VParameterBase<U,T> extends VElementBase implements VParam
     public void setValue(T value)
     {
         this.value = value;
+        if (getParent() instanceof VParentBase)
+        {
+            ((VParentBase<?>) getParent()).invalidateContent();
+        }
     }
     public void setValue(CharSequence value)
     {
@@ -95,7 +101,8 @@ abstract public class VParameterBase<U,T> extends VElementBase implements VParam
     {
         String valueString = extractValue(content);
         T value = getConverter().fromString(valueString);
-        setValue(value);
+        InterningPool interningPool = InterningPool.current();
+        setValue((interningPool == null) ? value : interningPool.intern(value));
         return Collections.EMPTY_LIST;
     }
     
@@ -64,6 +64,7 @@ import jfxtras.icalendarfx.parameters.Range.RangeType;
 import jfxtras.icalendarfx.parameters.Relationship.RelationshipType;
 import jfxtras.icalendarfx.properties.VProperty;
 import jfxtras.icalendarfx.properties.ValueType;
+import jfxtras.icalendarfx.utilities.InterningPool;
 import jfxtras.icalendarfx.utilities.StringConverter;
 import jfxtras.icalendarfx.utilities.StringConverters;
 
@@ -345,7 +346,8 @@ public enum VParameterElement
                 @Override
                 public T fromString(String string)
                 {
-                    return (T) ZoneId.of(string);
+                    InterningPool interningPool = InterningPool.current();
+                    return (T) ((interningPool == null) ? ZoneId.of(string) : interningPool.zoneId(string));
                 }
             };
         }
@@ -26,14 +26,20 @@
  */
 package jfxtras.icalendarfx.properties;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
 import java.time.DateTimeException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import jfxtras.icalendarfx.content.ContentLineTokenizer;
+import jfxtras.icalendarfx.VChild;
 import jfxtras.icalendarfx.VElement;
 import jfxtras.icalendarfx.VParent;
 import jfxtras.icalendarfx.VParentBase;
@@ -47,6 +53,7 @@ import jfxtras.icalendarfx.properties.calendar.Version;
 import jfxtras.icalendarfx.properties.component.misc.NonStandardProperty;
 import jfxtras.icalendarfx.properties.component.relationship.UniqueIdentifier;
 import jfxtras.icalendarfx.utilities.ICalendarUtilities;
+import jfxtras.icalendarfx.utilities.InterningPool;
 import jfxtras.icalendarfx.utilities.StringConverter;
 
 /**
@@ -96,6 +103,11 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
     public void setValue(T value)
     {
         this.value = value;
+        if (value instanceof VChild)
+        { // changes inside a value that is an element, such as a RRULE part, invalidate this property
+            ((VChild) value).setParent(this);
+        }
+        invalidateContent();
     }
     public U withValue(T value)
     {
@@ -175,6 +187,20 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
 //	}
     final private VPropertyElement propertyType;
     
+    /*
+     * Properties whose values repeat across a calendar and are shared through an active InterningPool.
+     * Unique values, such as UID, DESCRIPTION and DTSTAMP, are left out so the pool doesn't grow with the calendar.
+     */
+    private static final Set<VPropertyElement> INTERNED_PROPERTIES = EnumSet.of(
+            VPropertyElement.CATEGORIES,
+            VPropertyElement.CLASSIFICATION,
+            VPropertyElement.NON_STANDARD_PROPERTY,
+            VPropertyElement.ORGANIZER,
+            VPropertyElement.STATUS,
+            VPropertyElement.TIME_TRANSPARENCY,
+            VPropertyElement.TIME_ZONE_IDENTIFIER_PROPERTY,
+            VPropertyElement.TIME_ZONE_NAME);
+    
     /*
      * Unknown values
      * contains exact string for unknown property value
@@ -187,6 +213,7 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
     private void setUnknownValue(String value)
     {
     	unknownValue = value;
+        invalidateContent();
 	}
     
     /**
@@ -368,7 +395,11 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
         return converter;
     }
     private StringConverter<T> converter;
-    protected void setConverter(StringConverter<T> converter) { this.converter = converter; }
+    protected void setConverter(StringConverter<T> converter)
+    {
+        this.converter = converter;
+        invalidateContent();
+    }
     private boolean isCustomConverter()
     {
         return converter != null;
@@ -447,17 +478,23 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
     	List<Message> messages = new ArrayList<>();
     	String propertyName = elementName(unfoldedContent);
     	boolean isNameless = propertyName == null;
+    	ContentLineTokenizer tokenizer = new ContentLineTokenizer();
     	if (isNameless)
     	{
-    		unfoldedContent = ICalendarUtilities.PROPERTY_VALUE_KEY + unfoldedContent; // add delimiter to designate content as value
-    	} else if (propertyName.startsWith(VPropertyElement.NON_STANDARD_PROPERTY.toString()))
-        {
-            ((NonStandardProperty) this).setPropertyName(propertyName);
-        }
-    	ICalendarUtilities.parseInlineElementsToListPair(unfoldedContent)
-	        .stream()
-//	        .peek(System.out::println)
-	        .forEach(entry -> processInLineChild(messages, entry.getKey(), entry.getValue(), VParameter.class));
+    		tokenizer.resetValue(unfoldedContent); // designate content as value
+    	} else
+    	{
+    		tokenizer.reset(unfoldedContent);
+    		if (propertyName.startsWith(VPropertyElement.NON_STANDARD_PROPERTY.toString()))
+	        {
+	        	InterningPool interningPool = InterningPool.current();
+	            ((NonStandardProperty) this).setPropertyName((interningPool == null) ? propertyName : interningPool.intern(propertyName));
+	        }
+    	}
+    	while (tokenizer.next())
+    	{
+    		processInLineChild(messages, tokenizer.name(), tokenizer.value(), VParameter.class);
+    	}
 
     	return messages;
     }
@@ -474,8 +511,13 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
     		if (content != null)
     		{
 	            try {
-	            	actualValueContent = content;
+	            	InterningPool interningPool = INTERNED_PROPERTIES.contains(propertyType) ? InterningPool.current() : null;
+	            	actualValueContent = (interningPool == null) ? content : interningPool.intern(content);
 	            	T value = getConverter().fromString(modifiedValue());
+	            	if (interningPool != null)
+	            	{
+	            		value = interningPool.intern(value);
+	            	}
 	                if (value == null)
 	                {
 	                    setUnknownValue(content);
@@ -544,12 +586,68 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
     }
 
     @Override
-    public String toString()
+    protected String buildContent(String lineSeparator)
     {
-        StringBuilder builder = new StringBuilder(super.toString());
-        builder.append(":" + valueContent());
-        // return folded line
-        return ICalendarUtilities.foldLine(builder).toString();
+        StringBuilder builder = new StringBuilder(50);
+        try
+        {
+            contentLineGenerator.execute(builder, lineSeparator);
+            builder.append(':').append(valueContent());
+            if (builder.length() <= 75/4)
+            {
+                return builder.toString(); // too short to need folding
+            }
+            // return folded line
+            StringBuilder foldedBuilder = new StringBuilder(builder.length()+20);
+            ICalendarUtilities.foldLine(builder, foldedBuilder, lineSeparator);
+            return foldedBuilder.toString();
+        } catch (IOException e)
+        {
+            throw new UncheckedIOException(e); // StringBuilder doesn't throw IOException
+        }
+    }
+    
+    @Override
+    public void writeTo(Appendable out, String lineSeparator) throws IOException
+    {
+        // unfolded line is built once, then folded directly into out
+        StringBuilder builder = new StringBuilder(50);
+        super.writeTo(builder, lineSeparator);
+        builder.append(':').append(valueContent());
+        ICalendarUtilities.foldLine(builder, out, lineSeparator);
+    }
+    
+    /* Collection values can be changed in place, without calling setValue, so are hashed to detect changes */
+    @Override
+    protected boolean isContentMutable()
+    {
+        if (getValue() instanceof Collection)
+        {
+            return true;
+        }
+        for (VChild child : childrenUnmodifiable())
+        {
+            if ((child instanceof VParameter) && (((VParameter<?>) child).getValue() instanceof Collection))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    protected int contentStateHash()
+    {
+        int hash = (getValue() instanceof Collection) ? getValue().hashCode() : 0;
+        for (VChild child : childrenUnmodifiable())
+        {
+            if (child instanceof VParameter)
+            {
+                Object parameterValue = ((VParameter<?>) child).getValue();
+                hash = 31 * hash + ((parameterValue instanceof Collection) ? parameterValue.hashCode() : 0);
+            }
+        }
+        return hash;
     }
     
     @Override // Note: can't check equality of parents - causes stack overflow
@@ -107,7 +107,11 @@ public class RequestStatus extends PropBaseLanguage<String, RequestStatus>
     /** Textual exception data.  For example, the offending property name and value or complete property line. */
     public String getException() { return exception; }
     private String exception;
-    public void setException(String exception) { this.exception = exception; }
+    public void setException(String exception)
+    {
+        this.exception = exception;
+        invalidateContent();
+    }
     public RequestStatus withException(String exception) { setException(exception); return this; }
     
     public RequestStatus(RequestStatus source)
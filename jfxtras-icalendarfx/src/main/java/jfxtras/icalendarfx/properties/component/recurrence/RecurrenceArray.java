@@ -0,0 +1,292 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.properties.component.recurrence;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAmount;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import jfxtras.icalendarfx.components.VLocatable;
+import jfxtras.icalendarfx.components.VRepeatable;
+import jfxtras.icalendarfx.utilities.DateTimeUtilities.DateTimeType;
+
+/**
+ * Recurrence set of a {@link VRepeatable} component, expanded between a start and end into a primitive array,
+ * for bulk work such as busy-time, conflict checks and reports.
+ * <p>
+ * Each recurrence is stored as a long of the same kind as DTSTART:
+ * <ul>
+ * <li>DATE - epoch days
+ * <li>DATE_WITH_LOCAL_TIME - local epoch seconds (the floating date-time as if it were UTC)
+ * <li>DATE_WITH_LOCAL_TIME_AND_TIME_ZONE and DATE_WITH_UTC_TIME - epoch seconds
+ * </ul>
+ * The end of each recurrence is its start plus the component's duration (DURATION, or DTEND or DUE minus DTSTART),
+ * in the same unit.  The starts are sorted, so the ends are too.  Values are converted back to
+ * {@link Temporal} only on demand, by {@link #getRecurrence(int)} and {@link #stream()}.
+ */
+public final class RecurrenceArray
+{
+    private static final long SECONDS_PER_DAY = 86400;
+    
+    private final DateTimeType dateTimeType;
+    private final ZoneId zone;
+    private final long[] starts;
+    /* ends of recurrences, if the duration can't be a fixed number of units (e.g. P1D across a daylight saving change), otherwise null */
+    private final long[] ends;
+    private final long duration;
+    
+    /** Returns the type of DTSTART, which sets the unit of the values */
+    public DateTimeType getDateTimeType() { return dateTimeType; }
+    
+    /** Returns the time zone of DTSTART, or null if DTSTART is a DATE or floating date-time */
+    public ZoneId getZone() { return zone; }
+    
+    private RecurrenceArray(DateTimeType dateTimeType, ZoneId zone, long[] starts, long[] ends, long duration)
+    {
+        this.dateTimeType = dateTimeType;
+        this.zone = zone;
+        this.starts = starts;
+        this.ends = ends;
+        this.duration = duration;
+    }
+    
+    /**
+     * Expands the recurrences of component from start (inclusive) to end (exclusive), like
+     * {@link VRepeatable#streamRecurrences(Temporal, Temporal)}.  A recurrence set that is
+     * {@link VRepeatable#isRecurrenceSetSplittable() splittable} is expanded in parallel.
+     * 
+     * @param component  repeatable component with DTSTART
+     * @param start  include recurrences that end after this value
+     * @param end  include recurrences that start before this value
+     * @return  recurrences as a primitive array
+     */
+    public static RecurrenceArray of(VRepeatable<?> component, Temporal start, Temporal end)
+    {
+        Temporal dateTimeStart = component.getDateTimeStart().getValue();
+        DateTimeType dateTimeType = DateTimeType.of(dateTimeStart);
+        ZoneId zone = (dateTimeStart instanceof ZonedDateTime) ? ((ZonedDateTime) dateTimeStart).getZone() : null;
+        TemporalAmount amount = (component instanceof VLocatable) ? ((VLocatable<?>) component).getActualDuration() : Duration.ZERO;
+        
+        Stream<Temporal> recurrences = component.streamRecurrences(start, end);
+        if (component.isRecurrenceSetSplittable())
+        {
+            recurrences = recurrences.parallel();
+        }
+        long[] starts = recurrences
+                .mapToLong(RecurrenceArray::toEpoch)
+                .sorted()
+                .toArray();
+        
+        final long duration;
+        final long[] ends;
+        if (amount instanceof Duration)
+        {
+            // round up, so a recurrence that lasts part of a day (or second) still ends after it starts
+            long seconds = ((Duration) amount).getSeconds() + ((((Duration) amount).getNano() > 0) ? 1 : 0);
+            duration = (dateTimeType == DateTimeType.DATE) ? -Math.floorDiv(-seconds, SECONDS_PER_DAY) : seconds;
+            ends = null;
+        } else if ((zone == null) && (((Period) amount).toTotalMonths() == 0))
+        {
+            long days = ((Period) amount).getDays();
+            duration = (dateTimeType == DateTimeType.DATE) ? days : days * SECONDS_PER_DAY;
+            ends = null;
+        } else
+        {
+            // nominal duration, so each recurrence's end must be calculated
+            duration = 0;
+            ends = new long[starts.length];
+            for (int i=0; i<starts.length; i++)
+            {
+                ends[i] = toEpoch(toTemporal(dateTimeType, zone, starts[i]).plus(amount));
+            }
+        }
+        return new RecurrenceArray(dateTimeType, zone, starts, ends, duration);
+    }
+    
+    /** Returns the number of recurrences */
+    public int size()
+    {
+        return starts.length;
+    }
+    
+    /** Returns true if there are no recurrences */
+    public boolean isEmpty()
+    {
+        return starts.length == 0;
+    }
+    
+    /** Returns the start of the recurrence at index, in epoch days or seconds (see {@link RecurrenceArray}) */
+    public long getStart(int index)
+    {
+        return starts[index];
+    }
+    
+    /** Returns the end of the recurrence at index, in epoch days or seconds (see {@link RecurrenceArray}) */
+    public long getEnd(int index)
+    {
+        return (ends == null) ? starts[index] + duration : ends[index];
+    }
+    
+    /** Returns a copy of the sorted starts, in epoch days or seconds (see {@link RecurrenceArray}) */
+    public long[] getStarts()
+    {
+        return starts.clone();
+    }
+    
+    /** Returns a copy of the sorted ends, in epoch days or seconds (see {@link RecurrenceArray}) */
+    public long[] getEnds()
+    {
+        return (ends == null) ? Arrays.stream(starts).map(s -> s + duration).toArray() : ends.clone();
+    }
+    
+    /**
+     * Returns the starts as an int array of epoch days
+     * 
+     * @throws DateTimeException if DTSTART isn't a DATE
+     */
+    public int[] toEpochDays()
+    {
+        if (dateTimeType != DateTimeType.DATE)
+        {
+            throw new DateTimeException("Epoch days are only available for DATE values, not " + dateTimeType);
+        }
+        return Arrays.stream(starts).mapToInt(Math::toIntExact).toArray();
+    }
+    
+    /**
+     * Returns the starts as epoch seconds on a common time line, so recurrences of components with
+     * different DTSTART types can be compared.
+     * 
+     * @param defaultZone  time zone of DATE and floating date-time values
+     * @return  epoch seconds of starts
+     */
+    public long[] toEpochSeconds(ZoneId defaultZone)
+    {
+        return toEpochSeconds(starts, defaultZone);
+    }
+    
+    /** Returns the ends as epoch seconds on a common time line.  See {@link #toEpochSeconds(ZoneId)} */
+    public long[] toEndEpochSeconds(ZoneId defaultZone)
+    {
+        return toEpochSeconds(getEnds(), defaultZone);
+    }
+
+    private long[] toEpochSeconds(long[] values, ZoneId defaultZone)
+    {
+        switch (dateTimeType)
+        {
+        case DATE:
+            return Arrays.stream(values)
+                    .map(d -> LocalDate.ofEpochDay(d).atStartOfDay(defaultZone).toEpochSecond())
+                    .toArray();
+        case DATE_WITH_LOCAL_TIME:
+            return Arrays.stream(values)
+                    .map(s -> LocalDateTime.ofEpochSecond(s, 0, ZoneOffset.UTC).atZone(defaultZone).toEpochSecond())
+                    .toArray();
+        default:
+            return values.clone();
+        }
+    }
+    
+    /**
+     * Returns the index of the first recurrence that ends after value, or {@link #size()} if none do.
+     * Recurrences from that index on may overlap a time span starting at value.
+     * 
+     * @param value  epoch days or seconds (see {@link RecurrenceArray})
+     * @return  index of first recurrence ending after value
+     */
+    public int firstEndingAfter(long value)
+    {
+        int low = 0;
+        int high = starts.length;
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (getEnd(middle) > value)
+            {
+                high = middle;
+            } else
+            {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+    
+    /** Returns the start of the recurrence at index as a {@link Temporal} of the same type as DTSTART */
+    public Temporal getRecurrence(int index)
+    {
+        return toTemporal(dateTimeType, zone, starts[index]);
+    }
+    
+    /** Returns the starts as a stream of {@link Temporal}, converted as they are consumed */
+    public Stream<Temporal> stream()
+    {
+        return IntStream.range(0, starts.length).mapToObj(this::getRecurrence);
+    }
+
+    /* Converts a recurrence to its epoch value */
+    private static long toEpoch(Temporal temporal)
+    {
+        if (temporal instanceof ZonedDateTime)
+        {
+            return ((ZonedDateTime) temporal).toEpochSecond();
+        } else if (temporal instanceof LocalDateTime)
+        {
+            return ((LocalDateTime) temporal).toEpochSecond(ZoneOffset.UTC);
+        } else if (temporal instanceof LocalDate)
+        {
+            return ((LocalDate) temporal).toEpochDay();
+        }
+        throw new DateTimeException("Unsupported Temporal class:" + temporal.getClass().getSimpleName());
+    }
+    
+    /* Converts an epoch value back to a recurrence */
+    private static Temporal toTemporal(DateTimeType dateTimeType, ZoneId zone, long value)
+    {
+        switch (dateTimeType)
+        {
+        case DATE:
+            return LocalDate.ofEpochDay(value);
+        case DATE_WITH_LOCAL_TIME:
+            return LocalDateTime.ofEpochSecond(value, 0, ZoneOffset.UTC);
+        default:
+            return ZonedDateTime.ofInstant(Instant.ofEpochSecond(value), zone);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.properties.component.recurrence;
+
+import java.time.temporal.Temporal;
+import java.util.stream.Stream;
+
+import jfxtras.icalendarfx.components.VRepeatable;
+
+/**
+ * Strategy for caching recurrence start values of a {@link VRepeatable} component, so streaming
+ * recurrences far from DTSTART doesn't have to start at DTSTART.
+ * <p>
+ * The default implementation is {@link RecurrenceRuleCache}.  Another strategy can be used for all new
+ * components with {@link RecurrenceCaches#setFactory(java.util.function.Function)}, or for one component with
+ * {@link VRepeatable#setRecurrenceCache(RecurrenceCache)}.
+ */
+public interface RecurrenceCache
+{
+    /**
+     * Returns the start date/time value of the recurrence set on or before targetStart in the cache.  If no value
+     * is present in the cache then DTSTART is returned.  The value must be a valid recurrence date/time.
+     * 
+     * @param targetStart - target date/time to get previous recurrence.
+     * @return closest recurrence start value, without going over, or null if there is no recurrence rule
+     */
+    Temporal getClosestStart(Temporal targetStart);
+    
+    /**
+     * finds previous value in recurrence set before input parameter value
+     * 
+     * @param value - start value
+     * @return - previous recurrence instance
+     */
+    Temporal previousValue(Temporal value);
+
+    /**
+     * Returns a stream that adds values to the cache as they are streamed
+     * 
+     * @param inStream - recurrences streamed by the component
+     * @return stream with the same values as inStream
+     */
+    Stream<Temporal> makeCache(Stream<Temporal> inStream);
+    
+    /** Removes all cached values */
+    void clear();
+    
+    /** Number of {@link #getClosestStart(Temporal)} calls answered with a cached value after DTSTART */
+    long getHitCount();
+    
+    /** Number of {@link #getClosestStart(Temporal)} calls answered with DTSTART */
+    long getMissCount();
+    
+    /** Number of recurrences streamed through {@link #makeCache(Stream)} that weren't cached */
+    long getSkippedCount();
+}
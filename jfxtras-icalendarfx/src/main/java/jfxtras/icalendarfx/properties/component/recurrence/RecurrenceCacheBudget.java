@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.properties.component.recurrence;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the total number of recurrence values held by a group of {@link RecurrenceRuleCache}s, normally all of
+ * them.  When the limit is exceeded, caches that haven't been used recently are cleared until the total is within the limit.
+ * A cache is used when it answers {@link RecurrenceRuleCache#getClosestStart(java.time.temporal.Temporal)} with
+ * a cached value, or when a value is added to it.
+ * <p>
+ * Recent use is approximated with a clock (second chance) sweep: using a cache only sets a flag, and each cache holds its
+ * own value count, so caches don't contend with each other.  A lock is only taken while clearing caches.
+ * <p>
+ * The budget only holds weak references to caches, so it doesn't keep components from being garbage collected.
+ */
+public class RecurrenceCacheBudget
+{
+    /** Default maximum number of cached values in the global budget */
+    public static final int DEFAULT_MAX_VALUES = 500_000;
+    private static final RecurrenceCacheBudget GLOBAL = new RecurrenceCacheBudget(DEFAULT_MAX_VALUES);
+    
+    /** Returns the budget shared by all caches made by default */
+    public static RecurrenceCacheBudget global()
+    {
+        return GLOBAL;
+    }
+    
+    // caches that have held values, in clock order
+    private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final ReferenceQueue<RecurrenceRuleCache> collected = new ReferenceQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder valueCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private volatile int maxValues;
+    
+    /**
+     * Makes a budget
+     * 
+     * @param maxValues  maximum number of values held by all caches using this budget
+     */
+    public RecurrenceCacheBudget(int maxValues)
+    {
+        setMaxValues(maxValues);
+    }
+    
+    /** Returns the maximum number of values held by all caches using this budget */
+    public int getMaxValues()
+    {
+        return maxValues;
+    }
+    
+    /**
+     * Sets the maximum number of values held by all caches using this budget.  If the new
+     * maximum is already exceeded caches are cleared.
+     * 
+     * @param maxValues  maximum number of values, not negative
+     */
+    public void setMaxValues(int maxValues)
+    {
+        if (maxValues < 0)
+        {
+            throw new IllegalArgumentException("Maximum number of values can't be negative:" + maxValues);
+        }
+        this.maxValues = maxValues;
+        evictionLock.lock();
+        try
+        {
+            evict();
+        } finally
+        {
+            evictionLock.unlock();
+        }
+    }
+    
+    /** Returns the number of values held by all caches using this budget */
+    public long getValueCount()
+    {
+        removeCollected();
+        return valueCount.sum();
+    }
+    
+    /** Returns the number of caches holding values */
+    public int getCacheCount()
+    {
+        removeCollected();
+        int count = 0;
+        for (Entry entry : clock)
+        {
+            if ((entry.size.get() > 0) && (entry.get() != null))
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /** Returns the number of times a cache has been cleared to stay within the budget */
+    public long getEvictionCount()
+    {
+        return evictionCount.sum();
+    }
+    
+    /* Makes the key that identifies cache in this budget */
+    Entry register(RecurrenceRuleCache cache)
+    {
+        return new Entry(cache, collected);
+    }
+    
+    /* Marks the cache as recently used */
+    void touch(Entry entry)
+    {
+        if (! entry.isReferenced)
+        {
+            entry.isReferenced = true;
+        }
+    }
+    
+    /* Records the number of values held by cache, and clears caches if over budget */
+    void resize(Entry entry, RecurrenceRuleCache cache)
+    {
+        if (record(entry, cache) && (valueCount.sum() > maxValues) && evictionLock.tryLock())
+        { // if another thread is already clearing caches, it will bring the total within budget
+            try
+            {
+                evict();
+            } finally
+            {
+                evictionLock.unlock();
+            }
+        }
+    }
+    
+    /*
+     * Matches the entry's count to the number of values cache holds now.  Retries until they agree, so the
+     * total can't drift when values are added and the cache is cleared at the same time.
+     * Returns true if the count grew.
+     */
+    private boolean record(Entry entry, RecurrenceRuleCache cache)
+    {
+        boolean isGrown = false;
+        while (true)
+        {
+            int recorded = entry.size.get();
+            int actual = cache.valueCount();
+            if (recorded == actual)
+            {
+                break;
+            }
+            if (entry.size.compareAndSet(recorded, actual))
+            {
+                valueCount.add(actual - recorded);
+                if (actual > recorded)
+                {
+                    isGrown = true;
+                    entry.isReferenced = true;
+                    enqueue(entry);
+                }
+            }
+        }
+        return isGrown;
+    }
+    
+    /* Adds entry to the clock, unless it is already there */
+    private void enqueue(Entry entry)
+    {
+        if (! entry.isQueued.get() && entry.isQueued.compareAndSet(false, true))
+        {
+            clock.add(entry);
+        }
+    }
+    
+    /* Clears caches, skipping recently used ones once, until within budget.  Must hold evictionLock. */
+    private void evict()
+    {
+        removeCollected();
+        int remaining = 2 * clock.size(); // enough for every cache to use up its second chance
+        while ((valueCount.sum() > maxValues) && (remaining-- > 0))
+        {
+            Entry entry = clock.poll();
+            if (entry == null)
+            {
+                break;
+            }
+            RecurrenceRuleCache cache = entry.get();
+            if (cache == null)
+            {
+                valueCount.add(-entry.size.getAndSet(0));
+            } else if ((entry.size.get() > 0) && entry.isReferenced)
+            {
+                entry.isReferenced = false;
+                clock.add(entry);
+            } else
+            {
+                entry.isQueued.set(false);
+                if (entry.size.get() > 0)
+                {
+                    cache.evict();
+                    record(entry, cache);
+                    evictionCount.increment();
+                }
+                if (entry.size.get() > 0)
+                { // values were added while clearing
+                    enqueue(entry);
+                }
+            }
+        }
+    }
+    
+    /* Stops counting values of caches that have been garbage collected */
+    private void removeCollected()
+    {
+        Reference<? extends RecurrenceRuleCache> key;
+        while ((key = collected.poll()) != null)
+        {
+            valueCount.add(-((Entry) key).size.getAndSet(0));
+        }
+    }
+    
+    /* A cache's place in the budget: its value count and clock flags */
+    static final class Entry extends WeakReference<RecurrenceRuleCache>
+    {
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean isQueued = new AtomicBoolean();
+        private volatile boolean isReferenced;
+        
+        private Entry(RecurrenceRuleCache cache, ReferenceQueue<RecurrenceRuleCache> queue)
+        {
+            super(cache, queue);
+        }
+    }
+}
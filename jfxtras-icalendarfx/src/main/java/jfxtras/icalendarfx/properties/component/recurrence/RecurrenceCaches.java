@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.properties.component.recurrence;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import jfxtras.icalendarfx.components.VRepeatable;
+
+/**
+ * Makes the {@link RecurrenceCache} of each new {@link VRepeatable} component.
+ * <p>
+ * By default, every component gets a {@link RecurrenceRuleCache} with the default checkpoint density and size,
+ * sharing the {@link RecurrenceCacheBudget#global() global budget}.  Calendars with many repeating components
+ * can use fewer, or more, checkpoints per component, for example:
+ * <pre>
+ * RecurrenceCaches.setFactory(c -&gt; new RecurrenceRuleCache(c, 50, 10, RecurrenceCacheBudget.global()));
+ * </pre>
+ */
+public final class RecurrenceCaches
+{
+    private static volatile Function<VRepeatable<?>, RecurrenceCache> factory = RecurrenceRuleCache::new;
+
+    private RecurrenceCaches() { }
+    
+    /** Returns a new cache for component, made by the current factory */
+    public static RecurrenceCache newCache(VRepeatable<?> component)
+    {
+        return factory.apply(component);
+    }
+    
+    /**
+     * Sets the factory used for components made after this call.  Existing components keep their cache.
+     * 
+     * @param factory  makes a cache for a component
+     */
+    public static void setFactory(Function<VRepeatable<?>, RecurrenceCache> factory)
+    {
+        RecurrenceCaches.factory = Objects.requireNonNull(factory);
+    }
+    
+    /** Restores the default factory, which makes {@link RecurrenceRuleCache} */
+    public static void resetFactory()
+    {
+        factory = RecurrenceRuleCache::new;
+    }
+}
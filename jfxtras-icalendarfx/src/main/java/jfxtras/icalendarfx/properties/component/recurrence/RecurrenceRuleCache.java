@@ -29,6 +29,8 @@ package jfxtras.icalendarfx.properties.component.recurrence;
 import java.time.temporal.Temporal;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 import jfxtras.icalendarfx.components.VRepeatable;
@@ -40,55 +42,72 @@ import jfxtras.icalendarfx.utilities.DateTimeUtilities;
  * of recurrence instances for a recurrence rule (RRULE).
  * RFC 5545 3.8.5.2, page 121
  * The recurrence set is the complete set of recurrence instances for a calendar component.
+ * <p>
+ * Every checkpointDensity-th streamed value is cached, up to checkpointSize values.  The number of values held
+ * by all caches is limited by a {@link RecurrenceCacheBudget}, which clears caches that haven't been used recently.
+ * <p>
+ * The cached values are held in an immutable {@link Checkpoints} snapshot that is replaced, never modified,
+ * when a value is added.  Therefore, any number of threads, or nested iterations on one thread, can
+ * stream recurrences of the same component at the same time.
  * 
  * @author David Bal
  *
  */
-public class RecurrenceRuleCache
+public class RecurrenceRuleCache implements RecurrenceCache
 {
-    // Variables for start date or date/time cache used as starting Temporal for stream
-    private static final int CACHE_RANGE = 51; // number of values in cache
-    private static final int CACHE_SKIP = 21; // store every nth value in the cache
-    private int skipCounter = 0; // counter that increments up to CACHE_SKIP, indicates time to record a value, then resets to 0
-    public Temporal[] temporalCache; // the start date or date/time cache
-    private Temporal dateTimeStartLast; // last dateTimeStart, when changes indicates clearing the cache is necessary
-    private RecurrenceRuleValue rRuleLast; // last rRule, when changes indicates clearing the cache is necessary
-    public int cacheStart = 0; // start index where cache values are stored (starts in middle)
-    public int cacheEnd = 0; // end index where cache values are stored
-    private VRepeatable<?> component; // the VComponent
+    /** Default number of streamed values between cached values */
+    public static final int DEFAULT_CHECKPOINT_DENSITY = 21;
+    /** Default maximum number of cached values, including DTSTART */
+    public static final int DEFAULT_CHECKPOINT_SIZE = 51;
+    
+    private final int checkpointDensity; // store every nth value in the cache
+    private final int checkpointSize; // number of values in cache
+    private final RecurrenceCacheBudget budget;
+    private final RecurrenceCacheBudget.Entry budgetKey;
+    private final AtomicReference<Checkpoints> checkpoints = new AtomicReference<>();
+    private final VRepeatable<?> component; // the VComponent
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
     
     public RecurrenceRuleCache(VRepeatable<?> component)
     {
-        this.component = component;
+        this(component, DEFAULT_CHECKPOINT_DENSITY, DEFAULT_CHECKPOINT_SIZE, RecurrenceCacheBudget.global());
     }
 
     /**
-     * finds previous value in recurrence set before input parameter value
+     * Makes a cache with custom tuning
      * 
-     * @param value - start value
-     * @return - previous recurrence instance
+     * @param component  component whose recurrences are cached
+     * @param checkpointDensity  number of streamed values between cached values, at least 1
+     * @param checkpointSize  maximum number of cached values, including DTSTART, at least 2
+     * @param budget  limit for the number of values held by this and other caches
      */
-    public Temporal previousValue(Temporal value)
+    public RecurrenceRuleCache(VRepeatable<?> component, int checkpointDensity, int checkpointSize, RecurrenceCacheBudget budget)
     {
-        final Temporal start; 
-        if (cacheEnd == 0)
+        if (checkpointDensity < 1)
         {
-            start = component.getDateTimeStart().getValue();
-        } else
-        { // try to get start from cache
-            Temporal m  = null;
-            for (int i=cacheEnd; i>cacheStart; i--)
-            {
-                if (DateTimeUtilities.isBefore(temporalCache[i], value))
-                {
-                    m = temporalCache[i];
-                    break;
-                }
-            }
-            start = (m != null) ? m : component.getDateTimeStart().getValue();
+            throw new IllegalArgumentException("Checkpoint density must be at least 1:" + checkpointDensity);
+        }
+        if (checkpointSize < 2)
+        {
+            throw new IllegalArgumentException("Checkpoint size must be at least 2:" + checkpointSize);
         }
+        this.component = component;
+        this.checkpointDensity = checkpointDensity;
+        this.checkpointSize = checkpointSize;
+        this.budget = budget;
+        budgetKey = budget.register(this);
+    }
+
+    @Override
+    public Temporal previousValue(Temporal value)
+    {
+        Temporal dateTimeStart = component.getDateTimeStart().getValue();
+        Checkpoints current = checkpoints.get();
+        Temporal m = ((current != null) && current.isValidFor(dateTimeStart, recurrenceRule())) ? current.lower(value) : null;
+        final Temporal start = (m != null) ? m : dateTimeStart;
         Iterator<Temporal> i = component.streamRecurrences(start).iterator();
-//        Iterator<Temporal> i = streamNoCache(start).iterator();
         Temporal lastT = null;
         while (i.hasNext())
         {
@@ -108,158 +127,208 @@ public class RecurrenceRuleCache
      * @param targetStart - target date/time to get previous recurrence.
      * @return closest recurrence DTSTART value, without going over.
      */
+    @Override
     public Temporal getClosestStart(Temporal targetStart)
     {
-        final Temporal match;
-        final Temporal dateTimeStart;
-        final RecurrenceRuleValue recurrenceRule;
-        
-        dateTimeStart = component.getDateTimeStart().getValue();
-        
-        recurrenceRule = (component.getRecurrenceRule() != null) ? component.getRecurrenceRule().getValue() : null;
-
-        // adjust start to ensure its not before dateTimeStart
-        final Temporal start2 = (DateTimeUtilities.isBefore(targetStart, dateTimeStart)) ? dateTimeStart : targetStart;
-        final Temporal latestCacheValue;
-
-        
+        RecurrenceRuleValue recurrenceRule = recurrenceRule();
         if (recurrenceRule == null)
         { // if individual event
             return null;
         }
-
-        // check if cache needs to be cleared (changes to RRULE or DTSTART)
-        if ((dateTimeStartLast != null) && (rRuleLast != null))
+        Temporal dateTimeStart = component.getDateTimeStart().getValue();
+        
+        // adjust start to ensure its not before dateTimeStart
+        final Temporal start2 = (DateTimeUtilities.isBefore(targetStart, dateTimeStart)) ? dateTimeStart : targetStart;
+        Temporal closestStart = checkpoints(dateTimeStart, recurrenceRule).floor(start2);
+        if (closestStart.equals(dateTimeStart))
         {
-            boolean startChanged = ! dateTimeStart.equals(dateTimeStartLast);
-            boolean rRuleChanged = ! recurrenceRule.equals(rRuleLast);
-            if (startChanged || rRuleChanged)
-            {
-                temporalCache = null;
-                cacheStart = 0;
-                cacheEnd = 0;
-                skipCounter = 0;
-                dateTimeStartLast = dateTimeStart;
-                rRuleLast = recurrenceRule;
-            }
+            missCount.increment();
         } else
-        { // save current DTSTART and RRULE for next time
-            dateTimeStartLast = dateTimeStart;
-            rRuleLast = recurrenceRule;
+        {
+            hitCount.increment();
+            budget.touch(budgetKey);
         }
-        
-        // use cache if available to find matching start date or date/time
-        if (temporalCache != null)
+        return closestStart;
+    }
+    
+    
+    /** add to cache while streaming recurrences */
+    @Override
+    public Stream<Temporal> makeCache(Stream<Temporal> inStream)
+    {
+        RecurrenceRuleValue recurrenceRule = recurrenceRule();
+        if (recurrenceRule == null)
         {
-            // Reorder cache to maintain centered and sorted
-            final int len = temporalCache.length;
-            final Temporal[] p1;
-            final Temporal[] p2;
-            if (cacheEnd < cacheStart) // high values have wrapped from end to beginning
-            {
-                p1 = Arrays.copyOfRange(temporalCache, cacheStart, len);
-                p2 = Arrays.copyOfRange(temporalCache, 0, Math.min(cacheEnd+1,len));
-            } else if (cacheEnd > cacheStart) // low values have wrapped from beginning to end
-            {
-                p2 = Arrays.copyOfRange(temporalCache, cacheStart, len);
-                p1 = Arrays.copyOfRange(temporalCache, 0, Math.min(cacheEnd+1,len));
-            } else
+            return inStream;
+        }
+        Temporal dateTimeStart = component.getDateTimeStart().getValue();
+        checkpoints(dateTimeStart, recurrenceRule);
+        int[] skipCounter = new int[1]; // counter that increments up to checkpointDensity, indicates time to record a value, then resets to 0
+        return inStream.peek(t ->
+        { // save new values in cache
+            Checkpoints current = checkpoints.get();
+            if ((current != null) && current.isValidFor(dateTimeStart, recurrenceRule) && DateTimeUtilities.isAfter(t, current.latest()))
             {
-                p1 = null;
-                p2 = null;
-            }
-            if (p1 != null)
-            { // copy elements to accommodate wrap and restore sort order
-                int p1Index = 0;
-                int p2Index = 0;
-                for (int i=0; i<len; i++)
+                if (skipCounter[0] == checkpointDensity)
+                {
+                    add(dateTimeStart, recurrenceRule, t);
+                    skipCounter[0] = 0;
+                } else
                 {
-                    if (p1Index < p1.length)
-                    {
-                        temporalCache[i] = p1[p1Index];
-                        p1Index++;
-                    } else if (p2Index < p2.length)
-                    {
-                        temporalCache[i] = p2[p2Index];
-                        p2Index++;
-                    } else
-                    {
-                        cacheEnd = i;
-                        break;
-                    }
+                    skipCounter[0]++;
+                    skippedCount.increment();
                 }
             }
+        });
+    }
+    
+    @Override
+    public void clear()
+    {
+        checkpoints.set(null);
+        budget.resize(budgetKey, this);
+    }
+    
+    @Override
+    public long getHitCount()
+    {
+        return hitCount.sum();
+    }
+    
+    @Override
+    public long getMissCount()
+    {
+        return missCount.sum();
+    }
+    
+    @Override
+    public long getSkippedCount()
+    {
+        return skippedCount.sum();
+    }
+    
+    /* Called by the budget, which then records the new value count */
+    void evict()
+    {
+        checkpoints.set(null);
+    }
+    
+    /* Number of values counted by the budget.  DTSTART isn't counted, the component holds it anyway. */
+    int valueCount()
+    {
+        Checkpoints current = checkpoints.get();
+        return (current == null) ? 0 : current.values.length-1;
+    }
 
-            // Find match in cache
-            latestCacheValue = temporalCache[cacheEnd];
-            if ((! DateTimeUtilities.isBefore(start2, temporalCache[cacheStart])))
+    private RecurrenceRuleValue recurrenceRule()
+    {
+        return (component.getRecurrenceRule() != null) ? component.getRecurrenceRule().getValue() : null;
+    }
+    
+    /* Returns checkpoints for DTSTART and RRULE.  The cache is cleared if either has changed. */
+    private Checkpoints checkpoints(Temporal dateTimeStart, RecurrenceRuleValue recurrenceRule)
+    {
+        while (true)
+        {
+            Checkpoints current = checkpoints.get();
+            if ((current != null) && current.isValidFor(dateTimeStart, recurrenceRule))
             {
-                Temporal m = latestCacheValue;
-                for (int i=cacheStart; i<cacheEnd+1; i++)
+                return current;
+            }
+            Checkpoints cleared = new Checkpoints(dateTimeStart, recurrenceRule, new Temporal[] { dateTimeStart });
+            if (checkpoints.compareAndSet(current, cleared))
+            {
+                if (current != null)
                 {
-                    if (DateTimeUtilities.isAfter(temporalCache[i], start2))
-                    {
-                        m = temporalCache[i-1];
-                        break;
-                    }
+                    budget.resize(budgetKey, this);
                 }
-                match = m;
-            } else
-            { // all cached values too late - start over
-                cacheStart = 0;
-                cacheEnd = 0;
-                temporalCache[cacheStart] = dateTimeStart;
-                match = dateTimeStart;
+                return cleared;
             }
-        } else
-        { // no previous cache.  initialize new array with dateTimeStart as first value.
-            temporalCache = new Temporal[CACHE_RANGE];
-            temporalCache[cacheStart] = dateTimeStart;
-            match = dateTimeStart;
         }
-        return match;
     }
     
+    /* Adds value after the latest checkpoint, unless another thread has already gone past it */
+    private void add(Temporal dateTimeStart, RecurrenceRuleValue recurrenceRule, Temporal value)
+    {
+        while (true)
+        {
+            Checkpoints current = checkpoints.get();
+            if ((current == null) || ! current.isValidFor(dateTimeStart, recurrenceRule) || ! DateTimeUtilities.isAfter(value, current.latest()))
+            {
+                return;
+            }
+            Checkpoints added = current.append(value, checkpointSize);
+            if (checkpoints.compareAndSet(current, added))
+            {
+                budget.resize(budgetKey, this);
+                return;
+            }
+        }
+    }
     
-    /** add to cache while streaming recurrences */
-    public Stream<Temporal> makeCache(Stream<Temporal> inStream)
+    /**
+     * Immutable, sorted recurrence start values for one DTSTART and RRULE.  The first value is always DTSTART.
+     */
+    private static final class Checkpoints
     {
-        Temporal earliestCacheValue = temporalCache[cacheStart];
-        Temporal latestCacheValue = temporalCache[cacheEnd];
-//        System.out.println("makeCache:" + earliestCacheValue + " " + latestCacheValue + " " + component.getRecurrences());
-        Stream<Temporal> outStream = inStream
-                .peek(t ->
-                { // save new values in cache
-                    if (component.getRecurrenceRule() != null)
-                    {
-                        if (DateTimeUtilities.isBefore(t, earliestCacheValue))
-                        {
-                            if (skipCounter == CACHE_SKIP)
-                            {
-                                cacheStart--;
-                                if (cacheStart < 0) cacheStart = CACHE_RANGE - 1;
-                                if (cacheStart == cacheEnd) cacheEnd--; // just overwrote oldest value - push cacheEnd down
-                                temporalCache[cacheStart] = t;
-                                skipCounter = 0;
-                            } else skipCounter++;
-                        }
-                        if (DateTimeUtilities.isAfter(t, latestCacheValue))
-                        {
-                            if (skipCounter == CACHE_SKIP)
-                            {
-                                cacheEnd++;
-                                if (cacheEnd == CACHE_RANGE) cacheEnd = 0;
-                                if (cacheStart == cacheEnd) cacheStart++; // just overwrote oldest value - push cacheStart up
-                                temporalCache[cacheEnd] = t;
-                                skipCounter = 0;
-                            } else skipCounter++;
-                        }
-                        // check if start or end needs to wrap
-                        if (cacheEnd < 0) cacheEnd = CACHE_RANGE - 1;
-                        if (cacheStart == CACHE_RANGE) cacheStart = 0;
-                    }
-                });
-        return outStream;
+        private final Temporal dateTimeStart;
+        private final RecurrenceRuleValue recurrenceRule;
+        private final Temporal[] values;
+        
+        private Checkpoints(Temporal dateTimeStart, RecurrenceRuleValue recurrenceRule, Temporal[] values)
+        {
+            this.dateTimeStart = dateTimeStart;
+            this.recurrenceRule = recurrenceRule;
+            this.values = values;
+        }
+        
+        private boolean isValidFor(Temporal dateTimeStart, RecurrenceRuleValue recurrenceRule)
+        {
+            return this.dateTimeStart.equals(dateTimeStart)
+                    && ((this.recurrenceRule == recurrenceRule) || this.recurrenceRule.equals(recurrenceRule));
+        }
+        
+        private Temporal latest()
+        {
+            return values[values.length-1];
+        }
+        
+        /** Copy with value added to the end.  When full, the oldest value after DTSTART is dropped. */
+        private Checkpoints append(Temporal value, int maxSize)
+        {
+            final Temporal[] newValues;
+            if (values.length < maxSize)
+            {
+                newValues = Arrays.copyOf(values, values.length+1);
+            } else
+            {
+                newValues = new Temporal[maxSize];
+                newValues[0] = values[0];
+                System.arraycopy(values, values.length-maxSize+2, newValues, 1, maxSize-2);
+            }
+            newValues[newValues.length-1] = value;
+            return new Checkpoints(dateTimeStart, recurrenceRule, newValues);
+        }
+        
+        /** Greatest value on or before target */
+        private Temporal floor(Temporal target)
+        {
+            int index = search(target);
+            return values[(index >= 0) ? index : Math.max(-index-2, 0)];
+        }
+
+        /** Greatest value before target, null if none */
+        private Temporal lower(Temporal target)
+        {
+            int index = search(target);
+            int lowerIndex = (index >= 0) ? index-1 : -index-2;
+            return (lowerIndex >= 0) ? values[lowerIndex] : null;
+        }
+        
+        private int search(Temporal target)
+        {
+            return Arrays.binarySearch(values, target, DateTimeUtilities.TEMPORAL_COMPARATOR);
+        }
     }
 
 //    /** Stream of date/times that indicate the start of the event(s).
@@ -26,8 +26,18 @@
  */
 package jfxtras.icalendarfx.properties.component.recurrence.rrule;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAdjuster;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
@@ -94,6 +104,149 @@ public class Frequency extends RRulePartBase<FrequencyType, Frequency>
         return (temporal) -> temporal.plus(interval, getValue().getChronoUnit());
     }
     
+    /**
+     * Returns the index of a frequency period that starts on or before target, counting the period
+     * starting at dateTimeStart as period 0.  The index is one period earlier than the period containing
+     * target, so no later period can produce date/times before target.
+     * 
+     * @param dateTimeStart  start of period 0 (DTSTART)
+     * @param interval  number of frequency units between periods
+     * @param target  date/time to seek to, same Temporal class as dateTimeStart
+     * @return  period index, never negative
+     */
+    long periodIndex(Temporal dateTimeStart, int interval, Temporal target)
+    {
+        long between = getValue().getChronoUnit().between(dateTimeStart, target);
+        return Math.max(between / interval - 1, 0);
+    }
+    
+    /**
+     * Returns the start of frequency period number periodIndex, counting the period starting at
+     * dateTimeStart as period 0.  The result is identical to applying {@link #adjuster(int)} periodIndex
+     * times, but most periods are skipped with one addition.  Periods are stepped one at a time only where
+     * repeated additions give a different result than one large addition: when the day-of-month is
+     * shortened to fit a shorter month, and when the local time falls in a time zone gap or overlap.
+     * 
+     * @param dateTimeStart  start of period 0 (DTSTART)
+     * @param interval  number of frequency units between periods
+     * @param periodIndex  index of the period to return
+     * @return  start of the period
+     */
+    Temporal periodStart(Temporal dateTimeStart, int interval, long periodIndex)
+    {
+        ChronoUnit unit = getValue().getChronoUnit();
+        TemporalAdjuster adjuster = adjuster(interval);
+        Temporal base = dateTimeStart;
+        long baseIndex = 0;
+        while (baseIndex < periodIndex)
+        {
+            long irregularIndex = nextIrregularIndex(base, baseIndex, unit, interval, periodIndex);
+            if (irregularIndex < 0)
+            {
+                return base.plus((periodIndex - baseIndex) * interval, unit);
+            }
+            if (irregularIndex - 1 > baseIndex)
+            {
+                base = base.plus((irregularIndex - 1 - baseIndex) * interval, unit);
+            }
+            base = base.with(adjuster);
+            baseIndex = irregularIndex;
+        }
+        return base;
+    }
+    
+    /* Index of first period after baseIndex, up to lastIndex, that one addition from base gets wrong, or -1 if none */
+    private static long nextIrregularIndex(Temporal base, long baseIndex, ChronoUnit unit, int interval, long lastIndex)
+    {
+        if (! unit.isDateBased())
+        {
+            return -1; // time units are exact, even across time zone transitions
+        }
+        long shortMonthIndex = nextShortMonthIndex(base, baseIndex, unit, interval, lastIndex);
+        long lastTransitionIndex = (shortMonthIndex < 0) ? lastIndex : shortMonthIndex;
+        long transitionIndex = (base instanceof ZonedDateTime) ?
+                nextTransitionIndex((ZonedDateTime) base, baseIndex, unit, interval, lastTransitionIndex) : -1;
+        return (transitionIndex < 0) ? shortMonthIndex : transitionIndex;
+    }
+    
+    /* Index of first period whose month is too short for the day-of-month of base, or -1 if none */
+    private static long nextShortMonthIndex(Temporal base, long baseIndex, ChronoUnit unit, int interval, long lastIndex)
+    {
+        int dayOfMonth = base.get(ChronoField.DAY_OF_MONTH);
+        if ((dayOfMonth <= 28) || ((unit != ChronoUnit.MONTHS) && (unit != ChronoUnit.YEARS)))
+        {
+            return -1;
+        }
+        YearMonth baseMonth = YearMonth.from(base);
+        long monthsPerPeriod = (unit == ChronoUnit.YEARS) ? 12L * interval : interval;
+        long maxPeriods = Math.min(lastIndex - baseIndex, MONTHS_IN_CALENDAR_CYCLE);
+        for (long periods=1; periods<=maxPeriods; periods++)
+        {
+            if (baseMonth.plusMonths(periods * monthsPerPeriod).lengthOfMonth() < dayOfMonth)
+            {
+                return baseIndex + periods;
+            }
+        }
+        return -1;
+    }
+    private static final long MONTHS_IN_CALENDAR_CYCLE = 400 * 12; // Gregorian calendar repeats every 400 years
+    
+    /* Index of first period whose local date/time is in a gap or overlap of the time zone, or -1 if none */
+    private static long nextTransitionIndex(ZonedDateTime base, long baseIndex, ChronoUnit unit, int interval, long lastIndex)
+    {
+        ZoneRules rules = base.getZone().getRules();
+        LocalDateTime baseLocal = base.toLocalDateTime();
+        Instant lastInstant = base.plus((lastIndex - baseIndex) * interval, unit).toInstant().plus(Duration.ofDays(2));
+        ZoneOffsetTransition transition = rules.nextTransition(base.toInstant());
+        while ((transition != null) && ! transition.getInstant().isAfter(lastInstant))
+        {
+            LocalDateTime windowStart = transition.isGap() ? transition.getDateTimeBefore() : transition.getDateTimeAfter();
+            LocalDateTime windowEnd = transition.isGap() ? transition.getDateTimeAfter() : transition.getDateTimeBefore();
+            for (LocalDate date = windowStart.toLocalDate(); ! date.isAfter(windowEnd.toLocalDate()); date = date.plusDays(1))
+            {
+                LocalDateTime candidate = date.atTime(baseLocal.toLocalTime());
+                if (! candidate.isBefore(windowStart) && candidate.isBefore(windowEnd))
+                {
+                    long periods = periodsBetween(baseLocal.toLocalDate(), date, unit, interval);
+                    if ((periods > 0) && (baseIndex + periods <= lastIndex))
+                    {
+                        return baseIndex + periods;
+                    }
+                }
+            }
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        return -1;
+    }
+    
+    /* Number of periods from baseDate to date, or -1 if date isn't the date of a period start */
+    private static long periodsBetween(LocalDate baseDate, LocalDate date, ChronoUnit unit, int interval)
+    {
+        final long units;
+        switch (unit)
+        {
+        case DAYS:
+        case WEEKS:
+            long days = ChronoUnit.DAYS.between(baseDate, date);
+            long daysPerUnit = (unit == ChronoUnit.WEEKS) ? 7 : 1;
+            units = (days % daysPerUnit == 0) ? days / daysPerUnit : -1;
+            break;
+        case MONTHS:
+        case YEARS:
+            if (baseDate.getDayOfMonth() != date.getDayOfMonth())
+            {
+                return -1;
+            }
+            long months = ChronoUnit.MONTHS.between(YearMonth.from(baseDate), YearMonth.from(date));
+            long monthsPerUnit = (unit == ChronoUnit.YEARS) ? 12 : 1;
+            units = (months % monthsPerUnit == 0) ? months / monthsPerUnit : -1;
+            break;
+        default:
+            return -1;
+        }
+        return ((units > 0) && (units % interval == 0)) ? units / interval : -1;
+    }
+    
     /*
      * CONSTRUCTORS
      */
@@ -31,6 +31,7 @@ import java.util.List;
 
 import jfxtras.icalendarfx.VElementBase;
 import jfxtras.icalendarfx.VParent;
+import jfxtras.icalendarfx.VParentBase;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RRuleElement;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RRulePart;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RRulePartBase;
@@ -50,7 +51,14 @@ abstract public class RRulePartBase<T, U> extends VElementBase implements RRuleP
     public T getValue() { return value; }
     private T value;
     @Override
-    public void setValue(T value) { this.value = value; }
+    public void setValue(T value)
+    {
+        this.value = value;
+        if (getParent() instanceof VParentBase)
+        {
+            ((VParentBase<?>) getParent()).invalidateContent();
+        }
+    }
     public U withValue(T value)
     {
     	setValue(value);
@@ -26,11 +26,9 @@
  */
 package jfxtras.icalendarfx.properties.component.recurrence.rrule;
 
-import java.lang.reflect.Method;
 import java.time.DayOfWeek;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -46,6 +44,8 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import jfxtras.icalendarfx.content.ChildAccessor;
+import jfxtras.icalendarfx.content.ContentLineTokenizer;
 import jfxtras.icalendarfx.VChild;
 import jfxtras.icalendarfx.VParent;
 import jfxtras.icalendarfx.VParentBase;
@@ -64,11 +64,9 @@ import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByMinute;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByMonth;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByMonthDay;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRule;
-import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRuleAbstract;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.BySecond;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByYearDay;
 import jfxtras.icalendarfx.utilities.DateTimeUtilities;
-import jfxtras.icalendarfx.utilities.ICalendarUtilities;
 import jfxtras.icalendarfx.utilities.DateTimeUtilities.DateTimeType;
 
 /**
@@ -339,31 +337,21 @@ public class RecurrenceRuleValue extends VParentBase<RecurrenceRuleValue> implem
     
 
     /*
-     * Changes to getSetter and getGetter methods to provide mapping for any ByRule class
-     * to the getByRule getter.
+     * Changes to getAccessor method to provide mapping for any ByRule class
+     * to the getByRule getter and setter.
      * 
      * (non-Javadoc)
-     * @see net.balsoftware.icalendar.VParentBase#getSetter(net.balsoftware.icalendar.VChild)
+     * @see jfxtras.icalendarfx.VParentBase#getAccessor(jfxtras.icalendarfx.VChild)
      */
 	@Override
-	protected Method getSetter(VChild child)
+	protected ChildAccessor getAccessor(VChild child)
 	{
-		Method setter = getSetters().get(child.getClass());
-		if ((setter == null) && (ByRule.class.isAssignableFrom(child.getClass())))
+		ChildAccessor accessor = getAccessors().get(child.getClass());
+		if ((accessor == null) && (ByRule.class.isAssignableFrom(child.getClass())))
 		{
-			setter = getSetters().get(ByRule.class);
+			accessor = getAccessors().get(ByRule.class);
 		}
-		return setter;
-	}
-	@Override
-	protected Method getGetter(VChild child)
-	{
-		Method getter = getGetters().get(child.getClass());
-		if ((getter == null) && (ByRule.class.isAssignableFrom(child.getClass())))
-		{
-			getter = getGetters().get(ByRule.class);
-		}
-		return getter;
+		return accessor;
 	}
     
     /*
@@ -387,9 +375,11 @@ public class RecurrenceRuleValue extends VParentBase<RecurrenceRuleValue> implem
     protected List<Message> parseContent(String contentLine)
     {
     	List<Message> messages = new ArrayList<>();
-    	ICalendarUtilities.parseInlineElementsToListPair(contentLine)
-    		.stream()
-    		.forEach(entry -> processInLineChild(messages, entry.getKey(), entry.getValue(), RRulePart.class));
+    	ContentLineTokenizer tokenizer = new ContentLineTokenizer(contentLine);
+    	while (tokenizer.next())
+    	{
+    		processInLineChild(messages, tokenizer.name(), tokenizer.value(), RRulePart.class);
+    	}
         return messages;
     }
 
@@ -408,32 +398,124 @@ public class RecurrenceRuleValue extends VParentBase<RecurrenceRuleValue> implem
     public Stream<Temporal> streamRecurrences(Temporal start)
     {
         int interval = (getInterval() == null) ? Interval.DEFAULT_INTERVAL : getInterval().getValue();
-        Stream<Temporal> frequencyStream = getFrequency().streamRecurrences(start, interval);
-        
-        Stream<Temporal> recurrenceStream = frequencyStream
-                .flatMap(value ->
-                {
-                    // process byRules
-                    chronoUnit = getFrequency().getValue().getChronoUnit(); // initial chronoUnit from Frequency
-                    myStream = Arrays.asList(value).stream();
-                    if (getByRules() != null)
-                    {
-	                    getByRules().stream()
-	                            .sorted()
-	                            .forEach(rule ->
-	                            {
-	                                myStream = rule.streamRecurrences(myStream, chronoUnit, start);
-//	                                chronoUnit = RRuleElement.fromClass(rule.getClass()).getChronoUnit();
-	                                chronoUnit = ((ByRuleAbstract<?, ?>) rule).elementType.getChronoUnit();
-	                            });
-                    }
-                    // must filter out too early recurrences
-                    return myStream.filter(r -> ! DateTimeUtilities.isBefore(r, start));
-                });
-        
+        Stream<Temporal> recurrenceStream = StreamSupport.stream(new RecurrenceSpliterator(this, start, interval), false);
+        long count = (getCount() == null) ? -1 : getCount().getValue();
+        return applyEnd(recurrenceStream, start, count);
+    }
+    
+    /**
+     * Resulting stream of start date/times made by the rule starting at dateTimeStart (DTSTART), skipping ahead
+     * to the frequency period before the one containing from.  The skipped periods are not expanded,
+     * so the cost doesn't depend on the distance between dateTimeStart and from.
+     * <p>
+     * The stream is identical to the end of the stream made by {@link #streamRecurrences(Temporal)} from dateTimeStart,
+     * but can include a few values before from.  The caller must filter out those values.
+     * For rules with COUNT, skipping is only possible when each frequency period makes the same number
+     * of date/times.  Otherwise, or when a BYxxx rule can make date/times outside their own frequency period,
+     * the stream starts at dateTimeStart.
+     * 
+     * @param dateTimeStart - first occurrence date/time (DTSTART)
+     * @param from - date/time to skip ahead to
+     * @return stream of recurrences, possibly starting a little before from
+     */
+    public Stream<Temporal> streamRecurrences(Temporal dateTimeStart, Temporal from)
+    {
+        if (! dateTimeStart.isSupported(getFrequency().getValue().getChronoUnit()) ||
+                ! RecurrenceSpliterator.isPeriodLocal(this))
+        {
+            return streamRecurrences(dateTimeStart);
+        }
+        int interval = (getInterval() == null) ? Interval.DEFAULT_INTERVAL : getInterval().getValue();
+        long periodIndex = getFrequency().periodIndex(dateTimeStart, interval, from);
+        if (periodIndex == 0)
+        {
+            return streamRecurrences(dateTimeStart);
+        }
+        long count = -1;
         if (getCount() != null)
         {
-            return recurrenceStream.limit(getCount().getValue());
+            int periodSize = RecurrenceSpliterator.fixedPeriodSize(this, dateTimeStart);
+            if (periodSize < 0)
+            {
+                return streamRecurrences(dateTimeStart);
+            }
+            int firstPeriodSize = new RecurrenceSpliterator(this, dateTimeStart, interval).firstPeriodSize();
+            long skippedCount = firstPeriodSize + (periodIndex - 1) * periodSize;
+            count = getCount().getValue() - skippedCount;
+            if (count <= 0)
+            {
+                return Stream.empty();
+            }
+        }
+        Temporal periodStart = getFrequency().periodStart(dateTimeStart, interval, periodIndex);
+        Stream<Temporal> recurrenceStream = StreamSupport.stream(new RecurrenceSpliterator(this, dateTimeStart, periodStart, interval), false);
+        return applyEnd(recurrenceStream, dateTimeStart, count);
+    }
+    
+    /**
+     * Tests if {@link #streamRecurrences(Temporal, Temporal, Temporal)} makes a stream that can be split by
+     * frequency period for parallel processing.  That requires a rule without COUNT, whose BYxxx rules make
+     * date/times only inside their own frequency period.
+     * 
+     * @param dateTimeStart - first occurrence date/time (DTSTART)
+     * @return true if bounded streams can be split by frequency period
+     */
+    public boolean isSplittable(Temporal dateTimeStart)
+    {
+        return (getCount() == null) &&
+                dateTimeStart.isSupported(getFrequency().getValue().getChronoUnit()) &&
+                RecurrenceSpliterator.isPeriodLocal(this);
+    }
+    
+    /**
+     * Resulting stream of start date/times made by the rule starting at dateTimeStart (DTSTART), bounded by
+     * start (inclusive) and end (exclusive).  If {@link #isSplittable(Temporal)} the stream splits by frequency period,
+     * so it can be processed in parallel, for example with {@link Stream#parallel()}.
+     * 
+     * @param dateTimeStart - first occurrence date/time (DTSTART)
+     * @param start - earliest recurrence to include
+     * @param end - recurrences must be before end
+     * @return stream of recurrences from start to end
+     */
+    public Stream<Temporal> streamRecurrences(Temporal dateTimeStart, Temporal start, Temporal end)
+    {
+        if (! isSplittable(dateTimeStart))
+        {
+            Stream<Temporal> recurrenceStream = streamRecurrences(dateTimeStart, start)
+                    .filter(t -> ! DateTimeUtilities.isBefore(t, start));
+            return takeWhile(recurrenceStream, t -> DateTimeUtilities.isBefore(t, end));
+        }
+        int interval = (getInterval() == null) ? Interval.DEFAULT_INTERVAL : getInterval().getValue();
+        Frequency frequency = getFrequency();
+        long firstPeriodIndex = frequency.periodIndex(dateTimeStart, interval, start);
+        // two periods past the one containing end, because BYxxx rules can make date/times before their period's anchor
+        long endPeriodIndex = frequency.periodIndex(dateTimeStart, interval, end) + 3;
+        final Temporal convertedUntil;
+        if (getUntil() != null)
+        {
+            ZoneId zone = (dateTimeStart instanceof ZonedDateTime) ? ((ZonedDateTime) dateTimeStart).getZone() : null;
+            convertedUntil = DateTimeType.of(dateTimeStart).from(getUntil().getValue(), zone);
+            endPeriodIndex = Math.min(endPeriodIndex, frequency.periodIndex(dateTimeStart, interval, convertedUntil) + 3);
+        } else
+        {
+            convertedUntil = null;
+        }
+        if (firstPeriodIndex >= endPeriodIndex)
+        {
+            return Stream.empty();
+        }
+        RecurrenceSpliterator spliterator = new RecurrenceSpliterator(this, dateTimeStart, interval, firstPeriodIndex, endPeriodIndex);
+        return StreamSupport.stream(spliterator, false)
+                .filter(t -> ! DateTimeUtilities.isBefore(t, start) && DateTimeUtilities.isBefore(t, end))
+                .filter(t -> (convertedUntil == null) || ! DateTimeUtilities.isAfter(t, convertedUntil));
+    }
+    
+    /* Ends stream after count values, unless count is negative, or at UNTIL */
+    private Stream<Temporal> applyEnd(Stream<Temporal> recurrenceStream, Temporal start, long count)
+    {
+        if (count >= 0)
+        {
+            return recurrenceStream.limit(count);
         } else if (getUntil() != null)
         {
             ZoneId zone = (start instanceof ZonedDateTime) ? ((ZonedDateTime) start).getZone() : null;
@@ -442,8 +524,6 @@ public class RecurrenceRuleValue extends VParentBase<RecurrenceRuleValue> implem
         }
         return recurrenceStream;
     }
-    private ChronoUnit chronoUnit; // must be field instead of local variable due to use in lambda expression
-    private Stream<Temporal> myStream; // must be field instead of local variable due to use in lambda expression
     
     /**
      * Determines if recurrence set is goes on forever
@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.properties.component.recurrence.rrule;
+
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAdjuster;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRule;
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRuleAbstract;
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRuleStep;
+import jfxtras.icalendarfx.utilities.DateTimeUtilities;
+
+/**
+ * Spliterator of the recurrences made by the FREQ, INTERVAL and BYxxx rule parts of a {@link RecurrenceRuleValue}.
+ * COUNT and UNTIL are not applied.
+ * <p>
+ * The BYxxx rules are compiled into {@link ByRuleStep}s when the first recurrence is requested.  After that,
+ * each frequency period is expanded by applying the steps to two lists that are reused for every period,
+ * instead of building a new chain of streams for each period.
+ * <p>
+ * A spliterator made for a range of period indexes can be split in half by period before its first
+ * recurrence is requested, so bounded ranges can be expanded in parallel.  Unbounded spliterators
+ * only support the default batching split of {@link Spliterators.AbstractSpliterator}.
+ * @see RecurrenceRuleValue#streamRecurrences(Temporal)
+ */
+class RecurrenceSpliterator extends Spliterators.AbstractSpliterator<Temporal>
+{
+    private final RecurrenceRuleValue rrule;
+    private final Temporal start;
+    private final int interval;
+    private final TemporalAdjuster frequencyAdjuster;
+    private Temporal firstPeriodStart;
+    private long firstPeriodIndex; // index of firstPeriodStart, only used when bounded
+    private final long endPeriodIndex; // exclusive, Long.MAX_VALUE if unbounded
+    private long periodCount; // number of periods expanded
+    
+    private ByRuleStep[] steps; // null until first recurrence is requested
+    private Temporal periodStart; // start of current frequency period, null before first period
+    private List<Temporal> recurrences = new ArrayList<>();
+    private List<Temporal> buffer = new ArrayList<>();
+    private int index;
+
+    /**
+     * @param rrule  recurrence rule to expand
+     * @param start  starting point of expansion (MUST be a valid occurrence date/time)
+     * @param interval  number of frequency units between periods
+     */
+    RecurrenceSpliterator(RecurrenceRuleValue rrule, Temporal start, int interval)
+    {
+        this(rrule, start, start, interval);
+    }
+
+    /**
+     * @param rrule  recurrence rule to expand
+     * @param start  starting point of expansion (MUST be a valid occurrence date/time).  Earlier date/times are removed.
+     * @param firstPeriodStart  start of first frequency period to expand, from {@link Frequency#periodStart(Temporal, int, long)}
+     * @param interval  number of frequency units between periods
+     */
+    RecurrenceSpliterator(RecurrenceRuleValue rrule, Temporal start, Temporal firstPeriodStart, int interval)
+    {
+        this(rrule, start, firstPeriodStart, interval, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param rrule  recurrence rule to expand
+     * @param start  DTSTART.  Earlier date/times are removed.
+     * @param interval  number of frequency units between periods
+     * @param firstPeriodIndex  index of first frequency period to expand, counted from start
+     * @param endPeriodIndex  index of the period after the last period to expand
+     */
+    RecurrenceSpliterator(RecurrenceRuleValue rrule, Temporal start, int interval, long firstPeriodIndex, long endPeriodIndex)
+    {
+        this(rrule, start, rrule.getFrequency().periodStart(start, interval, firstPeriodIndex), interval, firstPeriodIndex, endPeriodIndex);
+    }
+    
+    private RecurrenceSpliterator(RecurrenceRuleValue rrule, Temporal start, Temporal firstPeriodStart, int interval,
+            long firstPeriodIndex, long endPeriodIndex)
+    {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.rrule = rrule;
+        this.start = start;
+        this.interval = interval;
+        this.firstPeriodStart = firstPeriodStart;
+        this.firstPeriodIndex = firstPeriodIndex;
+        this.endPeriodIndex = endPeriodIndex;
+        frequencyAdjuster = rrule.getFrequency().adjuster(interval);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Temporal> action)
+    {
+        if (steps == null)
+        {
+            steps = compile();
+        }
+        while (index >= recurrences.size())
+        {
+            if (periodCount >= endPeriodIndex - firstPeriodIndex)
+            {
+                return false;
+            }
+            expandNextPeriod();
+        }
+        action.accept(recurrences.get(index++));
+        return true;
+    }
+    
+    /* Bounded spliterators split their remaining periods in half, if nothing has been expanded yet */
+    @Override
+    public Spliterator<Temporal> trySplit()
+    {
+        if (endPeriodIndex == Long.MAX_VALUE)
+        {
+            return super.trySplit();
+        }
+        long periods = endPeriodIndex - firstPeriodIndex;
+        if ((periodStart != null) || (periods < 2))
+        {
+            return null;
+        }
+        long middlePeriodIndex = firstPeriodIndex + periods/2;
+        Spliterator<Temporal> prefix = new RecurrenceSpliterator(rrule, start, firstPeriodStart, interval, firstPeriodIndex, middlePeriodIndex);
+        firstPeriodIndex = middlePeriodIndex;
+        firstPeriodStart = rrule.getFrequency().periodStart(start, interval, middlePeriodIndex);
+        return prefix;
+    }
+    
+    @Override
+    public long estimateSize()
+    {
+        return (endPeriodIndex == Long.MAX_VALUE) ? Long.MAX_VALUE : endPeriodIndex - firstPeriodIndex - periodCount;
+    }
+
+    /**
+     * Returns the number of date/times the first frequency period makes, after removing those before start.
+     * Must be called before any recurrence is requested.
+     */
+    int firstPeriodSize()
+    {
+        steps = compile();
+        expandNextPeriod();
+        return recurrences.size();
+    }
+    
+    /**
+     * Returns the number of date/times every frequency period of the rule makes, or -1 when the number
+     * varies from period to period.  Periods before start can make fewer date/times.
+     * 
+     * @param rrule  recurrence rule
+     * @param dateTimeStart  start Temporal (date or date/time)
+     * @return  fixed number of date/times in each period, or -1
+     */
+    static int fixedPeriodSize(RecurrenceRuleValue rrule, Temporal dateTimeStart)
+    {
+        int size = 1;
+        ChronoUnit chronoUnit = rrule.getFrequency().getValue().getChronoUnit();
+        for (ByRule<?> rule : sortedByRules(rrule))
+        {
+            size = rule.fixedSize(chronoUnit, dateTimeStart, size);
+            if (size < 0)
+            {
+                return -1;
+            }
+            chronoUnit = ((ByRuleAbstract<?, ?>) rule).elementType.getChronoUnit();
+        }
+        return size;
+    }
+    
+    /**
+     * Tests if every date/time made from a frequency period stays in that period.  That isn't true when a
+     * BYxxx rule works in a coarser unit than the frequency (e.g. BYMONTH in a WEEKLY rule makes the
+     * following BYDAY expand to the whole month), so later periods can make earlier date/times.
+     */
+    static boolean isPeriodLocal(RecurrenceRuleValue rrule)
+    {
+        ChronoUnit chronoUnit = rrule.getFrequency().getValue().getChronoUnit();
+        return sortedByRules(rrule)
+                .stream()
+                .map(rule -> ((ByRuleAbstract<?, ?>) rule).elementType.getChronoUnit())
+                .noneMatch(u -> (u != null) && u.getDuration().compareTo(chronoUnit.getDuration()) > 0);
+    }
+    
+    private static List<ByRule<?>> sortedByRules(RecurrenceRuleValue rrule)
+    {
+        if (rrule.getByRules() == null)
+        {
+            return Collections.emptyList();
+        }
+        return rrule.getByRules()
+                .stream()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /* Compile BYxxx rules in their required order.  Each rule is given the ChronoUnit of the rule before it. */
+    private ByRuleStep[] compile()
+    {
+        List<ByRule<?>> byRules = sortedByRules(rrule);
+        ByRuleStep[] compiledSteps = new ByRuleStep[byRules.size()];
+        ChronoUnit chronoUnit = rrule.getFrequency().getValue().getChronoUnit(); // initial chronoUnit from Frequency
+        for (int i=0; i<compiledSteps.length; i++)
+        {
+            ByRule<?> rule = byRules.get(i);
+            compiledSteps[i] = rule.compile(chronoUnit, start);
+            chronoUnit = ((ByRuleAbstract<?, ?>) rule).elementType.getChronoUnit();
+        }
+        return compiledSteps;
+    }
+
+    /* Fill recurrences with the next frequency period's date/times */
+    private void expandNextPeriod()
+    {
+        periodStart = (periodStart == null) ? firstPeriodStart : periodStart.with(frequencyAdjuster);
+        periodCount++;
+        recurrences.clear();
+        recurrences.add(periodStart);
+        for (ByRuleStep step : steps)
+        {
+            buffer.clear();
+            step.apply(recurrences, buffer);
+            List<Temporal> swap = recurrences;
+            recurrences = buffer;
+            buffer = swap;
+        }
+        // must filter out too early recurrences
+        int size = 0;
+        for (Temporal recurrence : recurrences)
+        {
+            if (! DateTimeUtilities.isBefore(recurrence, start))
+            {
+                recurrences.set(size++, recurrence);
+            }
+        }
+        recurrences.subList(size, recurrences.size()).clear();
+        index = 0;
+    }
+}
@@ -26,6 +26,7 @@
  */
 package jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx;
 
+import static java.time.temporal.ChronoField.DAY_OF_MONTH;
 import static java.time.temporal.ChronoField.DAY_OF_WEEK;
 import static java.time.temporal.ChronoUnit.DAYS;
 
@@ -46,7 +47,6 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RRuleElement;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
@@ -238,10 +238,12 @@ public class ByDay extends ByRuleAbstract<ByDayPair, ByDay>
     }
     
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    public ByRuleStep compile(ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
         /* TODO - according to iCalendar standard a ByDay rule doesn't need any specified days - should use day from DTSTART,
          * this is not implemented yet.  When implemented this line should be removed. */
+        ByDayPair[] byDayPairs = getValue().toArray(new ByDayPair[getValue().size()]);
+        boolean isSortRequired = byDayPairs.length > 1;
         switch (chronoUnit)
         {
         case HOURS:
@@ -254,15 +256,18 @@ public class ByDay extends ByRuleAbstract<ByDayPair, ByDay>
             {
                 throw new IllegalArgumentException("Numberic ordinal day values can't be set for FREQ as" + chronoUnit);
             }
-            return inStream.filter(t ->
+            boolean[] isMatch = new boolean[DayOfWeek.values().length+1];
+            for (ByDayPair byDayPair : byDayPairs)
+            {
+                isMatch[byDayPair.dayOfWeek.getValue()] = true;
+            }
+            return (in, out) ->
             { // filter out all but qualifying days
-                DayOfWeek myDayOfWeek = DayOfWeek.from(t);
-                for (ByDayPair byDayPair : getValue())
+                for (Temporal t : in)
                 {
-                    if (byDayPair.dayOfWeek == myDayOfWeek) return true;
+                    if (isMatch[DayOfWeek.from(t).getValue()]) out.add(t);
                 }
-                return false;
-            });
+            };
         }
         case WEEKS:
         {
@@ -273,83 +278,153 @@ public class ByDay extends ByRuleAbstract<ByDayPair, ByDay>
             }
             WeekFields weekFields = WeekFields.of(getWeekStart(), MIN_DAYS_IN_WEEK);
             TemporalField dayOfWeekField = weekFields.dayOfWeek();
-            return inStream.flatMap(t -> 
+            int defaultFirstDayOfWeekValue = DayOfWeek.MONDAY.getValue();
+            int myFirstDayOfWeekValue = weekFields.getFirstDayOfWeek().getValue();
+            int dayOfWeekAdjustment = defaultFirstDayOfWeekValue - myFirstDayOfWeekValue + DayOfWeek.values().length;
+            int[] dayOfWeekValues = new int[byDayPairs.length];
+            for (int i=0; i<byDayPairs.length; i++)
+            {
+                int dayOfWeekValue = byDayPairs[i].dayOfWeek.getValue() + dayOfWeekAdjustment;
+                dayOfWeekValues[i] = (dayOfWeekValue > 7) ? dayOfWeekValue-7 : dayOfWeekValue;
+            }
+            return (in, out) ->
             { // Expand to be byDayPairs days in current week
-                List<Temporal> dates = new ArrayList<>();
-                for (ByDayPair byDayPair : getValue())
+                for (Temporal t : in)
                 {
-                    int defaultFirstDayOfWeekValue = DayOfWeek.MONDAY.getValue();
-                    int myFirstDayOfWeekValue = weekFields.getFirstDayOfWeek().getValue();
-                    int dayOfWeekAdjustment = defaultFirstDayOfWeekValue - myFirstDayOfWeekValue + DayOfWeek.values().length;
-                    int dayOfWeekValue = byDayPair.dayOfWeek.getValue() + dayOfWeekAdjustment;
-                    dayOfWeekValue = (dayOfWeekValue > 7) ? dayOfWeekValue-7 : dayOfWeekValue;
-                    Temporal newTemporal = t.with(dayOfWeekField, dayOfWeekValue);
-                    dates.add(newTemporal);
+                    int from = out.size();
+                    for (int dayOfWeekValue : dayOfWeekValues)
+                    {
+                        out.add(t.with(dayOfWeekField, dayOfWeekValue));
+                    }
+                    if (isSortRequired) sortFrom(out, from);
                 }
-                if (getValue().size() > 1) Collections.sort(dates, DateTimeUtilities.TEMPORAL_COMPARATOR);
-                return dates.stream();
-            });
+            };
         }
         case MONTHS:
-            return inStream.flatMap(date -> 
+        {
+            /* Same arithmetic as TemporalAdjusters.dayOfWeekInMonth, but the first and last days of the month
+             * are found only once per month.  Candidate days are encoded as dayOfMonth*2, plus 1 when counted
+             * from the last day of the month. */
+            int[] candidates = new int[byDayPairs.length*5];
+            return (in, out) ->
             {
-                List<Temporal> dates = new ArrayList<>();
-                for (ByDayPair byDayPair : getValue())
+                for (Temporal date : in)
                 {
-                    if (byDayPair.ordinal == 0)
-                    { // add every matching day of week in month
-                        Month myMonth = Month.from(date);
-                        for (int weekNum=1; weekNum<=5; weekNum++)
+                    Month myMonth = Month.from(date);
+                    int daysInMonth = (int) date.range(DAY_OF_MONTH).getMaximum();
+                    Temporal firstDayOfMonth = null;
+                    Temporal lastDayOfMonth = null;
+                    int size = 0;
+                    for (ByDayPair byDayPair : byDayPairs)
+                    {
+                        int dowValue = byDayPair.dayOfWeek.getValue();
+                        if (byDayPair.ordinal >= 0)
                         {
-                            Temporal newTemporal = date.with(TemporalAdjusters.dayOfWeekInMonth(weekNum, byDayPair.dayOfWeek));
-                            if (Month.from(newTemporal) == myMonth)
+                            if (firstDayOfMonth == null)
                             {
-                                dates.add(newTemporal);
+                                firstDayOfMonth = date.with(DAY_OF_MONTH, 1);
                             }
+                            int dowDiff = (dowValue - firstDayOfMonth.get(DAY_OF_WEEK) + 7) % 7;
+                            if (byDayPair.ordinal == 0)
+                            { // add every matching day of week in month
+                                for (int dayOfMonth = dowDiff+1; dayOfMonth <= daysInMonth; dayOfMonth += 7)
+                                {
+                                    candidates[size++] = dayOfMonth*2;
+                                }
+                            } else
+                            {
+                                int dayOfMonth = dowDiff + (byDayPair.ordinal-1)*7 + 1;
+                                if (dayOfMonth <= daysInMonth) candidates[size++] = dayOfMonth*2;
+                            }
+                        } else
+                        {
+                            if (lastDayOfMonth == null)
+                            {
+                                lastDayOfMonth = date.with(DAY_OF_MONTH, daysInMonth);
+                            }
+                            int daysDiff = dowValue - lastDayOfMonth.get(DAY_OF_WEEK);
+                            daysDiff = (daysDiff == 0) ? 0 : ((daysDiff > 0) ? daysDiff - 7 : daysDiff);
+                            int dayOfMonth = daysInMonth + daysDiff - (-byDayPair.ordinal-1)*7;
+                            if (dayOfMonth >= 1) candidates[size++] = dayOfMonth*2 + 1;
                         }
-                    } else
+                    }
+                    if (isSortRequired) Arrays.sort(candidates, 0, size);
+                    for (int i=0; i<size; i++)
                     {
-                        Month myMonth = Month.from(date);
-                        Temporal newTemporal = date.with(TemporalAdjusters.dayOfWeekInMonth(byDayPair.ordinal, byDayPair.dayOfWeek));
-
+                        int dayOfMonth = candidates[i] >> 1;
+                        Temporal newTemporal = ((candidates[i] & 1) == 0) ? firstDayOfMonth.plus(dayOfMonth-1, DAYS)
+                                : lastDayOfMonth.plus(dayOfMonth-daysInMonth, DAYS);
                         if (Month.from(newTemporal) == myMonth)
                         {
-                            dates.add(newTemporal);
+                            out.add(newTemporal);
                         }
                     }
                 }
-                if (getValue().size() > 1) Collections.sort(dates, DateTimeUtilities.TEMPORAL_COMPARATOR);
-                return dates.stream();
-            });
+            };
+        }
         case YEARS:
-            return inStream.flatMap(date -> 
+        {
+            TemporalAdjuster[] adjusters = new TemporalAdjuster[byDayPairs.length];
+            for (int i=0; i<byDayPairs.length; i++)
             {
-                List<Temporal> dates = new ArrayList<>();
-                for (ByDayPair byDayPair : getValue())
+                ByDayPair byDayPair = byDayPairs[i];
+                adjusters[i] = (byDayPair.ordinal == 0) ? TemporalAdjusters.nextOrSame(byDayPair.dayOfWeek)
+                        : dayOfWeekInYear(byDayPair.ordinal, byDayPair.dayOfWeek);
+            }
+            return (in, out) ->
+            {
+                for (Temporal date : in)
                 {
-                    if (byDayPair.ordinal == 0)
-                    { // add every matching day of week in year
-                        Temporal newDate = date
-                                .with(TemporalAdjusters.firstDayOfYear())
-                                .with(TemporalAdjusters.nextOrSame(byDayPair.dayOfWeek));
-                        while (Year.from(newDate).equals(Year.from(date)))
-                        {
-                            dates.add(newDate);
-                            newDate = newDate.plus(1, ChronoUnit.WEEKS);
+                    int from = out.size();
+                    for (int i=0; i<byDayPairs.length; i++)
+                    {
+                        if (byDayPairs[i].ordinal == 0)
+                        { // add every matching day of week in year
+                            Year year = Year.from(date);
+                            Temporal newDate = date
+                                    .with(TemporalAdjusters.firstDayOfYear())
+                                    .with(adjusters[i]);
+                            while (Year.from(newDate).equals(year))
+                            {
+                                out.add(newDate);
+                                newDate = newDate.plus(1, ChronoUnit.WEEKS);
+                            }
+                        } else
+                        { // if never any ordinal numbers then sort is not required
+                            out.add(date.with(adjusters[i]));
                         }
-                    } else
-                    { // if never any ordinal numbers then sort is not required
-                        Temporal newDate = date.with(dayOfWeekInYear(byDayPair.ordinal, byDayPair.dayOfWeek));
-                        dates.add(newDate);
                     }
+                    if (isSortRequired) sortFrom(out, from);
                 }
-                if (getValue().size() > 1) Collections.sort(dates, DateTimeUtilities.TEMPORAL_COMPARATOR);
-                return dates.stream();
-            }); 
+            };
+        }
         default:
             throw new RuntimeException("Not implemented ChronoUnit: " + chronoUnit);
         }
     }
+    
+    /* Every day of week is in each week, but only ordinal days of week up to the 4th are in every month
+     * and up to the 52nd in every year */
+    @Override
+    public int fixedSize(ChronoUnit chronoUnit, Temporal dateTimeStart, int inSize)
+    {
+        final int maxOrdinal;
+        switch (chronoUnit)
+        {
+        case WEEKS:
+            return inSize * getValue().size();
+        case MONTHS:
+            maxOrdinal = 4;
+            break;
+        case YEARS:
+            maxOrdinal = 52;
+            break;
+        default:
+            return -1;
+        }
+        boolean isFixed = getValue().stream().allMatch(p -> (p.ordinal != 0) && (Math.abs(p.ordinal) <= maxOrdinal));
+        return isFixed ? inSize * getValue().size() : -1;
+    }
 
     /** Finds nth occurrence of a week in a year.
      * Based on TemporalAdjusters.dayOfWeekInMonth */
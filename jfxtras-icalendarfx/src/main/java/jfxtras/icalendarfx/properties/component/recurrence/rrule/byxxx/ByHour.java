@@ -29,10 +29,7 @@ package jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByHour;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
@@ -78,7 +75,7 @@ public class ByHour extends ByRuleIntegerAbstract<ByHour>
     }
     
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    public ByRuleStep compile(ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
         if (dateTimeStart.isSupported(ChronoField.HOUR_OF_DAY))
         {
@@ -87,44 +84,41 @@ public class ByHour extends ByRuleIntegerAbstract<ByHour>
             case HOURS:
             case MINUTES:
             case SECONDS:
-                return inStream.filter(d ->
-                        { // filter out all but qualifying hours
-                            int myHourOfDay = d.get(ChronoField.HOUR_OF_DAY);
-                            for (int hourOfDay : getValue())
-                            {
-                                if (hourOfDay > 0)
-                                {
-                                    if (hourOfDay == myHourOfDay) return true;
-                                }
-                            }
-                            return false;
-                        });
+                return filterStep(ChronoField.HOUR_OF_DAY); // filter out all but qualifying hours
             case DAYS:
             case WEEKS:
             case MONTHS:
             case YEARS:
-                return inStream.flatMap(d -> 
-                { // Expand to be include all hours of day
-                    List<Temporal> dates = new ArrayList<>();
-                    for (int hourOfDay : getValue())
-                    {
-                        Temporal newTemporal = d.with(ChronoField.HOUR_OF_DAY, hourOfDay);
-//                        if (! DateTimeUtilities.isBefore(newTemporal, dateTimeStart))
-//                        {
-                            dates.add(newTemporal);
-//                        }
-                    }
-                    return dates.stream();
-                });
+                return expandStep(ChronoField.HOUR_OF_DAY); // Expand to include all hours of day
             default:
                 throw new IllegalArgumentException("Not implemented: " + chronoUnit);
             }
         } else
         {
-            return inStream; // ignore rule when not supported (RFC 5545 requirement)
+            return (in, out) -> out.addAll(in); // ignore rule when not supported (RFC 5545 requirement)
         }
     }
     
+    
+    @Override
+    public int fixedSize(ChronoUnit chronoUnit, Temporal dateTimeStart, int inSize)
+    {
+        if (! dateTimeStart.isSupported(ChronoField.HOUR_OF_DAY))
+        {
+            return inSize; // rule is ignored
+        }
+        switch (chronoUnit)
+        {
+        case DAYS:
+        case WEEKS:
+        case MONTHS:
+        case YEARS:
+            return expandedSize(inSize, 0, 23);
+        default:
+            return -1;
+        }
+    }
+
     public static ByHour parse(String content)
     {
     	return ByHour.parse(new ByHour(), content);
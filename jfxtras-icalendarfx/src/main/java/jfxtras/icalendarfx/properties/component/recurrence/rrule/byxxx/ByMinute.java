@@ -29,10 +29,7 @@ package jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByMinute;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
@@ -78,7 +75,7 @@ public class ByMinute extends ByRuleIntegerAbstract<ByMinute>
     }
     
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    public ByRuleStep compile(ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
         if (dateTimeStart.isSupported(ChronoField.MINUTE_OF_HOUR))
         {
@@ -86,42 +83,39 @@ public class ByMinute extends ByRuleIntegerAbstract<ByMinute>
             {
             case MINUTES:
             case SECONDS:
-                return inStream.filter(d ->
-                        { // filter out all but qualifying hours
-                            int myMinuteOfHour = d.get(ChronoField.MINUTE_OF_HOUR);
-                            for (int minuteOfHour : getValue())
-                            {
-                                if (minuteOfHour > 0)
-                                {
-                                    if (minuteOfHour == myMinuteOfHour) return true;
-                                }
-                            }
-                            return false;
-                        });
+                return filterStep(ChronoField.MINUTE_OF_HOUR); // filter out all but qualifying minutes
             case HOURS:
             case DAYS:
             case WEEKS:
             case MONTHS:
             case YEARS:
-                return inStream.flatMap(d -> 
-                { // Expand to be include all hours of day
-                    List<Temporal> dates = new ArrayList<>();
-                    for (int minuteOfHour : getValue())
-                    {
-                        Temporal newTemporal = d.with(ChronoField.MINUTE_OF_HOUR, minuteOfHour);
-//                        if (! DateTimeUtilities.isBefore(newTemporal, dateTimeStart))
-//                        {
-                            dates.add(newTemporal);
-//                        }
-                    }
-                    return dates.stream();
-                });
+                return expandStep(ChronoField.MINUTE_OF_HOUR); // Expand to include all minutes of hour
             default:
                 throw new IllegalArgumentException("Not implemented: " + chronoUnit);
             }
         } else
         {
-            return inStream; // ignore rule when not supported (RFC 5545 requirement)
+            return (in, out) -> out.addAll(in); // ignore rule when not supported (RFC 5545 requirement)
+        }
+    }
+    
+    @Override
+    public int fixedSize(ChronoUnit chronoUnit, Temporal dateTimeStart, int inSize)
+    {
+        if (! dateTimeStart.isSupported(ChronoField.MINUTE_OF_HOUR))
+        {
+            return inSize; // rule is ignored
+        }
+        switch (chronoUnit)
+        {
+        case HOURS:
+        case DAYS:
+        case WEEKS:
+        case MONTHS:
+        case YEARS:
+            return expandedSize(inSize, 0, 59);
+        default:
+            return -1;
         }
     }
 
@@ -30,12 +30,10 @@ import static java.time.temporal.ChronoUnit.MONTHS;
 import java.time.Month;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RRuleElement;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByMonth;
@@ -93,7 +91,7 @@ public class ByMonth extends ByRuleAbstract<Month, ByMonth>
     }
 
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal startTemporal)
+    public ByRuleStep compile(ChronoUnit chronoUnit, Temporal startTemporal)
     {
         switch (chronoUnit)
         {
@@ -103,37 +101,43 @@ public class ByMonth extends ByRuleAbstract<Month, ByMonth>
         case DAYS:
         case WEEKS:
         case MONTHS:
-            return inStream.filter(t ->
+        {
+            boolean[] isMatch = new boolean[Month.values().length+1];
+            getValue().forEach(m -> isMatch[m.getValue()] = true);
+            return (in, out) ->
             { // filter out all but qualifying months
-                Month myMonth = Month.from(t);
-                for (Month month : getValue())
+                for (Temporal t : in)
                 {
-                    if (month == myMonth) return true;
+                    if (isMatch[Month.from(t).getValue()]) out.add(t);
                 }
-                return false;
-            });
+            };
+        }
         case YEARS:
-            return inStream.flatMap(t -> 
+        {
+            int[] monthNums = getValue().stream().mapToInt(Month::getValue).toArray();
+            return (in, out) ->
             { // Expand to include matching all matching months
-                List<Temporal> dates = new ArrayList<>();
-                int monthNum = Month.from(t).getValue();
-                for (Month month : getValue())
+                for (Temporal t : in)
                 {
-                    int myMonthNum = month.getValue();
-                    int monthShift = myMonthNum - monthNum;
-                    Temporal newTemporal = t.plus(monthShift, MONTHS);
-//                    if (! DateTimeUtilities.isBefore(newTemporal, startTemporal))
-//                    {
-                        dates.add(newTemporal);
-//                    }
+                    int monthNum = Month.from(t).getValue();
+                    for (int myMonthNum : monthNums)
+                    {
+                        out.add(t.plus(myMonthNum - monthNum, MONTHS));
+                    }
                 }
-                return dates.stream();
-            });
+            };
+        }
         default:
             throw new RuntimeException("Not implemented ChronoUnit: " + chronoUnit); // probably same as DAILY
         }
     }
     
+    @Override
+    public int fixedSize(ChronoUnit chronoUnit, Temporal dateTimeStart, int inSize)
+    {
+        return (chronoUnit == ChronoUnit.YEARS) ? inSize * getValue().size() : -1;
+    }
+    
     @Override
     protected List<Message> parseContent(String content)
     {
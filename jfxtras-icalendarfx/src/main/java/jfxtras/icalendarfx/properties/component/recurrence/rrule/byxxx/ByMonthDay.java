@@ -32,14 +32,12 @@ import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAdjusters;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByMonthDay;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
-import jfxtras.icalendarfx.utilities.DateTimeUtilities;
 
 /**
  * By Month Day
@@ -91,56 +89,92 @@ public class ByMonthDay extends ByRuleIntegerAbstract<ByMonthDay>
      * Return stream of valid dates made by rule (infinite if COUNT or UNTIL not present)
      */
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    public ByRuleStep compile(ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
+        int[] daysOfMonth = valueArray();
         switch (chronoUnit)
         {
         case HOURS:
         case MINUTES:
         case SECONDS:
         case DAYS:
-            return inStream.filter(d ->
-                    { // filter out all but qualifying days
-                        int myDay = d.get(ChronoField.DAY_OF_MONTH);
+        {
+            boolean[] isMatch = new boolean[32];
+            boolean[] isNegativeMatch = new boolean[32]; // indexed by days from end of month (1 = last day)
+            for (int day : daysOfMonth)
+            {
+                if ((day > 0) && (day < isMatch.length)) isMatch[day] = true;
+                if ((day < 0) && (-day < isNegativeMatch.length)) isNegativeMatch[-day] = true;
+            }
+            boolean hasNegative = Arrays.stream(daysOfMonth).anyMatch(day -> day < 0);
+            return (in, out) ->
+            { // filter out all but qualifying days
+                for (Temporal d : in)
+                {
+                    int myDay = d.get(ChronoField.DAY_OF_MONTH);
+                    if (isMatch[myDay])
+                    {
+                        out.add(d);
+                    } else if (hasNegative)
+                    { // negative daysOfMonth (-3 = 3rd to last day of month)
                         int myDaysInMonth = LocalDate.from(d).lengthOfMonth();
-                        for (int day : getValue())
-                        {
-                            if (myDay == day) return true;
-                            // negative daysOfMonth (-3 = 3rd to last day of month)
-                            if ((day < 0) && (myDay == myDaysInMonth + day + 1)) return true;
-                        }
-                        return false;
-                    });
+                        if (isNegativeMatch[myDaysInMonth - myDay + 1]) out.add(d);
+                    }
+                }
+            };
+        }
         case YEARS:
-            return inStream.flatMap(d -> 
-            { // Expand to be daysOfMonth days in current month
-                List<Temporal> dates = new ArrayList<>();
-                for (Month month : Month.values())
+            return (in, out) ->
+            { // Expand to be daysOfMonth days in every month
+                for (Temporal d : in)
                 {
-                    Temporal monthAdjustedTemporal = d.with(ChronoField.MONTH_OF_YEAR, month.getValue());
-                    dates.addAll(extracted(monthAdjustedTemporal, dateTimeStart));
+                    int from = out.size();
+                    for (Month month : MONTH_VALUES)
+                    {
+                        Temporal monthAdjustedTemporal = d.with(ChronoField.MONTH_OF_YEAR, month.getValue());
+                        addDaysOfMonth(monthAdjustedTemporal, daysOfMonth, out);
+                    }
+                    sortFrom(out, from);
                 }
-                return dates.stream().sorted(DateTimeUtilities.TEMPORAL_COMPARATOR);
-            });
+            };
         case MONTHS:
-            return inStream.flatMap(d -> 
+            return (in, out) ->
             { // Expand to be daysOfMonth days in current month
-                List<Temporal> dates = new ArrayList<>();
-                dates.addAll(extracted(d, dateTimeStart));
-                return dates.stream().sorted(DateTimeUtilities.TEMPORAL_COMPARATOR);
-            });
+                for (Temporal d : in)
+                {
+                    int from = out.size();
+                    addDaysOfMonth(d, daysOfMonth, out);
+                    sortFrom(out, from);
+                }
+            };
         case WEEKS:
             throw new IllegalArgumentException(name().toString() + " is not available for " + chronoUnit + " frequency."); // Not available
         default:
             throw new IllegalArgumentException("Not implemented: " + chronoUnit);
         }
     }
+    
+    /* Only days that are in every month make a fixed number of date/times */
+    @Override
+    public int fixedSize(ChronoUnit chronoUnit, Temporal dateTimeStart, int inSize)
+    {
+        switch (chronoUnit)
+        {
+        case MONTHS:
+            return expandedSize(inSize, 1, 28);
+        case YEARS:
+            int size = expandedSize(inSize, 1, 28);
+            return (size < 0) ? -1 : size * MONTH_VALUES.length;
+        default:
+            return -1;
+        }
+    }
+    private static final Month[] MONTH_VALUES = Month.values();
 
     /* process dayOfMonth for YEARS and MONTHS */
-    private List<Temporal> extracted(Temporal initialTemporal, Temporal dateTimeStart)
+    private void addDaysOfMonth(Temporal initialTemporal, int[] daysOfMonth, List<Temporal> dates)
     {
-        List<Temporal> dates = new ArrayList<>();
-        for (int dayOfMonth : getValue())
+        for (int dayOfMonth : daysOfMonth)
         {           
             final Temporal correctMonthTemporal = (dayOfMonth > 0) ? initialTemporal : initialTemporal.minus(1, ChronoUnit.MONTHS);
             int daysInMonth = (int) ChronoUnit.DAYS.between(correctMonthTemporal.with(TemporalAdjusters.firstDayOfMonth()),
@@ -163,15 +197,13 @@ public class ByMonthDay extends ByRuleIntegerAbstract<ByMonthDay>
             {
                 throw new IllegalArgumentException(name().toString() + " can't have a value of zero");
             }
-            Temporal newTemporal = (finalDayOfMonth != 0) ? correctMonthTemporal.with(ChronoField.DAY_OF_MONTH, finalDayOfMonth) : null;
             
-            // ensure day of month hasn't changed.  If it changed the date was invalid and should be ignored.
-            if (newTemporal != null)
+            // days past the end of the month are invalid and ignored
+            if (finalDayOfMonth != 0)
             {
-                dates.add(newTemporal);
+                dates.add(correctMonthTemporal.with(ChronoField.DAY_OF_MONTH, finalDayOfMonth));
             }
         }
-        return dates;
     }
     
     public static ByMonthDay parse(String content)
@@ -71,4 +71,34 @@ public interface ByRule<T> extends Comparable<ByRule<T>>, RRulePart<T>
      * @return
      */
     Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart);
+    
+    /**
+     * Compiles the rule into a step of the recurrence expansion.  The returned step produces the same
+     * date/times as {@link #streamRecurrences(Stream, ChronoUnit, Temporal)}, but is applied to a reusable list
+     * holding the date/times of one frequency period.
+     * The default implementation delegates to {@link #streamRecurrences(Stream, ChronoUnit, Temporal)}.
+     * 
+     * @param chronoUnit - ChronoUnit of last modification to the date/times
+     * @param dateTimeStart - start Temporal (date or date/time)
+     * @return  step applying the rule
+     */
+    default ByRuleStep compile(ChronoUnit chronoUnit, Temporal dateTimeStart)
+    {
+        return (in, out) -> streamRecurrences(in.stream(), chronoUnit, dateTimeStart).forEachOrdered(out::add);
+    }
+    
+    /**
+     * Returns the number of date/times the rule makes from inSize date/times of one frequency period, when
+     * that number is the same for every period.  Used to skip ahead in rules with COUNT.
+     * The default implementation returns -1, meaning the number can vary.
+     * 
+     * @param chronoUnit - ChronoUnit of last modification to the date/times
+     * @param dateTimeStart - start Temporal (date or date/time)
+     * @param inSize - number of date/times in each period before applying the rule
+     * @return  number of date/times after applying the rule, or -1 if it can vary
+     */
+    default int fixedSize(ChronoUnit chronoUnit, Temporal dateTimeStart, int inSize)
+    {
+        return -1;
+    }
 }
@@ -30,6 +30,7 @@ import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -45,6 +46,7 @@ import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.BySecond;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.BySetPosition;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByWeekNumber;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByYearDay;
+import jfxtras.icalendarfx.utilities.DateTimeUtilities;
 
 /**
  * BYxxx rule that modify frequency rule (see RFC 5545, iCalendar 3.3.10 Page 42)
@@ -89,7 +91,36 @@ public abstract class ByRuleAbstract<T, U> extends RRulePartBase<List<T>, U> imp
     
 
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart) { throw new RuntimeException("not implemented"); }
+    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    {
+        ByRuleStep step = compile(chronoUnit, dateTimeStart);
+        return inStream.flatMap(t ->
+        {
+            List<Temporal> dates = new ArrayList<>();
+            step.apply(Collections.singletonList(t), dates);
+            return dates.stream();
+        });
+    }
+    
+    @Override
+    public ByRuleStep compile(ChronoUnit chronoUnit, Temporal dateTimeStart) { throw new RuntimeException("not implemented"); }
+    
+    /** Stable sort, using {@link DateTimeUtilities#TEMPORAL_COMPARATOR}, of dates from index fromIndex to the end.
+     * Uses insertion sort because the date/times made from one date/time are few and often already sorted. */
+    static void sortFrom(List<Temporal> dates, int fromIndex)
+    {
+        for (int i=fromIndex+1; i<dates.size(); i++)
+        {
+            Temporal date = dates.get(i);
+            int j = i-1;
+            while ((j >= fromIndex) && (DateTimeUtilities.TEMPORAL_COMPARATOR.compare(dates.get(j), date) > 0))
+            {
+                dates.set(j+1, dates.get(j));
+                j--;
+            }
+            dates.set(j+1, date);
+        }
+    }
     
     /*
      * Constructors
@@ -26,6 +26,8 @@
  */
 package jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx;
 
+import java.time.temporal.ChronoField;
+import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -76,6 +78,55 @@ public abstract class ByRuleIntegerAbstract<U> extends ByRuleAbstract<Integer, U
     }
         
     
+    /** Values as an int array, for use by compiled steps */
+    int[] valueArray()
+    {
+        return getValue().stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    /** Size after expanding each of inSize date/times into one date/time for each value, if all values are between min and max */
+    int expandedSize(int inSize, int min, int max)
+    {
+        boolean isInRange = getValue().stream().allMatch(v -> (v >= min) && (v <= max));
+        return isInRange ? inSize * getValue().size() : -1;
+    }
+    
+    /** Step keeping only date/times having one of the values in the field.  Zero values never match. */
+    ByRuleStep filterStep(ChronoField field)
+    {
+        boolean[] isMatch = new boolean[(int) field.range().getMaximum() + 1];
+        for (int value : getValue())
+        {
+            if ((value > 0) && (value < isMatch.length))
+            {
+                isMatch[value] = true;
+            }
+        }
+        return (in, out) ->
+        {
+            for (Temporal t : in)
+            {
+                if (isMatch[t.get(field)]) out.add(t);
+            }
+        };
+    }
+    
+    /** Step expanding each date/time into one date/time for each value in the field */
+    ByRuleStep expandStep(ChronoField field)
+    {
+        int[] values = valueArray();
+        return (in, out) ->
+        {
+            for (Temporal t : in)
+            {
+                for (int value : values)
+                {
+                    out.add(t.with(field, value));
+                }
+            }
+        };
+    }
+    
     @Override
 	public List<String> errors()
     {
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx;
+
+import java.time.temporal.Temporal;
+import java.util.List;
+
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
+
+/**
+ * Compiled form of a {@link ByRule}, made by {@link ByRule#compile(java.time.temporal.ChronoUnit, Temporal)}.
+ * Rule values are converted to bit masks and arrays once, so applying the step to each frequency
+ * period doesn't allocate any lists or streams.
+ * @see RecurrenceRuleValue#streamRecurrences(Temporal)
+ */
+@FunctionalInterface
+public interface ByRuleStep
+{
+    /**
+     * Applies the rule to the date/times of one frequency period.
+     * 
+     * @param in  date/times of one frequency period, after applying the preceding rules
+     * @param out  list to append the resulting date/times to.  Must not be the same list as in.
+     */
+    void apply(List<Temporal> in, List<Temporal> out);
+}
@@ -29,10 +29,7 @@ package jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByMinute;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
@@ -62,50 +59,48 @@ public class BySecond extends ByRuleIntegerAbstract<BySecond>
     }
     
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    public ByRuleStep compile(ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
         if (dateTimeStart.isSupported(ChronoField.SECOND_OF_MINUTE))
         {
             switch (chronoUnit)
             {
             case SECONDS:
-                return inStream.filter(d ->
-                        { // filter out all but qualifying hours
-                            int mySecondOfMinute = d.get(ChronoField.SECOND_OF_MINUTE);
-                            for (int secondOfMinute : getValue())
-                            {
-                                if (secondOfMinute > 0)
-                                {
-                                    if (secondOfMinute == mySecondOfMinute) return true;
-                                }
-                            }
-                            return false;
-                        });
-            case HOURS:
+                return filterStep(ChronoField.SECOND_OF_MINUTE); // filter out all but qualifying seconds
             case MINUTES:
+            case HOURS:
             case DAYS:
             case WEEKS:
             case MONTHS:
             case YEARS:
-                return inStream.flatMap(d -> 
-                { // Expand to be include all hours of day
-                    List<Temporal> dates = new ArrayList<>();
-                    for (int minuteOfHour : getValue())
-                    {
-                        Temporal newTemporal = d.with(ChronoField.SECOND_OF_MINUTE, minuteOfHour);
-//                        if (! DateTimeUtilities.isBefore(newTemporal, dateTimeStart))
-//                        {
-                            dates.add(newTemporal);
-//                        }
-                    }
-                    return dates.stream();
-                });
+                return expandStep(ChronoField.SECOND_OF_MINUTE); // Expand to include all seconds of minute
             default:
                 throw new IllegalArgumentException("Not implemented: " + chronoUnit);
             }
         } else
         {
-            return inStream; // ignore rule when not supported (RFC 5545 requirement)
+            return (in, out) -> out.addAll(in); // ignore rule when not supported (RFC 5545 requirement)
+        }
+    }
+
+    @Override
+    public int fixedSize(ChronoUnit chronoUnit, Temporal dateTimeStart, int inSize)
+    {
+        if (! dateTimeStart.isSupported(ChronoField.SECOND_OF_MINUTE))
+        {
+            return inSize; // rule is ignored
+        }
+        switch (chronoUnit)
+        {
+        case MINUTES:
+        case HOURS:
+        case DAYS:
+        case WEEKS:
+        case MONTHS:
+        case YEARS:
+            return expandedSize(inSize, 0, 59);
+        default:
+            return -1;
         }
     }
 
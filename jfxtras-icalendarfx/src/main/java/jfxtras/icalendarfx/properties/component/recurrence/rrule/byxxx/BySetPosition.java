@@ -28,10 +28,14 @@ package jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx;
 
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
@@ -60,23 +64,118 @@ public class BySetPosition extends ByRuleIntegerAbstract<BySetPosition>
         return (value) -> (value >= -366) && (value <= 366) && (value != 0);
     }
     
+    /**
+     * Selects date/times of one frequency period by position.  Only the first and last date/times that a position
+     * can select are kept, so the stream doesn't need to be collected into a list.  If there are no negative
+     * positions, the stream isn't consumed past the largest positive position.
+     */
     @Override
     public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal startTemporal)
     {
-        List<Temporal> inList = inStream.collect(Collectors.toList()); // can't be an infinite stream or will hang
-        List<Temporal> outList = new ArrayList<>();
-        for (int setPosition : getValue())
+        int headSize = getValue().stream().mapToInt(p -> p).max().orElse(0);
+        int tailSize = -getValue().stream().mapToInt(p -> p).min().orElse(0);
+        List<Temporal> head = new ArrayList<>(Math.max(headSize, 0));
+        Deque<Temporal> tail = new ArrayDeque<>(Math.max(tailSize, 0));
+        int count = 0;
+        Iterator<Temporal> iterator = inStream.iterator();
+        while (iterator.hasNext() && ((tailSize > 0) || (head.size() < headSize)))
         {
-            if (setPosition > 0)
+            Temporal recurrence = iterator.next();
+            count++;
+            if (head.size() < headSize)
             {
-                outList.add(inList.get(setPosition-1));                
-            } else if (setPosition < 0)
+                head.add(recurrence);
+            }
+            if (tailSize > 0)
             {
-                outList.add(inList.get(inList.size() + setPosition));                
+                if (tail.size() == tailSize)
+                {
+                    tail.removeFirst();
+                }
+                tail.addLast(recurrence);
             }
         }
+        
+        // view of the whole period, backed by the kept date/times
+        final int size = count;
+        final List<Temporal> tailList = new ArrayList<>(tail);
+        List<Temporal> period = new AbstractList<Temporal>()
+        {
+            @Override
+            public Temporal get(int index)
+            {
+                return (index < head.size()) ? head.get(index) : tailList.get(index - (size - tailList.size()));
+            }
+
+            @Override
+            public int size()
+            {
+                return size;
+            }
+        };
+        List<Temporal> outList = new ArrayList<>();
+        compile(chronoUnit, startTemporal).apply(period, outList);
         return outList.stream();
     }
+    
+    /**
+     * The positive and negative positions are each sorted, then merged for each period, so the selected
+     * date/times stay in chronological order.  Positions outside the period, and repeats (e.g. 1 and -1
+     * of a one-element period), are skipped.
+     */
+    @Override
+    public ByRuleStep compile(ChronoUnit chronoUnit, Temporal startTemporal)
+    {
+        int[] setPositions = valueArray();
+        int[] fromStart = Arrays.stream(setPositions).filter(p -> p > 0).map(p -> p - 1).sorted().distinct().toArray();
+        int[] fromEnd = Arrays.stream(setPositions).filter(p -> p < 0).sorted().distinct().toArray();
+        return (in, out) ->
+        {
+            int size = in.size();
+            int i = 0;
+            int j = 0;
+            int lastIndex = -1;
+            while ((i < fromStart.length) || (j < fromEnd.length))
+            {
+                int startIndex = (i < fromStart.length) ? fromStart[i] : Integer.MAX_VALUE;
+                int endIndex = (j < fromEnd.length) ? size + fromEnd[j] : Integer.MAX_VALUE;
+                final int index;
+                if (startIndex <= endIndex)
+                {
+                    index = startIndex;
+                    i++;
+                } else
+                {
+                    index = endIndex;
+                    j++;
+                }
+                if (index >= size)
+                {
+                    break; // remaining positions are past the end too
+                }
+                if (index > lastIndex)
+                {
+                    out.add(in.get(index));
+                    lastIndex = index;
+                }
+            }
+        };
+    }
+    
+    @Override
+    public int fixedSize(ChronoUnit chronoUnit, Temporal dateTimeStart, int inSize)
+    {
+        boolean isInRange = getValue().stream().allMatch(p -> (p != 0) && (Math.abs(p) <= inSize));
+        if (! isInRange)
+        {
+            return -1;
+        }
+        return (int) getValue()
+                .stream()
+                .mapToInt(p -> (p > 0) ? p - 1 : inSize + p)
+                .distinct()
+                .count();
+    }
 
     public static BySetPosition parse(String content)
     {
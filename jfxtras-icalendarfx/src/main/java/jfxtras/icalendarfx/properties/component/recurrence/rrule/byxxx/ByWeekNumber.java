@@ -30,19 +30,15 @@ import java.time.DayOfWeek;
 import java.time.Year;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAdjuster;
 import java.time.temporal.TemporalAdjusters;
 import java.time.temporal.WeekFields;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.WeekStart;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByWeekNumber;
-import jfxtras.icalendarfx.utilities.DateTimeUtilities;
 
 /** 
  * By Week Number
@@ -108,69 +104,71 @@ public class ByWeekNumber extends ByRuleIntegerAbstract<ByWeekNumber>
     }
     
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart )
+    public ByRuleStep compile(ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
-
         switch (chronoUnit)
         {
         case YEARS:
             WeekFields weekFields = WeekFields.of(getWeekStart(), MIN_DAYS_IN_WEEK);
-            Stream<Temporal> outStream = inStream.flatMap(date -> 
+            TemporalAdjuster firstDayOfWeek = TemporalAdjusters.nextOrSame(weekFields.getFirstDayOfWeek());
+            int[] weekNumbers = valueArray();
+            return (in, out) ->
             { // Expand to include all days matching week numbers
-                List<Temporal> dates = new ArrayList<>();
-                for (int weekNumber : getValue())
+                for (Temporal date : in)
                 {
-                    Temporal correctYearTemporal = (weekNumber > 0) ? date : date.minus(1, ChronoUnit.YEARS);
-                    correctYearTemporal = correctYearTemporal
-                            .with(TemporalAdjusters.firstDayOfYear())
-                            .with(TemporalAdjusters.nextOrSame(weekFields.getFirstDayOfWeek())); // get first week entirely in correct year
-                    Year correctYear = Year.from(correctYearTemporal);
-                    long between = 0;
-                    int finalWeekNumber;
-                    if (weekNumber > 0)
-                    {
-                        finalWeekNumber = weekNumber;
-                    } else if (weekNumber < 0)
-                    {
-                        int weeksInYear = 53;
-                        Temporal startWeek53 = correctYearTemporal.with(weekFields.weekOfWeekBasedYear(), weeksInYear);
-                        Temporal lastDayOfYear = correctYearTemporal.with(TemporalAdjusters.lastDayOfYear());
-                         between = ChronoUnit.DAYS.between(startWeek53, lastDayOfYear);
-                         int adjustment = (between >= 3) ? 1 : 0;
-                        finalWeekNumber = weeksInYear + weekNumber + adjustment;
-                    } else
-                    {
-                        throw new IllegalArgumentException(name().toString() + " can't have a value of zero");
-                    }
-                    
-                    final Temporal startDate;
-                    if (finalWeekNumber > 0)
-                    {
-                        startDate = correctYearTemporal
-                                .with(weekFields.weekOfWeekBasedYear(), finalWeekNumber);
-                    } else if (between < 0)
+                    int from = out.size();
+                    for (int weekNumber : weekNumbers)
                     {
-                        startDate = correctYearTemporal.minus(1, ChronoUnit.WEEKS);
-                    } else
-                    {
-                        startDate = null;
-                    }
-                    if (startDate != null)
-                    {
-                        IntStream.range(0,7).forEach(days -> 
+                        Temporal correctYearTemporal = (weekNumber > 0) ? date : date.minus(1, ChronoUnit.YEARS);
+                        correctYearTemporal = correctYearTemporal
+                                .with(TemporalAdjusters.firstDayOfYear())
+                                .with(firstDayOfWeek); // get first week entirely in correct year
+                        Year correctYear = Year.from(correctYearTemporal);
+                        long between = 0;
+                        int finalWeekNumber;
+                        if (weekNumber > 0)
+                        {
+                            finalWeekNumber = weekNumber;
+                        } else if (weekNumber < 0)
+                        {
+                            int weeksInYear = 53;
+                            Temporal startWeek53 = correctYearTemporal.with(weekFields.weekOfWeekBasedYear(), weeksInYear);
+                            Temporal lastDayOfYear = correctYearTemporal.with(TemporalAdjusters.lastDayOfYear());
+                            between = ChronoUnit.DAYS.between(startWeek53, lastDayOfYear);
+                            int adjustment = (between >= 3) ? 1 : 0;
+                            finalWeekNumber = weeksInYear + weekNumber + adjustment;
+                        } else
+                        {
+                            throw new IllegalArgumentException(name().toString() + " can't have a value of zero");
+                        }
+                        
+                        final Temporal startDate;
+                        if (finalWeekNumber > 0)
+                        {
+                            startDate = correctYearTemporal
+                                    .with(weekFields.weekOfWeekBasedYear(), finalWeekNumber);
+                        } else if (between < 0)
+                        {
+                            startDate = correctYearTemporal.minus(1, ChronoUnit.WEEKS);
+                        } else
+                        {
+                            startDate = null;
+                        }
+                        if (startDate != null)
                         {
-                            Temporal newTemporal = startDate.plus(days, ChronoUnit.DAYS);
-                            Year myYear = Year.from(newTemporal);
-                            if (myYear.equals(correctYear))
+                            for (int days=0; days<7; days++)
                             {
-                                dates.add(newTemporal);
+                                Temporal newTemporal = startDate.plus(days, ChronoUnit.DAYS);
+                                if (Year.from(newTemporal).equals(correctYear))
+                                {
+                                    out.add(newTemporal);
+                                }
                             }
-                        });
+                        }
                     }
+                    sortFrom(out, from);
                 }
-                return dates.stream().sorted(DateTimeUtilities.TEMPORAL_COMPARATOR);
-            });
-            return outStream;
+            };
         case DAYS:
         case WEEKS:
         case MONTHS:
@@ -179,9 +177,8 @@ public class ByWeekNumber extends ByRuleIntegerAbstract<ByWeekNumber>
         case SECONDS:
             throw new IllegalArgumentException("BYWEEKNO is not available for " + chronoUnit + " frequency."); // Not available
         default:
-            break;
+            throw new IllegalArgumentException("Not implemented: " + chronoUnit);
         }
-        return null;    
     }
 
     public static ByWeekNumber parse(String content)
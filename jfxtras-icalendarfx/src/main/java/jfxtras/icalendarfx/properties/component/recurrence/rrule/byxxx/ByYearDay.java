@@ -35,7 +35,6 @@ import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByYearDay;
@@ -79,66 +78,80 @@ public class ByYearDay extends ByRuleIntegerAbstract<ByYearDay>
     }
 
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    public ByRuleStep compile(ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
         switch (chronoUnit)
         {
         case HOURS:
         case MINUTES:
         case SECONDS:
-            return inStream.filter(d ->
-                    { // filter out all but qualifying days
-                        int myDayOfYear = d.get(ChronoField.DAY_OF_YEAR);
-                        for (int dayOfYear : getValue())
-                        {
-                            if (dayOfYear > 0)
-                            {
-                                if (dayOfYear == myDayOfYear) return true;
-                            } else
-                            { // handle negative days of year
-                                Temporal firstDayOfNextYear = d.with(TemporalAdjusters.firstDayOfNextYear());
-                                Period myNegativeDayOfYear = Period.between(LocalDate.from(firstDayOfNextYear), LocalDate.from(d));
-                                if (Period.ofDays(dayOfYear).equals(myNegativeDayOfYear)) return true;
-                            }
-                        }
-                        return false;
-                    });
+        {
+            boolean[] isMatch = new boolean[367];
+            List<Period> negativeDaysOfYear = new ArrayList<>();
+            for (int dayOfYear : getValue())
+            {
+                if (dayOfYear > 0)
+                {
+                    if (dayOfYear < isMatch.length) isMatch[dayOfYear] = true;
+                } else
+                {
+                    negativeDaysOfYear.add(Period.ofDays(dayOfYear));
+                }
+            }
+            return (in, out) ->
+            { // filter out all but qualifying days
+                for (Temporal d : in)
+                {
+                    if (isMatch[d.get(ChronoField.DAY_OF_YEAR)])
+                    {
+                        out.add(d);
+                    } else if (! negativeDaysOfYear.isEmpty())
+                    { // handle negative days of year
+                        Temporal firstDayOfNextYear = d.with(TemporalAdjusters.firstDayOfNextYear());
+                        Period myNegativeDayOfYear = Period.between(LocalDate.from(firstDayOfNextYear), LocalDate.from(d));
+                        if (negativeDaysOfYear.contains(myNegativeDayOfYear)) out.add(d);
+                    }
+                }
+            };
+        }
         case YEARS:
-            return inStream.flatMap(d -> 
+        {
+            int[] daysOfYear = valueArray();
+            return (in, out) ->
             { // Expand to be include all days of year
-                List<Temporal> dates = new ArrayList<>();
-                for (int dayOfYear : getValue())
+                for (Temporal d : in)
                 {
-                    final Temporal correctYearTemporal = (dayOfYear > 0) ? d : d.minus(1, ChronoUnit.YEARS);
-                    int daysInYear = (int) ChronoUnit.DAYS.between(correctYearTemporal.with(TemporalAdjusters.firstDayOfYear()),
-                                                                   correctYearTemporal.with(TemporalAdjusters.firstDayOfNextYear()));
-                    int finalDayOfYear = 0;
-                    if (dayOfYear > 0)
+                    for (int dayOfYear : daysOfYear)
                     {
-                        if (dayOfYear <= daysInYear)
+                        final Temporal correctYearTemporal = (dayOfYear > 0) ? d : d.minus(1, ChronoUnit.YEARS);
+                        int daysInYear = (int) ChronoUnit.DAYS.between(correctYearTemporal.with(TemporalAdjusters.firstDayOfYear()),
+                                                                       correctYearTemporal.with(TemporalAdjusters.firstDayOfNextYear()));
+                        int finalDayOfYear = 0;
+                        if (dayOfYear > 0)
+                        {
+                            if (dayOfYear <= daysInYear)
+                            {
+                                finalDayOfYear = dayOfYear;
+                            }
+                        } else if (dayOfYear < 0)
+                        {
+                            int newDayOfYear = daysInYear + dayOfYear + 1;
+                            if (newDayOfYear > 0)
+                            {
+                                finalDayOfYear = newDayOfYear;
+                            }
+                        } else
                         {
-                            finalDayOfYear = dayOfYear;
+                            throw new IllegalArgumentException(name().toString() + " can't have a value of zero");
                         }
-                    } else if (dayOfYear < 0)
-                    {
-                        int newDayOfYear = daysInYear + dayOfYear + 1;
-                        if (newDayOfYear > 0)
+                        if (finalDayOfYear != 0)
                         {
-                            finalDayOfYear = newDayOfYear;
+                            out.add(correctYearTemporal.with(ChronoField.DAY_OF_YEAR, finalDayOfYear));
                         }
-                    } else
-                    {
-                        throw new IllegalArgumentException(name().toString() + " can't have a value of zero");
-                    }
-                    Temporal newTemporal = (finalDayOfYear != 0) ? correctYearTemporal.with(ChronoField.DAY_OF_YEAR, finalDayOfYear) : null;
-
-                    if (newTemporal != null)
-                    {
-                        dates.add(newTemporal);
                     }
                 }
-                return dates.stream();
-            });       
+            };
+        }
         case DAYS:
         case WEEKS:
         case MONTHS:
@@ -148,6 +161,13 @@ public class ByYearDay extends ByRuleIntegerAbstract<ByYearDay>
         }
     }
     
+    /* Only days that are in every year make a fixed number of date/times */
+    @Override
+    public int fixedSize(ChronoUnit chronoUnit, Temporal dateTimeStart, int inSize)
+    {
+        return (chronoUnit == ChronoUnit.YEARS) ? expandedSize(inSize, 1, 365) : -1;
+    }
+    
     public static ByYearDay parse(String content)
     {
     	return ByYearDay.parse(new ByYearDay(), content);
@@ -26,6 +26,10 @@
  */
 package jfxtras.icalendarfx.properties.component.relationship;
 
+import java.util.Objects;
+
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.components.VDisplayable;
 import jfxtras.icalendarfx.components.VEvent;
 import jfxtras.icalendarfx.components.VFreeBusy;
 import jfxtras.icalendarfx.components.VJournal;
@@ -83,6 +87,22 @@ public class UniqueIdentifier extends VPropertyBase<String, UniqueIdentifier>
         super();
     }
 
+    /* Keep the calendar's UID index up to date when the value is changed in place */
+    @Override
+    public void setValue(String value)
+    {
+        String oldValue = getValue();
+        super.setValue(value);
+        if ((getParent() instanceof VDisplayable) && ! Objects.equals(oldValue, value))
+        {
+            VDisplayable<?> vDisplayable = (VDisplayable<?>) getParent();
+            if ((vDisplayable.getParent() instanceof VCalendar) && (vDisplayable.getUniqueIdentifier() == this))
+            {
+                ((VCalendar) vDisplayable.getParent()).uniqueIdentifierChanged(vDisplayable, oldValue);
+            }
+        }
+    }
+    
     public static UniqueIdentifier parse(String content)
     {
     	return UniqueIdentifier.parse(new UniqueIdentifier(), content);
@@ -0,0 +1,606 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.utilities;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.components.VEvent;
+import jfxtras.icalendarfx.properties.component.time.TimeTransparency.TimeTransparencyType;
+import jfxtras.icalendarfx.utilities.DateTimeUtilities.DateTimeType;
+
+/**
+ * Index of the busy time of {@link TimeTransparencyType#OPAQUE OPAQUE} VEVENTs in a time window.
+ * <p>
+ * Every recurrence in the window is kept as an interval of epoch seconds, so events with dates, local
+ * date/times and zoned date/times share one time line.  Dates and local date/times are taken to be in the
+ * index's time zone.  The intervals are sorted by start and each middle element of a sorted range holds the
+ * latest end in that range, which makes an implicit interval tree.  A query visits only the ranges that can
+ * hold an overlapping interval, so it takes O(log n) steps plus a step for each overlap found.
+ * <p>
+ * Components are indexed by identity.  Adding or removing a component only expands that component.  Each
+ * component keeps its intervals sorted, and on the next query they are merged with the intervals already in
+ * the tree, so nothing is sorted again.  {@link #update(VCalendar)} brings the index up to date
+ * with a calendar, expanding only new components and those whose recurrences changed.
+ * <p>
+ * An index isn't thread-safe.
+ */
+public class BusyTimeIndex
+{
+    private final Temporal start;
+    private final Temporal end;
+    private final ZoneId zone;
+    private final Map<VEvent, Entry> entries = new IdentityHashMap<>();
+    private long sequence; // order in which components were first added
+    
+    // implicit interval tree
+    private long[] starts = new long[0];
+    private long[] ends = new long[0];
+    private long[] maxEnds = new long[0];
+    private Entry[] owners = new Entry[0];
+    private int[] instances = new int[0];
+    // entries to merge into the tree, and entries whose intervals must leave it, on the next query
+    private final Set<Entry> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Entry> stale = Collections.newSetFromMap(new IdentityHashMap<>());
+    
+    // indexes of intervals found by a query
+    private int[] found = new int[16];
+    private int foundCount;
+
+    /**
+     * Busy time conflicting with a query: one recurrence of an indexed VEVENT
+     */
+    public static class Conflict
+    {
+        private final VEvent vEvent;
+        private final Temporal start;
+        private final Temporal end;
+
+        /** Indexed VEVENT that is busy */
+        public VEvent getVEvent() { return vEvent; }
+        /** Start of the busy recurrence */
+        public Temporal getStart() { return start; }
+        /** End of the busy recurrence */
+        public Temporal getEnd() { return end; }
+        
+        private Conflict(VEvent vEvent, Temporal start, Temporal end)
+        {
+            this.vEvent = vEvent;
+            this.start = start;
+            this.end = end;
+        }
+        
+        @Override
+        public String toString()
+        {
+            String uid = (vEvent.getUniqueIdentifier() != null) ? vEvent.getUniqueIdentifier().getValue() + ", " : "";
+            return uid + DateTimeUtilities.temporalToString(start);
+        }
+    }
+    
+    /* Busy intervals of one VEVENT, sorted by start */
+    private static class Entry
+    {
+        final VEvent vEvent;
+        final long sequence;
+        final long revision;
+        final List<Temporal> recurrences;
+        final TemporalAmount duration;
+        final long[] starts;
+        final long[] ends;
+        final int[] instances; // index in recurrences of each interval, null if in the same order
+        
+        Entry(VEvent vEvent, long sequence, long revision, List<Temporal> recurrences, TemporalAmount duration, ZoneId zone)
+        {
+            this.vEvent = vEvent;
+            this.sequence = sequence;
+            this.revision = revision;
+            this.recurrences = recurrences;
+            this.duration = duration;
+            long[] unsortedStarts = new long[recurrences.size()];
+            long[] unsortedEnds = new long[recurrences.size()];
+            boolean isSorted = true;
+            for (int i=0; i<unsortedStarts.length; i++)
+            {
+                Temporal recurrence = recurrences.get(i);
+                unsortedStarts[i] = DateTimeUtilities.toEpochSecond(recurrence, zone);
+                unsortedEnds[i] = DateTimeUtilities.toEpochSecond(recurrence.plus(duration), zone);
+                isSorted = isSorted && ((i == 0) || (unsortedStarts[i-1] <= unsortedStarts[i]));
+            }
+            if (isSorted)
+            {
+                starts = unsortedStarts;
+                ends = unsortedEnds;
+                instances = null;
+            } else
+            {
+                // recurrences are in local order, which a time zone gap can disturb slightly, so insertion sort is quick
+                instances = new int[unsortedStarts.length];
+                for (int i=0; i<instances.length; i++)
+                {
+                    int j = i;
+                    while ((j > 0) && (unsortedStarts[instances[j-1]] > unsortedStarts[i]))
+                    {
+                        instances[j] = instances[j-1];
+                        j--;
+                    }
+                    instances[j] = i;
+                }
+                starts = new long[instances.length];
+                ends = new long[instances.length];
+                for (int i=0; i<instances.length; i++)
+                {
+                    starts[i] = unsortedStarts[instances[i]];
+                    ends[i] = unsortedEnds[instances[i]];
+                }
+            }
+        }
+        
+        int instance(int position)
+        {
+            return (instances == null) ? position : instances[position];
+        }
+    }
+    
+    /* Sorted intervals being merged: the tree's, or one entry's */
+    private static class Run
+    {
+        final long[] starts;
+        final long[] ends;
+        final Entry[] owners; // null if all intervals belong to owner
+        final int[] instances;
+        final Entry owner;
+        final int size;
+        int position;
+        
+        Run(long[] starts, long[] ends, Entry[] owners, int[] instances, int size)
+        {
+            this.starts = starts;
+            this.ends = ends;
+            this.owners = owners;
+            this.instances = instances;
+            owner = null;
+            this.size = size;
+        }
+        
+        Run(Entry entry)
+        {
+            starts = entry.starts;
+            ends = entry.ends;
+            owners = null;
+            instances = null;
+            owner = entry;
+            size = entry.starts.length;
+        }
+        
+        Entry owner() { return (owners == null) ? owner : owners[position]; }
+        int instance() { return (owners == null) ? owner.instance(position) : instances[position]; }
+        
+        /* Equal starts are in the order their components were added */
+        boolean isBefore(Run other)
+        {
+            int result = Long.compare(starts[position], other.starts[other.position]);
+            if (result == 0)
+            {
+                result = Long.compare(owner().sequence, other.owner().sequence);
+            }
+            return (result == 0) ? instance() < other.instance() : result < 0;
+        }
+    }
+
+    /**
+     * Creates an empty index of busy time from start (inclusive) to end (exclusive).  Dates and local
+     * date/times are taken to be in the system default time zone.
+     * 
+     * @param start  start of time window, recurrences in progress at start are included
+     * @param end  end of time window
+     */
+    public BusyTimeIndex(Temporal start, Temporal end)
+    {
+        this(start, end, ZoneId.systemDefault());
+    }
+    
+    /**
+     * Creates an empty index of busy time from start (inclusive) to end (exclusive)
+     * 
+     * @param start  start of time window, recurrences in progress at start are included
+     * @param end  end of time window
+     * @param zone  time zone of dates and local date/times
+     */
+    public BusyTimeIndex(Temporal start, Temporal end, ZoneId zone)
+    {
+        this.start = start;
+        this.end = end;
+        this.zone = zone;
+    }
+    
+    /**
+     * Creates an index of the busy time of the VEVENTs in vCalendar from start (inclusive) to end (exclusive).
+     * Dates and local date/times are taken to be in the system default time zone.
+     * 
+     * @param vCalendar  calendar to index
+     * @param start  start of time window, recurrences in progress at start are included
+     * @param end  end of time window
+     * @return  new index
+     */
+    public static BusyTimeIndex of(VCalendar vCalendar, Temporal start, Temporal end)
+    {
+        BusyTimeIndex index = new BusyTimeIndex(start, end);
+        index.update(vCalendar);
+        return index;
+    }
+    
+    /** Start of the indexed time window */
+    public Temporal getStart() { return start; }
+    /** End of the indexed time window */
+    public Temporal getEnd() { return end; }
+    /** Time zone of dates and local date/times */
+    public ZoneId getZone() { return zone; }
+    
+    /**
+     * Adds, or re-expands, the busy time of a VEVENT.  TRANSPARENT VEVENTs and VEVENTs without DTSTART
+     * are tracked, but have no busy time.
+     * 
+     * @param vEvent  VEVENT to add
+     */
+    public void add(VEvent vEvent)
+    {
+        add(vEvent, expand(vEvent));
+    }
+    
+    /* Adds VEVENT with given recurrences.  A re-expanded VEVENT keeps its place among equal starts. */
+    void add(VEvent vEvent, List<Temporal> recurrences)
+    {
+        Entry previous = entries.get(vEvent);
+        long entrySequence = (previous == null) ? sequence++ : previous.sequence;
+        Entry entry = new Entry(vEvent, entrySequence, vEvent.getRevision(), recurrences, vEvent.getActualDuration(), zone);
+        entries.put(vEvent, entry);
+        if (previous != null)
+        {
+            discard(previous);
+        }
+        pending.add(entry);
+    }
+    
+    /* Takes the intervals of entry out of the tree on the next query */
+    private void discard(Entry entry)
+    {
+        if (! pending.remove(entry))
+        {
+            stale.add(entry);
+        }
+    }
+    
+    /**
+     * Removes the busy time of a VEVENT
+     * 
+     * @param vEvent  VEVENT to remove
+     * @return  true if the VEVENT was indexed
+     */
+    public boolean remove(VEvent vEvent)
+    {
+        Entry entry = entries.remove(vEvent);
+        if (entry != null)
+        {
+            discard(entry);
+        }
+        return entry != null;
+    }
+    
+    /**
+     * Tests if a VEVENT is indexed
+     * 
+     * @param vEvent  VEVENT to test
+     * @return  true if the VEVENT was added
+     */
+    public boolean contains(VEvent vEvent)
+    {
+        return entries.containsKey(vEvent);
+    }
+    
+    /**
+     * Makes the index match the VEVENTs in vCalendar.  VEVENTs no longer in the calendar are removed, new
+     * ones are added, and VEVENTs whose revision or recurrences in the window changed are expanded again.
+     * Unchanged VEVENTs keep their busy time.
+     * 
+     * @param vCalendar  calendar to match
+     */
+    public void update(VCalendar vCalendar)
+    {
+        List<VEvent> vEvents = (vCalendar.getVEvents() == null) ? Collections.emptyList() : vCalendar.getVEvents();
+        Set<VEvent> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        current.addAll(vEvents);
+        Iterator<Entry> i = entries.values().iterator();
+        while (i.hasNext())
+        {
+            Entry entry = i.next();
+            if (! current.contains(entry.vEvent))
+            {
+                i.remove();
+                discard(entry);
+            }
+        }
+        for (VEvent vEvent : vEvents)
+        {
+            Entry entry = entries.get(vEvent);
+            List<Temporal> recurrences = expand(vEvent);
+            if ((entry == null) || (entry.revision != vEvent.getRevision()) || ! entry.recurrences.equals(recurrences))
+            {
+                add(vEvent, recurrences);
+            }
+        }
+    }
+    
+    /**
+     * Returns the number of busy intervals
+     * 
+     * @return  number of indexed recurrences
+     */
+    public int size()
+    {
+        return entries.values().stream().mapToInt(e -> e.starts.length).sum();
+    }
+    
+    /**
+     * Tests if any busy interval overlaps the time from start (inclusive) to end (exclusive)
+     * 
+     * @param start  start of time to test
+     * @param end  end of time to test
+     * @return  true if some indexed recurrence is busy in that time
+     */
+    public boolean isBusy(Temporal start, Temporal end)
+    {
+        query(DateTimeUtilities.toEpochSecond(start, zone), DateTimeUtilities.toEpochSecond(end, zone));
+        return foundCount > 0;
+    }
+    
+    /**
+     * Returns every busy interval that overlaps the time from start (inclusive) to end (exclusive).
+     * An interval only touching start or end doesn't overlap.
+     * 
+     * @param start  start of time to test
+     * @param end  end of time to test
+     * @return  conflicts sorted by start
+     */
+    public List<Conflict> conflicts(Temporal start, Temporal end)
+    {
+        return conflicts(DateTimeUtilities.toEpochSecond(start, zone), DateTimeUtilities.toEpochSecond(end, zone), null);
+    }
+    
+    /**
+     * Returns the conflicts of every recurrence of vEvent in the index's window with the busy time of
+     * the other indexed VEVENTs.  A TRANSPARENT vEvent has no conflicts.
+     * 
+     * @param vEvent  VEVENT to test, indexed or not
+     * @return  map of vEvent's recurrence starts to their conflicts, sorted by start; only recurrences
+     * with a conflict are included
+     */
+    public Map<Temporal, List<Conflict>> conflicts(VEvent vEvent)
+    {
+        Map<Temporal, List<Conflict>> conflicts = new LinkedHashMap<>();
+        TemporalAmount duration = vEvent.getActualDuration();
+        for (Temporal recurrence : expand(vEvent))
+        {
+            List<Conflict> recurrenceConflicts = conflicts(DateTimeUtilities.toEpochSecond(recurrence, zone),
+                    DateTimeUtilities.toEpochSecond(recurrence.plus(duration), zone), vEvent);
+            if (! recurrenceConflicts.isEmpty())
+            {
+                conflicts.put(recurrence, recurrenceConflicts);
+            }
+        }
+        return conflicts;
+    }
+    
+    /* Conflicts with busy intervals between from and to, in epoch seconds, skipping those of exclude */
+    private List<Conflict> conflicts(long from, long to, VEvent exclude)
+    {
+        query(from, to);
+        List<Conflict> conflicts = new ArrayList<>(foundCount);
+        for (int n=0; n<foundCount; n++)
+        {
+            int i = found[n];
+            Entry entry = owners[i];
+            if (entry.vEvent != exclude)
+            {
+                Temporal recurrence = entry.recurrences.get(instances[i]);
+                conflicts.add(new Conflict(entry.vEvent, recurrence, recurrence.plus(entry.duration)));
+            }
+        }
+        return conflicts;
+    }
+    
+    /* Opaque recurrences of vEvent in the window, empty for transparent events */
+    private List<Temporal> expand(VEvent vEvent)
+    {
+        TimeTransparencyType transparency = (vEvent.getTimeTransparency() == null) ? TimeTransparencyType.OPAQUE : vEvent.getTimeTransparency().getValue();
+        if ((transparency == TimeTransparencyType.TRANSPARENT) || (vEvent.getDateTimeStart() == null))
+        {
+            return Collections.emptyList();
+        }
+        Temporal dateTimeStart = vEvent.getDateTimeStart().getValue();
+        ZoneId myZone = (dateTimeStart instanceof ZonedDateTime) ? ((ZonedDateTime) dateTimeStart).getZone() : zone;
+        DateTimeType dateTimeType = DateTimeType.of(dateTimeStart);
+        return vEvent.recurrences(dateTimeType.from(start, myZone), dateTimeType.from(end, myZone));
+    }
+    
+    /* Finds the indexes of intervals overlapping from and to, in order of start */
+    private void query(long from, long to)
+    {
+        if (! pending.isEmpty() || ! stale.isEmpty())
+        {
+            build();
+        }
+        foundCount = 0;
+        query(from, to, 0, starts.length);
+    }
+    
+    /* Searches the range low (inclusive) to high (exclusive), whose latest end is in its middle element */
+    private void query(long from, long to, int low, int high)
+    {
+        if (low >= high)
+        {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        if (maxEnds[middle] <= from)
+        {
+            return; // every interval in range ends too early
+        }
+        query(from, to, low, middle);
+        if (starts[middle] < to)
+        {
+            if (ends[middle] > from)
+            {
+                if (foundCount == found.length)
+                {
+                    found = Arrays.copyOf(found, foundCount * 2);
+                }
+                found[foundCount++] = middle;
+            }
+            query(from, to, middle + 1, high);
+        }
+    }
+    
+    /*
+     * Drops the intervals of stale entries from the tree, merges in the sorted intervals of pending entries,
+     * then stores the latest end of each range in its middle element
+     */
+    private void build()
+    {
+        int kept = starts.length;
+        if (! stale.isEmpty())
+        {
+            kept = 0;
+            for (int i=0; i<starts.length; i++)
+            {
+                if (! stale.contains(owners[i]))
+                {
+                    starts[kept] = starts[i];
+                    ends[kept] = ends[i];
+                    owners[kept] = owners[i];
+                    instances[kept] = instances[i];
+                    kept++;
+                }
+            }
+        }
+        Run[] heap = new Run[pending.size() + 1];
+        int heapSize = 0;
+        int size = kept;
+        if (kept > 0)
+        {
+            heap[heapSize++] = new Run(starts, ends, owners, instances, kept);
+        }
+        for (Entry entry : pending)
+        {
+            if (entry.starts.length > 0)
+            {
+                heap[heapSize++] = new Run(entry);
+                size += entry.starts.length;
+            }
+        }
+        for (int i=heapSize/2-1; i>=0; i--)
+        {
+            siftDown(heap, i, heapSize);
+        }
+        
+        long[] mergedStarts = new long[size];
+        long[] mergedEnds = new long[size];
+        Entry[] mergedOwners = new Entry[size];
+        int[] mergedInstances = new int[size];
+        for (int n=0; n<size; n++)
+        {
+            Run run = heap[0];
+            mergedStarts[n] = run.starts[run.position];
+            mergedEnds[n] = run.ends[run.position];
+            mergedOwners[n] = run.owner();
+            mergedInstances[n] = run.instance();
+            run.position++;
+            if (run.position == run.size)
+            {
+                heap[0] = heap[--heapSize];
+            }
+            siftDown(heap, 0, heapSize);
+        }
+        starts = mergedStarts;
+        ends = mergedEnds;
+        owners = mergedOwners;
+        instances = mergedInstances;
+        maxEnds = new long[size];
+        buildMaxEnds(0, size);
+        pending.clear();
+        stale.clear();
+    }
+    
+    /* Moves the run at index down the heap until it is before its children */
+    private static void siftDown(Run[] heap, int index, int heapSize)
+    {
+        Run run = heap[index];
+        while (true)
+        {
+            int child = 2 * index + 1;
+            if (child >= heapSize)
+            {
+                break;
+            }
+            if ((child + 1 < heapSize) && heap[child + 1].isBefore(heap[child]))
+            {
+                child++;
+            }
+            if (! heap[child].isBefore(run))
+            {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = run;
+    }
+    
+    private long buildMaxEnds(int low, int high)
+    {
+        if (low >= high)
+        {
+            return Long.MIN_VALUE;
+        }
+        int middle = (low + high) >>> 1;
+        long maxEnd = Math.max(ends[middle], Math.max(buildMaxEnds(low, middle), buildMaxEnds(middle + 1, high)));
+        maxEnds[middle] = maxEnd;
+        return maxEnd;
+    }
+}
@@ -54,9 +54,11 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import jfxtras.icalendarfx.components.VEvent;
+import jfxtras.icalendarfx.content.ContentLineTokenizer;
 import jfxtras.icalendarfx.parameters.VParameterElement;
 import jfxtras.icalendarfx.properties.component.time.TimeTransparency.TimeTransparencyType;
 import jfxtras.icalendarfx.utilities.DateTimeUtilities;
@@ -262,67 +264,41 @@ public final class DateTimeUtilities
         Temporal lastStart = newStarts.get(newStarts.size()-1);
 
         /*
-         * Make sorted list of events before lastStart from all VEvents
+         * Index recurrences before lastStart from all OPAQUE VEvents
          */
-        List<Triple> eventTimes = vEvents.stream()
+        BusyTimeIndex index = new BusyTimeIndex(newStarts.get(0), lastStart);
+        vEvents.stream()
             .filter(v -> 
             { // only keep OPAQUE events
                 TimeTransparencyType myTransparency = (v.getTimeTransparency() == null) ? TimeTransparencyType.OPAQUE : v.getTimeTransparency().getValue();
                 return myTransparency == TimeTransparencyType.OPAQUE;
             })
-            .flatMap(v ->
+            .forEach(v ->
             {
-                TemporalAmount actualDuration = v.getActualDuration();
                 Temporal myDTStart = v.getDateTimeStart().getValue().with(dtstart);
-                return v.streamRecurrences(myDTStart)
+                List<Temporal> recurrences = v.streamRecurrences(myDTStart)
                     .limit(checkQuantity)
                     .filter(t -> ! DateTimeUtilities.isAfter(t, lastStart))
-                    .map(t -> 
-                    {
-                        String uid = (v.getUniqueIdentifier() != null) ? v.getUniqueIdentifier().getValue() : null;
-                        return new Triple(t, t.plus(actualDuration), uid);
-                    });
-            })
-            .sorted((t1, t2) -> DateTimeUtilities.TEMPORAL_COMPARATOR2.compare(t1.start, t2.start))
-            .collect(Collectors.toList());
+                    .collect(Collectors.toList());
+                index.add(v, recurrences);
+            });
 
         /*
          *  Search for a conflict
          *  1.  New start before existing end, new end after existing start
+         *  2.  The earliest conflicting recurrence is reported
          */
         for (Temporal newStart : newStarts)
         {
             Temporal newEnd = newStart.plus(duration);
-            Triple firstConflict = eventTimes.stream()
-                .filter(triple ->
-                {
-                    boolean newStartBeforeEnd = DateTimeUtilities.isBefore(newStart, triple.end);
-                    boolean newEndAfterStart = DateTimeUtilities.isAfter(newEnd, triple.start);
-                    return (newStartBeforeEnd && newEndAfterStart);
-                })
-                .findAny()
-                .orElseGet(() -> null);
-            if (firstConflict != null)
+            List<BusyTimeIndex.Conflict> conflicts = index.conflicts(newStart, newEnd);
+            if (! conflicts.isEmpty())
             {
-                String uid = (firstConflict.uid != null) ? firstConflict.uid + ", " : "";
-                return (firstConflict == null) ? null : uid + DateTimeUtilities.temporalToString(firstConflict.start);
+                return conflicts.get(0).toString();
             }
         }
         return null; // no conflicts found
     }
-    // Triple class for checkScheduleConflict
-    private static class Triple
-    {
-        public Triple(Temporal start, Temporal end, String uid)
-        {
-            this.start = start;
-            this.end = end;
-            this.uid = uid;
-        }
-        Temporal start;
-        Temporal end;
-        String uid;
-    }
     
 //    /** Check if schedule conflict exists for {@link TimeTransparencyType.OPAQUE OPAQUE} events.
 //     * Finds conflict faster, but not necessarily the first conflict that occurs
@@ -444,6 +420,30 @@ public final class DateTimeUtilities
         return duration;
     }
     
+    /**
+     * Returns the seconds from the epoch of a LocalDate, LocalDateTime or ZonedDateTime, so Temporals
+     * of different types can be compared on one time line.  A date is taken to start at the start of
+     * its day in zone, and a local date-time is taken to be in zone.
+     * 
+     * @param temporal  date or date-time
+     * @param zone  time zone of dates and local date-times
+     * @return  seconds from 1970-01-01T00:00:00Z
+     */
+    public static long toEpochSecond(Temporal temporal, ZoneId zone)
+    {
+        if (temporal instanceof ZonedDateTime)
+        {
+            return ((ZonedDateTime) temporal).toEpochSecond();
+        } else if (temporal instanceof LocalDateTime)
+        {
+            return ((LocalDateTime) temporal).atZone(zone).toEpochSecond();
+        } else if (temporal instanceof LocalDate)
+        {
+            return ((LocalDate) temporal).atStartOfDay(zone).toEpochSecond();
+        }
+        return ZonedDateTime.from(temporal).toEpochSecond();
+    }
+    
     /**
      * produced ISO.8601 date and date-time string for given Temporal of type
      * LocalDate, LocalDateTime or ZonedDateTime
@@ -478,42 +478,58 @@ public final class DateTimeUtilities
         return null;
     }
     
+    private static final Pattern FORM0 = Pattern.compile("^[0-9]{8}");
+    private static final Pattern FORM1 = Pattern.compile("^[0-9]{8}T([0-9]{6})");
+    private static final Pattern FORM2 = Pattern.compile("^[0-9]{8}T([0-9]{6})Z");
+    private static final Pattern FORM3 = Pattern.compile("^(\\[.*/.*\\])[0-9]{8}T([0-9]{6}Z?)");
+    
     /**
      * Parse ISO.8601 string into LocalDate, LocalDateTime or ZonedDateTime Temporal object.
      */ 
     public static Temporal temporalFromString(String string)
     {
-        List<Pair<String, String>> list = ICalendarUtilities.parseInlineElementsToListPair(string);
-        Map<String, String> map = list.stream().collect(Collectors.toMap(p -> p.getKey(), p -> p.getValue()));
-//        Map<String, String> map = ICalendarUtilities.propertyLineToParameterMap(string);
-        StringBuilder builder = new StringBuilder(50);
-        String value = map.get(ICalendarUtilities.PROPERTY_VALUE_KEY);
-        if (map.get(VParameterElement.TIME_ZONE_IDENTIFIER.toString()) != null)
-        {
-            if (value.charAt(value.length()-1) != 'Z')
+        ContentLineTokenizer tokenizer = new ContentLineTokenizer(string);
+        String value = null;
+        String timeZoneIdentifier = null;
+        while (tokenizer.next())
+        {
+            if (tokenizer.isValue())
+            {
+                value = tokenizer.value();
+            } else if (tokenizer.nameEquals(VParameterElement.TIME_ZONE_IDENTIFIER.toString()))
             {
-                builder.append("[");
-                builder.append(map.get(VParameterElement.TIME_ZONE_IDENTIFIER.toString()));
-                builder.append("]");
+                timeZoneIdentifier = tokenizer.value();
             }
         }
-        builder.append(value);
-        String string2 = builder.toString();
+        final String string2;
+        if ((timeZoneIdentifier != null) && (value.charAt(value.length()-1) != 'Z'))
+        {
+            string2 = "[" + timeZoneIdentifier + "]" + value;
+        } else
+        {
+            string2 = value;
+        }
 
-        final String form0 = "^[0-9]{8}";
-        final String form1 = "^[0-9]{8}T([0-9]{6})";
-        final String form2 = "^[0-9]{8}T([0-9]{6})Z";
-        final String form3 = "^(\\[.*/.*\\])[0-9]{8}T([0-9]{6}Z?)";
-        if (string2.matches(form0))
+        InterningPool interningPool = InterningPool.current();
+        if ((interningPool != null) && string2.startsWith("["))
+        { // use shared ZoneId instead of a new lookup for each date-time
+            ZonedDateTime zonedDateTime = zonedDateTimeFromPool(interningPool, string2);
+            if (zonedDateTime != null)
+            {
+                return zonedDateTime;
+            }
+        }
+        
+        if (FORM0.matcher(string2).matches())
         {
             return LocalDate.parse(string2, DateTimeUtilities.LOCAL_DATE_FORMATTER);                                                
-        } else if (string2.matches(form1))
+        } else if (FORM1.matcher(string2).matches())
         {
             return LocalDateTime.parse(string2, DateTimeUtilities.LOCAL_DATE_TIME_FORMATTER);                                                
-        } else if (string2.matches(form2))
+        } else if (FORM2.matcher(string2).matches())
         {
             return ZonedDateTime.parse(string2, DateTimeUtilities.ZONED_DATE_TIME_UTC_FORMATTER);                                                
-        } else if (string2.matches(form3))
+        } else if (FORM3.matcher(string2).matches())
         {
             return ZonedDateTime.parse(string2, DateTimeUtilities.ZONED_DATE_TIME_FORMATTER);                                                
         } else
@@ -523,6 +539,23 @@ public final class DateTimeUtilities
     }
     
     
+    /* Returns null if string isn't a [region ID]local-date-time, so the formatters can handle, or report, it */
+    private static ZonedDateTime zonedDateTimeFromPool(InterningPool interningPool, String string)
+    {
+        int endIndex = string.indexOf(']');
+        if (endIndex < 0) return null;
+        String id = string.substring(1, endIndex);
+        String value = string.substring(endIndex+1);
+        if ((id.indexOf('/') < 0) || ! FORM1.matcher(value).matches()) return null;
+        try
+        {
+            return LocalDateTime.parse(value, DateTimeUtilities.LOCAL_DATE_TIME_FORMATTER).atZone(interningPool.zoneId(id));
+        } catch (DateTimeException e)
+        {
+            return null;
+        }
+    }
+    
     /**
      * Convert 2-character string to DayOfWeek following below convention:
      * weekday     = "SU" / "MO" / "TU" / "WE" / "TH" / "FR" / "SA"
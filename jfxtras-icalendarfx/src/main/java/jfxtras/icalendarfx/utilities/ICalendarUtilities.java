@@ -26,6 +26,8 @@
  */
 package jfxtras.icalendarfx.utilities;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Spliterator;
@@ -35,6 +37,7 @@ import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import jfxtras.icalendarfx.content.ContentLineTokenizer;
 import jfxtras.icalendarfx.utilities.Pair;
 
 /**
@@ -58,107 +61,21 @@ public final class ICalendarUtilities
      * 
      * @param propertyLine - name-stripped property line
      * @return - map where key=parameter names as, value=parameter value
+     * @see ContentLineTokenizer
      */
-    // TODO - CONSIDER USING STREAMTOKENIZER instead
     public static List<Pair<String,String>> parseInlineElementsToListPair(String propertyLine)
     {
         List<Pair<String,String>> parameters = new ArrayList<>();
-       // find start of parameters (go past property name)
-       int parameterStart=0;
-       for (parameterStart = 0; parameterStart < propertyLine.length(); parameterStart++)
-       {
-           if ((propertyLine.charAt(parameterStart) == ';') || (propertyLine.charAt(parameterStart) == ':'))
-           {
-               break;
-           } else if (propertyLine.charAt(parameterStart) == '=') // propertyLine doesn't contain the property name, start searching for parameters at beginning
-           {
-               parameterStart = -1;
-               break;
-           }
-       }
-       
-       // make adjustments before processing
-       char firstCharacter;      
-       if (parameterStart == propertyLine.length())
-       { // contains no property name, only value
-           parameterStart = 0; // reset to front of line because it only contains a value
-           firstCharacter = ':';
-       } else if (parameterStart == propertyLine.length()-1)
-       { // contains only property name, has no value, return empty value 
-           parameters.add(new Pair<>(PROPERTY_VALUE_KEY, null));
-           return parameters;
-       } else if (parameterStart < 0)
-       { // doesn't contain the property name, but has parameters
-           firstCharacter = ';';
-           parameterStart = 0;
-       } else if (parameterStart == 0)
-       { // has parameter or value at start (first character is a ';' or ':')
-           firstCharacter = propertyLine.charAt(parameterStart);
-           parameterStart = 1;
-       } else
-       { // contains a property name and parameters and/or value
-           firstCharacter = propertyLine.charAt(parameterStart);
-           parameterStart++;
-       }
-       
-       // find parameters
-       int parameterEnd = parameterStart;
-       boolean quoteOn = false;
-       while (parameterEnd < propertyLine.length())
-       {
-           final String name;
-           final String value;
-           if (firstCharacter == ':')
-           { // found property value.  It continues to end of the string.
-               parameterEnd = propertyLine.length();
-               name = PROPERTY_VALUE_KEY;
-               value = propertyLine.substring(parameterStart, parameterEnd);
-           } else if (firstCharacter == ';')
-           { // found parameter/value pair.
-               int equalsPosition = propertyLine.indexOf('=', parameterStart);
-               int nextSemicolonPosition = propertyLine.indexOf(';', parameterStart);
-               if ((nextSemicolonPosition> 0) && (nextSemicolonPosition < equalsPosition))
-               { // parameter has no value
-                   value = null;
-                   name = propertyLine.substring(parameterStart, nextSemicolonPosition).toUpperCase();
-                   parameterEnd = nextSemicolonPosition;
-//                   System.out.println("parameter no value:" + name);
-               } else
-               {
-                   name = propertyLine.substring(parameterStart, equalsPosition).toUpperCase();
-                   for (parameterEnd = equalsPosition+1; parameterEnd < propertyLine.length(); parameterEnd++)
-                   {
-                       if (propertyLine.charAt(parameterEnd) == '\"')
-                       {
-                           quoteOn = ! quoteOn;
-                       }
-                       if (! quoteOn) // can't end while quote is on
-                       {
-                           if ((propertyLine.charAt(parameterEnd) == ';') || (propertyLine.charAt(parameterEnd) == ':'))
-                           {
-                               break;
-                           }
-                       }
-                   }
-                   value = propertyLine.substring(equalsPosition+1, parameterEnd);
-//                  System.out.println("parameter:" + value);
-               }
-           } else
-           {
-               throw new IllegalArgumentException("Invalid property line:" + propertyLine);
-           }
-           parameters.add(new Pair<>(name, value));
-           if (parameterEnd < propertyLine.length())
-           {
-               parameterStart = parameterEnd+1;
-               firstCharacter = propertyLine.charAt(parameterStart-1);
-           }
-       }
-       return parameters;
+        ContentLineTokenizer tokenizer = new ContentLineTokenizer(propertyLine);
+        while (tokenizer.next())
+        {
+            parameters.add(new Pair<>(tokenizer.name(), tokenizer.value()));
+        }
+        return parameters;
     }
     
     /**
-     * Folds lines at character 75 into multiple lines.  Follows rules in
+     * Folds lines at 75 octets into multiple lines.  Follows rules in
      * RFC 5545, 3.1 Content Lines, page 9.
      * A space is added to the first character of the subsequent lines.
      * doesn't break lines at escape characters
@@ -168,39 +85,64 @@ public final class ICalendarUtilities
      */
     public static CharSequence foldLine(CharSequence line)
     {
-        // first position is 0
-        final int maxLineLength = 75;
-        if (line.length() <= maxLineLength)
-        {
+        if (line.length() <= MAX_LINE_OCTETS/4)
+        { // short enough to not need folding even if every character is 4 octets
             return line;
-        } else
+        }
+        StringBuilder builder = new StringBuilder(line.length()+20);
+        try
         {
-            StringBuilder builder = new StringBuilder(line.length()+20);
-            int leadingSpaceAdjustment = 0;
-            String leadingSpace = "";
-            int startIndex = 0;
-            while (startIndex < line.length())
+            foldLine(line, builder, System.lineSeparator());
+        } catch (IOException e)
+        {
+            throw new UncheckedIOException(e); // StringBuilder doesn't throw IOException
+        }
+        return (builder.length() == line.length()) ? line : builder;
+    }
+    
+    /**
+     * Folds lines at 75 octets into multiple lines while appending them to out.  Octets are counted
+     * as the UTF-8 encoded length of the characters.  Surrogate pairs and escaped characters are not
+     * broken up.  No intermediate strings are made.
+     * 
+     * @param line - content line
+     * @param out - destination of folded content line
+     * @param lineSeparator - line separator put before each continuation line
+     * @throws IOException if out throws IOException
+     */
+    public static void foldLine(CharSequence line, Appendable out, String lineSeparator) throws IOException
+    {
+        int startIndex = 0;
+        int maxOctets = MAX_LINE_OCTETS;
+        while (startIndex < line.length())
+        {
+            int endIndex = startIndex;
+            int octets = 0;
+            while (endIndex < line.length())
+            {
+                char c = line.charAt(endIndex);
+                boolean isSurrogatePair = Character.isHighSurrogate(c) && (endIndex+1 < line.length()) && Character.isLowSurrogate(line.charAt(endIndex+1));
+                int charOctets = (c < 0x80) ? 1 : (c < 0x800) ? 2 : (isSurrogatePair) ? 4 : 3;
+                if (octets + charOctets > maxOctets) break;
+                octets += charOctets;
+                endIndex += (isSurrogatePair) ? 2 : 1;
+            }
+            // ensure escaped characters are not broken up
+            if ((endIndex < line.length()) && (line.charAt(endIndex-1) == '\\') && (endIndex-1 > startIndex))
+            {
+                endIndex = endIndex-1;
+            }
+            if (startIndex > 0)
             {
-                int endIndex = Math.min(startIndex+maxLineLength-leadingSpaceAdjustment, line.length());
-                if (endIndex < line.length())
-                {
-                    // ensure escaped characters are not broken up
-                    if (line.charAt(endIndex-1) == '\\')
-                    {
-                        endIndex = endIndex-1; 
-                    }
-                    builder.append(leadingSpace + line.subSequence(startIndex, endIndex) + System.lineSeparator());
-                } else
-                {                    
-                    builder.append(leadingSpace + line.subSequence(startIndex, endIndex));
-                }
-                startIndex = endIndex;
-                leadingSpaceAdjustment = 1;
-                leadingSpace = " ";
+                out.append(lineSeparator);
+                out.append(' ');
             }
-            return builder;
+            out.append(line, startIndex, endIndex);
+            startIndex = endIndex;
+            maxOctets = MAX_LINE_OCTETS-1; // leading space
         }
     }
+    private final static int MAX_LINE_OCTETS = 75;
     
     /**
      * Returns index where property name ends - after first ';' or ':'
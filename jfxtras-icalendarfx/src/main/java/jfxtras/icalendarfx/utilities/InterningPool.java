@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.utilities;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Pool of property and parameter values shared while parsing.  Large calendars repeat the same
+ * TZID, CATEGORIES, ORGANIZER, LANGUAGE, STATUS and X- values many times.  While a pool is active,
+ * equal values are replaced by one shared instance, and time zone identifiers are looked up once.
+ * Values of properties that are usually unique, such as UID, DESCRIPTION and DTSTAMP, aren't pooled.</p>
+ * 
+ * <p>The pool holds at most {@link #maxSize()} values.  Once it is full, values already in the pool are still
+ * shared, but new values are returned unchanged.</p>
+ * 
+ * <p>Only immutable values are shared: {@link String}, {@link ZoneId}, {@link URI}, {@link Duration}
+ * and {@link Period}.  The elements of an {@link ArrayList} value, such as CATEGORIES, are shared, but the list
+ * itself isn't.  Calendar elements, like parameters, are never shared because each has its own parent.</p>
+ * 
+ * <p>A pool is activated for the current thread with {@link #activate()}.  The pool is thread-safe, so it can be
+ * used by parallel parsing too.</p>
+ * 
+ * <p>Example:
+ * <pre>
+ * InterningPool pool = new InterningPool();
+ * try (InterningPool.Scope scope = pool.activate())
+ * {
+ *     VCalendar vCalendar = VCalendar.parse(icsFilePath);
+ * }
+ * </pre>
+ */
+public class InterningPool
+{
+    private static final ThreadLocal<InterningPool> CURRENT = new ThreadLocal<>();
+    private static final Scope NO_SCOPE = new Scope(null, false);
+    
+    /** Default maximum number of values in a pool */
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    
+    private final Map<Object, Object> values = new ConcurrentHashMap<>();
+    private final Map<String, ZoneId> zoneIds = new ConcurrentHashMap<>();
+    private final int maxSize;
+    
+    /** Creates a pool holding at most {@link #DEFAULT_MAX_SIZE} values */
+    public InterningPool()
+    {
+        this(DEFAULT_MAX_SIZE);
+    }
+    
+    /**
+     * Creates a pool holding at most maxSize values
+     * 
+     * @param maxSize  maximum number of distinct values in the pool
+     */
+    public InterningPool(int maxSize)
+    {
+        if (maxSize < 0)
+        {
+            throw new IllegalArgumentException("maxSize can't be negative:" + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+    
+    /** Returns the pool active on the current thread, or null if there isn't one */
+    public static InterningPool current()
+    {
+        return CURRENT.get();
+    }
+    
+    /**
+     * Makes this pool active on the current thread until the returned scope is closed.
+     * The previously active pool, if any, is restored when the scope is closed.
+     * 
+     * @return  scope to close when parsing is done
+     */
+    public Scope activate()
+    {
+        InterningPool previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous, true);
+    }
+    
+    /**
+     * Makes interningPool active on the current thread, the same as {@link #activate()}.
+     * If interningPool is null, the returned scope does nothing.
+     * 
+     * @param interningPool  pool to activate, or null
+     * @return  scope to close when parsing is done
+     */
+    public static Scope activate(InterningPool interningPool)
+    {
+        return (interningPool == null) ? NO_SCOPE : interningPool.activate();
+    }
+    
+    /**
+     * Returns the shared instance equal to value.  Values that can't be shared safely are returned unchanged.
+     * 
+     * @param value  value to intern
+     * @return  shared instance equal to value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T intern(T value)
+    {
+        if (value instanceof ArrayList)
+        {
+            ((ArrayList<Object>) value).replaceAll(this::intern);
+            return value;
+        } else if (isImmutable(value))
+        {
+            Object shared = values.get(value);
+            if (shared == null)
+            {
+                if (values.size() >= maxSize)
+                {
+                    return value;
+                }
+                shared = values.putIfAbsent(value, value);
+            }
+            return (shared == null) ? value : (T) shared;
+        }
+        return value;
+    }
+    
+    /**
+     * Returns the shared {@link ZoneId} for a time zone identifier, looking it up only the first time
+     * 
+     * @param id  time zone identifier, such as America/New_York
+     * @return  shared ZoneId
+     * @throws java.time.DateTimeException  if the identifier is invalid, the same as {@link ZoneId#of(String)}
+     */
+    public ZoneId zoneId(String id)
+    {
+        ZoneId zoneId = zoneIds.get(id);
+        if (zoneId == null)
+        {
+            zoneId = intern(ZoneId.of(id));
+            zoneIds.putIfAbsent(id, zoneId);
+        }
+        return zoneId;
+    }
+    
+    /** Returns the number of distinct values in the pool */
+    public int size()
+    {
+        return values.size();
+    }
+    
+    /** Returns the maximum number of distinct values in the pool */
+    public int maxSize()
+    {
+        return maxSize;
+    }
+    
+    private static boolean isImmutable(Object value)
+    {
+        return (value instanceof String) ||
+                (value instanceof ZoneId) ||
+                (value instanceof URI) ||
+                (value instanceof Duration) ||
+                (value instanceof Period);
+    }
+    
+    /** Active period of an {@link InterningPool} on the current thread */
+    public static class Scope implements AutoCloseable
+    {
+        private final InterningPool previous;
+        private final boolean isActive;
+        
+        private Scope(InterningPool previous, boolean isActive)
+        {
+            this.previous = previous;
+            this.isActive = isActive;
+        }
+        
+        @Override
+        public void close()
+        {
+            if (! isActive)
+            {
+                return;
+            } else if (previous == null)
+            {
+                CURRENT.remove();
+            } else
+            {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -32,6 +32,9 @@ import org.junit.runners.Suite.SuiteClasses;
 
 import jfxtras.icalendarfx.calendar.CalendarScaleTest;
 import jfxtras.icalendarfx.calendar.CopyCalendarTest;
+import jfxtras.icalendarfx.calendar.ExpandCalendarTest;
+import jfxtras.icalendarfx.calendar.FreeBusyCalendarTest;
+import jfxtras.icalendarfx.calendar.UniqueIdentifierIndexTest;
 import jfxtras.icalendarfx.calendar.GeneralCalendarTest;
 import jfxtras.icalendarfx.calendar.ParseCalendarTest;
 import jfxtras.icalendarfx.calendar.ReadICSFileTest;
@@ -60,6 +63,7 @@ import jfxtras.icalendarfx.component.VFreeBusyTest;
 import jfxtras.icalendarfx.component.VJournalTest;
 import jfxtras.icalendarfx.component.VTimeZoneTest;
 import jfxtras.icalendarfx.component.VTodoTest;
+import jfxtras.icalendarfx.itip.BatchMessageTest;
 import jfxtras.icalendarfx.itip.CancelRecurrenceTest;
 import jfxtras.icalendarfx.itip.ComboMessageTest;
 import jfxtras.icalendarfx.itip.HandleRecurrencesTest;
@@ -68,11 +72,18 @@ import jfxtras.icalendarfx.itip.SimpleCancelTest;
 import jfxtras.icalendarfx.itip.SimplePublishTest;
 import jfxtras.icalendarfx.itip.WholeDayTest;
 import jfxtras.icalendarfx.misc.AddAndRemoveChildrenTests;
+import jfxtras.icalendarfx.misc.ConcurrentParsingTest;
+import jfxtras.icalendarfx.misc.ConcurrentRecurrenceTest;
+import jfxtras.icalendarfx.misc.ContentCacheTest;
+import jfxtras.icalendarfx.misc.ContentLineTokenizerTest;
 import jfxtras.icalendarfx.misc.CreateElementsTests;
 import jfxtras.icalendarfx.misc.ErrorDetectingTest;
 import jfxtras.icalendarfx.misc.FoldingAndUnfoldingTest;
 import jfxtras.icalendarfx.misc.MiscICalendarTests;
 import jfxtras.icalendarfx.misc.OrdererTest;
+import jfxtras.icalendarfx.misc.RecurrenceArrayTest;
+import jfxtras.icalendarfx.misc.RecurrenceCacheTest;
+import jfxtras.icalendarfx.misc.VCalendarReaderTest;
 import jfxtras.icalendarfx.parameter.AlternateTextRepresentationTest;
 import jfxtras.icalendarfx.parameter.CommonNameTest;
 import jfxtras.icalendarfx.parameter.DelegateesTest;
@@ -146,13 +157,21 @@ import jfxtras.icalendarfx.property.component.UniqueIdentifierTest;
         
         // misc tests
 		AddAndRemoveChildrenTests.class,
+        ConcurrentParsingTest.class,
+        ConcurrentRecurrenceTest.class,
+        RecurrenceArrayTest.class,
+        RecurrenceCacheTest.class,
+        ContentCacheTest.class,
+        ContentLineTokenizerTest.class,
         CreateElementsTests.class,
 		ErrorDetectingTest.class,
         FoldingAndUnfoldingTest.class,
         MiscICalendarTests.class,
         OrdererTest.class,
+        VCalendarReaderTest.class,
         
         // iTIP tests
+        BatchMessageTest.class,
         CancelRecurrenceTest.class,
         ComboMessageTest.class,
         HandleRecurrencesTest.class,
@@ -164,6 +183,9 @@ import jfxtras.icalendarfx.property.component.UniqueIdentifierTest;
         // calendar tests
         CalendarScaleTest.class,
         CopyCalendarTest.class,
+        ExpandCalendarTest.class,
+        FreeBusyCalendarTest.class,
+        UniqueIdentifierIndexTest.class,
         GeneralCalendarTest.class,
         OrdererTest.class,
         ParseCalendarTest.class,
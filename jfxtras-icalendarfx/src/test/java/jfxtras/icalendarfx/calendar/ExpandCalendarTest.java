@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.components.VDisplayable;
+import jfxtras.icalendarfx.components.VEvent;
+import jfxtras.icalendarfx.utilities.Pair;
+
+/**
+ * Tests splitting bounded recurrence streams by period, and expanding a whole calendar in parallel
+ */
+public class ExpandCalendarTest
+{
+    private static final String CONTENT = "BEGIN:VCALENDAR" + System.lineSeparator() +
+            "VERSION:2.0" + System.lineSeparator() +
+            "PRODID:-//hacksw/handcal//NONSGML v1.0//EN" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:weekly@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20150105T100000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR" + System.lineSeparator() +
+            "EXDATE;TZID=America/New_York:20160106T100000" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:weekly@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20160104T140000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "RECURRENCE-ID;TZID=America/New_York:20160104T100000" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VTODO" + System.lineSeparator() +
+            "UID:daily@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;VALUE=DATE:20151231" + System.lineSeparator() +
+            "RRULE:FREQ=DAILY;COUNT=3" + System.lineSeparator() +
+            "END:VTODO" + System.lineSeparator() +
+            "END:VCALENDAR";
+    
+    @Test
+    public void canSplitBoundedRecurrenceStream()
+    {
+        VEvent vEvent = VCalendar.parse(CONTENT).getVEvents().get(0);
+        assertTrue(vEvent.isRecurrenceSetSplittable());
+        ZoneId zone = ZoneId.of("America/New_York");
+        Temporal start = ZonedDateTime.of(LocalDateTime.of(2016, 1, 1, 0, 0), zone);
+        Temporal end = ZonedDateTime.of(LocalDateTime.of(2036, 1, 1, 0, 0), zone);
+        
+        List<Temporal> expectedRecurrences = vEvent.streamRecurrences(start)
+                .takeWhile(t -> ((ZonedDateTime) t).isBefore((ZonedDateTime) end))
+                .collect(Collectors.toList());
+        List<Temporal> madeRecurrences = vEvent.streamRecurrences(start, end)
+                .collect(Collectors.toList());
+        assertEquals(expectedRecurrences, madeRecurrences);
+        assertFalse(madeRecurrences.contains(ZonedDateTime.of(LocalDateTime.of(2016, 1, 6, 10, 0), zone))); // EXDATE
+        assertFalse(madeRecurrences.contains(ZonedDateTime.of(LocalDateTime.of(2016, 1, 4, 10, 0), zone))); // RECURRENCE-ID
+        
+        List<Temporal> parallelRecurrences = vEvent.streamRecurrences(start, end)
+                .parallel()
+                .collect(Collectors.toList());
+        assertEquals(expectedRecurrences, parallelRecurrences);
+        assertNotNull(vEvent.streamRecurrences(start, end).parallel().spliterator().trySplit());
+    }
+    
+    @Test
+    public void canExpandCalendar()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        ZoneId zone = ZoneId.of("America/New_York");
+        Temporal start = ZonedDateTime.of(LocalDateTime.of(2016, 1, 1, 0, 0), zone);
+        Temporal end = ZonedDateTime.of(LocalDateTime.of(2016, 1, 9, 0, 0), zone);
+        
+        List<Pair<Temporal, VDisplayable<?>>> recurrences = vCalendar.expand(start, end, new ForkJoinPool(4));
+        List<Temporal> expectedStarts = Arrays.asList(
+                LocalDate.of(2016, 1, 1),
+                ZonedDateTime.of(LocalDateTime.of(2016, 1, 1, 10, 0), zone),
+                LocalDate.of(2016, 1, 2),
+                ZonedDateTime.of(LocalDateTime.of(2016, 1, 4, 14, 0), zone),
+                ZonedDateTime.of(LocalDateTime.of(2016, 1, 8, 10, 0), zone)
+                );
+        assertEquals(expectedStarts, recurrences.stream().map(p -> p.getKey()).collect(Collectors.toList()));
+        assertEquals(vCalendar.getVTodos().get(0), recurrences.get(0).getValue());
+        assertEquals(vCalendar.getVEvents().get(1), recurrences.get(3).getValue());
+        
+        // recurrence that starts before, but ends after, start is included
+        Temporal start2 = ZonedDateTime.of(LocalDateTime.of(2016, 1, 8, 10, 30), zone);
+        List<Pair<Temporal, VDisplayable<?>>> recurrences2 = vCalendar.expand(start2, end);
+        assertEquals(1, recurrences2.size());
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2016, 1, 8, 10, 0), zone), recurrences2.get(0).getKey());
+    }
+    
+    @Test
+    public void canMemoizeSlidingRecurrenceWindows()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VEvent vEvent = vCalendar.getVEvents().get(0);
+        ZoneId zone = ZoneId.of("America/New_York");
+        ZonedDateTime weekStart = ZonedDateTime.of(LocalDateTime.of(2015, 12, 28, 10, 30), zone);
+        for (int week=0; week<10; week++)
+        {
+            ZonedDateTime start = weekStart.plusWeeks(week);
+            ZonedDateTime end = start.plusWeeks(1);
+            List<Temporal> expectedRecurrences = vEvent.streamRecurrences(start, end).collect(Collectors.toList());
+            assertEquals(expectedRecurrences, vEvent.recurrences(start, end));
+        }
+        // back inside the memoized window, and sliding backwards
+        for (int week=12; week>-3; week--)
+        {
+            ZonedDateTime start = weekStart.plusWeeks(week);
+            ZonedDateTime end = start.plusWeeks(2);
+            List<Temporal> expectedRecurrences = vEvent.streamRecurrences(start, end).collect(Collectors.toList());
+            assertEquals(expectedRecurrences, vEvent.recurrences(start, end));
+        }
+    }
+    
+    @Test
+    public void canUpdateMemoizedRecurrencesWhenComponentChanges()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VEvent vEvent = vCalendar.getVEvents().get(0);
+        ZoneId zone = ZoneId.of("America/New_York");
+        ZonedDateTime start = ZonedDateTime.of(LocalDateTime.of(2016, 2, 8, 0, 0), zone);
+        ZonedDateTime end = start.plusWeeks(1);
+        assertEquals(3, vEvent.recurrences(start, end).size());
+        
+        long revision = vEvent.getRevision();
+        vEvent.getExceptionDates().get(0).getValue().add(ZonedDateTime.of(LocalDateTime.of(2016, 2, 10, 10, 0), zone)); // changed in place
+        assertEquals(revision, vEvent.getRevision());
+        assertEquals(2, vEvent.recurrences(start, end).size());
+        
+        vEvent.getRecurrenceRule().getValue().setInterval(2); // changed in place
+        assertEquals(0, vEvent.recurrences(start, end).size());
+        vEvent.getRecurrenceRule().getValue().setInterval(1);
+        assertEquals(2, vEvent.recurrences(start, end).size());
+        
+        vEvent.setDuration("PT2H");
+        assertTrue(vEvent.getRevision() != revision);
+        assertEquals(2, vEvent.recurrences(start.plusMinutes(60 * 10 + 90), end).size()); // 10:00 to 12:00 overlaps 11:30
+        
+        VEvent child = new VEvent()
+                .withUniqueIdentifier("weekly@jfxtras.org")
+                .withDateTimeStart(ZonedDateTime.of(LocalDateTime.of(2016, 2, 12, 14, 0), zone))
+                .withRecurrenceId(ZonedDateTime.of(LocalDateTime.of(2016, 2, 12, 10, 0), zone));
+        vCalendar.addChild(child);
+        List<Temporal> expectedRecurrences = Arrays.asList(
+                ZonedDateTime.of(LocalDateTime.of(2016, 2, 8, 10, 0), zone)
+                );
+        assertEquals(expectedRecurrences, vEvent.recurrences(start, end));
+        
+        // other components don't change
+        VEvent child2 = vCalendar.getVEvents().get(1);
+        long childRevision = child2.getRevision();
+        vEvent.setSummary("changed");
+        assertEquals(childRevision, child2.getRevision());
+    }
+}
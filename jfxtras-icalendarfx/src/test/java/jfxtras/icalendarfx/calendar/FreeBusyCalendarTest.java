@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import jfxtras.icalendarfx.FreeBusyOptions;
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.components.VFreeBusy;
+import jfxtras.icalendarfx.parameters.FreeBusyType.FreeBusyTypeEnum;
+import jfxtras.icalendarfx.properties.component.time.FreeBusyTime;
+import jfxtras.icalendarfx.utilities.ICalendarUtilities;
+
+/**
+ * Tests computing the free/busy time of a calendar
+ */
+public class FreeBusyCalendarTest
+{
+    private static final String CONTENT = "BEGIN:VCALENDAR" + System.lineSeparator() +
+            "VERSION:2.0" + System.lineSeparator() +
+            "PRODID:-//hacksw/handcal//NONSGML v1.0//EN" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:daily@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20160104T100000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "RRULE:FREQ=DAILY;COUNT=5" + System.lineSeparator() +
+            "EXDATE;TZID=America/New_York:20160106T100000" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:daily@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20160105T103000" + System.lineSeparator() +
+            "DURATION:PT1H30M" + System.lineSeparator() +
+            "RECURRENCE-ID;TZID=America/New_York:20160105T100000" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:overlapping@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20160104T103000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:adjacent@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20160107T110000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:in-progress@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20160103T230000" + System.lineSeparator() +
+            "DURATION:PT2H" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:transparent@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20160108T150000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "TRANSP:TRANSPARENT" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:tentative@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20160108T130000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "STATUS:TENTATIVE" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:cancelled@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20160104T150000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "STATUS:CANCELLED" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "END:VCALENDAR";
+    
+    private static final FreeBusyOptions NEW_YORK = new FreeBusyOptions().withZone(ZoneId.of("America/New_York"));
+    
+    @Test
+    public void canComputeFreeBusy()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VFreeBusy vFreeBusy = vCalendar.computeFreeBusy(LocalDate.of(2016, 1, 4), LocalDate.of(2016, 1, 9), NEW_YORK);
+        List<String> expectedFreeBusyTimes = Arrays.asList(
+                "FREEBUSY;FBTYPE=BUSY:20160104T050000Z/PT1H,20160104T150000Z/PT1H30M,20160105T153000Z/PT1H30M" +
+                        ",20160107T150000Z/PT2H,20160108T150000Z/PT1H",
+                "FREEBUSY;FBTYPE=BUSY-TENTATIVE:20160108T180000Z/PT1H"
+                );
+        assertEquals(fold(expectedFreeBusyTimes), vFreeBusy.getFreeBusyTimes()
+                .stream()
+                .map(f -> f.toString())
+                .collect(Collectors.toList()));
+        assertEquals("DTSTART:20160104T050000Z", vFreeBusy.getDateTimeStart().toString());
+        assertEquals("DTEND:20160109T050000Z", vFreeBusy.getDateTimeEnd().toString());
+        assertTrue(vFreeBusy.isValid());
+        assertNull(vFreeBusy.getParent());
+    }
+    
+    @Test
+    public void canComputeFreeTime()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        FreeBusyOptions options = new FreeBusyOptions()
+                .withZone(ZoneId.of("America/New_York"))
+                .withTentativeType(FreeBusyTypeEnum.BUSY)
+                .withFreeIncluded(true);
+        VFreeBusy vFreeBusy = vCalendar.computeFreeBusy(LocalDate.of(2016, 1, 7), LocalDate.of(2016, 1, 9), options);
+        List<String> expectedFreeBusyTimes = Arrays.asList(
+                "FREEBUSY;FBTYPE=FREE:20160107T050000Z/PT10H,20160107T170000Z/PT22H,20160108T160000Z/PT2H" +
+                        ",20160108T190000Z/PT10H",
+                "FREEBUSY;FBTYPE=BUSY:20160107T150000Z/PT2H,20160108T150000Z/PT1H,20160108T180000Z/PT1H"
+                );
+        assertEquals(fold(expectedFreeBusyTimes), vFreeBusy.getFreeBusyTimes()
+                .stream()
+                .map(f -> f.toString())
+                .collect(Collectors.toList()));
+    }
+    
+    @Test
+    public void canComputeFreeBusyOfEmptyTime()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VFreeBusy vFreeBusy = vCalendar.computeFreeBusy(LocalDate.of(2016, 2, 1), LocalDate.of(2016, 2, 2), NEW_YORK);
+        assertNull(vFreeBusy.getFreeBusyTimes());
+    }
+    
+    @Test
+    public void canUseSingleFreeBusyTimeAccessors()
+    {
+        VFreeBusy vFreeBusy = new VFreeBusy()
+                .withFreeBusyTimes((List<FreeBusyTime>) null);
+        assertTrue(vFreeBusy.getFreeBusyTimes().isEmpty());
+        assertNull(vFreeBusy.getFreeBusyTime());
+        
+        vFreeBusy.setFreeBusyTime("FREEBUSY;FBTYPE=BUSY:19970308T160000Z/PT8H30M");
+        assertEquals(1, vFreeBusy.getFreeBusyTimes().size());
+        assertEquals(vFreeBusy.getFreeBusyTimes().get(0), vFreeBusy.getFreeBusyTime());
+        assertEquals(vFreeBusy, new VFreeBusy().withFreeBusyTimes("FREEBUSY;FBTYPE=BUSY:19970308T160000Z/PT8H30M"));
+    }
+    
+    private static List<String> fold(List<String> contentLines)
+    {
+        return contentLines.stream()
+                .map(l -> ICalendarUtilities.foldLine(l).toString())
+                .collect(Collectors.toList());
+    }
+}
@@ -27,15 +27,23 @@
 package jfxtras.icalendarfx.calendar;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Ignore;
 import org.junit.Test;
@@ -43,7 +51,9 @@ import org.junit.Test;
 import jfxtras.icalendarfx.ICalendarTestAbstract;
 import jfxtras.icalendarfx.VCalendar;
 import jfxtras.icalendarfx.components.VEvent;
+import jfxtras.icalendarfx.content.MappedFileReader;
 import jfxtras.icalendarfx.properties.calendar.Version;
+import jfxtras.icalendarfx.utilities.InterningPool;
 
 public class ParseCalendarTest extends ICalendarTestAbstract
 {
@@ -308,4 +318,198 @@ public class ParseCalendarTest extends ICalendarTestAbstract
 
         VCalendar v = VCalendar.parse(content);
     }
+    
+    @Test
+    public void canParseCRLFContent()
+    {
+        String content = 
+       "BEGIN:VCALENDAR\r\n" +
+       "VERSION:2.0\r\n" +
+       "BEGIN:VEVENT\r\n" +
+       "UID:19970610T172345Z-AF23B2@example.com\r\n" +
+       "SUMMARY:Bastille Day \r\n" +
+       " Party\r\n" +
+       "END:VEVENT\r\n" +
+       "END:VCALENDAR\r\n";
+        VCalendar vCalendar = VCalendar.parse(content);
+        assertEquals(1, vCalendar.getVEvents().size());
+        assertEquals("Bastille Day Party", vCalendar.getVEvents().get(0).getSummary().getValue());
+        assertEquals(Version.parse("2.0"), vCalendar.getVersion());
+    }
+    
+    @Test
+    public void canParseReaderWithMixedLineEndings() throws IOException
+    {
+        String content = 
+       "BEGIN:VCALENDAR\r" +
+       "VERSION:2.0\n" +
+       "BEGIN:VEVENT\r\n" +
+       "UID:19970610T172345Z-AF23B2@example.com\r" +
+       "SUMMARY:Bastille Day \n" +
+       "\tParty\r\n" +
+       "END:VEVENT\n" +
+       "END:VCALENDAR";
+        VCalendar vCalendar = VCalendar.parse(new StringReader(content));
+        assertEquals(1, vCalendar.getVEvents().size());
+        assertEquals("Bastille Day Party", vCalendar.getVEvents().get(0).getSummary().getValue());
+        assertEquals("19970610T172345Z-AF23B2@example.com", vCalendar.getVEvents().get(0).getUniqueIdentifier().getValue());
+    }
+    
+    @Test
+    public void canParseInputStream() throws IOException
+    {
+        String content = 
+       "BEGIN:VCALENDAR\r\n" +
+       "BEGIN:VEVENT\r\n" +
+       "SUMMARY:Caf\u00e9 \u65e5\u672c\r\n" +
+       "END:VEVENT\r\n" +
+       "END:VCALENDAR\r\n";
+        VCalendar vCalendar = VCalendar.parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("Caf\u00e9 \u65e5\u672c", vCalendar.getVEvents().get(0).getSummary().getValue());
+    }
+    
+    @Test
+    public void canParseMemoryMappedFile() throws IOException
+    {
+        String content = 
+       "BEGIN:VCALENDAR\r\n" +
+       "BEGIN:VEVENT\r\n" +
+       "SUMMARY:Caf\u00e9 \u65e5\u672c \ud83d\ude00\r\n" +
+       "DESCRIPTION:folded\r\n" +
+       "  line\r\n" +
+       "END:VEVENT\r\n" +
+       "END:VCALENDAR\r\n";
+        Path file = Files.createTempFile("mapped", ".ics");
+        try
+        {
+            Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+            VCalendar vCalendar = VCalendar.parse(file, true);
+            assertEquals("Caf\u00e9 \u65e5\u672c \ud83d\ude00", vCalendar.getVEvents().get(0).getSummary().getValue());
+            assertEquals("folded line", vCalendar.getVEvents().get(0).getDescription().getValue());
+            
+            // small windows split multi-byte characters across mappings
+            StringBuilder builder = new StringBuilder();
+            try (Reader reader = new MappedFileReader(file, 5))
+            {
+                char[] buffer = new char[3];
+                int count;
+                while ((count = reader.read(buffer, 0, (builder.length() % 2 == 0) ? 1 : buffer.length)) != -1)
+                {
+                    builder.append(buffer, 0, count);
+                }
+            }
+            assertEquals(content, builder.toString());
+        } finally
+        {
+            Files.delete(file);
+        }
+    }
+    
+    @Test
+    public void canShareRepeatedValues() throws IOException
+    {
+        StringBuilder builder = new StringBuilder();
+        builder.append("BEGIN:VCALENDAR\r\n");
+        for (int i=0; i<2; i++)
+        {
+            builder.append("BEGIN:VEVENT\r\n" +
+                    "UID:" + i + "@jfxtras.org\r\n" +
+                    "DTSTART;TZID=America/New_York:2016051" + i + "T100000\r\n" +
+                    "CATEGORIES;LANGUAGE=en:group03,group04\r\n" +
+                    "X-CUSTOM;X-PARAM=same:shared value\r\n" +
+                    "END:VEVENT\r\n");
+        }
+        builder.append("END:VCALENDAR\r\n");
+        InterningPool interningPool = new InterningPool();
+        VCalendar vCalendar = VCalendar.parse(new StringReader(builder.toString()), interningPool);
+        VEvent vEvent0 = vCalendar.getVEvents().get(0);
+        VEvent vEvent1 = vCalendar.getVEvents().get(1);
+        assertEquals(VCalendar.parse(new StringReader(builder.toString())), vCalendar);
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2016, 5, 10, 10, 0), ZoneId.of("America/New_York")), vEvent0.getDateTimeStart().getValue());
+        assertSame(((ZonedDateTime) vEvent0.getDateTimeStart().getValue()).getZone(), ((ZonedDateTime) vEvent1.getDateTimeStart().getValue()).getZone());
+        assertSame(vEvent0.getCategories().get(0).getValue().get(1), vEvent1.getCategories().get(0).getValue().get(1));
+        assertSame(vEvent0.getCategories().get(0).getLanguage().getValue(), vEvent1.getCategories().get(0).getLanguage().getValue());
+        assertSame(vEvent0.getNonStandard().get(0).getValue(), vEvent1.getNonStandard().get(0).getValue());
+        assertSame(vEvent0.getNonStandard().get(0).name(), vEvent1.getNonStandard().get(0).name());
+        assertNull(InterningPool.current());
+    }
+
+    @Test
+    public void canSkipUniqueValuesWhenInterning() throws IOException
+    {
+        StringBuilder builder = new StringBuilder();
+        builder.append("BEGIN:VCALENDAR\r\n");
+        for (int i=0; i<100; i++)
+        {
+            builder.append("BEGIN:VEVENT\r\n" +
+                    "UID:" + i + "@jfxtras.org\r\n" +
+                    "DTSTAMP:201605" + (10 + i % 20) + "T1000" + (10 + i % 50) + "Z\r\n" +
+                    "DESCRIPTION:Description " + i + "\r\n" +
+                    "STATUS:CONFIRMED\r\n" +
+                    "END:VEVENT\r\n");
+        }
+        builder.append("END:VCALENDAR\r\n");
+        InterningPool interningPool = new InterningPool();
+        VCalendar vCalendar = VCalendar.parse(new StringReader(builder.toString()), interningPool);
+        assertEquals(100, vCalendar.getVEvents().size());
+        assertTrue(interningPool.size() < 10);
+    }
+
+    @Test
+    public void canCapInterningPool()
+    {
+        InterningPool interningPool = new InterningPool(2);
+        String a = interningPool.intern(new String("a"));
+        String b = interningPool.intern(new String("b"));
+        String c = new String("c");
+        assertSame(c, interningPool.intern(c));
+        assertSame(a, interningPool.intern(new String("a")));
+        assertSame(b, interningPool.intern(new String("b")));
+        assertEquals(2, interningPool.size());
+    }
+
+    @Test
+    public void canParseComponentsInParallel() throws IOException
+    {
+        StringBuilder builder = new StringBuilder(100000);
+        builder.append("BEGIN:VCALENDAR\r\n" +
+                "VERSION:2.0\r\n" +
+                "PRODID:-//hacksw/handcal//NONSGML v1.0//EN\r\n" +
+                "BEGIN:VTIMEZONE\r\n" +
+                "TZID:America/New_York\r\n" +
+                "BEGIN:STANDARD\r\n" +
+                "DTSTART:20071104T020000\r\n" +
+                "TZOFFSETFROM:-0400\r\n" +
+                "TZOFFSETTO:-0500\r\n" +
+                "END:STANDARD\r\n" +
+                "END:VTIMEZONE\r\n");
+        for (int i=0; i<500; i++)
+        {
+            builder.append("BEGIN:" + ((i % 3 == 0) ? "VTODO" : "VEVENT") + "\r\n" +
+                    "UID:" + i + "@example.com\r\n" +
+                    "DTSTART;TZID=America/New_York:20160306T" + String.format("%02d", i % 24) + "0000\r\n" +
+                    "SUMMARY:Component " + i + "\r\n" +
+                    "BEGIN:VALARM\r\n" +
+                    "ACTION:DISPLAY\r\n" +
+                    "DESCRIPTION:Alarm " + i + "\r\n" +
+                    "TRIGGER:-PT15M\r\n" +
+                    "END:VALARM\r\n" +
+                    "END:" + ((i % 3 == 0) ? "VTODO" : "VEVENT") + "\r\n");
+            if (i == 250)
+            {
+                builder.append("X-WR-CALNAME:Middle\r\n");
+            }
+        }
+        builder.append("END:VCALENDAR\r\n");
+        String content = builder.toString();
+        
+        VCalendar expectedVCalendar = VCalendar.parse(new StringReader(content));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        VCalendar vCalendar = VCalendar.parse(new StringReader(content), pool);
+        pool.shutdown();
+        assertEquals(333, vCalendar.getVEvents().size());
+        assertEquals(167, vCalendar.getVTodos().size());
+        assertEquals(expectedVCalendar.childrenUnmodifiable(), vCalendar.childrenUnmodifiable());
+        assertEquals(expectedVCalendar.toString(), vCalendar.toString());
+    }
 }
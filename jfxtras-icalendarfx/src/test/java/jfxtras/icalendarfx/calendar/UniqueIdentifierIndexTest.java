@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.components.VEvent;
+import jfxtras.icalendarfx.components.VTodo;
+
+/**
+ * Tests finding components by UID, and keeping the UID index up to date
+ */
+public class UniqueIdentifierIndexTest
+{
+    private static final String CONTENT = "BEGIN:VCALENDAR" + System.lineSeparator() +
+            "VERSION:2.0" + System.lineSeparator() +
+            "PRODID:-//hacksw/handcal//NONSGML v1.0//EN" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:daily@jfxtras.org" + System.lineSeparator() +
+            "DTSTART:20160104T100000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "RRULE:FREQ=DAILY" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VTODO" + System.lineSeparator() +
+            "UID:daily@jfxtras.org" + System.lineSeparator() +
+            "DTSTART:20160104T100000" + System.lineSeparator() +
+            "END:VTODO" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:daily@jfxtras.org" + System.lineSeparator() +
+            "DTSTART:20160105T140000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "RECURRENCE-ID:20160105T100000" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:other@jfxtras.org" + System.lineSeparator() +
+            "DTSTART:20160104T120000" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "END:VCALENDAR";
+    
+    @Test
+    public void canFindComponentsByUniqueIdentifier()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VEvent parent = vCalendar.getVEvents().get(0);
+        VEvent child = vCalendar.getVEvents().get(1);
+        VTodo vTodo = vCalendar.getVTodos().get(0);
+        assertEquals(Arrays.asList(parent, child, vTodo), vCalendar.getVDisplayables("daily@jfxtras.org"));
+        assertEquals(Arrays.asList(vCalendar.getVEvents().get(2)), vCalendar.getVDisplayables("other@jfxtras.org"));
+        assertTrue(vCalendar.getVDisplayables("missing@jfxtras.org").isEmpty());
+        
+        // VTODO with same UID isn't related to the VEVENTs
+        assertEquals(Arrays.asList(child), parent.recurrenceChildren());
+        assertEquals(parent, child.recurrenceParent());
+        assertTrue(vTodo.recurrenceChildren().isEmpty());
+    }
+    
+    @Test
+    public void canUpdateUniqueIdentifierIndex()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VEvent parent = vCalendar.getVEvents().get(0);
+        VEvent child = vCalendar.getVEvents().get(1);
+        assertEquals(Arrays.asList(child), parent.recurrenceChildren());
+        
+        // new child
+        VEvent child2 = new VEvent()
+                .withUniqueIdentifier("daily@jfxtras.org")
+                .withDateTimeStart(LocalDateTime.of(2016, 1, 6, 14, 0))
+                .withRecurrenceId(LocalDateTime.of(2016, 1, 6, 10, 0));
+        vCalendar.addChild(child2);
+        assertEquals(Arrays.asList(child, child2), parent.recurrenceChildren());
+        
+        // removed child
+        vCalendar.removeChild(child);
+        assertEquals(Arrays.asList(child2), parent.recurrenceChildren());
+        assertEquals(3, vCalendar.getVDisplayables("daily@jfxtras.org").size());
+        
+        // new UID
+        child2.setUniqueIdentifier("other@jfxtras.org");
+        assertTrue(parent.recurrenceChildren().isEmpty());
+        assertEquals(2, vCalendar.getVDisplayables("other@jfxtras.org").size());
+        VEvent other = (VEvent) vCalendar.getVDisplayables("other@jfxtras.org").get(0);
+        assertEquals(other, child2.recurrenceParent());
+        assertEquals(Arrays.asList(child2), other.recurrenceChildren());
+        
+        // component added to the list directly
+        VEvent child3 = new VEvent()
+                .withUniqueIdentifier("daily@jfxtras.org")
+                .withDateTimeStart(LocalDateTime.of(2016, 1, 7, 14, 0))
+                .withRecurrenceId(LocalDateTime.of(2016, 1, 7, 10, 0));
+        child3.setParent(vCalendar);
+        vCalendar.getVEvents().add(child3);
+        assertEquals(Arrays.asList(child3), parent.recurrenceChildren());
+        assertEquals(parent, child3.recurrenceParent());
+    }
+    
+    @Test
+    public void canFollowUniqueIdentifierChangedInPlace()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VEvent parent = vCalendar.getVEvents().get(0);
+        VEvent child = vCalendar.getVEvents().get(1);
+        assertEquals(Arrays.asList(child), parent.recurrenceChildren());
+        
+        child.getUniqueIdentifier().setValue("b@x");
+        assertTrue(parent.recurrenceChildren().isEmpty());
+        assertEquals(Arrays.asList(child), vCalendar.getVDisplayables("b@x"));
+        assertEquals(2, vCalendar.getVDisplayables("daily@jfxtras.org").size());
+    }
+    
+    @Test
+    public void canFollowComponentListEditedDirectly()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VEvent parent = vCalendar.getVEvents().get(0);
+        VEvent child = vCalendar.getVEvents().get(1);
+        assertEquals(Arrays.asList(child), parent.recurrenceChildren());
+        
+        // removed and added without the calendar, so the number of components is the same
+        VEvent child2 = new VEvent()
+                .withUniqueIdentifier("daily@jfxtras.org")
+                .withDateTimeStart(LocalDateTime.of(2016, 1, 6, 14, 0))
+                .withRecurrenceId(LocalDateTime.of(2016, 1, 6, 10, 0));
+        child2.setParent(vCalendar);
+        vCalendar.getVEvents().remove(child);
+        vCalendar.getVEvents().add(child2);
+        assertEquals(Arrays.asList(child2), parent.recurrenceChildren());
+    }
+    
+    @Test
+    public void canFollowComponentReplacedInMiddle()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VEvent parent = vCalendar.getVEvents().get(0);
+        VEvent child = vCalendar.getVEvents().get(1);
+        VTodo vTodo = vCalendar.getVTodos().get(0);
+        assertEquals(Arrays.asList(child), parent.recurrenceChildren());
+        
+        // same number of components, replaced through the calendar
+        VEvent replacement = new VEvent()
+                .withUniqueIdentifier("new@jfxtras.org")
+                .withDateTimeStart(LocalDateTime.of(2016, 1, 6, 14, 0));
+        int index = vCalendar.childrenUnmodifiable().indexOf(child);
+        vCalendar.replaceChild(index, replacement);
+        assertEquals(Arrays.asList(parent, vTodo), vCalendar.getVDisplayables("daily@jfxtras.org"));
+        assertEquals(Arrays.asList(replacement), vCalendar.getVDisplayables("new@jfxtras.org"));
+        assertTrue(parent.recurrenceChildren().isEmpty());
+    }
+}
@@ -27,11 +27,13 @@
 package jfxtras.icalendarfx.calendar;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.time.LocalDateTime;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -39,6 +41,7 @@ import org.junit.Test;
 
 import jfxtras.icalendarfx.ICalendarTestAbstract;
 import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.components.VDisplayable;
 import jfxtras.icalendarfx.components.VEvent;
 
 public class VCalendarRecurrenceIDTest extends ICalendarTestAbstract
@@ -135,5 +138,35 @@ public class VCalendarRecurrenceIDTest extends ICalendarTestAbstract
             assertEquals(expectedRecurrences, madeRecurrences);
         }
     }
+    
+    @Test
+    public void canUpdateRecurrenceChildrenWhenCalendarChanges()
+    {
+        VEvent parent = getYearly1();
+        VEvent child = getRecurrenceForYearly1();
+        VEvent child2 = getRecurrenceForYearly2();
+        VCalendar c = new VCalendar()
+                .withVEvents(parent, child, child2);
+        List<VDisplayable<?>> children = parent.recurrenceChildren();
+        assertEquals(2, children.size());
+        assertSame(children, parent.recurrenceChildren()); // unchanged calendar reuses children
+        
+        // changing UID moves child out of the series
+        child2.setUniqueIdentifier("other@jfxtras.org");
+        assertEquals(Arrays.asList(child), parent.recurrenceChildren());
+        
+        // changing RECURRENCE-ID changes the excluded recurrence
+        child.setRecurrenceId(LocalDateTime.of(2017, 11, 9, 10, 0));
+        List<Temporal> expectedRecurrences = Arrays.asList(
+                LocalDateTime.of(2015, 11, 9, 10, 0),
+                LocalDateTime.of(2016, 11, 9, 10, 0),
+                LocalDateTime.of(2018, 11, 9, 10, 0)
+                );
+        List<Temporal> madeRecurrences = parent.streamRecurrences().limit(3).collect(Collectors.toList());
+        assertEquals(expectedRecurrences, madeRecurrences);
+        
+        c.removeChild(child);
+        assertEquals(Collections.emptyList(), parent.recurrenceChildren());
+    }
 
 }
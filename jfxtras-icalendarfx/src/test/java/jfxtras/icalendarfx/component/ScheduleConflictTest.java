@@ -27,22 +27,32 @@
 package jfxtras.icalendarfx.component;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.time.DayOfWeek;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
 import jfxtras.icalendarfx.ICalendarTestAbstract;
+import jfxtras.icalendarfx.VCalendar;
 import jfxtras.icalendarfx.components.VEvent;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.FrequencyType;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByDay;
 import jfxtras.icalendarfx.properties.component.time.TimeTransparency.TimeTransparencyType;
+import jfxtras.icalendarfx.utilities.BusyTimeIndex;
 import jfxtras.icalendarfx.utilities.DateTimeUtilities;
 
 public class ScheduleConflictTest extends ICalendarTestAbstract
@@ -250,6 +260,150 @@ public class ScheduleConflictTest extends ICalendarTestAbstract
     }
 
     
+    @Test // every overlapping OPAQUE recurrence is found
+    public void canFindAllConflictsWithBusyTimeIndex()
+    {
+        VEvent daily = new VEvent()
+                .withUniqueIdentifier("daily@jfxtras.org")
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 9, 10, 0))
+                .withDuration(Duration.ofHours(1))
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.DAILY));
+        VEvent weekly = new VEvent()
+                .withUniqueIdentifier("weekly@jfxtras.org")
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 13, 9, 0))
+                .withDuration(Duration.ofHours(3))
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.WEEKLY));
+        VEvent transparent = new VEvent()
+                .withUniqueIdentifier("transparent@jfxtras.org")
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 9, 10, 0))
+                .withDuration(Duration.ofHours(1))
+                .withTimeTransparency(TimeTransparencyType.TRANSPARENT)
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.DAILY));
+        VCalendar vCalendar = new VCalendar().withVEvents(daily, weekly, transparent);
+        BusyTimeIndex index = BusyTimeIndex.of(vCalendar, LocalDate.of(2015, 11, 9), LocalDate.of(2015, 11, 23));
+        assertEquals(16, index.size());
+
+        List<String> conflicts = index.conflicts(LocalDateTime.of(2015, 11, 13, 10, 30), LocalDateTime.of(2015, 11, 20, 11, 0))
+                .stream()
+                .map(c -> c.toString())
+                .collect(Collectors.toList());
+        List<String> expectedConflicts = Arrays.asList(
+                "weekly@jfxtras.org, 20151113T090000",
+                "daily@jfxtras.org, 20151113T100000",
+                "daily@jfxtras.org, 20151114T100000",
+                "daily@jfxtras.org, 20151115T100000",
+                "daily@jfxtras.org, 20151116T100000",
+                "daily@jfxtras.org, 20151117T100000",
+                "daily@jfxtras.org, 20151118T100000",
+                "daily@jfxtras.org, 20151119T100000",
+                "weekly@jfxtras.org, 20151120T090000",
+                "daily@jfxtras.org, 20151120T100000"
+                );
+        assertEquals(expectedConflicts, conflicts);
+        assertFalse(index.isBusy(LocalDateTime.of(2015, 11, 14, 11, 0), LocalDateTime.of(2015, 11, 15, 10, 0)));
+
+        VEvent newVEvent = new VEvent()
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 11, 11, 30))
+                .withDuration(Duration.ofHours(1))
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.DAILY)
+                        .withInterval(2));
+        Map<Temporal, List<BusyTimeIndex.Conflict>> newConflicts = index.conflicts(newVEvent);
+        assertEquals(Arrays.asList(LocalDateTime.of(2015, 11, 13, 11, 30)), new ArrayList<>(newConflicts.keySet()));
+        assertEquals(weekly, newConflicts.get(LocalDateTime.of(2015, 11, 13, 11, 30)).get(0).getVEvent());
+    }
+    
+    @Test // index follows added, removed and changed events
+    public void canUpdateBusyTimeIndex()
+    {
+        VEvent daily = new VEvent()
+                .withUniqueIdentifier("daily@jfxtras.org")
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 9, 10, 0))
+                .withDuration(Duration.ofHours(1))
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.DAILY));
+        VCalendar vCalendar = new VCalendar().withVEvents(daily);
+        BusyTimeIndex index = BusyTimeIndex.of(vCalendar, LocalDate.of(2015, 11, 9), LocalDate.of(2015, 11, 16));
+        assertEquals(7, index.size());
+        assertFalse(index.isBusy(LocalDateTime.of(2015, 11, 10, 11, 0), LocalDateTime.of(2015, 11, 10, 12, 0)));
+        
+        daily.setDuration(Duration.ofHours(2));
+        index.update(vCalendar);
+        assertTrue(index.isBusy(LocalDateTime.of(2015, 11, 10, 11, 0), LocalDateTime.of(2015, 11, 10, 12, 0)));
+        
+        VEvent individual = new VEvent()
+                .withUniqueIdentifier("individual@jfxtras.org")
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 10, 15, 0))
+                .withDuration(Duration.ofHours(1));
+        vCalendar.addChild(individual);
+        index.update(vCalendar);
+        assertEquals(8, index.size());
+        assertTrue(index.contains(individual));
+        assertTrue(index.isBusy(LocalDateTime.of(2015, 11, 10, 15, 30), LocalDateTime.of(2015, 11, 10, 16, 0)));
+        
+        vCalendar.removeChild(daily);
+        index.update(vCalendar);
+        assertEquals(1, index.size());
+        assertFalse(index.contains(daily));
+        assertFalse(index.isBusy(LocalDateTime.of(2015, 11, 10, 11, 0), LocalDateTime.of(2015, 11, 10, 12, 0)));
+        
+        index.remove(individual);
+        assertEquals(0, index.size());
+        assertTrue(index.conflicts(LocalDate.of(2015, 11, 9), LocalDate.of(2015, 11, 16)).isEmpty());
+    }
+    
+    @Test // intervals of events added after a query are merged in order of start, then of adding
+    public void canMergeAddedEventsIntoBusyTimeIndex()
+    {
+        ZoneId zone = ZoneId.of("America/New_York");
+        // 02:00 and 02:30 are in the daylight saving time gap, so they start at the same instants as 03:00 and 03:30
+        VEvent gap = new VEvent()
+                .withUniqueIdentifier("gap@jfxtras.org")
+                .withDateTimeStart(LocalDateTime.of(2016, 3, 13, 1, 30))
+                .withDuration(Duration.ofMinutes(10))
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.MINUTELY)
+                        .withInterval(30)
+                        .withCount(5));
+        BusyTimeIndex index = new BusyTimeIndex(LocalDate.of(2016, 3, 13), LocalDate.of(2016, 3, 14), zone);
+        index.add(gap);
+        assertTrue(index.isBusy(LocalDateTime.of(2016, 3, 13, 3, 0), LocalDateTime.of(2016, 3, 13, 3, 5)));
+        
+        VEvent individual = new VEvent()
+                .withUniqueIdentifier("individual@jfxtras.org")
+                .withDateTimeStart(LocalDateTime.of(2016, 3, 13, 3, 0))
+                .withDuration(Duration.ofMinutes(10));
+        index.add(individual);
+        List<String> conflicts = index.conflicts(LocalDate.of(2016, 3, 13), LocalDate.of(2016, 3, 14))
+                .stream()
+                .map(c -> c.toString())
+                .collect(Collectors.toList());
+        List<String> expectedConflicts = Arrays.asList(
+                "gap@jfxtras.org, 20160313T013000",
+                "gap@jfxtras.org, 20160313T020000",
+                "gap@jfxtras.org, 20160313T030000",
+                "individual@jfxtras.org, 20160313T030000",
+                "gap@jfxtras.org, 20160313T023000",
+                "gap@jfxtras.org, 20160313T033000"
+                );
+        assertEquals(expectedConflicts, conflicts);
+        
+        index.add(gap); // re-expanded event keeps its place among equal starts
+        assertEquals(expectedConflicts, index.conflicts(LocalDate.of(2016, 3, 13), LocalDate.of(2016, 3, 14))
+                .stream()
+                .map(c -> c.toString())
+                .collect(Collectors.toList()));
+        
+        index.remove(individual);
+        assertEquals(5, index.conflicts(LocalDate.of(2016, 3, 13), LocalDate.of(2016, 3, 14)).size());
+        assertFalse(index.conflicts(LocalDate.of(2016, 3, 13), LocalDate.of(2016, 3, 14))
+                .stream()
+                .anyMatch(c -> c.getVEvent() == individual));
+    }
+    
 //    @Test
 //    public void canDetectScheduleConflictDuringImport()
 //    {
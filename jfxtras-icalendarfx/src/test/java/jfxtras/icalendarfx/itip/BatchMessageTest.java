@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.itip;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.properties.calendar.Version;
+
+public class BatchMessageTest
+{
+    private static VCalendar message(String method, String uid, int sequence, String summary)
+    {
+        return VCalendar.parse(
+                "BEGIN:VCALENDAR" + System.lineSeparator() +
+                "METHOD:" + method + System.lineSeparator() +
+                "PRODID:-//Example/ExampleCalendarClient//EN" + System.lineSeparator() + 
+                "VERSION:" + Version.DEFAULT_ICALENDAR_SPECIFICATION_VERSION + System.lineSeparator() +
+                "BEGIN:VEVENT" + System.lineSeparator() +
+                "DTSTART:20151109T100000" + System.lineSeparator() +
+                "DTEND:20151109T110000" + System.lineSeparator() +
+                "SUMMARY:" + summary + System.lineSeparator() +
+                "DTSTAMP:20150110T080000Z" + System.lineSeparator() +
+                "UID:" + uid + System.lineSeparator() +
+                "ORGANIZER;CN=Papa Smurf:mailto:papa@smurf.org" + System.lineSeparator() +
+                "SEQUENCE:" + sequence + System.lineSeparator() +
+                "END:VEVENT" + System.lineSeparator() +
+                "END:VCALENDAR");
+    }
+    
+    @Test
+    public void canSkipSupersededMessages()
+    {
+        VCalendar mainVCalendar = new VCalendar();
+        List<Set<String>> notifications = new ArrayList<>();
+        mainVCalendar.setITIPBatchConsumer(uids -> notifications.add(uids));
+        
+        List<String> log = mainVCalendar.processITIPMessageBatch(Arrays.asList(
+                message("PUBLISH", "a@jfxtras.org", 1, "first"),
+                message("PUBLISH", "b@jfxtras.org", 0, "other"),
+                message("PUBLISH", "a@jfxtras.org", 2, "second"),
+                message("PUBLISH", "a@jfxtras.org", 3, "third")
+                ));
+        
+        assertEquals(2, log.stream().filter(s -> s.startsWith("SKIPPED")).count());
+        assertEquals(2, mainVCalendar.getVEvents().size());
+        assertEquals("other", mainVCalendar.getVDisplayables("b@jfxtras.org").get(0).getSummary().getValue());
+        assertEquals("third", mainVCalendar.getVDisplayables("a@jfxtras.org").get(0).getSummary().getValue());
+        assertEquals(1, notifications.size());
+        assertEquals(Arrays.asList("a@jfxtras.org", "b@jfxtras.org"), new ArrayList<>(notifications.get(0)));
+    }
+    
+    @Test
+    public void canReportOnlyProcessedMessagesAfterFailure()
+    {
+        VCalendar mainVCalendar = new VCalendar();
+        List<Set<String>> notifications = new ArrayList<>();
+        mainVCalendar.setITIPBatchConsumer(uids -> notifications.add(uids));
+        
+        try
+        {
+            mainVCalendar.processITIPMessageBatch(Arrays.asList(
+                    message("PUBLISH", "a@jfxtras.org", 1, "superseded"),
+                    message("PUBLISH", "c@jfxtras.org", 0, "processed"),
+                    message("REFRESH", "b@jfxtras.org", 0, "not implemented"),
+                    message("PUBLISH", "a@jfxtras.org", 2, "never processed")
+                    ));
+            fail("REFRESH isn't implemented");
+        } catch (RuntimeException e)
+        {
+            // expected
+        }
+        
+        assertEquals(1, mainVCalendar.getVEvents().size());
+        assertEquals(1, notifications.size());
+        assertEquals(Arrays.asList("c@jfxtras.org"), new ArrayList<>(notifications.get(0)));
+    }
+    
+    @Test
+    public void canSkipCanceledMessages()
+    {
+        VCalendar mainVCalendar = new VCalendar();
+        List<String> log = mainVCalendar.processITIPMessageBatch(Arrays.asList(
+                message("PUBLISH", "a@jfxtras.org", 0, "first"),
+                message("PUBLISH", "b@jfxtras.org", 0, "other"),
+                message("CANCEL", "a@jfxtras.org", 1, "first")
+                ));
+        
+        assertEquals(1, log.stream().filter(s -> s.startsWith("SKIPPED")).count());
+        assertEquals(1, mainVCalendar.getVEvents().size());
+        assertTrue(mainVCalendar.getVDisplayables("a@jfxtras.org").isEmpty());
+    }
+    
+    @Test
+    public void canKeepMessagesNotSuperseded()
+    {
+        ITIPMessageBatch batch = new ITIPMessageBatch(Arrays.asList(
+                message("PUBLISH", "a@jfxtras.org", 2, "first"),
+                message("PUBLISH", "a@jfxtras.org", 1, "lower sequence"),
+                message("REQUEST", "b@jfxtras.org", 0, "request"),
+                message("PUBLISH", "b@jfxtras.org", 0, "publish"),
+                message("PUBLISH", "c@jfxtras.org", 0, "publish"),
+                message("REQUEST", "c@jfxtras.org", 1, "request")
+                ));
+        assertFalse(batch.isSuperseded(0)); // lower SEQUENCE doesn't replace
+        assertFalse(batch.isSuperseded(1));
+        assertTrue(batch.isSuperseded(2));
+        assertFalse(batch.isSuperseded(3));
+        assertFalse(batch.isSuperseded(4)); // REQUEST needs the published UID
+        assertFalse(batch.isSuperseded(5));
+        assertEquals(5, batch.remainingMessages().size());
+    }
+}
@@ -115,4 +115,37 @@ public class CancelRecurrenceTest
         mainVCalendar.processITIPMessage(iTIPMessage);
         assertEquals(0, vComponents.size());
     }
+    
+    @Test // cancel a recurrence child with matching RECURRENCE-ID
+    public void canDeleteRecurrenceChild()
+    {
+        VCalendar mainVCalendar = new VCalendar();
+        VEvent vComponentOriginal = ICalendarStaticComponents.getDaily1();
+        VEvent vComponentRecurrence = ICalendarStaticComponents.getDaily1()
+                .withRecurrenceRule((RecurrenceRuleValue) null)
+                .withRecurrenceId(LocalDateTime.of(2016, 5, 17, 10, 0))
+                .withSummary("recurrence summary")
+                .withDateTimeStart(LocalDateTime.of(2016, 5, 17, 8, 30))
+                .withDateTimeEnd(LocalDateTime.of(2016, 5, 17, 9, 30));
+        mainVCalendar.addChild(vComponentOriginal);
+        mainVCalendar.addChild(vComponentRecurrence);
+        assertEquals(Arrays.asList(vComponentRecurrence), vComponentOriginal.recurrenceChildren());
+        
+        String iTIPMessage =
+                "BEGIN:VCALENDAR" + System.lineSeparator() +
+                "METHOD:CANCEL" + System.lineSeparator() +
+                "PRODID:-//Example/ExampleCalendarClient//EN" + System.lineSeparator() + 
+                "VERSION:" + Version.DEFAULT_ICALENDAR_SPECIFICATION_VERSION + System.lineSeparator() +
+                "BEGIN:VEVENT" + System.lineSeparator() +
+                "DTSTAMP:20150110T080000Z" + System.lineSeparator() +
+                "UID:20150110T080000-004@jfxtras.org" + System.lineSeparator() +
+                "ORGANIZER;CN=Papa Smurf:mailto:papa@smurf.org" + System.lineSeparator() +
+                "RECURRENCE-ID:20160517T100000" + System.lineSeparator() +
+                "STATUS:CANCELLED" + System.lineSeparator() +
+                "END:VEVENT" + System.lineSeparator() +
+                "END:VCALENDAR";
+        mainVCalendar.processITIPMessage(iTIPMessage);
+        assertEquals(Arrays.asList(vComponentOriginal), mainVCalendar.getVEvents());
+        assertEquals(Arrays.asList(), vComponentOriginal.recurrenceChildren());
+    }
 }
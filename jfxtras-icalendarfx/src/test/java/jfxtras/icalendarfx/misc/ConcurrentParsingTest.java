@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.misc;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.components.VEvent;
+
+/**
+ * Parses on many threads at once to verify the shared metadata caches
+ * (child accessors, element constructors) are thread-safe
+ */
+public class ConcurrentParsingTest
+{
+    private static final String CONTENT = "BEGIN:VCALENDAR" + System.lineSeparator() +
+            "VERSION:2.0" + System.lineSeparator() +
+            "PRODID:-//hacksw/handcal//NONSGML v1.0//EN" + System.lineSeparator() +
+            "BEGIN:VTIMEZONE" + System.lineSeparator() +
+            "TZID:America/New_York" + System.lineSeparator() +
+            "BEGIN:STANDARD" + System.lineSeparator() +
+            "DTSTART:20071104T020000" + System.lineSeparator() +
+            "RRULE:FREQ=YEARLY;BYMONTH=11;BYDAY=1SU" + System.lineSeparator() +
+            "TZOFFSETFROM:-0400" + System.lineSeparator() +
+            "TZOFFSETTO:-0500" + System.lineSeparator() +
+            "END:STANDARD" + System.lineSeparator() +
+            "BEGIN:DAYLIGHT" + System.lineSeparator() +
+            "DTSTART:20070311T020000" + System.lineSeparator() +
+            "RRULE:FREQ=YEARLY;BYMONTH=3;BYDAY=2SU" + System.lineSeparator() +
+            "TZOFFSETFROM:-0500" + System.lineSeparator() +
+            "TZOFFSETTO:-0400" + System.lineSeparator() +
+            "END:DAYLIGHT" + System.lineSeparator() +
+            "END:VTIMEZONE" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:20150110T080000-0@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20151109T100000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "ATTENDEE;ROLE=REQ-PARTICIPANT;RSVP=TRUE:mailto:jdoe@example.com" + System.lineSeparator() +
+            "CATEGORIES:group03,group04" + System.lineSeparator() +
+            "RRULE:FREQ=MONTHLY;BYDAY=MO,TU;BYSETPOS=1,-1;COUNT=10" + System.lineSeparator() +
+            "EXDATE;TZID=America/New_York:20151110T100000" + System.lineSeparator() +
+            "BEGIN:VALARM" + System.lineSeparator() +
+            "ACTION:DISPLAY" + System.lineSeparator() +
+            "DESCRIPTION:Reminder" + System.lineSeparator() +
+            "TRIGGER;RELATED=START:-PT15M" + System.lineSeparator() +
+            "END:VALARM" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VTODO" + System.lineSeparator() +
+            "UID:20150110T080000-1@jfxtras.org" + System.lineSeparator() +
+            "DUE;VALUE=DATE:20160307" + System.lineSeparator() +
+            "STATUS:NEEDS-ACTION" + System.lineSeparator() +
+            "X-CUSTOM-PROP:THE DATA" + System.lineSeparator() +
+            "END:VTODO" + System.lineSeparator() +
+            "BEGIN:VJOURNAL" + System.lineSeparator() +
+            "UID:20150110T080000-2@jfxtras.org" + System.lineSeparator() +
+            "SUMMARY:Journal" + System.lineSeparator() +
+            "END:VJOURNAL" + System.lineSeparator() +
+            "END:VCALENDAR";
+
+    @Test
+    public void canParseOnManyThreads() throws Exception
+    {
+        int threads = 8;
+        int iterations = 50;
+        ExecutorService service = Executors.newFixedThreadPool(threads);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int i=0; i<threads; i++)
+        {
+            Callable<List<String>> task = () ->
+            {
+                startSignal.await();
+                List<String> results = new ArrayList<>();
+                for (int j=0; j<iterations; j++)
+                {
+                    VCalendar vCalendar = VCalendar.parse(CONTENT);
+                    VEvent copy = new VEvent(vCalendar.getVEvents().get(0));
+                    assertEquals(vCalendar.getVEvents().get(0), copy);
+                    results.add(vCalendar.toString());
+                }
+                return results;
+            };
+            futures.add(service.submit(task));
+        }
+        startSignal.countDown();
+        for (Future<List<String>> future : futures)
+        {
+            List<String> results = future.get();
+            assertEquals(iterations, results.size());
+            results.forEach(r -> assertEquals(CONTENT, r));
+        }
+        service.shutdown();
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.misc;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.components.VEvent;
+
+/**
+ * Expands the recurrences of one shared VEVENT on many threads at once, and in nested
+ * iterations on one thread, to verify recurrence expansion and its cache are re-entrant
+ */
+public class ConcurrentRecurrenceTest
+{
+    private static final String CONTENT = "BEGIN:VCALENDAR" + System.lineSeparator() +
+            "VERSION:2.0" + System.lineSeparator() +
+            "PRODID:-//hacksw/handcal//NONSGML v1.0//EN" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:20150110T080000-0@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20150105T100000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR" + System.lineSeparator() +
+            "EXDATE;TZID=America/New_York:20150107T100000" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:20150110T080000-0@jfxtras.org" + System.lineSeparator() +
+            "DTSTART;TZID=America/New_York:20150112T140000" + System.lineSeparator() +
+            "DURATION:PT1H" + System.lineSeparator() +
+            "RECURRENCE-ID;TZID=America/New_York:20150112T100000" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "END:VCALENDAR";
+    
+    private static final ZonedDateTime FIRST_START = ZonedDateTime.of(LocalDateTime.of(2015, 1, 5, 10, 0), ZoneId.of("America/New_York"));
+    
+    /* Expected recurrences, made from a calendar that is never shared */
+    private static List<Temporal> expectedRecurrences(Temporal start, Temporal end)
+    {
+        VEvent vEvent = VCalendar.parse(CONTENT).getVEvents().get(0);
+        return vEvent.streamRecurrences(start, end).collect(Collectors.toList());
+    }
+    
+    @Test
+    public void canStreamRecurrencesOnManyThreads() throws Exception
+    {
+        VEvent vEvent = VCalendar.parse(CONTENT).getVEvents().get(0);
+        int threads = 16;
+        int iterations = 100;
+        List<Temporal> expected = expectedRecurrences(FIRST_START, FIRST_START.plusYears(21));
+        ExecutorService service = Executors.newFixedThreadPool(threads);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i=0; i<threads; i++)
+        {
+            int threadNumber = i;
+            Callable<Void> task = () ->
+            {
+                startSignal.await();
+                for (int j=0; j<iterations; j++)
+                {
+                    // each thread uses different windows, so the cache is extended and read at the same time
+                    ZonedDateTime start = FIRST_START.plusWeeks((threadNumber * 37 + j * 11) % 1000);
+                    ZonedDateTime end = start.plusMonths(1 + (j % 6));
+                    List<Temporal> recurrences = vEvent.streamRecurrences(start, end).collect(Collectors.toList());
+                    List<Temporal> expectedWindow = expected.stream()
+                            .filter(t -> ! ((ZonedDateTime) t).isBefore(start) && ((ZonedDateTime) t).isBefore(end))
+                            .collect(Collectors.toList());
+                    assertEquals(expectedWindow, recurrences);
+                }
+                return null;
+            };
+            futures.add(service.submit(task));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures)
+        {
+            future.get();
+        }
+        service.shutdown();
+        assertEquals(expected, vEvent.streamRecurrences(FIRST_START, FIRST_START.plusYears(21)).collect(Collectors.toList()));
+    }
+    
+    @Test
+    public void canNestRecurrenceStreams()
+    {
+        VEvent vEvent = VCalendar.parse(CONTENT).getVEvents().get(0);
+        ZonedDateTime end = FIRST_START.plusYears(2);
+        List<Temporal> expected = expectedRecurrences(FIRST_START, end);
+        Iterator<Temporal> outer = vEvent.streamRecurrences(FIRST_START, end).iterator();
+        int count = 0;
+        while (outer.hasNext())
+        {
+            Temporal t = outer.next();
+            assertEquals(expected.get(count), t);
+            if (count % 25 == 0)
+            { // start an inner expansion part way through the outer one
+                Temporal innerEnd = t.plus(90, ChronoUnit.DAYS);
+                List<Temporal> inner = vEvent.streamRecurrences(t, innerEnd).collect(Collectors.toList());
+                assertEquals(expectedRecurrences(t, innerEnd), inner);
+            }
+            count++;
+        }
+        assertEquals(expected.size(), count);
+    }
+}
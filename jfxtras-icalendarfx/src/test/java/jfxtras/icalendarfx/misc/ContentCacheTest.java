@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.misc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.Test;
+
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.components.VAlarm;
+import jfxtras.icalendarfx.components.VEvent;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceRule;
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
+
+/**
+ * Tests the cached content lines are reused until an element, or one of its descendants, changes
+ */
+public class ContentCacheTest
+{
+    private static final String CONTENT = "BEGIN:VCALENDAR" + System.lineSeparator() +
+            "VERSION:2.0" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:1@jfxtras.org" + System.lineSeparator() +
+            "DTSTART:20151109T100000" + System.lineSeparator() +
+            "SUMMARY:First" + System.lineSeparator() +
+            "RRULE:FREQ=DAILY;COUNT=10" + System.lineSeparator() +
+            "EXDATE:20151110T100000" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "UID:2@jfxtras.org" + System.lineSeparator() +
+            "DTSTART:20151109T120000" + System.lineSeparator() +
+            "ATTENDEE;ROLE=REQ-PARTICIPANT:mailto:jdoe@example.com" + System.lineSeparator() +
+            "SUMMARY:Second" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "END:VCALENDAR";
+
+    @Test
+    public void canReuseUnchangedContent()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VEvent vEvent0 = vCalendar.getVEvents().get(0);
+        VEvent vEvent1 = vCalendar.getVEvents().get(1);
+        String content0 = vEvent0.toString();
+        String content1 = vEvent1.toString();
+        assertSame(content0, vEvent0.toString());
+        
+        vEvent0.setSummary("Changed");
+        assertNotSame(content0, vEvent0.toString());
+        assertTrue(vEvent0.toString().contains("SUMMARY:Changed"));
+        assertSame(content1, vEvent1.toString());
+        assertEquals(CONTENT.replace("SUMMARY:First", "SUMMARY:Changed"), vCalendar.toString());
+    }
+    
+    @Test
+    public void canDetectChangedDescendants()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VEvent vEvent0 = vCalendar.getVEvents().get(0);
+        VEvent vEvent1 = vCalendar.getVEvents().get(1);
+        vCalendar.toString();
+        
+        // collection value changed in place
+        vEvent0.getExceptionDates().get(0).getValue().add(LocalDateTime.of(2015, 11, 11, 10, 0));
+        assertTrue(vEvent0.toString().contains("EXDATE:20151110T100000,20151111T100000"));
+
+        // recurrence rule value changed
+        RecurrenceRuleValue rrule = vEvent0.getRecurrenceRule().getValue();
+        rrule.setCount(5);
+        assertTrue(vEvent0.toString().contains("RRULE:FREQ=DAILY;COUNT=5"));
+        vEvent0.setRecurrenceRule(RecurrenceRule.parse("FREQ=WEEKLY"));
+        assertTrue(vEvent0.toString().contains("RRULE:FREQ=WEEKLY"));
+
+        // parameter changed
+        vEvent1.getAttendees().get(0).getParticipationRole().setValue("OPT-PARTICIPANT");
+        assertTrue(vEvent1.toString().contains("ATTENDEE;ROLE=OPT-PARTICIPANT:mailto:jdoe@example.com"));
+        assertTrue(vCalendar.toString().contains("ATTENDEE;ROLE=OPT-PARTICIPANT:mailto:jdoe@example.com"));
+    }
+    
+    @Test // only components directly in a calendar keep their content, so no line is held twice
+    public void canCacheOnlyTopLevelComponents()
+    {
+        VCalendar vCalendar = VCalendar.parse(CONTENT);
+        VEvent vEvent0 = vCalendar.getVEvents().get(0);
+        vEvent0.withVAlarms(VAlarm.parse("BEGIN:VALARM" + System.lineSeparator() +
+                "ACTION:DISPLAY" + System.lineSeparator() +
+                "TRIGGER:-PT15M" + System.lineSeparator() +
+                "END:VALARM"));
+        VAlarm vAlarm = vEvent0.getVAlarms().get(0);
+        String content0 = vEvent0.toString();
+        assertSame(content0, vEvent0.toString());
+        assertNotSame(vAlarm.toString(), vAlarm.toString());
+        assertNotSame(vCalendar.toString(), vCalendar.toString());
+        
+        // change in a nested component is pushed up to the cached component
+        vAlarm.setDescription("Reminder");
+        assertTrue(vEvent0.toString().contains("DESCRIPTION:Reminder"));
+        
+        VEvent detachedVEvent = new VEvent().withSummary("Detached");
+        assertNotSame(detachedVEvent.toString(), detachedVEvent.toString());
+    }
+}
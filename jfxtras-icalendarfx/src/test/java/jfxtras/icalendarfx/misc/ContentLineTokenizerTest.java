@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.misc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import jfxtras.icalendarfx.content.ContentLineTokenizer;
+import jfxtras.icalendarfx.utilities.ICalendarUtilities;
+
+public class ContentLineTokenizerTest
+{
+    @Test
+    public void canTokenizeContentLine()
+    {
+        String contentLine = "attendee;Role=REQ-PARTICIPANT;DELEGATED-FROM=\"mailto:a;b@example.com\";RSVP;X-MY-PARAM=1:mailto:jdoe@example.com";
+        ContentLineTokenizer tokenizer = new ContentLineTokenizer(contentLine);
+        assertSame("ATTENDEE", tokenizer.propertyName());
+        assertTrue(tokenizer.propertyNameEquals("Attendee"));
+        
+        assertTrue(tokenizer.next());
+        assertSame("ROLE", tokenizer.name());
+        assertEquals("REQ-PARTICIPANT", tokenizer.value());
+        assertEquals("REQ-PARTICIPANT", contentLine.substring(tokenizer.valueStart(), tokenizer.valueEnd()));
+        
+        assertTrue(tokenizer.next());
+        assertSame("DELEGATED-FROM", tokenizer.name());
+        assertEquals("\"mailto:a;b@example.com\"", tokenizer.value());
+        
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.nameEquals("RSVP"));
+        assertFalse(tokenizer.hasValue());
+        assertNull(tokenizer.value());
+        
+        assertTrue(tokenizer.next());
+        assertEquals("X-MY-PARAM", tokenizer.name());
+        assertEquals("1", tokenizer.value());
+        
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.isValue());
+        assertSame(ICalendarUtilities.PROPERTY_VALUE_KEY, tokenizer.name());
+        assertEquals("mailto:jdoe@example.com", tokenizer.value());
+        assertFalse(tokenizer.next());
+    }
+    
+    @Test
+    public void canReuseTokenizer()
+    {
+        ContentLineTokenizer tokenizer = new ContentLineTokenizer();
+        tokenizer.reset("FREQ=DAILY;count=3");
+        assertFalse(tokenizer.hasPropertyName());
+        assertTrue(tokenizer.next());
+        assertSame("FREQ", tokenizer.name());
+        assertTrue(tokenizer.next());
+        assertSame("COUNT", tokenizer.name());
+        assertEquals("3", tokenizer.value());
+        assertFalse(tokenizer.next());
+        
+        tokenizer.resetValue("TZID=Europe/London:20160306T080000");
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.isValue());
+        assertEquals("TZID=Europe/London:20160306T080000", tokenizer.value());
+        assertFalse(tokenizer.next());
+    }
+    
+    @Test
+    public void canInternNames()
+    {
+        String line = "x;dtstart;Vevent";
+        assertSame("DTSTART", ContentLineTokenizer.internName(line, 2, 9));
+        assertSame("VEVENT", ContentLineTokenizer.internName(line, 10, 16));
+        assertNull(ContentLineTokenizer.internName(line, 0, 1));
+    }
+}
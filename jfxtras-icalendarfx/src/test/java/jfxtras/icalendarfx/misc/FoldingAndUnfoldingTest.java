@@ -27,10 +27,28 @@
 package jfxtras.icalendarfx.misc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.Test;
 
+import jfxtras.icalendarfx.VCalendar;
 import jfxtras.icalendarfx.components.VEvent;
+import jfxtras.icalendarfx.content.UnfoldingBufferedReader;
+import jfxtras.icalendarfx.content.UnfoldingStringIterator;
+import jfxtras.icalendarfx.utilities.ICalendarUtilities;
 
 public class FoldingAndUnfoldingTest
 {
@@ -50,4 +68,85 @@ public class FoldingAndUnfoldingTest
         assertEquals(builtComponent, unfoldedComponent);
         assertEquals(foldedContent, builtComponent.toString());
     }
+    
+    @Test
+    public void canUnfoldWithReader() throws IOException
+    {
+        String content = "SUMMARY:first \r\n" +
+                " line\r\n" +
+                "\r\n" +
+                "DESCRIPTION:second\r" +
+                "\t line\n" +
+                " continued";
+        UnfoldingBufferedReader reader = new UnfoldingBufferedReader(new StringReader(content));
+        assertEquals("SUMMARY:first line", reader.readLine());
+        assertEquals("DESCRIPTION:second linecontinued", reader.readLine());
+        assertNull(reader.readLine());
+        reader.close();
+    }
+    
+    @Test
+    public void canUnfoldLastLineWithIterator()
+    {
+        List<String> lines = Arrays.asList("SUMMARY:first ", " line", "");
+        UnfoldingStringIterator iterator = new UnfoldingStringIterator(lines.iterator());
+        List<String> unfoldedLines = new ArrayList<>();
+        iterator.forEachRemaining(unfoldedLines::add);
+        assertEquals(Arrays.asList("SUMMARY:first line"), unfoldedLines);
+    }
+    
+    @Test
+    public void canFoldMultiByteCharactersAtOctets()
+    {
+        // each character is 2 octets in UTF-8, so 33 fit on the first line (8 + 2*33 = 74)
+        String line = "SUMMARY:" + String.join("", Collections.nCopies(50, "\u00e9"));
+        String expectedContent = "SUMMARY:" + String.join("", Collections.nCopies(33, "\u00e9")) + System.lineSeparator() +
+                " " + String.join("", Collections.nCopies(17, "\u00e9"));
+        assertEquals(expectedContent, ICalendarUtilities.foldLine(line).toString());
+        
+        // surrogate pairs are 4 octets and are never split
+        String emoji = "\ud83d\ude00";
+        String line2 = "SUMMARY:" + String.join("", Collections.nCopies(20, emoji));
+        String expectedContent2 = "SUMMARY:" + String.join("", Collections.nCopies(16, emoji)) + System.lineSeparator() +
+                " " + String.join("", Collections.nCopies(4, emoji));
+        assertEquals(expectedContent2, ICalendarUtilities.foldLine(line2).toString());
+    }
+    
+    @Test
+    public void canWriteToAppendable() throws IOException
+    {
+        VCalendar vCalendar = new VCalendar()
+                .withVEvents(new VEvent()
+                        .withSummary("Example")
+                        .withComments("Ek and Lorentzon said they would consider halting investment at their headquarters in Stockholm."));
+        StringWriter writer = new StringWriter();
+        vCalendar.writeTo(writer, "\r\n");
+        assertEquals(vCalendar.toString().replace(System.lineSeparator(), "\r\n"), writer.toString());
+        
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        vCalendar.writeTo(outputStream);
+        VCalendar parsedCalendar = VCalendar.parse(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEquals(vCalendar, parsedCalendar);
+    }
+    
+    @Test // RFC 5545 requires every content line, including END:VCALENDAR, to end with CRLF
+    public void canEndLastLineWithCRLF() throws IOException
+    {
+        VCalendar vCalendar = new VCalendar()
+                .withVEvents(new VEvent().withSummary("Example"));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        vCalendar.writeTo(outputStream);
+        String content = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(vCalendar.toString().replace(System.lineSeparator(), "\r\n") + "\r\n", content);
+        
+        Path icsFilePath = Files.createTempFile("canEndLastLineWithCRLF", ".ics");
+        try
+        {
+            vCalendar.writeTo(icsFilePath);
+            assertEquals(content, new String(Files.readAllBytes(icsFilePath), StandardCharsets.UTF_8));
+        } finally
+        {
+            Files.delete(icsFilePath);
+        }
+    }
 }
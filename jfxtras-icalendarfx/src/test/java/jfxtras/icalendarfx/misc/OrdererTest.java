@@ -27,14 +27,20 @@
 package jfxtras.icalendarfx.misc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.net.URI;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 
+import jfxtras.icalendarfx.VCalendar;
+import jfxtras.icalendarfx.VChild;
 import jfxtras.icalendarfx.components.VEvent;
 import jfxtras.icalendarfx.parameters.Encoding.EncodingType;
 import jfxtras.icalendarfx.properties.ValueType;
@@ -202,4 +208,146 @@ public class OrdererTest
                                  "END:VEVENT";
         assertEquals(expectedContent, vComponent.toString());
     }
+    
+    @Test // VCalendar uses IndexedOrderer - removes equal children by identity and keeps order
+    public void canRemoveAndReplaceCalendarComponents()
+    {
+        VCalendar vCalendar = new VCalendar();
+        List<VEvent> vEvents = new ArrayList<>();
+        for (int i=0; i<1000; i++)
+        {
+            VEvent vEvent = new VEvent()
+                    .withSummary("event " + (i % 10)); // equal events repeat
+            vEvents.add(vEvent);
+            vCalendar.addChild(vEvent);
+        }
+        for (int i=0; i<1000; i+=2)
+        {
+            vCalendar.removeChild(vEvents.get(i));
+        }
+        VEvent replacement = new VEvent().withSummary("replacement");
+        vCalendar.replaceChild(vEvents.get(1), replacement);
+        VEvent first = new VEvent().withSummary("first");
+        vCalendar.addChild(0, first);
+
+        List<VChild> expectedChildren = new ArrayList<>();
+        expectedChildren.add(first);
+        expectedChildren.add(replacement);
+        for (int i=3; i<1000; i+=2)
+        {
+            expectedChildren.add(vEvents.get(i));
+        }
+        List<VChild> children = vCalendar.childrenUnmodifiable();
+        assertEquals(expectedChildren.size(), children.size());
+        for (int i=0; i<children.size(); i++)
+        {
+            assertSame(expectedChildren.get(i), children.get(i));
+        }
+    }
+    
+    @Test // removes the same instance from getVEvents, not just an equal one
+    public void canRemoveEqualComponentsByIdentity()
+    {
+        VCalendar vCalendar = new VCalendar();
+        List<VEvent> vEvents = new ArrayList<>();
+        for (int i=0; i<10; i++)
+        {
+            VEvent vEvent = new VEvent().withSummary("same");
+            vEvents.add(vEvent);
+            vCalendar.addChild(vEvent);
+        }
+        vCalendar.removeChild(vEvents.get(3));
+        vCalendar.removeChild(vEvents.get(6));
+        vEvents.remove(6);
+        vEvents.remove(3);
+
+        assertEquals(vEvents.size(), vCalendar.getVEvents().size());
+        for (int i=0; i<vEvents.size(); i++)
+        {
+            assertSame(vEvents.get(i), vCalendar.getVEvents().get(i));
+            assertSame(vEvents.get(i), vCalendar.childrenUnmodifiable().get(i));
+        }
+    }
+    
+    @Test // removing an equal copy removes the equal child from both getVEvents and the content order
+    public void canRemoveEqualCopyOfComponent()
+    {
+        VCalendar vCalendar = new VCalendar();
+        VEvent vEvent = new VEvent()
+                .withUniqueIdentifier("20150110T141010-0001@example.com")
+                .withSummary("original");
+        vCalendar.addChild(vEvent);
+        
+        assertTrue(vCalendar.removeChild(new VEvent(vEvent)));
+        assertEquals(0, vCalendar.getVEvents().size());
+        assertEquals(0, vCalendar.childrenUnmodifiable().size());
+        String expectedContent = "BEGIN:VCALENDAR" + System.lineSeparator() +
+                "END:VCALENDAR";
+        assertEquals(expectedContent, vCalendar.toString());
+    }
+    
+    @Test(timeout = 10000) // bulk delete isn't quadratic - 20,000 removals took about a minute when removing by equals
+    public void canRemoveManyCalendarComponents()
+    {
+        VCalendar vCalendar = new VCalendar();
+        List<VEvent> vEvents = new ArrayList<>();
+        for (int i=0; i<20000; i++)
+        {
+            VEvent vEvent = new VEvent()
+                    .withUniqueIdentifier("event" + i + "@example.com")
+                    .withDateTimeStart(LocalDateTime.of(2016, 1, 1, 10, 0).plusHours(i))
+                    .withSummary("event " + i);
+            vEvents.add(vEvent);
+            vCalendar.addChild(vEvent);
+        }
+        for (int i=vEvents.size()-1; i>=vEvents.size()/2; i--)
+        {
+            vCalendar.removeChild(vEvents.get(i)); // newest first
+        }
+        for (int i=0; i<vEvents.size()/2; i++)
+        {
+            vCalendar.removeChild(vEvents.get(i)); // oldest first
+        }
+        assertEquals(0, vCalendar.getVEvents().size());
+        assertEquals(0, vCalendar.childrenUnmodifiable().size());
+    }
+    
+    @Test(timeout = 10000) // deleting by position isn't quadratic while removed children leave empty slots
+    public void canRemoveManyCalendarComponentsByIndex()
+    {
+        VCalendar vCalendar = new VCalendar();
+        List<VChild> expectedChildren = new ArrayList<>();
+        for (int i=0; i<20000; i++)
+        {
+            VEvent vEvent = new VEvent()
+                    .withUniqueIdentifier("event" + i + "@example.com")
+                    .withSummary("event " + i);
+            expectedChildren.add(vEvent);
+            vCalendar.addChild(vEvent);
+        }
+        for (int i=0; i<5000; i++)
+        {
+            int index = (i % 3 == 0) ? 0 : (i * 7) % expectedChildren.size(); // mix the front and the middle
+            vCalendar.removeChild(index);
+            expectedChildren.remove(index);
+            if (i % 1000 == 0)
+            {
+                int last = expectedChildren.size()-1;
+                assertSame(expectedChildren.get(last), vCalendar.childrenUnmodifiable().get(last));
+            }
+        }
+        while (vCalendar.childrenUnmodifiable().size() > 10)
+        {
+            vCalendar.removeChild(0);
+            expectedChildren.remove(0);
+        }
+
+        List<VChild> children = vCalendar.childrenUnmodifiable();
+        assertEquals(expectedChildren.size(), children.size());
+        for (int i=0; i<children.size(); i++)
+        {
+            assertSame(expectedChildren.get(i), children.get(i));
+            assertSame(expectedChildren.get(i), vCalendar.getVEvents().get(i));
+        }
+    }
 }
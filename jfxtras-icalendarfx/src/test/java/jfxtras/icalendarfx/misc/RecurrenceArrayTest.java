@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.misc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import jfxtras.icalendarfx.components.VEvent;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceArray;
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.FrequencyType;
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
+import jfxtras.icalendarfx.utilities.DateTimeUtilities.DateTimeType;
+
+/**
+ * Tests expanding recurrences into primitive arrays
+ */
+public class RecurrenceArrayTest
+{
+    private static final ZoneId ZONE = ZoneId.of("America/Los_Angeles");
+    
+    @Test
+    public void canMakeRecurrenceArrayOfZonedDateTimes()
+    {
+        VEvent vEvent = new VEvent()
+                .withDateTimeStart(ZonedDateTime.of(LocalDateTime.of(2015, 11, 9, 10, 0), ZONE))
+                .withDuration(Duration.ofHours(1))
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.DAILY));
+        Temporal start = ZonedDateTime.of(LocalDateTime.of(2016, 1, 1, 10, 30), ZONE);
+        Temporal end = ZonedDateTime.of(LocalDateTime.of(2017, 1, 1, 0, 0), ZONE);
+        RecurrenceArray recurrences = RecurrenceArray.of(vEvent, start, end);
+        
+        List<Temporal> expectedRecurrences = vEvent.streamRecurrences(start, end).collect(Collectors.toList());
+        assertEquals(expectedRecurrences.size(), recurrences.size());
+        assertEquals(expectedRecurrences, recurrences.stream().collect(Collectors.toList()));
+        assertEquals(DateTimeType.DATE_WITH_LOCAL_TIME_AND_TIME_ZONE, recurrences.getDateTimeType());
+        assertEquals(ZONE, recurrences.getZone());
+        // first recurrence started before start, but ends after it
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2016, 1, 1, 10, 0), ZONE), recurrences.getRecurrence(0));
+        for (int i=0; i<recurrences.size(); i++)
+        {
+            assertEquals(((ZonedDateTime) expectedRecurrences.get(i)).toEpochSecond(), recurrences.getStart(i));
+            assertEquals(3600, recurrences.getEnd(i) - recurrences.getStart(i));
+        }
+        
+        long march1 = ZonedDateTime.of(LocalDateTime.of(2016, 3, 1, 0, 0), ZONE).toEpochSecond();
+        int index = recurrences.firstEndingAfter(march1);
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2016, 3, 1, 10, 0), ZONE), recurrences.getRecurrence(index));
+        assertEquals(recurrences.size(), recurrences.firstEndingAfter(Long.MAX_VALUE - 3600));
+        assertEquals(0, recurrences.firstEndingAfter(Long.MIN_VALUE));
+    }
+    
+    @Test
+    public void canMakeRecurrenceArrayOfDates()
+    {
+        VEvent vEvent = new VEvent()
+                .withDateTimeStart(LocalDate.of(2016, 1, 31))
+                .withDateTimeEnd(LocalDate.of(2016, 2, 2))
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.WEEKLY));
+        RecurrenceArray recurrences = RecurrenceArray.of(vEvent, LocalDate.of(2016, 2, 1), LocalDate.of(2016, 2, 20));
+        
+        int[] expectedDays = { (int) LocalDate.of(2016, 1, 31).toEpochDay(), (int) LocalDate.of(2016, 2, 7).toEpochDay(), (int) LocalDate.of(2016, 2, 14).toEpochDay() };
+        assertArrayEquals(expectedDays, recurrences.toEpochDays());
+        assertEquals(LocalDate.of(2016, 2, 2).toEpochDay(), recurrences.getEnd(0));
+        assertEquals(LocalDate.of(2016, 2, 14), recurrences.getRecurrence(2));
+        
+        long[] expectedSeconds = { ZonedDateTime.of(LocalDateTime.of(2016, 1, 31, 0, 0), ZONE).toEpochSecond(),
+                ZonedDateTime.of(LocalDateTime.of(2016, 2, 7, 0, 0), ZONE).toEpochSecond(),
+                ZonedDateTime.of(LocalDateTime.of(2016, 2, 14, 0, 0), ZONE).toEpochSecond() };
+        assertArrayEquals(expectedSeconds, recurrences.toEpochSeconds(ZONE));
+    }
+    
+    @Test
+    public void canRoundPartDayDurationOfDatesUp()
+    {
+        VEvent vEvent = new VEvent()
+                .withDateTimeStart(LocalDate.of(2016, 1, 31))
+                .withDuration(Duration.ofHours(12))
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.WEEKLY));
+        RecurrenceArray recurrences = RecurrenceArray.of(vEvent, LocalDate.of(2016, 1, 31), LocalDate.of(2016, 2, 20));
+        
+        long january31 = LocalDate.of(2016, 1, 31).toEpochDay();
+        assertEquals(3, recurrences.size());
+        assertEquals(january31 + 1, recurrences.getEnd(0));
+        assertEquals(0, recurrences.firstEndingAfter(january31));
+        assertEquals(1, recurrences.firstEndingAfter(january31 + 1));
+    }
+    
+    @Test
+    public void canMakeNominalDurationEnds()
+    {
+        // one day lasts 23 hours at the start of daylight saving time
+        VEvent vEvent = new VEvent()
+                .withDateTimeStart(ZonedDateTime.of(LocalDateTime.of(2016, 3, 11, 12, 0), ZONE))
+                .withDuration(Period.ofDays(1))
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.DAILY));
+        Temporal start = ZonedDateTime.of(LocalDateTime.of(2016, 3, 12, 13, 0), ZONE);
+        Temporal end = ZonedDateTime.of(LocalDateTime.of(2016, 3, 15, 0, 0), ZONE);
+        RecurrenceArray recurrences = RecurrenceArray.of(vEvent, start, end);
+        
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2016, 3, 12, 12, 0), ZONE), recurrences.getRecurrence(0));
+        assertEquals(23 * 3600, recurrences.getEnd(0) - recurrences.getStart(0));
+        assertEquals(24 * 3600, recurrences.getEnd(1) - recurrences.getStart(1));
+        long[] ends = recurrences.getEnds();
+        assertEquals(recurrences.size(), ends.length);
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2016, 3, 14, 12, 0), ZONE).toEpochSecond(), ends[1]);
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.misc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import jfxtras.icalendarfx.components.VEvent;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceCache;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceCacheBudget;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceCaches;
+import jfxtras.icalendarfx.properties.component.recurrence.RecurrenceRuleCache;
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.FrequencyType;
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
+
+/**
+ * Tests tuning, statistics and the shared budget of recurrence caches
+ */
+public class RecurrenceCacheTest
+{
+    private static final LocalDateTime DTSTART = LocalDateTime.of(2015, 11, 9, 10, 0);
+    
+    private static VEvent dailyEvent()
+    {
+        return new VEvent()
+                .withDateTimeStart(DTSTART)
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.DAILY));
+    }
+    
+    @Test
+    public void canCountHitsMissesAndSkips()
+    {
+        VEvent e = dailyEvent();
+        RecurrenceCache cache = e.recurrenceCache();
+        assertEquals(DTSTART, cache.getClosestStart(LocalDateTime.of(2016, 11, 9, 10, 0)));
+        assertEquals(1, cache.getMissCount());
+        
+        e.streamRecurrences().limit(100).count(); // fill cache
+        assertEquals(LocalDateTime.of(2016, 2, 5, 10, 0), cache.getClosestStart(LocalDateTime.of(2016, 11, 9, 10, 0)));
+        assertEquals(DTSTART, cache.getClosestStart(LocalDateTime.of(2015, 11, 20, 10, 0)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount()); // streaming from DTSTART is a miss too
+        assertEquals(95, cache.getSkippedCount()); // 4 of the 99 values after DTSTART are cached
+    }
+    
+    @Test
+    public void canTuneCheckpointDensityAndSize()
+    {
+        VEvent e = dailyEvent();
+        RecurrenceCacheBudget budget = new RecurrenceCacheBudget(1000);
+        e.setRecurrenceCache(new RecurrenceRuleCache(e, 1, 5, budget));
+        e.streamRecurrences().limit(100).count();
+        assertEquals(4, budget.getValueCount()); // DTSTART isn't counted
+        assertEquals(LocalDateTime.of(2016, 2, 15, 10, 0), e.recurrenceCache().getClosestStart(LocalDateTime.of(2016, 11, 9, 10, 0)));
+        
+        e.setDateTimeStart(DTSTART.plusHours(1)); // changing DTSTART clears cache
+        assertEquals(DTSTART.plusHours(1), e.recurrenceCache().getClosestStart(LocalDateTime.of(2016, 11, 9, 10, 0)));
+        assertEquals(0, budget.getValueCount());
+    }
+    
+    @Test
+    public void canEvictLeastRecentlyUsedCache()
+    {
+        RecurrenceCacheBudget budget = new RecurrenceCacheBudget(10);
+        VEvent e1 = dailyEvent();
+        e1.setRecurrenceCache(new RecurrenceRuleCache(e1, 1, 11, budget));
+        VEvent e2 = dailyEvent();
+        e2.setRecurrenceCache(new RecurrenceRuleCache(e2, 1, 11, budget));
+        
+        e1.streamRecurrences().limit(100).count();
+        assertEquals(10, budget.getValueCount());
+        e2.streamRecurrences().limit(100).count();
+        assertEquals(10, budget.getValueCount());
+        assertEquals(1, budget.getCacheCount());
+        assertEquals(1, budget.getEvictionCount());
+        
+        Temporal target = LocalDateTime.of(2016, 11, 9, 10, 0);
+        assertEquals(DTSTART, e1.recurrenceCache().getClosestStart(target));
+        assertTrue(DTSTART.isBefore((LocalDateTime) e2.recurrenceCache().getClosestStart(target)));
+    }
+    
+    @Test
+    public void canKeepValueCountWhileEvictingConcurrently() throws InterruptedException
+    {
+        RecurrenceCacheBudget budget = new RecurrenceCacheBudget(50);
+        List<VEvent> events = new ArrayList<>();
+        for (int i=0; i<20; i++)
+        {
+            VEvent e = dailyEvent();
+            e.setRecurrenceCache(new RecurrenceRuleCache(e, 1, 11, budget));
+            events.add(e);
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int t=0; t<4; t++)
+        {
+            Thread thread = new Thread(() ->
+            {
+                for (int n=0; n<20; n++)
+                {
+                    for (VEvent e : events)
+                    {
+                        e.streamRecurrences(LocalDateTime.of(2016, 1, 1, 10, 0)).limit(20).count();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertTrue(budget.getEvictionCount() > 0);
+        assertTrue(budget.getValueCount() <= 20 * 10);
+        
+        events.forEach(e -> e.recurrenceCache().clear());
+        assertEquals(0, budget.getValueCount()); // counts match the caches after concurrent adds and evictions
+        assertEquals(0, budget.getCacheCount());
+    }
+    
+    @Test
+    public void canPlugInCacheStrategy()
+    {
+        List<RecurrenceCache> madeCaches = new ArrayList<>();
+        RecurrenceCaches.setFactory(c ->
+        {
+            RecurrenceCache noCache = new RecurrenceCache()
+            { // always starts at DTSTART
+                @Override public Temporal getClosestStart(Temporal targetStart) { return c.getDateTimeStart().getValue(); }
+                @Override public Temporal previousValue(Temporal value) { return null; }
+                @Override public Stream<Temporal> makeCache(Stream<Temporal> inStream) { return inStream; }
+                @Override public void clear() { }
+                @Override public long getHitCount() { return 0; }
+                @Override public long getMissCount() { return 0; }
+                @Override public long getSkippedCount() { return 0; }
+            };
+            madeCaches.add(noCache);
+            return noCache;
+        });
+        try
+        {
+            VEvent e = dailyEvent();
+            assertEquals(madeCaches.get(0), e.recurrenceCache());
+            assertEquals(LocalDateTime.of(2016, 11, 9, 10, 0), e.streamRecurrences(LocalDateTime.of(2016, 11, 9, 10, 0)).findFirst().get());
+        } finally
+        {
+            RecurrenceCaches.resetFactory();
+        }
+        assertTrue(dailyEvent().recurrenceCache() instanceof RecurrenceRuleCache);
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2011-2021, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *    Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *    Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL JFXTRAS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jfxtras.icalendarfx.misc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import jfxtras.icalendarfx.content.VCalendarHandler;
+import jfxtras.icalendarfx.content.VCalendarReader;
+
+public class VCalendarReaderTest
+{
+    private static final String CONTENT = "BEGIN:VCALENDAR\r\n" +
+            "VERSION:2.0\r\n" +
+            "BEGIN:VEVENT\r\n" +
+            "UID:20150110T080000-0@jfxtras.org\r\n" +
+            "DTSTART;TZID=America/Los_Angeles:20151109T100000\r\n" +
+            "ATTENDEE;ROLE=REQ-PARTICIPANT;DELEGATED-FROM=\"mailto:bob@example.com\";RSVP\r\n" +
+            " :mailto:jdoe@example.com\r\n" +
+            "summary:Weekly; \"meeting\"\r\n" +
+            "RRULE:FREQ=WEEKLY;BYDAY=MO\r\n" +
+            "BEGIN:VALARM\r\n" +
+            "ACTION:DISPLAY\r\n" +
+            "END:VALARM\r\n" +
+            "END:VEVENT\r\n" +
+            "END:VCALENDAR\r\n";
+    
+    /* Records events as strings */
+    private static class RecordingHandler implements VCalendarHandler
+    {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void beginComponent(String componentName) { events.add("BEGIN " + componentName); }
+        @Override
+        public void parameter(String propertyName, String parameterName, String value) { events.add("PARAMETER " + propertyName + " " + parameterName + "=" + value); }
+        @Override
+        public void property(String propertyName, String value) { events.add("PROPERTY " + propertyName + "=" + value); }
+        @Override
+        public void endComponent(String componentName) { events.add("END " + componentName); }
+    }
+    
+    @Test
+    public void canReadEvents() throws IOException
+    {
+        RecordingHandler handler = new RecordingHandler();
+        new VCalendarReader(new StringReader(CONTENT)).parse(handler);
+        List<String> expectedEvents = Arrays.asList(
+                "BEGIN VCALENDAR",
+                "PROPERTY VERSION=2.0",
+                "BEGIN VEVENT",
+                "PROPERTY UID=20150110T080000-0@jfxtras.org",
+                "PARAMETER DTSTART TZID=America/Los_Angeles",
+                "PROPERTY DTSTART=20151109T100000",
+                "PARAMETER ATTENDEE ROLE=REQ-PARTICIPANT",
+                "PARAMETER ATTENDEE DELEGATED-FROM=\"mailto:bob@example.com\"",
+                "PARAMETER ATTENDEE RSVP=null",
+                "PROPERTY ATTENDEE=mailto:jdoe@example.com",
+                "PROPERTY SUMMARY=Weekly; \"meeting\"",
+                "PROPERTY RRULE=FREQ=WEEKLY;BYDAY=MO",
+                "BEGIN VALARM",
+                "PROPERTY ACTION=DISPLAY",
+                "END VALARM",
+                "END VEVENT",
+                "END VCALENDAR"
+                );
+        assertEquals(expectedEvents, handler.events);
+    }
+    
+    @Test
+    public void canFilterProperties() throws IOException
+    {
+        RecordingHandler handler = new RecordingHandler();
+        new VCalendarReader(new StringReader(CONTENT))
+                .withPropertyNames("dtstart", "SUMMARY")
+                .parse(handler);
+        List<String> expectedEvents = Arrays.asList(
+                "BEGIN VCALENDAR",
+                "BEGIN VEVENT",
+                "PARAMETER DTSTART TZID=America/Los_Angeles",
+                "PROPERTY DTSTART=20151109T100000",
+                "PROPERTY SUMMARY=Weekly; \"meeting\"",
+                "BEGIN VALARM",
+                "END VALARM",
+                "END VEVENT",
+                "END VCALENDAR"
+                );
+        assertEquals(expectedEvents, handler.events);
+    }
+    
+    @Test
+    public void canCountComponentsWithDefaultHandler() throws IOException
+    {
+        int[] count = new int[1];
+        new VCalendarReader(new StringReader(CONTENT)).parse(new VCalendarHandler()
+        {
+            @Override
+            public void beginComponent(String componentName)
+            {
+                count[0]++;
+            }
+        });
+        assertEquals(3, count[0]);
+    }
+    
+    @Test // standard names are the shared constants, non-standard names are matched ignoring case
+    public void canFilterNonStandardProperties() throws IOException
+    {
+        RecordingHandler handler = new RecordingHandler()
+        {
+            @Override
+            public void property(String propertyName, String value)
+            {
+                if (propertyName.equals("SUMMARY")) assertSame("SUMMARY", propertyName);
+                super.property(propertyName, value);
+            }
+        };
+        new VCalendarReader(new StringReader(
+                "BEGIN:vevent\r\n" +
+                "x-Custom;x-param=1:value\r\n" +
+                "X-OTHER:other\r\n" +
+                "summary:text\r\n" +
+                "END:vevent\r\n"))
+                .withPropertyNames("X-CUSTOM", "SUMMARY")
+                .parse(handler);
+        List<String> expectedEvents = Arrays.asList(
+                "BEGIN VEVENT",
+                "PARAMETER X-CUSTOM X-PARAM=1",
+                "PROPERTY X-CUSTOM=value",
+                "PROPERTY SUMMARY=text",
+                "END VEVENT"
+                );
+        assertEquals(expectedEvents, handler.events);
+    }
+}
@@ -28,6 +28,7 @@ package jfxtras.icalendarfx.parameter.rrule;
 
 import static org.junit.Assert.assertEquals;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
@@ -39,6 +40,7 @@ import java.util.stream.Stream;
 
 import org.junit.Test;
 
+import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.BySetPosition;
 
 public class BySetPositionTest
@@ -90,4 +92,61 @@ public class BySetPositionTest
         List<Temporal> madeRecurrences = recurrenceStream.limit(8).collect(Collectors.toList());
         assertEquals(expectedRecurrences, madeRecurrences);
     }
+    
+    @Test
+    public void canStreamSetPositionInOrder()
+    {
+        LocalDateTime dateTimeStart = LocalDateTime.of(2016, 1, 4, 0, 0);
+        ChronoUnit frequency = ChronoUnit.MONTHS;
+        List<Temporal> list = Arrays.asList(
+                LocalDateTime.of(2016, 1, 4, 0, 0), 
+                LocalDateTime.of(2016, 1, 5, 0, 0),
+                LocalDateTime.of(2016, 1, 6, 0, 0)
+                );
+        
+        // out of range positions are ignored, and 3 and -1 are the same date/time
+        BySetPosition element = new BySetPosition(-1, 3, 1, 5, -5);
+        Stream<Temporal> recurrenceStream = element.streamRecurrences(list.stream(), frequency, dateTimeStart);
+        List<LocalDateTime> expectedRecurrences = new ArrayList<>(Arrays.asList(
+                LocalDateTime.of(2016, 1, 4, 0, 0),
+                LocalDateTime.of(2016, 1, 6, 0, 0)
+                ));
+        List<Temporal> madeRecurrences = recurrenceStream.limit(8).collect(Collectors.toList());
+        assertEquals(expectedRecurrences, madeRecurrences);
+    }
+    
+    @Test
+    public void canStreamSetPositionWithoutConsumingWholeStream()
+    {
+        LocalDateTime dateTimeStart = LocalDateTime.of(2016, 1, 4, 0, 0);
+        ChronoUnit frequency = ChronoUnit.MONTHS;
+        Stream<Temporal> inStream = Stream.iterate(dateTimeStart, t -> t.plus(1, ChronoUnit.DAYS)); // infinite
+        
+        BySetPosition element = new BySetPosition(3, 1);
+        Stream<Temporal> recurrenceStream = element.streamRecurrences(inStream, frequency, dateTimeStart);
+        List<LocalDateTime> expectedRecurrences = new ArrayList<>(Arrays.asList(
+                LocalDateTime.of(2016, 1, 4, 0, 0),
+                LocalDateTime.of(2016, 1, 6, 0, 0)
+                ));
+        List<Temporal> madeRecurrences = recurrenceStream.limit(8).collect(Collectors.toList());
+        assertEquals(expectedRecurrences, madeRecurrences);
+    }
+    
+    @Test
+    public void canStreamLastWeekdayOfMonth()
+    {
+        LocalDate dateTimeStart = LocalDate.of(2016, 1, 29);
+        RecurrenceRuleValue rrule = RecurrenceRuleValue.parse("FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1");
+        List<LocalDate> expectedRecurrences = new ArrayList<>(Arrays.asList(
+                LocalDate.of(2016, 1, 29),
+                LocalDate.of(2016, 2, 29),
+                LocalDate.of(2016, 3, 31),
+                LocalDate.of(2016, 4, 29),
+                LocalDate.of(2016, 5, 31),
+                LocalDate.of(2016, 6, 30),
+                LocalDate.of(2016, 7, 29)
+                ));
+        List<Temporal> madeRecurrences = rrule.streamRecurrences(dateTimeStart).limit(7).collect(Collectors.toList());
+        assertEquals(expectedRecurrences, madeRecurrences);
+    }
 }
@@ -48,6 +48,7 @@ import jfxtras.icalendarfx.properties.component.recurrence.rrule.FrequencyType;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.RecurrenceRuleValue;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByDay;
 import jfxtras.icalendarfx.properties.component.recurrence.rrule.byxxx.ByMonthDay;
+import jfxtras.icalendarfx.utilities.DateTimeUtilities;
 
 public class RecurrenceRuleStreamTest
 {
@@ -1204,4 +1205,44 @@ public class RecurrenceRuleStreamTest
        List<Temporal> madeRecurrences = rRule.getValue().streamRecurrences(dateTimeStart).limit(5).collect(Collectors.toList());
        assertEquals(expectedRecurrences, madeRecurrences);
    }
+
+   /*
+    * Skipping ahead to a far date must make the same recurrences as streaming from DTSTART,
+    * including months without a 31st day and daylight saving time changes
+    */
+   @Test
+   public void canSeekRRuleToLaterDate()
+   {
+       RecurrenceRuleValue rRule = RecurrenceRuleValue.parse("FREQ=MONTHLY;BYMONTHDAY=31;BYHOUR=2,14");
+       Temporal dateTimeStart = ZonedDateTime.of(LocalDateTime.of(2016, 1, 31, 2, 30), ZoneId.of("America/New_York"));
+       Temporal from = ZonedDateTime.of(LocalDateTime.of(2216, 3, 12, 0, 0), ZoneId.of("America/New_York"));
+       List<Temporal> expectedRecurrences = rRule.streamRecurrences(dateTimeStart)
+               .filter(t -> ! DateTimeUtilities.isBefore(t, from))
+               .limit(20)
+               .collect(Collectors.toList());
+       List<Temporal> madeRecurrences = rRule.streamRecurrences(dateTimeStart, from)
+               .filter(t -> ! DateTimeUtilities.isBefore(t, from))
+               .limit(20)
+               .collect(Collectors.toList());
+       assertEquals(expectedRecurrences, madeRecurrences);
+   }
+   
+   @Test
+   public void canSeekRRuleWithCount()
+   {
+       RecurrenceRuleValue rRule = RecurrenceRuleValue.parse("FREQ=WEEKLY;INTERVAL=2;COUNT=400;BYDAY=TU,SU;WKST=SU");
+       Temporal dateTimeStart = LocalDateTime.of(1997, 8, 5, 9, 0);
+       Temporal from = LocalDateTime.of(2004, 1, 1, 0, 0);
+       List<Temporal> expectedRecurrences = rRule.streamRecurrences(dateTimeStart)
+               .filter(t -> ! DateTimeUtilities.isBefore(t, from))
+               .collect(Collectors.toList());
+       List<Temporal> madeRecurrences = rRule.streamRecurrences(dateTimeStart, from)
+               .filter(t -> ! DateTimeUtilities.isBefore(t, from))
+               .collect(Collectors.toList());
+       assertEquals(expectedRecurrences, madeRecurrences);
+       assertEquals(LocalDateTime.of(2005, 4, 3, 9, 0), madeRecurrences.get(madeRecurrences.size()-1));
+       
+       Temporal afterEnd = LocalDateTime.of(2005, 6, 1, 0, 0);
+       assertEquals(0, rRule.streamRecurrences(dateTimeStart, afterEnd).count());
+   }
 }